@@ -2,7 +2,10 @@ package com.ice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+import com.ice.startup.StartupPhaseListener;
 import com.xiliulou.cache.redis.EnableRedis;
 import com.xiliulou.db.dynamic.annotation.EnableDynamicDataSource;
 
@@ -13,8 +16,13 @@ import com.xiliulou.db.dynamic.annotation.EnableDynamicDataSource;
 @SpringBootApplication
 @EnableDynamicDataSource
 @EnableRedis
+@EnableScheduling
 public class App {
     public static void main(String[] args) {
-        SpringApplication.run(App.class, args);
+        SpringApplication application = new SpringApplication(App.class);
+        // 缓存 bean 实例化等启动步骤，就绪时由 StartupPhaseListener 汇总最慢的 bean
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.addListeners(new StartupPhaseListener());
+        application.run(args);
     }
 }
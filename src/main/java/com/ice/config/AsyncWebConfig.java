@@ -0,0 +1,50 @@
+package com.ice.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 16:05
+ */
+@Configuration
+public class AsyncWebConfig implements WebMvcConfigurer {
+    @Autowired
+    AsyncWebProperties asyncWebProperties;
+
+    /**
+     * 异步接口里执行阻塞逻辑（慢 SQL、sleep）的有界线程池，队列满时抛 RejectedExecutionException。
+     * <p>
+     * ThreadPoolExecutor 只有在队列满了才会创建超过核心数的线程，核心数小于最大数时实际只会跑核心数个线程，
+     * 所以核心数等于最大数，靠 allowCoreThreadTimeOut 回收空闲线程
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor blockingExecutor() {
+        AtomicInteger index = new AtomicInteger();
+        int poolSize = asyncWebProperties.getMaxPoolSize();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(asyncWebProperties.getQueueCapacity()), r -> {
+                    Thread thread = new Thread(r, "blocking-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 容器层的兜底超时比业务超时稍长，正常情况下由业务超时先返回 R
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncWebProperties.getTimeoutMillis() + 1000);
+    }
+}
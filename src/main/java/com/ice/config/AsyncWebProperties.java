@@ -0,0 +1,31 @@
+package com.ice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 异步接口的阻塞任务线程池
+ *
+ * @author : eclair
+ * @date : 2026/10/19 16:00
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "web.async")
+public class AsyncWebProperties {
+    /**
+     * 线程数上限，核心线程数与之相等，空闲线程超时回收
+     */
+    private int maxPoolSize = 256;
+
+    /**
+     * 等待队列长度，满了直接拒绝而不是无限堆积
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * 单个请求从提交到完成的超时
+     */
+    private long timeoutMillis = 12000;
+}
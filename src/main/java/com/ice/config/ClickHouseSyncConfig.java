@@ -0,0 +1,71 @@
+package com.ice.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import com.ice.sync.AccessRecordSyncService;
+import com.ice.sync.ClickHouseColumnarSink;
+import com.ice.sync.ColumnarSink;
+import com.ice.sync.JdbcKeysetSource;
+import com.ice.sync.RedisWatermarkStore;
+import com.ice.sync.WatermarkStore;
+import com.xiliulou.cache.redis.RedisService;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 09:40
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "sync.clickhouse", name = "enabled", havingValue = "true")
+public class ClickHouseSyncConfig {
+
+    /**
+     * 配了 dataSourceBean 就复用那个 ClickHouse 数据源，否则自建一个小连接池，随容器关闭
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public ColumnarSink columnarSink(ClickHouseSyncProperties properties, BeanFactory beanFactory) {
+        if (StringUtils.hasText(properties.getDataSourceBean())) {
+            return new ClickHouseColumnarSink(beanFactory.getBean(properties.getDataSourceBean(), DataSource.class));
+        }
+        return ClickHouseColumnarSink.pooled(properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public WatermarkStore watermarkStore(RedisService redisService) {
+        return new RedisWatermarkStore(redisService);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService clickHouseSyncExecutor(ClickHouseSyncProperties properties) {
+        int parallelism = Math.max(1, properties.getParallelism());
+        return new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "clickhouse-sync");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Bean
+    public AccessRecordSyncService accessRecordSyncService(JdbcTemplate jdbcTemplate, ColumnarSink columnarSink,
+            WatermarkStore watermarkStore, ClickHouseSyncProperties properties) {
+        JdbcKeysetSource source = new JdbcKeysetSource(jdbcTemplate, properties.getSourceTable(),
+                properties.getIdColumn());
+        return new AccessRecordSyncService(source, columnarSink, watermarkStore, clickHouseSyncExecutor(properties),
+                properties);
+    }
+}
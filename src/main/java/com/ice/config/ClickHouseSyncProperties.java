@@ -0,0 +1,69 @@
+package com.ice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * MySQL -> ClickHouse 增量同步配置
+ *
+ * @author : eclair
+ * @date : 2026/10/19 09:12
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "sync.clickhouse")
+public class ClickHouseSyncProperties {
+    private boolean enabled = false;
+
+    private String url = "jdbc:clickhouse://127.0.0.1:8123/default";
+
+    private String username = "default";
+
+    private String password = "";
+
+    /**
+     * 复用已有的 ClickHouse DataSource bean 的名字，例如 xiliulou-common-clickhouse 注册的；为空时按上面的地址自建连接池
+     */
+    private String dataSourceBean;
+
+    /**
+     * 自建连接池取连接的最长等待
+     */
+    private long maxWaitMillis = 5000;
+
+    /**
+     * MySQL 源表
+     */
+    private String sourceTable = "t_third_access_record";
+
+    /**
+     * 源表自增主键，按它做 keyset 分页和水位
+     */
+    private String idColumn = "id";
+
+    /**
+     * ClickHouse 目标表
+     */
+    private String targetTable = "third_access_record";
+
+    /**
+     * 每次从 MySQL 拉取的行数，同时也是一次写入 ClickHouse 的批大小
+     */
+    private int chunkSize = 50000;
+
+    /**
+     * 同时在途的写入批次数
+     */
+    private int parallelism = 4;
+
+    /**
+     * 两轮同步之间的间隔
+     */
+    private long fixedDelayMillis = 10000;
+
+    /**
+     * 单轮最多同步的批次数，防止一次追太多数据长时间占用连接
+     */
+    private int maxChunksPerRun = 200;
+}
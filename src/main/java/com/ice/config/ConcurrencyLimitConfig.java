@@ -0,0 +1,40 @@
+package com.ice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ice.web.AdaptiveConcurrencyFilter;
+import com.xiliulou.core.web.R;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 17:05
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "web.concurrency", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyFilter adaptiveConcurrencyFilter(ConcurrencyLimitProperties properties,
+            ObjectMapper objectMapper) throws JsonProcessingException {
+        return new AdaptiveConcurrencyFilter(properties,
+                objectMapper.writeValueAsBytes(R.fail("503", "服务过载，请稍后重试")));
+    }
+
+    /**
+     * 排在固定并发闸门之前，过载请求不占用闸门许可
+     */
+    @Bean
+    public FilterRegistrationBean<AdaptiveConcurrencyFilter> adaptiveConcurrencyFilterRegistration(
+            AdaptiveConcurrencyFilter adaptiveConcurrencyFilter) {
+        FilterRegistrationBean<AdaptiveConcurrencyFilter> registration = new FilterRegistrationBean<>(
+                adaptiveConcurrencyFilter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
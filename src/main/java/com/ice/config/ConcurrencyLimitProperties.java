@@ -0,0 +1,61 @@
+package com.ice.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 自适应并发限制配置，默认关闭，压测确认基线后再按环境打开
+ *
+ * @author : eclair
+ * @date : 2026/10/19 16:40
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "web.concurrency")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = false;
+
+    /**
+     * 接口类别 -> 路径模式，同一类别共用一个限制器（同步和异步的 SQL 接口压的是同一个连接池）。
+     * 延迟由调用方参数决定的接口（/test/time/*）不要放进来，它们的 RTT 反映不了容量，会把限制压到最小
+     */
+    private Map<String, List<String>> endpoints = defaultEndpoints();
+
+    private int initialLimit = 4;
+
+    private int minLimit = 1;
+
+    private int maxLimit = 200;
+
+    /**
+     * 新限制值的平滑系数，越小越稳
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * 短期 RTT 不超过基线 RTT 的该倍数时不收缩
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * 每隔多少个样本复核一次基线 RTT
+     */
+    private int longWindow = 600;
+
+    /**
+     * 样本先无锁累加，每个窗口汇总一次再调整限制
+     */
+    private long sampleWindowMillis = 100;
+
+    private static Map<String, List<String>> defaultEndpoints() {
+        Map<String, List<String>> endpoints = new LinkedHashMap<>();
+        endpoints.put("redis", List.of("/test"));
+        endpoints.put("sql", List.of("/test/sql/*", "/async/test/sql/*"));
+        return endpoints;
+    }
+}
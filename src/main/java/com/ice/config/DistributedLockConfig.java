@@ -0,0 +1,44 @@
+package com.ice.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.ice.lock.DistributedLockAdvisor;
+import com.ice.lock.DistributedLockInterceptor;
+import com.ice.lock.DistributedLockService;
+import com.xiliulou.cache.redis.RedisService;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 15:40
+ */
+@Configuration
+public class DistributedLockConfig {
+
+    /**
+     * 基础设施角色，和事务 advisor 一样会被 InfrastructureAdvisorAutoProxyCreator 识别
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static DistributedLockAdvisor distributedLockAdvisor(ObjectProvider<DistributedLockService> lockService,
+            ObjectProvider<DistributedLockProperties> properties) {
+        return new DistributedLockAdvisor(new DistributedLockInterceptor(lockService, properties));
+    }
+
+    /**
+     * 一个模式订阅承载所有锁的解锁通知
+     */
+    @Bean
+    public RedisMessageListenerContainer lockListenerContainer(RedisService redisService,
+            DistributedLockService lockService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisService.getRedisTemplate().getConnectionFactory());
+        container.addMessageListener(lockService, new PatternTopic(lockService.channelPattern()));
+        return container;
+    }
+}
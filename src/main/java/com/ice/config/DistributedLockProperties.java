@@ -0,0 +1,52 @@
+package com.ice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis 分布式锁配置
+ *
+ * @author : eclair
+ * @date : 2026/10/20 15:00
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "lock")
+public class DistributedLockProperties {
+    private String keyPrefix = "lock:";
+
+    /**
+     * 默认租约，持有期间由看门狗每 leaseMillis / 3 续一次
+     */
+    private long leaseMillis = 30000;
+
+    /**
+     * 默认最长等待
+     */
+    private long waitMillis = 10000;
+
+    /**
+     * 等待者没收到通知时的兜底重试间隔，锁因租约过期释放时不会有通知
+     */
+    private long maxRetryIntervalMillis = 1000;
+
+    /**
+     * 等待者在队列里的保活余量，超过重试间隔加这个时间没有重试就被踢出队列
+     */
+    private long queueGraceMillis = 2000;
+
+    private long watchdogIntervalMillis = 500;
+
+    private Fencing fencing = new Fencing();
+
+    @Data
+    public static class Fencing {
+        /**
+         * 持锁写入带上 fencing token。需要先给 t_tenant 加列：
+         * alter table t_tenant add column lock_fence bigint not null default 0，
+         * 关闭时按普通 update 写入，只靠锁本身互斥
+         */
+        private boolean enabled = false;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ice.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Druid 连接池监控与自动扩缩配置
+ *
+ * @author : eclair
+ * @date : 2026/10/19 19:10
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "db.pool")
+public class DruidPoolProperties {
+    /**
+     * 扫描间隔：发现新数据源、泄漏检测、自动扩缩都在这个周期里做
+     */
+    private long scanIntervalMillis = 5000;
+
+    /**
+     * 连接被持有超过该秒数视为疑似泄漏
+     */
+    private long leakThresholdSeconds = 8;
+
+    /**
+     * 借出时记录调用栈，开销较大，排查问题时再打开；
+     * 关闭时只在检测到泄漏时抓取持有线程当前的栈
+     */
+    private boolean captureBorrowStack = false;
+
+    private AutoSize autoSize = new AutoSize();
+
+    @Data
+    public static class AutoSize {
+        private boolean enabled = false;
+
+        /**
+         * 借连接等待超过该值计为一次排队
+         */
+        private long waitThresholdMillis = 20;
+
+        private int step = 2;
+
+        /**
+         * 连续多少个周期空闲才收缩
+         */
+        private int shrinkAfterIdleScans = 6;
+
+        /**
+         * 未单独配置的数据源使用的上下限
+         */
+        private Bounds defaults = new Bounds(10, 30);
+
+        /**
+         * 按数据源名称（master/slave）配置上下限
+         */
+        private Map<String, Bounds> datasources = new LinkedHashMap<>();
+
+        public Bounds boundsOf(String name) {
+            Bounds bounds = datasources.get(name);
+            return bounds == null ? defaults : bounds;
+        }
+    }
+
+    @Data
+    public static class Bounds {
+        private int minActive;
+
+        private int maxActive;
+
+        public Bounds() {
+        }
+
+        public Bounds(int minActive, int maxActive) {
+            this.minActive = minActive;
+            this.maxActive = maxActive;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ice.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ice.web.ConcurrencyLimitFilter;
+import com.xiliulou.core.web.R;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 请求执行模式。
+ * <p>
+ * virtual 模式下 Tomcat 的 worker 换成虚拟线程执行器，阻塞在 sleep、JDBC、Redis 上的请求只占用虚拟线程；
+ * Druid 与 commons-pool2（Lettuce 连接池）获取连接用的是 ReentrantLock/Condition，不会钉住载体线程。
+ * MySQL Connector/J 8.x 内部仍有 synchronized，配合 maxConcurrentRequests 把并发压在连接池大小附近，
+ * 排查钉住可加 -Djdk.tracePinnedThreads=short。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 15:15
+ */
+@Slf4j
+@Configuration
+public class ExecutionModeConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> executionModeCustomizer(
+            ExecutionModeProperties properties) {
+        return protocolHandler -> {
+            if (!properties.isVirtual()) {
+                return;
+            }
+
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            if (executor == null) {
+                log.warn("web.execution.mode=virtual requires JDK 21+, running {} with platform threads",
+                        System.getProperty("java.version"));
+                return;
+            }
+            protocolHandler.setExecutor(executor);
+            if (protocolHandler instanceof AbstractProtocol) {
+                ((AbstractProtocol<?>) protocolHandler).setMaxConnections(properties.getVirtualMaxConnections());
+            }
+            log.info("servlet requests run on virtual threads, maxConnections={}, maxConcurrentRequests={}",
+                    properties.getVirtualMaxConnections(), properties.effectiveMaxConcurrentRequests());
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ExecutionModeProperties properties, ObjectMapper objectMapper) throws JsonProcessingException {
+        byte[] busyBody = objectMapper.writeValueAsBytes(R.fail("503", "服务繁忙，请稍后重试"));
+        // virtual 模式下没有线程池兜底，闸门总是开启
+        int limit = properties.effectiveMaxConcurrentRequests();
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limit, properties.getAcquireTimeoutMillis(), busyBody));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        registration.setEnabled(limit > 0);
+        return registration;
+    }
+
+    /**
+     * 编译目标是 17，通过反射调用 JDK 21 的 Executors.newVirtualThreadPerTaskExecutor
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Servlet 请求执行模式
+ *
+ * @author : eclair
+ * @date : 2026/10/19 15:10
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "web.execution")
+public class ExecutionModeProperties {
+    /**
+     * virtual 模式没有配置上限时使用，与 Tomcat 默认的 threads.max 相同，切换模式不会放开并发
+     */
+    static final int DEFAULT_VIRTUAL_MAX_CONCURRENT_REQUESTS = 200;
+
+    /**
+     * platform：Tomcat 自带线程池（server.tomcat.threads.max）
+     * virtual：每个请求一个虚拟线程，需要 JDK 21+，低版本自动回退到 platform
+     */
+    private String mode = "platform";
+
+    /**
+     * 同时处理的请求上限，超出的请求排队等待 acquireTimeoutMillis，仍拿不到则返回 503。
+     * 0 表示不额外限制：platform 模式由 Tomcat 线程池约束，virtual 模式改用 {@link #DEFAULT_VIRTUAL_MAX_CONCURRENT_REQUESTS}
+     */
+    private int maxConcurrentRequests = 0;
+
+    private long acquireTimeoutMillis = 500;
+
+    /**
+     * virtual 模式下 Tomcat 的最大连接数，platform 模式仍以 server.tomcat.max-connections 为准
+     */
+    private int virtualMaxConnections = 10000;
+
+    public boolean isVirtual() {
+        return "virtual".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * 实际生效的并发上限，0 表示不启用并发闸门
+     */
+    public int effectiveMaxConcurrentRequests() {
+        if (maxConcurrentRequests > 0) {
+            return maxConcurrentRequests;
+        }
+        return isVirtual() ? DEFAULT_VIRTUAL_MAX_CONCURRENT_REQUESTS : 0;
+    }
+}
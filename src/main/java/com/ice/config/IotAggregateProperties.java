@@ -0,0 +1,45 @@
+package com.ice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 遥测分钟级聚合配置，依赖 iot.ingest.enabled
+ *
+ * @author : eclair
+ * @date : 2026/10/20 18:40
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "iot.aggregate")
+public class IotAggregateProperties {
+    private boolean enabled = false;
+
+    /**
+     * 锁分段数，按设备 id 散列，向上取整到 2 的幂
+     */
+    private int stripes = 64;
+
+    /**
+     * 内存里每个序列保留的分钟桶数，要大于 allowedLatenessMinutes 加上一个刷写间隔，否则未刷写的桶会被覆盖
+     */
+    private int retentionMinutes = 10;
+
+    /**
+     * 当前分钟往前多少分钟内的桶还接收迟到点，更早的桶在刷写后关闭
+     */
+    private int allowedLatenessMinutes = 1;
+
+    private long flushIntervalMillis = 10000;
+
+    /**
+     * 查询用的 ForkJoinPool 并行度
+     */
+    private int queryParallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 分钟汇总落库表
+     */
+    private String table = "iot_telemetry_1m";
+}
@@ -0,0 +1,61 @@
+package com.ice.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ice.iot.ColumnarTelemetrySink;
+import com.ice.iot.TelemetryAggregator;
+import com.ice.iot.TelemetryIngestPipeline;
+import com.ice.iot.TelemetrySink;
+import com.ice.iot.UdpFrameReceiver;
+import com.ice.sync.ColumnarSink;
+import com.ice.sync.DiscardingColumnarSink;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 10:55
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "iot.ingest", name = "enabled", havingValue = "true")
+public class IotIngestConfig {
+
+    /**
+     * 开了 ClickHouse 同步时复用它的 ColumnarSink，否则只计数丢弃；内存版 sink 只留给测试和基准，常驻进程里会无限增长
+     */
+    @Bean
+    public TelemetrySink columnarTelemetrySink(ObjectProvider<ColumnarSink> columnarSink,
+            IotIngestProperties properties) {
+        ColumnarSink sink = columnarSink.getIfAvailable(DiscardingColumnarSink::new);
+        return new ColumnarTelemetrySink(sink, properties.getTable());
+    }
+
+    /**
+     * 分钟级聚合也是一个 TelemetrySink，流水线停机先于它，最后一批点会被聚合后再刷写
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "iot.aggregate", name = "enabled", havingValue = "true")
+    public TelemetryAggregator telemetryAggregator(ObjectProvider<ColumnarSink> columnarSink,
+            IotAggregateProperties properties) {
+        ColumnarSink sink = columnarSink.getIfAvailable(DiscardingColumnarSink::new);
+        return new TelemetryAggregator(sink, properties);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public TelemetryIngestPipeline telemetryIngestPipeline(List<TelemetrySink> sinks,
+            IotIngestProperties properties) {
+        return new TelemetryIngestPipeline(sinks, properties);
+    }
+
+    /**
+     * udp-port 为 0 时 receiver 不绑定端口
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "iot.ingest", name = "udp-port")
+    public UdpFrameReceiver udpFrameReceiver(TelemetryIngestPipeline pipeline, IotIngestProperties properties) {
+        return new UdpFrameReceiver(pipeline, properties.getUdpPort());
+    }
+}
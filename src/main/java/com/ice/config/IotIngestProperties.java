@@ -0,0 +1,54 @@
+package com.ice.config;
+
+import com.ice.iot.OverflowPolicy;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 遥测接入配置
+ *
+ * @author : eclair
+ * @date : 2026/10/19 10:50
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "iot.ingest")
+public class IotIngestProperties {
+    private boolean enabled = false;
+
+    /**
+     * 环形队列容量（帧），向上取整到 2 的幂
+     */
+    private int queueCapacity = 1 << 16;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+    /**
+     * BLOCK 策略下生产者最多等待的时间
+     */
+    private long blockTimeoutMillis = 5;
+
+    private int workers = 4;
+
+    /**
+     * 每批最多的点数
+     */
+    private int batchSize = 20000;
+
+    /**
+     * 一批最长攒多久
+     */
+    private long batchMaxDelayMillis = 200;
+
+    /**
+     * UDP 端口，0 表示不开 UDP
+     */
+    private int udpPort = 0;
+
+    /**
+     * 落库表
+     */
+    private String table = "iot_telemetry";
+}
@@ -0,0 +1,34 @@
+package com.ice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 本地租约限流配置。
+ * <p>
+ * 精度：每个节点最多多占 leaseSize - 1 个未用完的额度，集群整体放行数不会超过上限，
+ * 但在所有节点租约都没用完时，最坏会少放行 (节点数 * (leaseSize - 1)) 次。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 13:10
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit.lease")
+public class LeaseRateLimitProperties {
+    /**
+     * 每次向 Redis 申请的额度，为 1 时退化为每次请求都访问 Redis
+     */
+    private long leaseSize = 5;
+
+    /**
+     * 本地剩余额度低于 leaseSize * prefetchRatio 时，由后台批量预取下一份租约
+     */
+    private double prefetchRatio = 0.3;
+
+    /**
+     * 后台批量预取的间隔
+     */
+    private long syncIntervalMillis = 50;
+}
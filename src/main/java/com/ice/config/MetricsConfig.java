@@ -0,0 +1,39 @@
+package com.ice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ice.metrics.LatencyRegistry;
+import com.ice.metrics.SqlLatencyInterceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 18:00
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 没有引入 actuator 时提供一个进程内的 registry，引入后以 actuator 的为准
+     */
+    @Bean
+    @ConditionalOnMissingBean(MeterRegistry.class)
+    public MeterRegistry simpleMeterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    /**
+     * MyBatis 会自动注册容器里的 Interceptor
+     */
+    @Bean
+    public SqlLatencyInterceptor sqlLatencyInterceptor(LatencyRegistry latencyRegistry,
+            @Value("${metrics.sql.slow-millis:500}") long slowMillis,
+            @Value("${metrics.sql.sample-rate:0.001}") double sampleRate) {
+        return new SqlLatencyInterceptor(latencyRegistry, slowMillis, sampleRate);
+    }
+}
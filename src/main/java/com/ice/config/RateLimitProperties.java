@@ -0,0 +1,30 @@
+package com.ice.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 注解限流（{@link com.ice.ratelimit.RateLimit}）配置
+ *
+ * @author : eclair
+ * @date : 2026/10/19 14:30
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+    /**
+     * 可信的反向代理地址，支持单个 IP 或 CIDR。只有直连地址在这里面时才读 X-Forwarded-For，
+     * 为空表示不信任该请求头，按 IP 限流一律用直连地址
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    /**
+     * Redis 不可用时的策略：true 放行（限流失效但业务可用），false 拒绝并返回 503
+     */
+    private boolean failOpen = true;
+}
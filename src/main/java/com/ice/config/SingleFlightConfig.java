@@ -0,0 +1,25 @@
+package com.ice.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+import com.ice.singleflight.SingleFlightAdvisor;
+import com.ice.singleflight.SingleFlightInterceptor;
+import com.ice.singleflight.SingleFlightRegistry;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 16:20
+ */
+@Configuration
+public class SingleFlightConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static SingleFlightAdvisor singleFlightAdvisor(ObjectProvider<SingleFlightRegistry> registry) {
+        return new SingleFlightAdvisor(new SingleFlightInterceptor(registry));
+    }
+}
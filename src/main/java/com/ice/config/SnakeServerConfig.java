@@ -0,0 +1,22 @@
+package com.ice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ice.metrics.LatencyRegistry;
+import com.ice.snake.server.SnakeServer;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 14:30
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "snake.server", name = "enabled", havingValue = "true")
+public class SnakeServerConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public SnakeServer snakeServer(SnakeServerProperties properties, LatencyRegistry latencyRegistry) {
+        return new SnakeServer(properties, latencyRegistry.recorder(LatencyRegistry.GAME + "room_tick"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.ice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 多人贪吃蛇服务配置
+ *
+ * @author : eclair
+ * @date : 2026/10/20 14:00
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "snake.server")
+public class SnakeServerProperties {
+    private boolean enabled = false;
+
+    /**
+     * 0 表示随机端口
+     */
+    private int port = 9700;
+
+    private long tickMillis = 100;
+
+    /**
+     * 所有房间共用的 tick 线程数，房间按 id 取模分组，同组房间在同一线程上依次 tick
+     */
+    private int tickThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private int width = 40;
+
+    private int height = 30;
+
+    private int maxPlayersPerRoom = 8;
+
+    private int foodsPerRoom = 3;
+
+    /**
+     * 死亡后多少 tick 复活
+     */
+    private int respawnTicks = 20;
+
+    /**
+     * 单连接积压超过这么多字节就丢掉积压的增量，下个 tick 补发全量
+     */
+    private int outboundLimitBytes = 64 * 1024;
+
+    /**
+     * 房间空置多少 tick 后回收
+     */
+    private int idleRoomTicks = 50;
+}
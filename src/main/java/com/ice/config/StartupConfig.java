@@ -0,0 +1,33 @@
+package com.ice.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 17:10
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * 开启 lazy-initialization 时仍然立即创建的 bean：带 @Scheduled 方法的（延迟创建就不会被调度），
+     * 以及声明了 initMethod 的服务（UDP 接收、多人贪吃蛇服务等，延迟创建就不会监听端口）
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerInfrastructureFilter() {
+        return (beanName, beanDefinition, beanType) -> beanDefinition.getInitMethodName() != null
+                || (beanType != null && hasScheduledMethods(beanType));
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Scheduled>) method -> AnnotatedElementUtils
+                        .findMergedAnnotation(method, Scheduled.class))
+                .isEmpty();
+    }
+}
@@ -0,0 +1,33 @@
+package com.ice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 租户过期清扫配置
+ *
+ * @author : eclair
+ * @date : 2026/10/19 21:25
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tenant.expiry")
+public class TenantExpiryProperties {
+    /**
+     * 开启后定时把已过期的正常租户置为冻结
+     */
+    private boolean sweepEnabled = false;
+
+    private long sweepIntervalMillis = 60000;
+
+    /**
+     * 每条 update 语句最多处理的租户数
+     */
+    private int batchSize = 500;
+
+    /**
+     * 单次清扫最多处理的批数，剩余的留给下一轮
+     */
+    private int maxBatchesPerSweep = 20;
+}
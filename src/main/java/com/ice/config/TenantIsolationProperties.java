@@ -0,0 +1,56 @@
+package com.ice.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 租户资源隔离配置，按租户id单独配置的项没有配置时取默认值
+ *
+ * @author : eclair
+ * @date : 2026/10/19 20:20
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tenant.isolation")
+public class TenantIsolationProperties {
+    private boolean enabled = true;
+
+    /**
+     * 每个租户同时在途的请求数
+     */
+    private int defaultConcurrency = 16;
+
+    private Map<Integer, Integer> concurrency = new LinkedHashMap<>();
+
+    /**
+     * 每个租户同时持有的数据库连接数，等待时间沿用连接池的 maxWait
+     */
+    private int defaultConnections = 4;
+
+    private Map<Integer, Integer> connections = new LinkedHashMap<>();
+
+    /**
+     * 重负载租户路由到的数据源名称，未配置的走请求原本的数据源。
+     * 租户的写入也会路由过去，目标必须是可写的库，不能是只读从库
+     */
+    private Map<Integer, String> routes = new LinkedHashMap<>();
+
+    /**
+     * 租户状态缓存刷新间隔，过期后先返回旧值再异步刷新
+     */
+    private long statusRefreshSeconds = 30;
+
+    private long statusCacheSize = 10000;
+
+    public int concurrencyOf(Integer tenantId) {
+        return concurrency.getOrDefault(tenantId, defaultConcurrency);
+    }
+
+    public int connectionsOf(Integer tenantId) {
+        return connections.getOrDefault(tenantId, defaultConnections);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 启动预热配置
+ *
+ * @author : eclair
+ * @date : 2026/10/20 18:00
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "warmup")
+public class WarmupProperties {
+    /**
+     * 关闭后不预热，readiness 按 Spring Boot 默认在就绪时切到 ACCEPTING_TRAFFIC；默认关闭，fast profile 打开
+     */
+    private boolean enabled = false;
+
+    /**
+     * 各步骤的调用次数，编解码要超过 C2 的编译阈值（默认约一万次）才有意义
+     */
+    private int codecIterations = 20000;
+
+    private int passwordHashIterations = 200;
+
+    private int rateLimitIterations = 200;
+
+    private int tenantSelectIterations = 200;
+
+    /**
+     * 判断 JIT 是否平静的观察窗口
+     */
+    private long compileWindowMillis = 500;
+
+    /**
+     * 一个窗口内 JIT 编译耗时低于这个值视为热点已编译完
+     */
+    private long compileQuietMillis = 20;
+
+    /**
+     * 预热加等待的总时长上限，超过后不论条件是否满足都切到 ACCEPTING_TRAFFIC，避免实例永远不接流量
+     */
+    private long maxWaitMillis = 60000;
+}
@@ -0,0 +1,32 @@
+package com.ice.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.ice.metrics.EndpointLatencyInterceptor;
+import com.ice.ratelimit.RateLimitInterceptor;
+import com.ice.tenant.TenantIsolationInterceptor;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 14:45
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+    @Autowired
+    EndpointLatencyInterceptor endpointLatencyInterceptor;
+    @Autowired
+    RateLimitInterceptor rateLimitInterceptor;
+    @Autowired
+    TenantIsolationInterceptor tenantIsolationInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(endpointLatencyInterceptor);
+        // 冻结/过期租户在限流计数之前拦掉
+        registry.addInterceptor(tenantIsolationInterceptor);
+        registry.addInterceptor(rateLimitInterceptor);
+    }
+}
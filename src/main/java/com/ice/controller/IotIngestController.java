@@ -0,0 +1,65 @@
+package com.ice.controller;
+
+import com.ice.iot.FrameSplitter;
+import com.ice.iot.TelemetryAggregator;
+import com.ice.iot.TelemetryIngestPipeline;
+import com.xiliulou.core.web.R;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 11:00
+ */
+@RestController
+@ConditionalOnProperty(prefix = "iot.ingest", name = "enabled", havingValue = "true")
+public class IotIngestController {
+    @Autowired
+    TelemetryIngestPipeline telemetryIngestPipeline;
+    @Autowired
+    ObjectProvider<TelemetryAggregator> telemetryAggregator;
+
+    /**
+     * body 为一帧或多帧首尾相连的原始字节
+     */
+    @PostMapping(value = "/iot/frames", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public R frames(@RequestBody byte[] body) {
+        return R.ok(FrameSplitter.split(body, body.length, telemetryIngestPipeline));
+    }
+
+    @GetMapping("/iot/stats")
+    public R stats() {
+        return R.ok(telemetryIngestPipeline.stats());
+    }
+
+    /**
+     * 所有设备某个指标在时间范围内的汇总；带 deviceId 时返回该设备每分钟一行。只覆盖内存里保留的分钟
+     */
+    @GetMapping("/iot/aggregate")
+    public R aggregate(@RequestParam("metric") int metric, @RequestParam("from") long from,
+            @RequestParam("to") long to, @RequestParam(value = "deviceId", required = false) Long deviceId) {
+        TelemetryAggregator aggregator = telemetryAggregator.getIfAvailable();
+        if (aggregator == null) {
+            return R.fail("404", "iot.aggregate 未开启");
+        }
+        if (deviceId != null) {
+            return R.ok(aggregator.device(deviceId, metric, from, to));
+        }
+        return R.ok(aggregator.query(metric, from, to).toMap());
+    }
+
+    @GetMapping("/iot/aggregate/stats")
+    public R aggregateStats() {
+        TelemetryAggregator aggregator = telemetryAggregator.getIfAvailable();
+        return R.ok(aggregator == null ? new LinkedHashMap<>() : aggregator.snapshot());
+    }
+}
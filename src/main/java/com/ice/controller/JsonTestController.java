@@ -1,60 +1,79 @@
 package com.ice.controller;
 
+import com.ice.config.AsyncWebProperties;
+import com.ice.ratelimit.LeasedRateLimiter;
+import com.ice.ratelimit.RateLimit;
+import com.ice.ratelimit.RateLimitAlgorithm;
+import com.ice.ratelimit.RateLimitDimension;
+import com.ice.ratelimit.RedisRateLimiter;
 import com.ice.service.TestSqlService;
+import com.ice.web.AsyncResults;
 import com.xiliulou.cache.redis.RedisService;
 import com.xiliulou.core.web.R;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * @author : eclair
  * @date : 2024/6/23 18:55
  */
+@Slf4j
 @RestController
 public class JsonTestController {
     @Autowired
     RedisService redisService;
     @Autowired
     TestSqlService testSqlService;
+    @Autowired
+    RedisRateLimiter redisRateLimiter;
+    @Autowired
+    LeasedRateLimiter leasedRateLimiter;
+    @Autowired
+    ThreadPoolExecutor blockingExecutor;
+    @Autowired
+    AsyncWebProperties asyncWebProperties;
 
+    /**
+     * 返回本次判定的限流器和结果
+     */
     @GetMapping("/test")
     public R test() {
-        RedisScript redisScript = RedisScript.of(
-                "local times = redis.call('incr',KEYS[1]) if times == 1 then redis.call('expire',KEYS[1],ARGV[1]) end if times > tonumber(ARGV[2]) then return 0 end return 1",
-                Long.class);
-        List<String> list = new ArrayList<>(1);
-        list.add("test");
-        Object result = redisService.getRedisTemplate().execute(redisScript, list, String.valueOf(ChronoUnit.SECONDS.between(LocalDateTime.now(), LocalDate.now().plusDays(1).atStartOfDay())),
-                "15");
-        System.out.println(result);
-        return R.ok();
+        boolean allowed = leasedRateLimiter.tryAcquire("test", 15);
+        log.debug("rate limit test, allowed={}", allowed);
+        Map<String, Object> decision = new HashMap<>();
+        decision.put("limiter", "lease");
+        decision.put("key", "test");
+        decision.put("allowed", allowed);
+        return R.ok(decision);
     }
 
+    @GetMapping("/test/limiter/stats")
+    public R limiterStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("redis", redisRateLimiter.stats());
+        stats.put("lease", leasedRateLimiter.stats());
+        stats.put("leasePrefetchFailures", leasedRateLimiter.getPrefetchFailures());
+        return R.ok(stats);
+    }
+
+    @RateLimit(dimensions = { RateLimitDimension.TENANT, RateLimitDimension.ENDPOINT }, limit = 20)
+    @RateLimit(dimensions = { RateLimitDimension.IP, RateLimitDimension.ENDPOINT }, limit = 5)
     @GetMapping("/test/sql/{id}")
     public R testSql(@PathVariable("id") Integer id) {
-        if (id == 1) {
-            testSqlService.testUpdateSQl1();
-        } else if (id == 2) {
-            testSqlService.testUpdateSqlLock();
-        } else if (id == 3) {
-            testSqlService.testUpdateLong();
-        } else if (id == 4) {
-            testSqlService.testSelectListLong();
-        } else {
-            testSqlService.testSelect();
-        }
+        runSql(id);
         return R.ok();
     }
 
+    @RateLimit(dimensions = { RateLimitDimension.IP }, algorithm = RateLimitAlgorithm.GCRA, limit = 10)
     @GetMapping("/test/time/{t}")
     public R testTime(@PathVariable("t") Long t) {
         try {
@@ -65,6 +84,42 @@ public class JsonTestController {
         return R.ok();
     }
 
+    /**
+     * 同 /test/sql/{id}，阻塞部分在 blockingExecutor 上执行，servlet 线程立即释放
+     */
+    @RateLimit(dimensions = { RateLimitDimension.TENANT, RateLimitDimension.ENDPOINT }, limit = 20)
+    @RateLimit(dimensions = { RateLimitDimension.IP, RateLimitDimension.ENDPOINT }, limit = 5)
+    @GetMapping("/async/test/sql/{id}")
+    public CompletableFuture<R> testSqlAsync(@PathVariable("id") Integer id) {
+        return AsyncResults.supply(() -> {
+            runSql(id);
+            return R.ok();
+        }, blockingExecutor, asyncWebProperties.getTimeoutMillis());
+    }
+
+    /**
+     * 同 /test/time/{t}，超时返回 504 并打断 sleep
+     */
+    @RateLimit(dimensions = { RateLimitDimension.IP }, algorithm = RateLimitAlgorithm.GCRA, limit = 10)
+    @GetMapping("/async/test/time/{t}")
+    public DeferredResult<R> testTimeAsync(@PathVariable("t") Long t) {
+        return AsyncResults.defer(() -> testTime(t), blockingExecutor, asyncWebProperties.getTimeoutMillis());
+    }
+
+    private void runSql(Integer id) {
+        if (id == 1) {
+            testSqlService.testUpdateSQl1();
+        } else if (id == 2) {
+            testSqlService.testUpdateSqlLock();
+        } else if (id == 3) {
+            testSqlService.testUpdateLong();
+        } else if (id == 4) {
+            testSqlService.testSelectListLong();
+        } else {
+            testSqlService.testSelect();
+        }
+    }
+
     static boolean condition = true;  // 条件变量，控制任务的继续或停止
 
     public static void main(String[] args) {
@@ -0,0 +1,161 @@
+package com.ice.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ice.db.DruidPoolMonitor;
+import com.ice.lock.DistributedLockService;
+import com.ice.log.CountingAsyncAppender;
+import com.ice.metrics.LatencyRegistry;
+import com.ice.singleflight.SingleFlightRegistry;
+import com.ice.startup.StartupPhaseListener;
+import com.ice.startup.WarmupService;
+import com.ice.snake.server.SnakeServer;
+import com.ice.tenant.TenantBudgets;
+import com.ice.tenant.TenantExpiryIndex;
+import com.ice.tenant.TenantExpirySnapshot;
+import com.ice.web.AdaptiveConcurrencyFilter;
+import com.ice.web.GradientLimiter;
+import com.xiliulou.core.web.R;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 17:10
+ */
+@RestController
+public class MetricsController {
+    @Autowired
+    ObjectProvider<AdaptiveConcurrencyFilter> adaptiveConcurrencyFilter;
+    @Autowired
+    LatencyRegistry latencyRegistry;
+    @Autowired
+    DruidPoolMonitor druidPoolMonitor;
+    @Autowired
+    TenantBudgets tenantBudgets;
+    @Autowired
+    TenantExpiryIndex tenantExpiryIndex;
+    @Autowired
+    ObjectProvider<SnakeServer> snakeServer;
+    @Autowired
+    DistributedLockService distributedLockService;
+    @Autowired
+    SingleFlightRegistry singleFlightRegistry;
+    @Autowired
+    ObjectProvider<StartupPhaseListener> startupPhaseListener;
+    @Autowired
+    WarmupService warmupService;
+
+    /**
+     * prefix 可选 http: / sql: / redis: / pool: / game: / lock:
+     */
+    @GetMapping("/metrics/latency")
+    public R latency(@RequestParam(value = "prefix", required = false) String prefix) {
+        return R.ok(latencyRegistry.snapshot(prefix));
+    }
+
+    @GetMapping("/metrics/concurrency")
+    public R concurrency() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        AdaptiveConcurrencyFilter filter = adaptiveConcurrencyFilter.getIfAvailable();
+        if (filter == null) {
+            return R.ok(result);
+        }
+
+        for (GradientLimiter limiter : filter.limiters()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("limit", limiter.getLimit());
+            item.put("inflight", limiter.getInflight());
+            item.put("accepted", limiter.getAccepted());
+            item.put("rejected", limiter.getRejected());
+            item.put("shortRttMillis", limiter.getShortRttMillis());
+            item.put("baseRttMillis", limiter.getBaseRttMillis());
+            result.put(limiter.getName(), item);
+        }
+        return R.ok(result);
+    }
+
+    @GetMapping("/metrics/pool")
+    public R pool() {
+        return R.ok(druidPoolMonitor.snapshot());
+    }
+
+    @GetMapping("/metrics/lock")
+    public R lock() {
+        return R.ok(distributedLockService.snapshot());
+    }
+
+    @GetMapping("/metrics/singleflight")
+    public R singleFlight() {
+        return R.ok(singleFlightRegistry.snapshot());
+    }
+
+    /**
+     * 启动各阶段耗时和最慢的 bean
+     */
+    @GetMapping("/metrics/startup")
+    public R startup() {
+        StartupPhaseListener listener = startupPhaseListener.getIfAvailable();
+        return R.ok(listener == null ? new LinkedHashMap<>() : listener.snapshot());
+    }
+
+    /**
+     * 预热时间线：每步耗时、次数、期间 JIT 编译耗时，以及最后门控等了多久
+     */
+    @GetMapping("/metrics/warmup")
+    public R warmup() {
+        return R.ok(warmupService.snapshot());
+    }
+
+    /**
+     * 异步日志入队和因队列满丢弃的条数
+     */
+    @GetMapping("/metrics/logging")
+    public R logging() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("appended", CountingAsyncAppender.getAppended());
+        result.put("dropped", CountingAsyncAppender.getDropped());
+        return R.ok(result);
+    }
+
+    @GetMapping("/metrics/tenant")
+    public R tenant() {
+        return R.ok(tenantBudgets.snapshot());
+    }
+
+    /**
+     * 未来 hours 小时内过期的活跃租户
+     */
+    @GetMapping("/metrics/tenant/expiring")
+    public R tenantExpiring(@RequestParam(value = "hours", defaultValue = "24") long hours) {
+        long start = System.nanoTime();
+        int[] ids = tenantExpiryIndex.expiringWithinHours(hours);
+        TenantExpirySnapshot snapshot = tenantExpiryIndex.snapshot();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("tenants", snapshot.size());
+        result.put("frozen", snapshot.frozenCount());
+        result.put("deleted", snapshot.deletedCount());
+        result.put("active", tenantExpiryIndex.allActive().length);
+        result.put("expiring", ids);
+        result.put("costMicros", (System.nanoTime() - start) / 1000);
+        return R.ok(result);
+    }
+
+    /**
+     * 多人贪吃蛇服务概况，top 为单 tick 最慢的房间数
+     */
+    @GetMapping("/metrics/snake")
+    public R snake(@RequestParam(value = "top", defaultValue = "10") int top) {
+        SnakeServer server = snakeServer.getIfAvailable();
+        if (server == null) {
+            return R.ok(new LinkedHashMap<>());
+        }
+        return R.ok(server.snapshot(top));
+    }
+}
@@ -0,0 +1,38 @@
+package com.ice.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ice.startup.WarmupService;
+import com.xiliulou.core.web.R;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 就绪探针，预热完成前返回 503，见 {@link WarmupService}
+ *
+ * @author : eclair
+ * @date : 2026/10/20 18:20
+ */
+@RestController
+public class ReadinessController {
+    @Autowired
+    ApplicationAvailability applicationAvailability;
+    @Autowired
+    WarmupService warmupService;
+
+    @GetMapping("/ready")
+    public R ready(HttpServletResponse response) {
+        // 监听器顺序不保证 WarmupService 改回 REFUSING_TRAFFIC 一定落在 Boot 的 ACCEPTING_TRAFFIC 之后，这里再看一次预热标记
+        if (warmupService.isFinished()
+                && applicationAvailability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            return R.ok();
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        return R.fail("503", "预热中");
+    }
+}
@@ -1,35 +1,42 @@
 package com.ice.controller;
 
+import com.ice.snake.Direction;
+import com.ice.snake.SnakeRenderer;
+import com.ice.snake.SnakeSimulation;
+import com.ice.snake.StepResult;
+import com.ice.snake.replay.Replay;
+import com.ice.snake.replay.ReplayArchiveWriter;
+import lombok.extern.slf4j.Slf4j;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.util.Random;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
+@Slf4j
 public class SnakeGame extends JPanel implements ActionListener {
     private final int WIDTH = 800; // Width of the game board
     private final int HEIGHT = 600; // Height of the game board
     private final int BLOCK_SIZE = 20; // Size of each block (snake segment and food)
-    private final int ALL_BLOCKS = (WIDTH * HEIGHT) / (BLOCK_SIZE * BLOCK_SIZE); // Maximum number of blocks on the board
     private final int DELAY = 140; // Delay for the game loop timer (speed of the snake)
+    private final int FRAME_DELAY = 16; // Delay for the render timer, frames are paced independently of the game loop
+    private final int INPUT_CAPACITY = 8; // Keys buffered ahead of the game loop, same as the multiplayer server
 
-    private final int x[] = new int[ALL_BLOCKS]; // Array to store x-coordinates of the snake's body
-    private final int y[] = new int[ALL_BLOCKS]; // Array to store y-coordinates of the snake's body
-
-    private int snakeLength; // Current length of the snake
-    private int foodX; // x-coordinate of the food
-    private int foodY; // y-coordinate of the food
-
-    private boolean leftDirection = false; // Direction flags for snake movement
-    private boolean rightDirection = true;
-    private boolean upDirection = false;
-    private boolean downDirection = false;
-    private boolean inGame = true; // Flag to check if the game is still running
+    private SnakeSimulation simulation; // Headless game state and rules
+    // Keys pressed but not yet applied, one is consumed per tick so a quick UP, LEFT within one tick is not lost.
+    // Key events and the Swing timer both run on the event dispatch thread, no locking needed
+    private final Deque<Direction> pendingDirections = new ArrayDeque<>();
+    private Replay.Builder replay; // Seed and per-tick input of this game
 
+    private SnakeRenderer renderer; // Back-buffer that only redraws changed cells
     private Timer timer; // Timer for game loop
-    private Random random; // Random object to generate food locations
+    private Timer renderTimer; // Timer for frames
 
     public SnakeGame() {
         initBoard();
@@ -38,52 +45,56 @@ public class SnakeGame extends JPanel implements ActionListener {
     private void initBoard() {
         addKeyListener(new TAdapter()); // Add key listener for user input
         setBackground(Color.BLACK); // Set background color of the game board
+        setOpaque(true); // The back-buffer covers the whole panel
         setFocusable(true); // Set focusable to capture key events
         setPreferredSize(new Dimension(WIDTH, HEIGHT)); // Set the preferred size of the game board
-        random = new Random();
         initGame(); // Initialize game components
-        System.out.println("Board initialized.");
+        log.info("Board initialized.");
     }
 
     private void initGame() {
-        snakeLength = 3; // Initial length of the snake
-
-        // Initialize the starting position of the snake
-        for (int i = 0; i < snakeLength; i++) {
-            x[i] = 100 - i * BLOCK_SIZE;
-            y[i] = 100;
-        }
-
-        locateFood(); // Place the first food on the board
+        // Board is WIDTH / BLOCK_SIZE by HEIGHT / BLOCK_SIZE cells, snake starts at (100, 100)
+        simulation = new SnakeSimulation(WIDTH / BLOCK_SIZE, HEIGHT / BLOCK_SIZE, System.nanoTime());
+        replay = Replay.builder(simulation.getSeed(), simulation.getWidth(), simulation.getHeight());
+        renderer = new SnakeRenderer(WIDTH / BLOCK_SIZE, HEIGHT / BLOCK_SIZE, BLOCK_SIZE);
+        renderer.render(simulation);
 
         timer = new Timer(DELAY, this); // Set up the timer for the game loop
         timer.start();
-        System.out.println("Game initialized. Snake length: " + snakeLength);
+        renderTimer = new Timer(FRAME_DELAY, e -> renderFrame()); // Frames only repaint what the game loop changed
+        renderTimer.setCoalesce(true);
+        renderTimer.start();
+        log.info("Game initialized. Snake length: {}", simulation.getLength());
     }
 
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-
-        if (inGame) {
-            // Draw the food
-            g.setColor(Color.RED);
-            g.fillRect(foodX, foodY, BLOCK_SIZE, BLOCK_SIZE);
-            System.out.println("Food drawn at: (" + foodX + ", " + foodY + ")");
-
-            // Draw the snake
-            for (int i = 0; i < snakeLength; i++) {
-                g.setColor(i == 0 ? Color.GREEN : Color.YELLOW); // Head is green, body is yellow
-                g.fillRect(x[i], y[i], BLOCK_SIZE, BLOCK_SIZE);
-            }
-            System.out.println("Snake drawn. Length: " + snakeLength);
-
-            Toolkit.getDefaultToolkit().sync(); // Sync the graphics for smooth rendering
+        // Swing clips to the dirty rectangle, so only the changed cells are copied from the back-buffer
+        if (simulation.isAlive()) {
+            g.drawImage(renderer.getImage(), 0, 0, null);
         } else {
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, WIDTH, HEIGHT);
             gameOver(g); // Display game over message if the game is not active
         }
     }
 
+    private void renderFrame() {
+        int regions = renderer.render(simulation);
+        for (int i = 0; i < regions; i++) {
+            paintImmediately(renderer.dirtyRect(i)); // Each changed cell separately, Swing would merge them into one box
+        }
+        if (regions > 0) {
+            Toolkit.getDefaultToolkit().sync(); // Sync the graphics for smooth rendering
+        }
+        if (!simulation.isAlive()) {
+            renderTimer.stop();
+            repaint();
+            log.info("Average frame time: {} us, max: {} us", renderer.getAverageFrameMicros(),
+                    renderer.getMaxFrameMicros());
+        }
+    }
+
     private void gameOver(Graphics g) {
         String msg = "Game Over";
         Font small = new Font("Helvetica", Font.BOLD, 40);
@@ -92,116 +103,66 @@ public class SnakeGame extends JPanel implements ActionListener {
         g.setColor(Color.WHITE);
         g.setFont(small);
         g.drawString(msg, (WIDTH - metr.stringWidth(msg)) / 2, HEIGHT / 2); // Center the game over message
-        System.out.println("Game Over.");
-    }
-
-    private void checkFood() {
-        // Check if the snake's head is at the same position as the food
-        if ((x[0] == foodX) && (y[0] == foodY)) {
-            snakeLength++; // Increase the length of the snake
-            locateFood(); // Place new food on the board
-            System.out.println("Food eaten. New snake length: " + snakeLength);
-        }
+        log.info("Game Over.");
     }
 
-    private void move() {
-        // Move the snake by updating the position of each segment
-        for (int i = snakeLength; i > 0; i--) {
-            x[i] = x[i - 1];
-            y[i] = y[i - 1];
-        }
-
-        // Update the position of the head based on the direction
-        if (leftDirection) {
-            x[0] -= BLOCK_SIZE;
-        }
-
-        if (rightDirection) {
-            x[0] += BLOCK_SIZE;
-        }
-
-        if (upDirection) {
-            y[0] -= BLOCK_SIZE;
-        }
-
-        if (downDirection) {
-            y[0] += BLOCK_SIZE;
-        }
-
-        System.out.println("Snake moved. Head position: (" + x[0] + ", " + y[0] + ")");
-    }
-
-    private void checkCollision() {
-        // Check if the snake has collided with itself
-        for (int i = snakeLength; i > 0; i--) {
-            if ((x[0] == x[i]) && (y[0] == y[i])) {
-                inGame = false;
-                System.out.println("Collision detected with body. Game over.");
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        if (simulation.isAlive()) {
+            Direction direction = pendingDirections.poll(); // null keeps the current heading
+            replay.add(direction); // Record exactly what the simulation receives
+            StepResult result = simulation.step(direction); // Move, eat and check collisions in one tick
+            if (result == StepResult.ATE) {
+                log.debug("Food eaten. New snake length: {}", simulation.getLength());
+            } else if (result == StepResult.DIED || result == StepResult.WON) {
+                log.info("Collision detected. Game over.");
+                timer.stop(); // Stop the timer if the game is over
+                saveReplay();
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Snake moved. Head position: ({}, {})", simulation.getHeadX() * BLOCK_SIZE,
+                        simulation.getHeadY() * BLOCK_SIZE);
             }
-        }
-
-        // Check if the snake has collided with the walls
-        if (y[0] >= HEIGHT || y[0] < 0 || x[0] >= WIDTH || x[0] < 0) {
-            inGame = false;
-            System.out.println("Collision detected with wall. Game over.");
-        }
-
-        if (!inGame) {
-            timer.stop(); // Stop the timer if the game is over
         }
     }
 
-    private void locateFood() {
-        // Randomly place the food on the board
-        foodX = random.nextInt(WIDTH / BLOCK_SIZE) * BLOCK_SIZE;
-        foodY = random.nextInt(HEIGHT / BLOCK_SIZE) * BLOCK_SIZE;
-        System.out.println("New food located at: (" + foodX + ", " + foodY + ")");
-    }
-
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        if (inGame) {
-            checkFood(); // Check if the snake has eaten the food
-            checkCollision(); // Check if the snake has collided with itself or walls
-            move(); // Move the snake
+    private void saveReplay() {
+        String archive = System.getProperty("snake.replay.archive"); // e.g. -Dsnake.replay.archive=snake-replays.bin
+        if (archive == null) {
+            return;
+        }
+        try (ReplayArchiveWriter writer = new ReplayArchiveWriter(Paths.get(archive))) {
+            long index = writer.append(replay.build());
+            log.info("Replay saved to {} as #{}", archive, index);
+        } catch (IOException e) {
+            log.error("Failed to save replay", e);
         }
-
-        repaint(); // Repaint the game board
     }
 
     private class TAdapter extends KeyAdapter {
         @Override
         public void keyPressed(KeyEvent e) {
             int key = e.getKeyCode();
-
-            // Update direction based on the key pressed
-            if ((key == KeyEvent.VK_LEFT) && (!rightDirection)) {
-                leftDirection = true;
-                upDirection = false;
-                downDirection = false;
-                System.out.println("Left direction set.");
-            }
-
-            if ((key == KeyEvent.VK_RIGHT) && (!leftDirection)) {
-                rightDirection = true;
-                upDirection = false;
-                downDirection = false;
-                System.out.println("Right direction set.");
+            Direction direction;
+
+            // Queue the direction of the key pressed, reversing is rejected by the simulation when it is applied
+            if (key == KeyEvent.VK_LEFT) {
+                direction = Direction.LEFT;
+            } else if (key == KeyEvent.VK_RIGHT) {
+                direction = Direction.RIGHT;
+            } else if (key == KeyEvent.VK_UP) {
+                direction = Direction.UP;
+            } else if (key == KeyEvent.VK_DOWN) {
+                direction = Direction.DOWN;
+            } else {
+                return;
             }
-
-            if ((key == KeyEvent.VK_UP) && (!downDirection)) {
-                upDirection = true;
-                rightDirection = false;
-                leftDirection = false;
-                System.out.println("Up direction set.");
-            }
-
-            if ((key == KeyEvent.VK_DOWN) && (!upDirection)) {
-                downDirection = true;
-                rightDirection = false;
-                leftDirection = false;
-                System.out.println("Down direction set.");
+            if (pendingDirections.size() >= INPUT_CAPACITY) {
+                log.debug("Input queue full, {} dropped.", direction); // Drop the newest, like the server does
+                return;
             }
+            pendingDirections.offer(direction);
+            log.debug("{} direction queued.", direction);
         }
     }
 
@@ -215,6 +176,6 @@ public class SnakeGame extends JPanel implements ActionListener {
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // Set the close operation
         frame.setLocationRelativeTo(null); // Center the frame on the screen
         frame.setVisible(true); // Make the frame visible
-        System.out.println("Game started.");
+        log.info("Game started.");
     }
 }
\ No newline at end of file
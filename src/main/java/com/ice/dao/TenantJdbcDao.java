@@ -0,0 +1,72 @@
+package com.ice.dao;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.ice.entity.Tenant;
+import com.ice.metrics.LatencyRegistry;
+
+/**
+ * 租户查询的热路径：固定列顺序 + {@link TenantRowMapper} 按下标映射。
+ * 配合连接串里的 useServerPrepStmts 和 Druid 的 poolPreparedStatements，同一条 SQL 在每个连接上只预编译一次。
+ * 不经过 MyBatis，耗时自己记到 sql:TenantJdbcDao.方法名，和 mapper 语句放在一起看。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 19:55
+ */
+@Repository
+public class TenantJdbcDao {
+    private static final String SELECT_BY_ID = "select " + TenantRowMapper.COLUMNS + " from t_tenant where id = ?";
+
+    private static final String SELECT_STATUS_BY_ID = "select " + TenantRowMapper.STATUS_COLUMNS
+            + " from t_tenant where id = ?";
+
+    private static final String SELECT_ALL_STATUS = "select " + TenantRowMapper.STATUS_COLUMNS + " from t_tenant";
+
+    private static final String METRIC_PREFIX = LatencyRegistry.SQL + TenantJdbcDao.class.getSimpleName() + ".";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    LatencyRegistry latencyRegistry;
+
+    public Tenant selectById(Integer id) {
+        return timed("selectById", () -> first(jdbcTemplate.query(SELECT_BY_ID, TenantRowMapper.FULL, id)));
+    }
+
+    /**
+     * 只带 id/status/delFlag/expireTime，其余字段为 null
+     */
+    public Tenant selectStatusById(Integer id) {
+        return timed("selectStatusById",
+                () -> first(jdbcTemplate.query(SELECT_STATUS_BY_ID, TenantRowMapper.STATUS, id)));
+    }
+
+    /**
+     * 全量状态投影，只在构建内存索引时使用
+     */
+    public List<Tenant> selectAllStatus() {
+        return timed("selectAllStatus", () -> jdbcTemplate.query(SELECT_ALL_STATUS, TenantRowMapper.STATUS));
+    }
+
+    /**
+     * 失败的查询同样计时，和 SqlLatencyInterceptor 一致
+     */
+    private <T> T timed(String method, Supplier<T> query) {
+        long start = System.nanoTime();
+        try {
+            return query.get();
+        } finally {
+            latencyRegistry.record(METRIC_PREFIX + method, System.nanoTime() - start);
+        }
+    }
+
+    private static Tenant first(List<Tenant> tenants) {
+        return tenants.isEmpty() ? null : tenants.get(0);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ice.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.ice.entity.Tenant;
+
+/**
+ * Tenant 的按列下标映射，不走反射和列名查找。
+ * <p>
+ * 列顺序由 {@link #COLUMNS} 固定，SQL 必须按这个顺序 select，不能用 select *。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 19:50
+ */
+public final class TenantRowMapper implements RowMapper<Tenant> {
+    public static final String COLUMNS = "id, name, code, status, del_flag, create_time, update_time, expire_time";
+
+    /**
+     * 只判断租户状态时用的投影列
+     */
+    public static final String STATUS_COLUMNS = "id, status, del_flag, expire_time";
+
+    public static final TenantRowMapper FULL = new TenantRowMapper(false);
+
+    public static final TenantRowMapper STATUS = new TenantRowMapper(true);
+
+    private final boolean statusOnly;
+
+    private TenantRowMapper(boolean statusOnly) {
+        this.statusOnly = statusOnly;
+    }
+
+    @Override
+    public Tenant mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Tenant tenant = new Tenant();
+        if (statusOnly) {
+            tenant.setId(getInteger(rs, 1));
+            tenant.setStatus(getInteger(rs, 2));
+            tenant.setDelFlag(getInteger(rs, 3));
+            tenant.setExpireTime(getLong(rs, 4));
+            return tenant;
+        }
+
+        tenant.setId(getInteger(rs, 1));
+        tenant.setName(rs.getString(2));
+        tenant.setCode(rs.getString(3));
+        tenant.setStatus(getInteger(rs, 4));
+        tenant.setDelFlag(getInteger(rs, 5));
+        tenant.setCreateTime(getLong(rs, 6));
+        tenant.setUpdateTime(getLong(rs, 7));
+        tenant.setExpireTime(getLong(rs, 8));
+        return tenant;
+    }
+
+    private static Integer getInteger(ResultSet rs, int index) throws SQLException {
+        int value = rs.getInt(index);
+        return value == 0 && rs.wasNull() ? null : value;
+    }
+
+    private static Long getLong(ResultSet rs, int index) throws SQLException {
+        long value = rs.getLong(index);
+        return value == 0 && rs.wasNull() ? null : value;
+    }
+}
@@ -0,0 +1,193 @@
+package com.ice.db;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.alibaba.druid.filter.Filter;
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.stat.DruidDataSourceStatManager;
+import com.ice.config.DruidPoolProperties;
+import com.ice.metrics.LatencyRegistry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Druid 连接池监控。
+ * <p>
+ * 动态数据源下的每个 DruidDataSource（master/slave）启动后挂上 {@link PoolTelemetryFilter}，
+ * 借连接等待和持有时间记到 pool:{name}:wait / pool:{name}:hold，
+ * 活跃/空闲/等待线程数注册为 gauge；定时扫描持有过久的连接并打印持有线程的栈，
+ * 开启 auto-size 时按排队情况在上下限内调整 maxActive。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 19:30
+ */
+@Slf4j
+@Component
+public class DruidPoolMonitor {
+    private static final String METER_NAME = "ice.db.pool";
+
+    @Autowired
+    DruidPoolProperties properties;
+    @Autowired
+    LatencyRegistry latencyRegistry;
+    @Autowired
+    ObjectProvider<MeterRegistry> meterRegistry;
+    /**
+     * 容器里的 PoolFilter（如租户连接配额）一并安装，排在监控过滤器之前
+     */
+    @Autowired
+    ObjectProvider<PoolFilter> poolFilters;
+
+    private final Map<DruidDataSource, Pool> pools = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        discover();
+    }
+
+    @Scheduled(fixedDelayString = "${db.pool.scan-interval-millis:5000}")
+    public void scan() {
+        discover();
+        long thresholdNanos = TimeUnit.SECONDS.toNanos(properties.getLeakThresholdSeconds());
+        poolFilters.orderedStream().forEach(PoolFilter::purgeDiscarded);
+        for (Pool pool : pools.values()) {
+            pool.filter.purgeDiscarded();
+            detectLeaks(pool, thresholdNanos);
+            if (properties.getAutoSize().isEnabled()) {
+                autoSize(pool);
+            } else {
+                pool.filter.drainWindow();
+            }
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (Pool pool : pools.values()) {
+            DruidDataSource dataSource = pool.dataSource;
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("maxActive", dataSource.getMaxActive());
+            item.put("minIdle", dataSource.getMinIdle());
+            item.put("active", dataSource.getActiveCount());
+            item.put("idle", dataSource.getPoolingCount());
+            item.put("waiting", dataSource.getWaitThreadCount());
+            item.put("borrows", pool.filter.getBorrows());
+            item.put("failedBorrows", pool.filter.getFailedBorrows());
+            item.put("borrowed", pool.filter.getBorrowedCount());
+            item.put("discarded", pool.filter.getDiscarded());
+            item.put("leaks", pool.leaks);
+            item.put("resizes", pool.resizes);
+            result.put(pool.filter.getPoolName(), item);
+        }
+        return result;
+    }
+
+    /**
+     * 动态数据源可能在运行时新增，每次扫描都检查一遍
+     */
+    private void discover() {
+        for (Object instance : DruidDataSourceStatManager.getDruidDataSourceInstances()) {
+            if (instance instanceof DruidDataSource && !pools.containsKey(instance)) {
+                pools.computeIfAbsent((DruidDataSource) instance, this::install);
+            }
+        }
+        pools.keySet().removeIf(DruidDataSource::isClosed);
+    }
+
+    private Pool install(DruidDataSource dataSource) {
+        String name = dataSource.getName();
+        DruidPoolProperties.AutoSize autoSize = properties.getAutoSize();
+        PoolTelemetryFilter filter = new PoolTelemetryFilter(name, latencyRegistry, autoSize.getWaitThresholdMillis(),
+                properties.isCaptureBorrowStack());
+        // filters 是 CopyOnWriteArrayList，初始化之后追加同样生效；
+        // 数据源 init 时才会调用各 filter 的 init，这里是之后追加的，要自己补上
+        poolFilters.orderedStream().forEach(poolFilter -> addFilter(dataSource, poolFilter));
+        addFilter(dataSource, filter);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            gauge(registry, dataSource, name, "active", DruidDataSource::getActiveCount);
+            gauge(registry, dataSource, name, "idle", DruidDataSource::getPoolingCount);
+            gauge(registry, dataSource, name, "waiting", DruidDataSource::getWaitThreadCount);
+            gauge(registry, dataSource, name, "max", DruidDataSource::getMaxActive);
+        }
+        log.info("连接池监控已挂载 datasource={} maxActive={} minIdle={}", name, dataSource.getMaxActive(),
+                dataSource.getMinIdle());
+        return new Pool(dataSource, filter, new PoolAutoSizer(autoSize, autoSize.boundsOf(name)));
+    }
+
+    private static void addFilter(DruidDataSource dataSource, Filter filter) {
+        filter.init(dataSource);
+        dataSource.getProxyFilters().add(filter);
+    }
+
+    private void detectLeaks(Pool pool, long thresholdNanos) {
+        for (PoolTelemetryFilter.Borrow borrow : pool.filter.collectLeaks(thresholdNanos)) {
+            pool.leaks++;
+            Throwable stack = borrow.getBorrowStack();
+            if (stack == null) {
+                // 没有借出栈时抓持有线程此刻的栈，通常就停在占着连接的那行代码
+                stack = new Throwable("holder thread stack");
+                stack.setStackTrace(borrow.getThread().getStackTrace());
+            }
+            log.warn("连接疑似泄漏 datasource={} heldMillis={} thread={}", pool.filter.getPoolName(),
+                    borrow.heldMillis(), borrow.getThread().getName(), stack);
+        }
+    }
+
+    private void autoSize(Pool pool) {
+        DruidDataSource dataSource = pool.dataSource;
+        int current = dataSource.getMaxActive();
+        int target = pool.sizer.decide(current, dataSource.getMinIdle(), dataSource.getWaitThreadCount(),
+                pool.filter.drainWindow());
+        if (target == current) {
+            return;
+        }
+        try {
+            dataSource.setMaxActive(target);
+            pool.resizes++;
+            log.info("连接池调整 datasource={} maxActive {} -> {}", pool.filter.getPoolName(), current, target);
+        } catch (IllegalArgumentException e) {
+            log.warn("连接池调整失败 datasource={} maxActive={}", pool.filter.getPoolName(), target, e);
+        }
+    }
+
+    private static void gauge(MeterRegistry registry, DruidDataSource dataSource, String name, String state,
+            ToDoubleFunction<DruidDataSource> value) {
+        Gauge.builder(METER_NAME, dataSource, value).tag("datasource", name).tag("state", state).register(registry);
+    }
+
+    /**
+     * leaks/resizes 只在扫描线程里修改
+     */
+    private static class Pool {
+        private final DruidDataSource dataSource;
+
+        private final PoolTelemetryFilter filter;
+
+        private final PoolAutoSizer sizer;
+
+        private volatile long leaks;
+
+        private volatile long resizes;
+
+        Pool(DruidDataSource dataSource, PoolTelemetryFilter filter, PoolAutoSizer sizer) {
+            this.dataSource = dataSource;
+            this.filter = filter;
+            this.sizer = sizer;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ice.db;
+
+import com.ice.config.DruidPoolProperties;
+
+/**
+ * 单个数据源的 maxActive 调整策略：
+ * 出现排队（借连接等待超过阈值或有线程在等）就按步长扩容到上限，
+ * 连续若干周期借出峰值都明显低于当前 maxActive 才按步长收缩，收缩不低于 minIdle。
+ * <p>
+ * 扩容只解决池子不够用的排队；如果瓶颈在数据库（行锁、慢 SQL），上限会挡住无谓的扩张。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 19:25
+ */
+public class PoolAutoSizer {
+    private final DruidPoolProperties.AutoSize config;
+
+    private final DruidPoolProperties.Bounds bounds;
+
+    private int idleScans;
+
+    public PoolAutoSizer(DruidPoolProperties.AutoSize config, DruidPoolProperties.Bounds bounds) {
+        this.config = config;
+        this.bounds = bounds;
+    }
+
+    /**
+     * @return 新的 maxActive，不需要调整时返回 current
+     */
+    public int decide(int current, int minIdle, int waitingThreads, PoolTelemetryFilter.ScanWindow window) {
+        int step = Math.max(1, config.getStep());
+        int floor = Math.max(bounds.getMinActive(), minIdle);
+        int ceiling = Math.max(bounds.getMaxActive(), floor);
+
+        if (window.getSlowBorrows() > 0 || waitingThreads > 0) {
+            idleScans = 0;
+            return Math.min(current + step, ceiling);
+        }
+
+        if (window.getPeakActive() <= current - 2 * step) {
+            if (++idleScans >= config.getShrinkAfterIdleScans()) {
+                idleScans = 0;
+                return Math.max(current - step, floor);
+            }
+        } else {
+            idleScans = 0;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ice.db;
+
+import com.alibaba.druid.filter.Filter;
+
+/**
+ * 需要由 {@link DruidPoolMonitor} 安装到每个连接池上的 Druid Filter。
+ * 单独一个标记接口，避免把 Druid 自己注册到容器的 StatFilter/WallFilter 重复安装。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 21:00
+ */
+public interface PoolFilter extends Filter {
+
+    /**
+     * 被 Druid 丢弃的连接不会回调 dataSource_releaseConnection，按连接登记的状态由
+     * DruidPoolMonitor 每次扫描时调用这里清理，返回清掉的条数
+     */
+    default int purgeDiscarded() {
+        return 0;
+    }
+}
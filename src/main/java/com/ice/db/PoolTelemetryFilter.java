@@ -0,0 +1,222 @@
+package com.ice.db;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.alibaba.druid.filter.FilterAdapter;
+import com.alibaba.druid.filter.FilterChain;
+import com.alibaba.druid.pool.DruidConnectionHolder;
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.pool.DruidPooledConnection;
+import com.ice.metrics.LatencyRecorder;
+import com.ice.metrics.LatencyRegistry;
+
+/**
+ * 挂在单个 DruidDataSource 上的借还统计：
+ * 借连接的等待时间、连接持有时间，以及当前借出连接的登记表（供泄漏检测）。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 19:15
+ */
+public class PoolTelemetryFilter extends FilterAdapter {
+    private final String poolName;
+
+    private final LatencyRecorder waitRecorder;
+
+    private final LatencyRecorder holdRecorder;
+
+    private final long slowWaitNanos;
+
+    private final boolean captureBorrowStack;
+
+    private final Map<DruidPooledConnection, Borrow> borrowed = new ConcurrentHashMap<>();
+
+    private final LongAdder borrows = new LongAdder();
+
+    private final LongAdder slowBorrows = new LongAdder();
+
+    private final LongAdder failedBorrows = new LongAdder();
+
+    private final LongAdder discarded = new LongAdder();
+
+    /**
+     * 两次扫描之间观察到的最大借出数，扫描时清零
+     */
+    private final AtomicInteger peakActive = new AtomicInteger();
+
+    public PoolTelemetryFilter(String poolName, LatencyRegistry latencyRegistry, long slowWaitMillis,
+            boolean captureBorrowStack) {
+        this.poolName = poolName;
+        this.waitRecorder = latencyRegistry.recorder(LatencyRegistry.POOL + poolName + ":wait");
+        this.holdRecorder = latencyRegistry.recorder(LatencyRegistry.POOL + poolName + ":hold");
+        this.slowWaitNanos = TimeUnit.MILLISECONDS.toNanos(slowWaitMillis);
+        this.captureBorrowStack = captureBorrowStack;
+    }
+
+    @Override
+    public DruidPooledConnection dataSource_getConnection(FilterChain chain, DruidDataSource dataSource,
+            long maxWaitMillis) throws SQLException {
+        long start = System.nanoTime();
+        DruidPooledConnection connection;
+        try {
+            connection = chain.dataSource_connect(dataSource, maxWaitMillis);
+        } catch (SQLException | RuntimeException e) {
+            // 等到超时也算一次排队
+            waitRecorder.recordNanos(System.nanoTime() - start);
+            failedBorrows.increment();
+            slowBorrows.increment();
+            throw e;
+        }
+
+        long now = System.nanoTime();
+        long waited = now - start;
+        waitRecorder.recordNanos(waited);
+        borrows.increment();
+        if (waited >= slowWaitNanos) {
+            slowBorrows.increment();
+        }
+        peakActive.accumulateAndGet(dataSource.getActiveCount(), Math::max);
+
+        Thread thread = Thread.currentThread();
+        borrowed.put(connection, new Borrow(now, thread, captureBorrowStack ? new Throwable("borrowed here") : null));
+        return connection;
+    }
+
+    @Override
+    public void dataSource_releaseConnection(FilterChain chain, DruidPooledConnection connection)
+            throws SQLException {
+        Borrow borrow = borrowed.remove(connection);
+        if (borrow != null) {
+            holdRecorder.recordNanos(System.nanoTime() - borrow.borrowNanos);
+        }
+        chain.dataSource_recycle(connection);
+    }
+
+    /**
+     * 清掉不会再归还的借出记录：连接被 Druid 丢弃（致命错误、removeAbandoned 回收）时不走
+     * dataSource_releaseConnection，登记表里的条目只能靠扫描清理。返回清掉的条数
+     */
+    public int purgeDiscarded() {
+        int purged = 0;
+        for (DruidPooledConnection connection : borrowed.keySet()) {
+            if (isDiscarded(connection) && borrowed.remove(connection) != null) {
+                purged++;
+            }
+        }
+        discarded.add(purged);
+        return purged;
+    }
+
+    /**
+     * 连接已被丢弃、回收或关闭，不会再走归还
+     */
+    public static boolean isDiscarded(DruidPooledConnection connection) {
+        DruidConnectionHolder holder = connection.getConnectionHolder();
+        if (holder == null || holder.isDiscard() || connection.isDisable() || connection.isAbandonded()) {
+            return true;
+        }
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    /**
+     * 持有时间超过阈值的借出记录，每条只返回一次
+     */
+    public List<Borrow> collectLeaks(long thresholdNanos) {
+        List<Borrow> leaks = new ArrayList<>();
+        long now = System.nanoTime();
+        for (Borrow borrow : borrowed.values()) {
+            if (!borrow.reported && now - borrow.borrowNanos >= thresholdNanos) {
+                borrow.reported = true;
+                leaks.add(borrow);
+            }
+        }
+        return leaks;
+    }
+
+    /**
+     * 读取并清零本周期的排队次数和借出峰值，供自动扩缩使用
+     */
+    public ScanWindow drainWindow() {
+        return new ScanWindow(slowBorrows.sumThenReset(), peakActive.getAndSet(0));
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getBorrowedCount() {
+        return borrowed.size();
+    }
+
+    public long getBorrows() {
+        return borrows.sum();
+    }
+
+    public long getFailedBorrows() {
+        return failedBorrows.sum();
+    }
+
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+
+    public static class Borrow {
+        private final long borrowNanos;
+
+        private final Thread thread;
+
+        private final Throwable borrowStack;
+
+        private volatile boolean reported;
+
+        Borrow(long borrowNanos, Thread thread, Throwable borrowStack) {
+            this.borrowNanos = borrowNanos;
+            this.thread = thread;
+            this.borrowStack = borrowStack;
+        }
+
+        public long heldMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - borrowNanos);
+        }
+
+        public Thread getThread() {
+            return thread;
+        }
+
+        /**
+         * 借出时的调用栈，未开启 captureBorrowStack 时为 null
+         */
+        public Throwable getBorrowStack() {
+            return borrowStack;
+        }
+    }
+
+    public static class ScanWindow {
+        private final long slowBorrows;
+
+        private final int peakActive;
+
+        ScanWindow(long slowBorrows, int peakActive) {
+            this.slowBorrows = slowBorrows;
+            this.peakActive = peakActive;
+        }
+
+        public long getSlowBorrows() {
+            return slowBorrows;
+        }
+
+        public int getPeakActive() {
+            return peakActive;
+        }
+    }
+}
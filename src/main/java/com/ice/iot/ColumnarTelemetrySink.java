@@ -0,0 +1,31 @@
+package com.ice.iot;
+
+import com.ice.sync.ColumnarSink;
+import com.ice.sync.DiscardingColumnarSink;
+
+/**
+ * 通过 ColumnarSink 落库（ClickHouse / 内存）
+ *
+ * @author : eclair
+ * @date : 2026/10/19 10:27
+ */
+public class ColumnarTelemetrySink implements TelemetrySink {
+    private final ColumnarSink columnarSink;
+
+    private final String table;
+
+    public ColumnarTelemetrySink(ColumnarSink columnarSink, String table) {
+        this.columnarSink = columnarSink;
+        this.table = table;
+    }
+
+    @Override
+    public void write(TelemetryBatch batch) throws Exception {
+        columnarSink.insert(table, batch.toColumnarBatch());
+    }
+
+    @Override
+    public boolean isPersistent() {
+        return !(columnarSink instanceof DiscardingColumnarSink);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ice.iot;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 有界多生产者多消费者环形队列，每个槽位用序号做占用标记，入队出队都只有一次 CAS，没有锁。
+ * <p>
+ * 容量会向上取整到 2 的幂。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 10:08
+ */
+public class FrameRingBuffer {
+    private final int mask;
+
+    private final byte[][] frames;
+
+    private final long[] enqueueNanos;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong head = new AtomicLong();
+
+    private final AtomicLong tail = new AtomicLong();
+
+    public FrameRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.frames = new byte[size][];
+        this.enqueueNanos = new long[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return 队列已满时返回 false
+     */
+    public boolean offer(byte[] frame, long nanos) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long seq = sequences.get(index);
+            long diff = seq - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    frames[index] = frame;
+                    enqueueNanos[index] = nanos;
+                    sequences.lazySet(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 取出一帧，队列为空时返回 null；enqueueNanosOut 不为空时写入该帧的入队时间
+     */
+    public byte[] poll(long[] enqueueNanosOut) {
+        long pos = head.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long seq = sequences.get(index);
+            long diff = seq - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    byte[] frame = frames[index];
+                    if (enqueueNanosOut != null) {
+                        enqueueNanosOut[0] = enqueueNanos[index];
+                    }
+                    frames[index] = null;
+                    sequences.lazySet(index, pos + mask + 1);
+                    return frame;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ice.iot;
+
+import java.util.Arrays;
+
+/**
+ * 把一段连续的字节按帧长度切开投递给流水线
+ *
+ * @author : eclair
+ * @date : 2026/10/19 10:48
+ */
+public class FrameSplitter {
+    private FrameSplitter() {
+    }
+
+    /**
+     * 遇到长度非法或被截断的帧时计一次坏帧并丢弃剩余字节，后面的数据无法再对齐帧边界
+     *
+     * @return 成功入队的帧数
+     */
+    public static int split(byte[] data, int length, TelemetryIngestPipeline pipeline) {
+        int offset = 0;
+        int accepted = 0;
+        while (offset < length) {
+            int frameLength = TelemetryFrameDecoder.frameLength(data, offset);
+            if (frameLength < 0 || offset + frameLength > length) {
+                pipeline.recordMalformed();
+                break;
+            }
+            if (pipeline.offer(Arrays.copyOfRange(data, offset, offset + frameLength))) {
+                accepted++;
+            }
+            offset += frameLength;
+        }
+        return accepted;
+    }
+}
@@ -0,0 +1,106 @@
+package com.ice.iot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 各阶段计数，热路径只做 LongAdder 累加；snapshot 时按两次快照的差值算速率
+ *
+ * @author : eclair
+ * @date : 2026/10/19 10:30
+ */
+public class IngestStats {
+    final LongAdder received = new LongAdder();
+
+    final LongAdder dropped = new LongAdder();
+
+    final LongAdder decoded = new LongAdder();
+
+    final LongAdder decodeErrors = new LongAdder();
+
+    /**
+     * 长度字段非法或被截断的帧，切帧时就丢掉，不会入队
+     */
+    final LongAdder malformedFrames = new LongAdder();
+
+    final LongAdder pointsWritten = new LongAdder();
+
+    final LongAdder batchesWritten = new LongAdder();
+
+    /**
+     * 至少一个 sink 写失败的批次和点数，不计入 pointsWritten/batchesWritten
+     */
+    final LongAdder batchesFailed = new LongAdder();
+
+    final LongAdder pointsFailed = new LongAdder();
+
+    /**
+     * 写入成功但所有 sink 都不保留数据（没开 ClickHouse 同步）的批次和点数，不计入 pointsWritten/batchesWritten
+     */
+    final LongAdder batchesDiscarded = new LongAdder();
+
+    final LongAdder pointsDiscarded = new LongAdder();
+
+    final LongAdder writeErrors = new LongAdder();
+
+    final LongAdder writeNanos = new LongAdder();
+
+    /**
+     * 上次快照以来帧从入队到被解码的最大等待时间
+     */
+    final AtomicLong maxQueueLagNanos = new AtomicLong();
+
+    private long lastSnapshotNanos = System.nanoTime();
+
+    private long lastReceived;
+
+    private long lastDecoded;
+
+    private long lastPoints;
+
+    void recordQueueLag(long lagNanos) {
+        long current = maxQueueLagNanos.get();
+        while (lagNanos > current && !maxQueueLagNanos.compareAndSet(current, lagNanos)) {
+            current = maxQueueLagNanos.get();
+        }
+    }
+
+    public synchronized Map<String, Object> snapshot(int queueSize, int queueCapacity) {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-9, (now - lastSnapshotNanos) / 1e9);
+        long receivedNow = received.sum();
+        long decodedNow = decoded.sum();
+        long pointsNow = pointsWritten.sum();
+        long batches = batchesWritten.sum();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("received", receivedNow);
+        result.put("dropped", dropped.sum());
+        result.put("decoded", decodedNow);
+        result.put("decodeErrors", decodeErrors.sum());
+        result.put("malformedFrames", malformedFrames.sum());
+        result.put("pointsWritten", pointsNow);
+        result.put("batchesWritten", batches);
+        result.put("pointsFailed", pointsFailed.sum());
+        result.put("batchesFailed", batchesFailed.sum());
+        result.put("pointsDiscarded", pointsDiscarded.sum());
+        result.put("batchesDiscarded", batchesDiscarded.sum());
+        result.put("writeErrors", writeErrors.sum());
+        result.put("receivePerSec", (long) ((receivedNow - lastReceived) / seconds));
+        result.put("decodePerSec", (long) ((decodedNow - lastDecoded) / seconds));
+        result.put("writePointsPerSec", (long) ((pointsNow - lastPoints) / seconds));
+        long attempts = batches + batchesFailed.sum();
+        result.put("avgWriteMillis", attempts == 0 ? 0.0 : writeNanos.sum() / 1e6 / attempts);
+        result.put("queueSize", queueSize);
+        result.put("queueCapacity", queueCapacity);
+        result.put("maxQueueLagMillis", maxQueueLagNanos.getAndSet(0) / 1e6);
+
+        lastSnapshotNanos = now;
+        lastReceived = receivedNow;
+        lastDecoded = decodedNow;
+        lastPoints = pointsNow;
+        return result;
+    }
+}
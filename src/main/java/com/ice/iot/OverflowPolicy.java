@@ -0,0 +1,22 @@
+package com.ice.iot;
+
+/**
+ * 接入队列满时的处理策略
+ *
+ * @author : eclair
+ * @date : 2026/10/19 10:05
+ */
+public enum OverflowPolicy {
+    /**
+     * 生产者等待队列腾出空间，超过 blockTimeoutMillis 仍然满则丢弃当前帧
+     */
+    BLOCK,
+    /**
+     * 直接丢弃当前帧
+     */
+    DROP_NEWEST,
+    /**
+     * 挤掉队列里最老的一帧，保证新数据进入
+     */
+    DROP_OLDEST
+}
@@ -0,0 +1,289 @@
+package com.ice.iot;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 一个锁分段内的全部序列（设备 + 指标）。序列属性和分钟桶都按列放在基本类型数组里，
+ * 序列 s 的分钟 m 落在下标 s * buckets + m % buckets，环形复用；查找用开放寻址表，存序列下标 + 1。
+ * <p>
+ * 所有方法都要求调用方持有 {@link #lock}。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 18:55
+ */
+final class SeriesStripe {
+    static final int ADDED = 0;
+
+    /**
+     * 所在分钟已经刷写关闭，或者环里同一格已经是更新的分钟
+     */
+    static final int LATE = 1;
+
+    /**
+     * 写入覆盖了一个还没刷写的旧分钟桶，retentionMinutes 配小了
+     */
+    static final int EVICTED = 2;
+
+    final ReentrantLock lock = new ReentrantLock();
+
+    private final int buckets;
+
+    /**
+     * 不大于它的分钟已经刷写过，不再接收
+     */
+    long closedThrough = Long.MIN_VALUE;
+
+    private int seriesCount;
+
+    private long[] deviceIds;
+
+    private int[] metrics;
+
+    private long[] lastMinutes;
+
+    private int[] table;
+
+    private long[] minutes;
+
+    private float[] mins;
+
+    private float[] maxs;
+
+    private double[] sums;
+
+    private int[] counts;
+
+    SeriesStripe(int buckets, int initialSeries) {
+        this.buckets = buckets;
+        // 查找表长度是序列容量的两倍，要求序列容量是 2 的幂
+        int series = 4;
+        while (series < initialSeries) {
+            series <<= 1;
+        }
+        allocate(series);
+    }
+
+    int add(long deviceId, int metric, long minute, float value) {
+        if (minute <= closedThrough) {
+            return LATE;
+        }
+        int s = findOrCreate(deviceId, metric);
+        int c = s * buckets + (int) Math.floorMod(minute, (long) buckets);
+        long current = minutes[c];
+        if (current == minute) {
+            if (value < mins[c]) {
+                mins[c] = value;
+            }
+            if (value > maxs[c]) {
+                maxs[c] = value;
+            }
+            sums[c] += value;
+            counts[c]++;
+            return ADDED;
+        }
+        if (minute < current) {
+            return LATE;
+        }
+
+        int result = counts[c] > 0 && current > closedThrough ? EVICTED : ADDED;
+        minutes[c] = minute;
+        mins[c] = value;
+        maxs[c] = value;
+        sums[c] = value;
+        counts[c] = 1;
+        if (minute > lastMinutes[s]) {
+            lastMinutes[s] = minute;
+        }
+        return result;
+    }
+
+    /**
+     * 把 (closedThrough, through] 的桶追加到 out，然后关闭这些分钟
+     */
+    void close(long through, TelemetryRollupBatch out) {
+        if (through <= closedThrough) {
+            return;
+        }
+        for (int s = 0; s < seriesCount; s++) {
+            int base = s * buckets;
+            for (int c = base; c < base + buckets; c++) {
+                long minute = minutes[c];
+                if (counts[c] > 0 && minute > closedThrough && minute <= through) {
+                    out.add(deviceIds[s], metrics[s], minute, mins[c], maxs[c], sums[c], counts[c]);
+                }
+            }
+        }
+        closedThrough = through;
+    }
+
+    /**
+     * 查询某个指标在 [from, to] 分钟内所有序列的汇总
+     */
+    void aggregate(int metric, long from, long to, TelemetryRollup acc) {
+        for (int s = 0; s < seriesCount; s++) {
+            if (metrics[s] != metric || lastMinutes[s] < from) {
+                continue;
+            }
+            aggregateSeries(s, from, to, acc);
+        }
+    }
+
+    /**
+     * 单个序列 [from, to] 分钟内每分钟一行
+     */
+    void collect(long deviceId, int metric, long from, long to, TelemetryRollupBatch out) {
+        int s = find(deviceId, metric);
+        if (s < 0) {
+            return;
+        }
+        int base = s * buckets;
+        for (int c = base; c < base + buckets; c++) {
+            long minute = minutes[c];
+            if (counts[c] > 0 && minute >= from && minute <= to) {
+                out.add(deviceId, metric, minute, mins[c], maxs[c], sums[c], counts[c]);
+            }
+        }
+    }
+
+    /**
+     * 去掉最后一个点早于 expireBefore 的序列，桶都已刷写过才可以调用
+     *
+     * @return 去掉的序列数
+     */
+    int compact(long expireBefore) {
+        int w = 0;
+        for (int s = 0; s < seriesCount; s++) {
+            if (lastMinutes[s] < expireBefore) {
+                continue;
+            }
+            if (w != s) {
+                deviceIds[w] = deviceIds[s];
+                metrics[w] = metrics[s];
+                lastMinutes[w] = lastMinutes[s];
+                int from = s * buckets;
+                int to = w * buckets;
+                System.arraycopy(minutes, from, minutes, to, buckets);
+                System.arraycopy(mins, from, mins, to, buckets);
+                System.arraycopy(maxs, from, maxs, to, buckets);
+                System.arraycopy(sums, from, sums, to, buckets);
+                System.arraycopy(counts, from, counts, to, buckets);
+            }
+            w++;
+        }
+        int removed = seriesCount - w;
+        if (removed > 0) {
+            seriesCount = w;
+            Arrays.fill(minutes, w * buckets, deviceIds.length * buckets, Long.MIN_VALUE);
+            Arrays.fill(counts, w * buckets, deviceIds.length * buckets, 0);
+            rebuildTable();
+        }
+        return removed;
+    }
+
+    int seriesCount() {
+        return seriesCount;
+    }
+
+    /**
+     * 各列数组占用的字节数，不含对象头
+     */
+    long capacityBytes() {
+        long series = deviceIds.length;
+        return series * (8 + 4 + 8) + table.length * 4L + series * buckets * (8 + 4 + 4 + 8 + 4);
+    }
+
+    private void aggregateSeries(int s, long from, long to, TelemetryRollup acc) {
+        int base = s * buckets;
+        for (int c = base; c < base + buckets; c++) {
+            long minute = minutes[c];
+            if (counts[c] > 0 && minute >= from && minute <= to) {
+                acc.add(mins[c], maxs[c], sums[c], counts[c]);
+            }
+        }
+    }
+
+    private int find(long deviceId, int metric) {
+        int mask = table.length - 1;
+        for (int i = hash(deviceId, metric) & mask;; i = (i + 1) & mask) {
+            int slot = table[i];
+            if (slot == 0) {
+                return -1;
+            }
+            if (deviceIds[slot - 1] == deviceId && metrics[slot - 1] == metric) {
+                return slot - 1;
+            }
+        }
+    }
+
+    private int findOrCreate(long deviceId, int metric) {
+        int mask = table.length - 1;
+        int i = hash(deviceId, metric) & mask;
+        for (;; i = (i + 1) & mask) {
+            int slot = table[i];
+            if (slot == 0) {
+                break;
+            }
+            if (deviceIds[slot - 1] == deviceId && metrics[slot - 1] == metric) {
+                return slot - 1;
+            }
+        }
+
+        if (seriesCount == deviceIds.length) {
+            grow();
+            return findOrCreate(deviceId, metric);
+        }
+        int s = seriesCount++;
+        deviceIds[s] = deviceId;
+        metrics[s] = metric;
+        lastMinutes[s] = Long.MIN_VALUE;
+        table[i] = s + 1;
+        return s;
+    }
+
+    private void allocate(int series) {
+        deviceIds = new long[series];
+        metrics = new int[series];
+        lastMinutes = new long[series];
+        table = new int[series * 2];
+        minutes = new long[series * buckets];
+        Arrays.fill(minutes, Long.MIN_VALUE);
+        mins = new float[series * buckets];
+        maxs = new float[series * buckets];
+        sums = new double[series * buckets];
+        counts = new int[series * buckets];
+    }
+
+    private void grow() {
+        int old = deviceIds.length;
+        int series = old * 2;
+        deviceIds = Arrays.copyOf(deviceIds, series);
+        metrics = Arrays.copyOf(metrics, series);
+        lastMinutes = Arrays.copyOf(lastMinutes, series);
+        minutes = Arrays.copyOf(minutes, series * buckets);
+        Arrays.fill(minutes, old * buckets, series * buckets, Long.MIN_VALUE);
+        mins = Arrays.copyOf(mins, series * buckets);
+        maxs = Arrays.copyOf(maxs, series * buckets);
+        sums = Arrays.copyOf(sums, series * buckets);
+        counts = Arrays.copyOf(counts, series * buckets);
+        table = new int[series * 2];
+        rebuildTable();
+    }
+
+    private void rebuildTable() {
+        Arrays.fill(table, 0);
+        int mask = table.length - 1;
+        for (int s = 0; s < seriesCount; s++) {
+            int i = hash(deviceIds[s], metrics[s]) & mask;
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = s + 1;
+        }
+    }
+
+    private static int hash(long deviceId, int metric) {
+        long h = (deviceId * 31 + metric) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,369 @@
+package com.ice.iot;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.ice.config.IotAggregateProperties;
+import com.ice.sync.ColumnarSink;
+import com.ice.sync.DiscardingColumnarSink;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 遥测分钟级聚合：作为 TelemetrySink 挂在接入流水线后面，按设备散列到锁分段，
+ * 每个序列（设备 + 指标）保留最近 retentionMinutes 个分钟桶的 min/max/sum/count，全部是基本类型列。
+ * <p>
+ * 写入时先把一批点按分段做计数排序，每个分段只加一次锁。刷写线程定期关闭
+ * allowedLatenessMinutes 之前的分钟，把这些桶的汇总经 ColumnarSink 落库，之后到达的点计为迟到。
+ * 查询在 ForkJoinPool 里按分段二分，叶子逐段加锁扫描后合并。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 19:05
+ */
+@Slf4j
+public class TelemetryAggregator implements TelemetrySink {
+    static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * 查询叶子任务负责的分段数
+     */
+    private static final int LEAF_STRIPES = 4;
+
+    /**
+     * 落库连续失败时最多攒这么多行等重试，再多就丢掉
+     */
+    private static final int MAX_PENDING_ROWS = 1 << 20;
+
+    private final SeriesStripe[] stripes;
+
+    private final int mask;
+
+    private final ColumnarSink columnarSink;
+
+    private final IotAggregateProperties properties;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private final LongAdder points = new LongAdder();
+
+    private final LongAdder latePoints = new LongAdder();
+
+    private final LongAdder evictedBuckets = new LongAdder();
+
+    private final LongAdder rollupsWritten = new LongAdder();
+
+    private final LongAdder rollupsDropped = new LongAdder();
+
+    private final LongAdder flushErrors = new LongAdder();
+
+    private final LongAdder expiredSeries = new LongAdder();
+
+    private final TelemetryRollupBatch pending = new TelemetryRollupBatch(1024);
+
+    private volatile long closedThrough = Long.MIN_VALUE;
+
+    private volatile long lastFlushMillis;
+
+    private final ForkJoinPool queryPool;
+
+    private ScheduledExecutorService scheduler;
+
+    public TelemetryAggregator(ColumnarSink columnarSink, IotAggregateProperties properties) {
+        if (properties.getRetentionMinutes() <= properties.getAllowedLatenessMinutes() + 1) {
+            throw new IllegalArgumentException("retentionMinutes must exceed allowedLatenessMinutes + 1");
+        }
+        int n = 1;
+        while (n < properties.getStripes()) {
+            n <<= 1;
+        }
+        this.stripes = new SeriesStripe[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new SeriesStripe(properties.getRetentionMinutes(), 16);
+        }
+        this.mask = n - 1;
+        this.columnarSink = columnarSink;
+        this.properties = properties;
+        this.queryPool = new ForkJoinPool(Math.max(1, properties.getQueryParallelism()));
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "iot-rollup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                flush(currentMinute() - 1 - properties.getAllowedLatenessMinutes());
+            } catch (Exception e) {
+                log.error("telemetry rollup flush error", e);
+            }
+        }, properties.getFlushIntervalMillis(), properties.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 停机时连同当前分钟一起刷出去，这一分钟重启后还会再写一行，落库表需要按 (device_id, metric, ts) 合并
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        flush(currentMinute());
+        queryPool.shutdown();
+    }
+
+    @Override
+    public void write(TelemetryBatch batch) {
+        int size = batch.size();
+        if (size == 0) {
+            return;
+        }
+
+        // 按分段计数排序，一个分段的点连续处理，只加一次锁
+        Scratch s = scratch.get().ensure(size, stripes.length);
+        int[] offsets = s.offsets;
+        int[] stripeOf = s.stripeOf;
+        int[] order = s.order;
+        Arrays.fill(offsets, 0);
+        for (int i = 0; i < size; i++) {
+            int stripe = stripe(batch.deviceId(i));
+            stripeOf[i] = stripe;
+            offsets[stripe + 1]++;
+        }
+        for (int i = 0; i < stripes.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] cursor = s.cursor;
+        System.arraycopy(offsets, 0, cursor, 0, stripes.length);
+        for (int i = 0; i < size; i++) {
+            order[cursor[stripeOf[i]]++] = i;
+        }
+
+        int late = 0;
+        int evicted = 0;
+        for (int st = 0; st < stripes.length; st++) {
+            int from = offsets[st];
+            int to = offsets[st + 1];
+            if (from == to) {
+                continue;
+            }
+            SeriesStripe stripe = stripes[st];
+            stripe.lock.lock();
+            try {
+                for (int k = from; k < to; k++) {
+                    int i = order[k];
+                    int result = stripe.add(batch.deviceId(i), batch.metric(i),
+                            Math.floorDiv(batch.timestamp(i), MINUTE_MILLIS), batch.value(i));
+                    if (result == SeriesStripe.LATE) {
+                        late++;
+                    } else if (result == SeriesStripe.EVICTED) {
+                        evicted++;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        points.add(size - late);
+        if (late > 0) {
+            latePoints.add(late);
+        }
+        if (evicted > 0) {
+            evictedBuckets.add(evicted);
+        }
+    }
+
+    /**
+     * 分钟汇总只在内存里留 retentionMinutes，落库目标是丢弃型时不算保留
+     */
+    @Override
+    public boolean isPersistent() {
+        return !(columnarSink instanceof DiscardingColumnarSink);
+    }
+
+    /**
+     * 关闭不晚于 through 的分钟并落库，顺带清掉整个保留期内都没有数据的序列
+     */
+    synchronized void flush(long through) {
+        TelemetryRollupBatch out = pending;
+        if (through > closedThrough) {
+            long expireBefore = through - properties.getRetentionMinutes();
+            int expired = 0;
+            for (SeriesStripe stripe : stripes) {
+                stripe.lock.lock();
+                try {
+                    stripe.close(through, out);
+                    expired += stripe.compact(expireBefore);
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+            closedThrough = through;
+            expiredSeries.add(expired);
+            lastFlushMillis = System.currentTimeMillis();
+        }
+
+        if (out.isEmpty()) {
+            return;
+        }
+        try {
+            columnarSink.insert(properties.getTable(), out.toColumnarBatch());
+            rollupsWritten.add(out.size());
+            out.clear();
+        } catch (Exception e) {
+            // 分钟已经关闭，汇总留在 pending 里下次刷写一起重试
+            flushErrors.increment();
+            log.error("telemetry rollup insert error, rows={}", out.size(), e);
+            if (out.size() > MAX_PENDING_ROWS) {
+                rollupsDropped.add(out.size());
+                out.clear();
+            }
+        }
+    }
+
+    /**
+     * 所有设备某个指标在 [fromMillis, toMillis] 所在分钟内的汇总
+     */
+    public TelemetryRollup query(int metric, long fromMillis, long toMillis) {
+        return queryPool.invoke(new StripeRange(metric, Math.floorDiv(fromMillis, MINUTE_MILLIS),
+                Math.floorDiv(toMillis, MINUTE_MILLIS), 0, stripes.length));
+    }
+
+    /**
+     * 单个设备某个指标每分钟一行，按分钟升序
+     */
+    public List<Map<String, Object>> device(long deviceId, int metric, long fromMillis, long toMillis) {
+        TelemetryRollupBatch out = new TelemetryRollupBatch(properties.getRetentionMinutes());
+        SeriesStripe stripe = stripes[stripe(deviceId)];
+        stripe.lock.lock();
+        try {
+            stripe.collect(deviceId, metric, Math.floorDiv(fromMillis, MINUTE_MILLIS),
+                    Math.floorDiv(toMillis, MINUTE_MILLIS), out);
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        List<Map<String, Object>> rows = out.toRows();
+        rows.sort(Comparator.comparingLong(row -> (Long) row.get("ts")));
+        return rows;
+    }
+
+    public Map<String, Object> snapshot() {
+        long series = 0;
+        long bytes = 0;
+        for (SeriesStripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                series += stripe.seriesCount();
+                bytes += stripe.capacityBytes();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("stripes", stripes.length);
+        result.put("series", series);
+        result.put("columnBytes", bytes);
+        result.put("points", points.sum());
+        result.put("latePoints", latePoints.sum());
+        result.put("evictedBuckets", evictedBuckets.sum());
+        result.put("expiredSeries", expiredSeries.sum());
+        result.put("rollupsWritten", rollupsWritten.sum());
+        result.put("rollupsDropped", rollupsDropped.sum());
+        result.put("flushErrors", flushErrors.sum());
+        long closed = closedThrough;
+        result.put("closedThroughMillis", closed == Long.MIN_VALUE ? null : closed * MINUTE_MILLIS);
+        result.put("lastFlushMillis", lastFlushMillis);
+        return result;
+    }
+
+    private int stripe(long deviceId) {
+        long h = deviceId * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    private static long currentMinute() {
+        return Math.floorDiv(System.currentTimeMillis(), MINUTE_MILLIS);
+    }
+
+    private class StripeRange extends RecursiveTask<TelemetryRollup> {
+        private final int metric;
+
+        private final long from;
+
+        private final long to;
+
+        private final int lo;
+
+        private final int hi;
+
+        StripeRange(int metric, long from, long to, int lo, int hi) {
+            this.metric = metric;
+            this.from = from;
+            this.to = to;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected TelemetryRollup compute() {
+            if (hi - lo <= LEAF_STRIPES) {
+                TelemetryRollup acc = new TelemetryRollup();
+                for (int i = lo; i < hi; i++) {
+                    SeriesStripe stripe = stripes[i];
+                    stripe.lock.lock();
+                    try {
+                        stripe.aggregate(metric, from, to, acc);
+                    } finally {
+                        stripe.lock.unlock();
+                    }
+                }
+                return acc;
+            }
+            int mid = (lo + hi) >>> 1;
+            StripeRange left = new StripeRange(metric, from, to, lo, mid);
+            left.fork();
+            TelemetryRollup right = new StripeRange(metric, from, to, mid, hi).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * 写入线程各自的排序缓冲，按批大小和分段数扩容
+     */
+    private static final class Scratch {
+        int[] stripeOf = new int[0];
+
+        int[] order = new int[0];
+
+        int[] offsets = new int[0];
+
+        int[] cursor = new int[0];
+
+        Scratch ensure(int size, int stripeCount) {
+            if (stripeOf.length < size) {
+                stripeOf = new int[size];
+                order = new int[size];
+            }
+            if (offsets.length != stripeCount + 1) {
+                offsets = new int[stripeCount + 1];
+                cursor = new int[stripeCount];
+            }
+            return this;
+        }
+    }
+}
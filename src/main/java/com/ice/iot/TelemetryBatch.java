@@ -0,0 +1,82 @@
+package com.ice.iot;
+
+import java.util.Arrays;
+
+import com.ice.sync.ColumnarBatch;
+
+/**
+ * 解码后的遥测点，按列存放，避免每个点一个对象
+ *
+ * @author : eclair
+ * @date : 2026/10/19 10:15
+ */
+public class TelemetryBatch {
+    private static final String[] COLUMNS = { "device_id", "metric", "value", "ts" };
+
+    private final long[] deviceIds;
+
+    private final int[] metrics;
+
+    private final float[] values;
+
+    private final long[] timestamps;
+
+    private int size;
+
+    public TelemetryBatch(int capacity) {
+        this.deviceIds = new long[capacity];
+        this.metrics = new int[capacity];
+        this.values = new float[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    public void add(long deviceId, int metric, float value, long timestamp) {
+        deviceIds[size] = deviceId;
+        metrics[size] = metric;
+        values[size] = value;
+        timestamps[size] = timestamp;
+        size++;
+    }
+
+    public int remaining() {
+        return deviceIds.length - size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public long deviceId(int i) {
+        return deviceIds[i];
+    }
+
+    public int metric(int i) {
+        return metrics[i];
+    }
+
+    public float value(int i) {
+        return values[i];
+    }
+
+    public long timestamp(int i) {
+        return timestamps[i];
+    }
+
+    /**
+     * 按列拷贝成通用列式批次交给 ColumnarSink 写库，保持基本类型数组，不逐点装箱；
+     * 本批次清空后会被复用，所以必须拷贝
+     */
+    public ColumnarBatch toColumnarBatch() {
+        Object[] columns = { Arrays.copyOf(deviceIds, size), Arrays.copyOf(metrics, size),
+                Arrays.copyOf(values, size), Arrays.copyOf(timestamps, size) };
+        return new ColumnarBatch(COLUMNS, columns, size, 0L);
+    }
+}
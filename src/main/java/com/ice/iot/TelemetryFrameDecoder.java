@@ -0,0 +1,81 @@
+package com.ice.iot;
+
+import com.ice.util.CommonUtils;
+
+/**
+ * 遥测帧解码。帧格式（大端）：
+ *
+ * <pre>
+ * 0        起始符 0x68
+ * 1-4      设备id int32
+ * 5-6      点数 N uint16
+ * 7..      N 个点，每个点 2 字节指标编码 + 4 字节 IEEE754 float
+ * </pre>
+ *
+ * @author : eclair
+ * @date : 2026/10/19 10:20
+ */
+public class TelemetryFrameDecoder {
+    public static final byte START = 0x68;
+
+    public static final int HEADER_LENGTH = 7;
+
+    public static final int POINT_LENGTH = 6;
+
+    private TelemetryFrameDecoder() {
+    }
+
+    /**
+     * 从 offset 开始的一帧的总长度，数据不足以判断时返回 -1
+     */
+    public static int frameLength(byte[] data, int offset) {
+        if (data.length - offset < HEADER_LENGTH || data[offset] != START) {
+            return -1;
+        }
+        return HEADER_LENGTH + CommonUtils.readUInt16(data, offset + 5) * POINT_LENGTH;
+    }
+
+    public static int pointCount(byte[] frame) {
+        return frame.length < HEADER_LENGTH ? 0 : CommonUtils.readUInt16(frame, 5);
+    }
+
+    /**
+     * 解码一帧追加到 batch，调用方需保证 batch 剩余空间不少于 pointCount
+     *
+     * @return 帧非法时返回 false，batch 不变
+     */
+    public static boolean decode(byte[] frame, long timestamp, TelemetryBatch batch) {
+        int length = frameLength(frame, 0);
+        if (length < 0 || length != frame.length) {
+            return false;
+        }
+
+        long deviceId = CommonUtils.readInt32(frame, 1) & 0xFFFFFFFFL;
+        int count = CommonUtils.readUInt16(frame, 5);
+        int pos = HEADER_LENGTH;
+        for (int i = 0; i < count; i++) {
+            int metric = CommonUtils.readUInt16(frame, pos);
+            float value = CommonUtils.readFloat32(frame, pos + 2);
+            batch.add(deviceId, metric, value, timestamp);
+            pos += POINT_LENGTH;
+        }
+        return true;
+    }
+
+    /**
+     * 编码，给压测和模拟设备使用
+     */
+    public static byte[] encode(long deviceId, int[] metrics, float[] values) {
+        byte[] frame = new byte[HEADER_LENGTH + metrics.length * POINT_LENGTH];
+        frame[0] = START;
+        System.arraycopy(CommonUtils.fromInt32((int) deviceId), 0, frame, 1, 4);
+        System.arraycopy(CommonUtils.fromInt16(metrics.length), 0, frame, 5, 2);
+        int pos = HEADER_LENGTH;
+        for (int i = 0; i < metrics.length; i++) {
+            System.arraycopy(CommonUtils.fromInt16(metrics[i]), 0, frame, pos, 2);
+            System.arraycopy(CommonUtils.fromInt32(Float.floatToIntBits(values[i])), 0, frame, pos + 2, 4);
+            pos += POINT_LENGTH;
+        }
+        return frame;
+    }
+}
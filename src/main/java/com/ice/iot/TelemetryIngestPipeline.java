@@ -0,0 +1,198 @@
+package com.ice.iot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.ice.config.IotIngestProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 遥测接入流水线：接收线程 offer 到环形队列，解码线程各自攒批，按条数或时间批量写入。
+ * <p>
+ * 每个解码线程持有自己的 TelemetryBatch，线程之间除了队列本身没有共享状态。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 10:35
+ */
+@Slf4j
+public class TelemetryIngestPipeline {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final FrameRingBuffer queue;
+
+    private final List<TelemetrySink> sinks;
+
+    private final IotIngestProperties properties;
+
+    /**
+     * 至少有一个 sink 真正保留数据
+     */
+    private final boolean persistent;
+
+    private final IngestStats stats = new IngestStats();
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public TelemetryIngestPipeline(List<TelemetrySink> sinks, IotIngestProperties properties) {
+        this.queue = new FrameRingBuffer(properties.getQueueCapacity());
+        this.sinks = sinks;
+        this.properties = properties;
+        this.persistent = sinks.stream().anyMatch(TelemetrySink::isPersistent);
+        if (!persistent) {
+            log.warn("no persistent telemetry sink configured, decoded points will be discarded");
+        }
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            Thread worker = new Thread(this::runWorker, "iot-decode-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    public synchronized void stop() {
+        running = false;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+    }
+
+    /**
+     * 接收入口，HTTP/UDP 线程调用
+     *
+     * @return 帧被丢弃时返回 false
+     */
+    public boolean offer(byte[] frame) {
+        stats.received.increment();
+        long now = System.nanoTime();
+        if (queue.offer(frame, now)) {
+            return true;
+        }
+
+        switch (properties.getOverflowPolicy()) {
+            case DROP_OLDEST:
+                while (!queue.offer(frame, now)) {
+                    if (queue.poll(null) != null) {
+                        stats.dropped.increment();
+                    }
+                }
+                return true;
+            case BLOCK:
+                long deadline = now + TimeUnit.MILLISECONDS.toNanos(properties.getBlockTimeoutMillis());
+                while (System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    if (queue.offer(frame, now)) {
+                        return true;
+                    }
+                }
+                stats.dropped.increment();
+                return false;
+            case DROP_NEWEST:
+            default:
+                stats.dropped.increment();
+                return false;
+        }
+    }
+
+    /**
+     * 切帧时发现的坏帧，由 FrameSplitter 上报
+     */
+    public void recordMalformed() {
+        stats.malformedFrames.increment();
+    }
+
+    public Map<String, Object> stats() {
+        return stats.snapshot(queue.size(), queue.capacity());
+    }
+
+    private void runWorker() {
+        TelemetryBatch batch = new TelemetryBatch(properties.getBatchSize());
+        long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(properties.getBatchMaxDelayMillis());
+        long[] enqueueNanos = new long[1];
+        long batchStart = 0;
+
+        while (running || queue.size() > 0) {
+            byte[] frame = queue.poll(enqueueNanos);
+            long now = System.nanoTime();
+            if (frame == null) {
+                if (!batch.isEmpty() && now - batchStart >= maxDelayNanos) {
+                    flush(batch);
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            stats.recordQueueLag(now - enqueueNanos[0]);
+            int points = TelemetryFrameDecoder.pointCount(frame);
+            if (points > properties.getBatchSize()) {
+                stats.decodeErrors.increment();
+                continue;
+            }
+            if (points > batch.remaining()) {
+                flush(batch);
+            }
+            if (batch.isEmpty()) {
+                batchStart = now;
+            }
+
+            if (TelemetryFrameDecoder.decode(frame, System.currentTimeMillis(), batch)) {
+                stats.decoded.increment();
+            } else {
+                stats.decodeErrors.increment();
+            }
+
+            if (batch.remaining() == 0 || now - batchStart >= maxDelayNanos) {
+                flush(batch);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(TelemetryBatch batch) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        for (TelemetrySink sink : sinks) {
+            try {
+                sink.write(batch);
+            } catch (Exception e) {
+                failed = true;
+                stats.writeErrors.increment();
+                log.error("telemetry sink {} write error, points={}", sink.getClass().getSimpleName(), batch.size(),
+                        e);
+            }
+        }
+        stats.writeNanos.add(System.nanoTime() - start);
+        if (failed) {
+            stats.pointsFailed.add(batch.size());
+            stats.batchesFailed.increment();
+        } else if (persistent) {
+            stats.pointsWritten.add(batch.size());
+            stats.batchesWritten.increment();
+        } else {
+            stats.pointsDiscarded.add(batch.size());
+            stats.batchesDiscarded.increment();
+        }
+        batch.clear();
+    }
+}
@@ -0,0 +1,67 @@
+package com.ice.iot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 查询结果：一段时间内的 min/max/sum/count，可以合并
+ *
+ * @author : eclair
+ * @date : 2026/10/20 18:45
+ */
+public class TelemetryRollup {
+    private float min = Float.POSITIVE_INFINITY;
+
+    private float max = Float.NEGATIVE_INFINITY;
+
+    private double sum;
+
+    private long count;
+
+    void add(float min, float max, double sum, long count) {
+        if (count == 0) {
+            return;
+        }
+        this.min = Math.min(this.min, min);
+        this.max = Math.max(this.max, max);
+        this.sum += sum;
+        this.count += count;
+    }
+
+    public TelemetryRollup merge(TelemetryRollup other) {
+        add(other.min, other.max, other.sum, other.count);
+        return this;
+    }
+
+    public float getMin() {
+        return count == 0 ? Float.NaN : min;
+    }
+
+    public float getMax() {
+        return count == 0 ? Float.NaN : max;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getAvg() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", count);
+        if (count > 0) {
+            result.put("min", min);
+            result.put("max", max);
+            result.put("sum", sum);
+            result.put("avg", getAvg());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,115 @@
+package com.ice.iot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ice.sync.ColumnarBatch;
+
+/**
+ * 待落库的分钟汇总，按列存放，容量不够时翻倍
+ *
+ * @author : eclair
+ * @date : 2026/10/20 18:48
+ */
+public class TelemetryRollupBatch {
+    private static final String[] COLUMNS = { "device_id", "metric", "ts", "min", "max", "sum", "count" };
+
+    private long[] deviceIds;
+
+    private int[] metrics;
+
+    private long[] minutes;
+
+    private float[] mins;
+
+    private float[] maxs;
+
+    private double[] sums;
+
+    private long[] counts;
+
+    private int size;
+
+    public TelemetryRollupBatch(int capacity) {
+        capacity = Math.max(16, capacity);
+        this.deviceIds = new long[capacity];
+        this.metrics = new int[capacity];
+        this.minutes = new long[capacity];
+        this.mins = new float[capacity];
+        this.maxs = new float[capacity];
+        this.sums = new double[capacity];
+        this.counts = new long[capacity];
+    }
+
+    void add(long deviceId, int metric, long minute, float min, float max, double sum, long count) {
+        if (size == deviceIds.length) {
+            grow();
+        }
+        deviceIds[size] = deviceId;
+        metrics[size] = metric;
+        minutes[size] = minute;
+        mins[size] = min;
+        maxs[size] = max;
+        sums[size] = sum;
+        counts[size] = count;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * ts 为分钟起点的毫秒时间戳
+     */
+    public ColumnarBatch toColumnarBatch() {
+        long[] ts = new long[size];
+        for (int i = 0; i < size; i++) {
+            ts[i] = minutes[i] * TelemetryAggregator.MINUTE_MILLIS;
+        }
+        Object[] columns = { Arrays.copyOf(deviceIds, size), Arrays.copyOf(metrics, size), ts,
+                Arrays.copyOf(mins, size), Arrays.copyOf(maxs, size), Arrays.copyOf(sums, size),
+                Arrays.copyOf(counts, size) };
+        return new ColumnarBatch(COLUMNS, columns, size, 0L);
+    }
+
+    /**
+     * 查询接口用，每行一个 map，不含 device_id 和 metric
+     */
+    public List<Map<String, Object>> toRows() {
+        List<Map<String, Object>> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ts", minutes[i] * TelemetryAggregator.MINUTE_MILLIS);
+            row.put("min", mins[i]);
+            row.put("max", maxs[i]);
+            row.put("sum", sums[i]);
+            row.put("count", counts[i]);
+            row.put("avg", sums[i] / counts[i]);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private void grow() {
+        int capacity = deviceIds.length * 2;
+        deviceIds = Arrays.copyOf(deviceIds, capacity);
+        metrics = Arrays.copyOf(metrics, capacity);
+        minutes = Arrays.copyOf(minutes, capacity);
+        mins = Arrays.copyOf(mins, capacity);
+        maxs = Arrays.copyOf(maxs, capacity);
+        sums = Arrays.copyOf(sums, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ice.iot;
+
+/**
+ * 遥测批量写入目标
+ *
+ * @author : eclair
+ * @date : 2026/10/19 10:25
+ */
+public interface TelemetrySink {
+    /**
+     * 批量写入。batch 在调用返回后会被复用，实现方不能持有引用
+     */
+    void write(TelemetryBatch batch) throws Exception;
+
+    /**
+     * 写入后数据是否真正保留；没有配置落库目标、只计数丢弃的 sink 返回 false，
+     * 只经过这类 sink 的点计为 pointsDiscarded 而不是 pointsWritten
+     */
+    default boolean isPersistent() {
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ice.iot;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * UDP 接收，一个数据报里可以连续放多帧
+ *
+ * @author : eclair
+ * @date : 2026/10/19 10:45
+ */
+@Slf4j
+public class UdpFrameReceiver {
+    private static final int MAX_DATAGRAM = 65507;
+
+    private final TelemetryIngestPipeline pipeline;
+
+    private final int port;
+
+    private DatagramChannel channel;
+
+    private Thread thread;
+
+    public UdpFrameReceiver(TelemetryIngestPipeline pipeline, int port) {
+        this.pipeline = pipeline;
+        this.port = port;
+    }
+
+    /**
+     * 端口不大于 0 时不监听，udp-port: 0 表示关闭 UDP 接入
+     */
+    public void start() throws IOException {
+        if (port <= 0) {
+            log.info("iot udp receiver disabled, port={}", port);
+            return;
+        }
+        channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(port));
+        thread = new Thread(this::receiveLoop, "iot-udp-" + port);
+        thread.setDaemon(true);
+        thread.start();
+        log.info("iot udp receiver listening on {}", port);
+    }
+
+    public void stop() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void receiveLoop() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_DATAGRAM);
+        byte[] datagram = new byte[MAX_DATAGRAM];
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                channel.receive(buffer);
+                buffer.flip();
+                int length = buffer.remaining();
+                buffer.get(datagram, 0, length);
+                FrameSplitter.split(datagram, length, pipeline);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (Exception e) {
+                log.error("iot udp receive error", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ice.lock;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 方法执行期间持有 Redis 分布式锁，可重入；与 @Transactional 同用时锁包在事务外面，提交之后才释放。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 15:05
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DistributedLock {
+    /**
+     * 锁名，同时作为等待、持有耗时指标的名称
+     */
+    String name();
+
+    /**
+     * 可选的 SpEL，按参数细分锁，如 "#id"；为空时整个 name 一把锁
+     */
+    String key() default "";
+
+    /**
+     * 最长等待毫秒，-1 取配置
+     */
+    long waitMillis() default -1;
+
+    /**
+     * 租约毫秒，-1 取配置
+     */
+    long leaseMillis() default -1;
+}
@@ -0,0 +1,39 @@
+package com.ice.lock;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.core.Ordered;
+
+/**
+ * 匹配标注了 {@link DistributedLock} 的方法。
+ * <p>
+ * 顺序排在事务 advisor（默认最低优先级）之前，即锁在外、事务在内：先拿锁再开事务，提交后才释放锁，
+ * 不会出现事务还没提交、锁已经被下一个人拿走的情况。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 15:35
+ */
+public class DistributedLockAdvisor extends AbstractPointcutAdvisor {
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+
+    private final Pointcut pointcut = AnnotationMatchingPointcut.forMethodAnnotation(DistributedLock.class);
+
+    private final DistributedLockInterceptor interceptor;
+
+    public DistributedLockAdvisor(DistributedLockInterceptor interceptor) {
+        this.interceptor = interceptor;
+        setOrder(ORDER);
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return interceptor;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ice.lock;
+
+import java.lang.reflect.Method;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import com.ice.config.DistributedLockProperties;
+import com.ice.util.MethodKeyEvaluator;
+
+/**
+ * {@link DistributedLock} 的切面逻辑，锁服务延迟获取，避免 advisor 创建时提前初始化 Redis 相关 bean
+ *
+ * @author : eclair
+ * @date : 2026/10/20 15:35
+ */
+public class DistributedLockInterceptor implements MethodInterceptor {
+    private final ObjectProvider<DistributedLockService> lockService;
+
+    private final ObjectProvider<DistributedLockProperties> properties;
+
+    private final MethodKeyEvaluator keyEvaluator = new MethodKeyEvaluator();
+
+    public DistributedLockInterceptor(ObjectProvider<DistributedLockService> lockService,
+            ObjectProvider<DistributedLockProperties> properties) {
+        this.lockService = lockService;
+        this.properties = properties;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object target = invocation.getThis();
+        Method method = target == null ? invocation.getMethod()
+                : AopUtils.getMostSpecificMethod(invocation.getMethod(), target.getClass());
+        DistributedLock annotation = AnnotatedElementUtils.findMergedAnnotation(method, DistributedLock.class);
+        if (annotation == null) {
+            return invocation.proceed();
+        }
+
+        String key = annotation.name();
+        if (!annotation.key().isEmpty()) {
+            key = key + ":" + keyEvaluator.evaluate(annotation.key(), target, method, invocation.getArguments());
+        }
+        DistributedLockProperties config = properties.getObject();
+        long waitMillis = annotation.waitMillis() < 0 ? config.getWaitMillis() : annotation.waitMillis();
+        long leaseMillis = annotation.leaseMillis() < 0 ? config.getLeaseMillis() : annotation.leaseMillis();
+
+        DistributedLockService service = lockService.getObject();
+        LockHandle handle = service.lock(annotation.name(), key, waitMillis, leaseMillis);
+        try {
+            return invocation.proceed();
+        } finally {
+            service.unlock(handle);
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.ice.lock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+
+import com.ice.config.DistributedLockProperties;
+import com.ice.metrics.LatencyRegistry;
+import com.xiliulou.cache.redis.RedisService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Redis 分布式锁：可重入、按到达顺序公平、带 fencing token。
+ * <p>
+ * 锁是一个带 PEXPIRE 的 hash，由脚本在不存在时原子创建，等价于 SET NX PX，多出的 hash 字段记录持有者的重入次数和 fence。
+ * 持有期间看门狗按 leaseMillis / 3 续约，进程挂掉时锁最多在一个租约后自动释放。
+ * 拿不到锁的线程排进 Redis 里的等待队列，阻塞在本地 latch 上，解锁时脚本 PUBLISH 唤醒，
+ * 只有队头能拿到；收不到通知时（例如锁是过期释放的）按锁剩余时间兜底重试。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 15:20
+ */
+@Slf4j
+@Component
+public class DistributedLockService implements MessageListener {
+    @SuppressWarnings("rawtypes")
+    static final DefaultRedisScript<List> ACQUIRE_SCRIPT = new DefaultRedisScript<>();
+
+    static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>();
+
+    static {
+        ACQUIRE_SCRIPT.setScriptSource(new ResourceScriptSource(new ClassPathResource("scripts/lock_acquire.lua")));
+        ACQUIRE_SCRIPT.setResultType(List.class);
+        RELEASE_SCRIPT.setScriptSource(new ResourceScriptSource(new ClassPathResource("scripts/lock_release.lua")));
+        RELEASE_SCRIPT.setResultType(Long.class);
+    }
+
+    /**
+     * KEYS[1] 锁，ARGV[1] 持有者，ARGV[2] 租约毫秒；返回 1 续约成功 0 已不是持有者
+     */
+    static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('hexists',KEYS[1],ARGV[1]) == 1 then redis.call('pexpire',KEYS[1],ARGV[2]) return 1 end return 0",
+            Long.class);
+
+    /**
+     * KEYS[1] 锁 KEYS[2] 等待队列 KEYS[3] 等待者超时，ARGV[1] 等待者 ARGV[2] 通知频道；
+     * 放弃等待时出队，锁空闲则通知下一位
+     */
+    static final RedisScript<Long> CANCEL_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('zrem',KEYS[2],ARGV[1]) redis.call('zrem',KEYS[3],ARGV[1]) if redis.call('exists',KEYS[1]) == 0 and redis.call('zcard',KEYS[2]) > 0 then redis.call('publish',ARGV[2],'0') end return 1",
+            Long.class);
+
+    private static final String CHANNEL_PREFIX = "signal:";
+
+    @Autowired
+    RedisService redisService;
+
+    @Autowired
+    LatencyRegistry latencyRegistry;
+
+    @Autowired
+    DistributedLockProperties properties;
+
+    /**
+     * 本进程的持有者前缀，持有者 = instanceId:线程id
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * 本进程持有的锁，按 (锁 key, 持有者) 区分，看门狗据此续约。
+     * 租约丢失后同一进程的另一个线程可能已经拿到同一把锁，只按 key 记会把两者混在一起
+     */
+    private final Map<String, Holding> held = new ConcurrentHashMap<>();
+
+    /**
+     * 每把锁一个唤醒信号，只在有本地等待者时存在
+     */
+    private final Map<String, Signal> signals = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Deque<LockHandle>> stack = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final LongAdder acquired = new LongAdder();
+
+    private final LongAdder reentered = new LongAdder();
+
+    private final LongAdder timeouts = new LongAdder();
+
+    private final LongAdder lost = new LongAdder();
+
+    private final LongAdder wakeups = new LongAdder();
+
+    private ScheduledExecutorService watchdog;
+
+    @PostConstruct
+    public void start() {
+        watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "lock-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog.scheduleWithFixedDelay(this::renew, properties.getWatchdogIntervalMillis(),
+                properties.getWatchdogIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        watchdog.shutdownNow();
+    }
+
+    public LockHandle lock(String name) {
+        return lock(name, name, properties.getWaitMillis(), properties.getLeaseMillis());
+    }
+
+    /**
+     * @param name        锁名，用作指标名称
+     * @param key         锁的 key，不同 key 互不影响
+     * @param waitMillis  最长等待，超时抛 {@link DistributedLockTimeoutException}
+     * @param leaseMillis 租约，持有期间自动续约
+     */
+    public LockHandle lock(String name, String key, long waitMillis, long leaseMillis) {
+        String redisKey = properties.getKeyPrefix() + "{" + key + "}";
+        String owner = instanceId + ":" + Thread.currentThread().getId();
+        List<String> keys = Arrays.asList(redisKey, redisKey + ":fence", redisKey + ":q", redisKey + ":t");
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+
+        Signal signal = signals.compute(redisKey, (k, s) -> {
+            s = s == null ? new Signal() : s;
+            s.waiters.incrementAndGet();
+            return s;
+        });
+        try {
+            while (true) {
+                // 先取 latch 再尝试，尝试之后发生的解锁一定能唤醒这次等待
+                CountDownLatch latch = signal.latch;
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                long parkMillis = Math.min(Math.max(remainingMillis, 0), properties.getMaxRetryIntervalMillis());
+                List<Long> result = acquire(keys, owner, leaseMillis, parkMillis + properties.getQueueGraceMillis());
+                if (result.get(0) == 1L) {
+                    latencyRegistry.record(LatencyRegistry.LOCK + name + ":wait", System.nanoTime() - start);
+                    return onAcquired(name, redisKey, owner, result.get(1), leaseMillis);
+                }
+                if (remainingMillis <= 0) {
+                    giveUp(name, keys, owner, start);
+                    throw new DistributedLockTimeoutException(key, waitMillis);
+                }
+                long ttl = result.get(1);
+                if (ttl > 0) {
+                    parkMillis = Math.min(parkMillis, ttl);
+                }
+                try {
+                    latch.await(Math.max(parkMillis, 1), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    giveUp(name, keys, owner, start);
+                    throw new DistributedLockTimeoutException(key, waitMillis);
+                }
+            }
+        } finally {
+            signals.computeIfPresent(redisKey, (k, s) -> s.waiters.decrementAndGet() == 0 ? null : s);
+        }
+    }
+
+    /**
+     * 按 handle 里的持有者释放，不依赖当前线程
+     */
+    public void unlock(LockHandle handle) {
+        Deque<LockHandle> handles = stack.get();
+        handles.remove(handle);
+        if (handles.isEmpty()) {
+            stack.remove();
+        }
+
+        String redisKey = handle.getKey();
+        String heldKey = heldKey(redisKey, handle.getOwner());
+        Holding holding = held.get(heldKey);
+        if (holding == null || holding.fence != handle.getFence()) {
+            // 租约丢失后同一线程又重新拿到了锁，旧 handle 不能动新的持有
+            return;
+        }
+        Long result = template().execute(RELEASE_SCRIPT, StringRedisSerializer.UTF_8, (RedisSerializer<Long>) null,
+                Arrays.asList(redisKey, redisKey + ":q"), handle.getOwner(), String.valueOf(holding.leaseMillis),
+                CHANNEL_PREFIX + redisKey);
+        if (--holding.count > 0 && result != null && result >= 0) {
+            return;
+        }
+        held.remove(heldKey);
+        latencyRegistry.record(LatencyRegistry.LOCK + handle.getName() + ":hold",
+                System.nanoTime() - holding.acquiredNanos);
+        if (result == null || result < 0) {
+            lost.increment();
+            log.warn("lock {} fence={} was no longer held on release, lease expired", redisKey, handle.getFence());
+        }
+    }
+
+    /**
+     * 当前线程最内层持有的锁的 fencing token，没有持有锁返回 -1
+     */
+    public long currentFence() {
+        LockHandle handle = stack.get().peekLast();
+        return handle == null ? -1 : handle.getFence();
+    }
+
+    /**
+     * 带 fence 的写入之前取 token，没有持有锁时直接失败，避免无保护的写入混进来
+     */
+    public long requireFence() {
+        long fence = currentFence();
+        if (fence < 0) {
+            throw new IllegalStateException("no distributed lock held by current thread");
+        }
+        return fence;
+    }
+
+    /**
+     * 模式订阅的回调，频道名 = signal: + 锁 key
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        Signal signal = signals.get(channel.substring(CHANNEL_PREFIX.length()));
+        if (signal != null) {
+            wakeups.increment();
+            signal.fire();
+        }
+    }
+
+    public String channelPattern() {
+        return CHANNEL_PREFIX + properties.getKeyPrefix() + "*";
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("acquired", acquired.sum());
+        result.put("reentered", reentered.sum());
+        result.put("timeouts", timeouts.sum());
+        result.put("lost", lost.sum());
+        result.put("wakeups", wakeups.sum());
+        result.put("waitingLocks", signals.size());
+        List<Map<String, Object>> holdings = new ArrayList<>();
+        long now = System.nanoTime();
+        for (Holding holding : held.values()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("key", holding.key);
+            item.put("owner", holding.owner);
+            item.put("fence", holding.fence);
+            item.put("count", holding.count);
+            item.put("heldMillis", TimeUnit.NANOSECONDS.toMillis(now - holding.acquiredNanos));
+            holdings.add(item);
+        }
+        result.put("held", holdings);
+        return result;
+    }
+
+    private LockHandle onAcquired(String name, String redisKey, String owner, long fence, long leaseMillis) {
+        String heldKey = heldKey(redisKey, owner);
+        Holding holding = held.get(heldKey);
+        if (holding != null && holding.fence == fence) {
+            holding.count++;
+            reentered.increment();
+        } else {
+            // 没有记录，或者旧记录的租约已经丢了、这是重新拿到的锁
+            held.put(heldKey, new Holding(redisKey, owner, fence, leaseMillis));
+            acquired.increment();
+        }
+        LockHandle handle = new LockHandle(name, redisKey, owner, fence);
+        stack.get().addLast(handle);
+        return handle;
+    }
+
+    private void giveUp(String name, List<String> keys, String owner, long start) {
+        timeouts.increment();
+        latencyRegistry.record(LatencyRegistry.LOCK + name + ":wait", System.nanoTime() - start);
+        try {
+            template().execute(CANCEL_SCRIPT, StringRedisSerializer.UTF_8, (RedisSerializer<Long>) null,
+                    Arrays.asList(keys.get(0), keys.get(2), keys.get(3)), owner, CHANNEL_PREFIX + keys.get(0));
+        } catch (RuntimeException e) {
+            // 出不了队也无妨，排队超时后会被后来者清掉
+            log.warn("lock {} cancel wait failed", keys.get(0), e);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private List<Long> acquire(List<String> keys, String owner, long leaseMillis, long queueTimeoutMillis) {
+        long start = System.nanoTime();
+        List<Object> result = (List<Object>) template().execute((RedisScript) ACQUIRE_SCRIPT,
+                StringRedisSerializer.UTF_8, (RedisSerializer) null, keys, owner, String.valueOf(leaseMillis),
+                String.valueOf(queueTimeoutMillis));
+        latencyRegistry.record(LatencyRegistry.REDIS + "lock_acquire", System.nanoTime() - start);
+        return Arrays.asList(((Number) result.get(0)).longValue(), ((Number) result.get(1)).longValue());
+    }
+
+    /**
+     * 看门狗：到期的持有记录续约，续约失败说明租约已丢，不再续
+     */
+    private void renew() {
+        long now = System.nanoTime();
+        for (Holding holding : held.values()) {
+            if (holding.lost || now < holding.nextRenewNanos) {
+                continue;
+            }
+            try {
+                Long ok = template().execute(RENEW_SCRIPT, StringRedisSerializer.UTF_8,
+                        (RedisSerializer<Long>) null, List.of(holding.key), holding.owner,
+                        String.valueOf(holding.leaseMillis));
+                if (ok != null && ok == 1L) {
+                    holding.nextRenewNanos = now + TimeUnit.MILLISECONDS.toNanos(holding.leaseMillis / 3);
+                } else {
+                    holding.lost = true;
+                    lost.increment();
+                    log.warn("lock {} fence={} lease lost, stop renewing", holding.key, holding.fence);
+                }
+            } catch (RuntimeException e) {
+                // Redis 抖动时下一轮再试，租约还剩三分之二
+                log.warn("lock {} renew failed", holding.key, e);
+            }
+        }
+    }
+
+    private static String heldKey(String redisKey, String owner) {
+        return redisKey + '|' + owner;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisTemplate<String, Object> template() {
+        return (RedisTemplate<String, Object>) (RedisTemplate<?, ?>) redisService.getRedisTemplate();
+    }
+
+    private static final class Holding {
+        final String key;
+
+        final String owner;
+
+        final long fence;
+
+        final long leaseMillis;
+
+        final long acquiredNanos = System.nanoTime();
+
+        volatile long nextRenewNanos;
+
+        volatile boolean lost;
+
+        /**
+         * 只有持有线程修改
+         */
+        volatile int count = 1;
+
+        Holding(String key, String owner, long fence, long leaseMillis) {
+            this.key = key;
+            this.owner = owner;
+            this.fence = fence;
+            this.leaseMillis = leaseMillis;
+            this.nextRenewNanos = acquiredNanos + TimeUnit.MILLISECONDS.toNanos(leaseMillis / 3);
+        }
+    }
+
+    private static final class Signal {
+        final AtomicInteger waiters = new AtomicInteger();
+
+        volatile CountDownLatch latch = new CountDownLatch(1);
+
+        /**
+         * 换上新 latch 再放开旧的，已经拿到旧 latch 的等待者全部醒来重试
+         */
+        void fire() {
+            CountDownLatch old = latch;
+            latch = new CountDownLatch(1);
+            old.countDown();
+        }
+    }
+}
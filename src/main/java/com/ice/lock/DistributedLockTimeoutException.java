@@ -0,0 +1,14 @@
+package com.ice.lock;
+
+/**
+ * 等锁超时或等待期间被中断
+ *
+ * @author : eclair
+ * @date : 2026/10/20 15:05
+ */
+public class DistributedLockTimeoutException extends RuntimeException {
+
+    public DistributedLockTimeoutException(String key, long waitMillis) {
+        super("lock " + key + " not acquired within " + waitMillis + "ms");
+    }
+}
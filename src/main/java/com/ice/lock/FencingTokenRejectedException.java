@@ -0,0 +1,14 @@
+package com.ice.lock;
+
+/**
+ * 带 fencing token 的写入被拒绝：资源已经被更新的 token 写过，当前持有者的租约已丢
+ *
+ * @author : eclair
+ * @date : 2026/10/20 16:10
+ */
+public class FencingTokenRejectedException extends RuntimeException {
+
+    public FencingTokenRejectedException(String resource, long fence) {
+        super(resource + " rejected stale fencing token " + fence);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ice.lock;
+
+/**
+ * 一次加锁的结果，重入时 fence 与外层相同
+ *
+ * @author : eclair
+ * @date : 2026/10/20 15:10
+ */
+public final class LockHandle {
+    private final String name;
+
+    private final String key;
+
+    /**
+     * 加锁时的持有者（实例id:线程id），解锁按它释放，跨线程解锁也不会释放别人的锁
+     */
+    private final String owner;
+
+    private final long fence;
+
+    LockHandle(String name, String key, String owner, long fence) {
+        this.name = name;
+        this.key = key;
+        this.owner = owner;
+        this.fence = fence;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * 单调递增的 fencing token，下游写入时带上它，拒绝比已见过的更小的 token，
+     * 防止租约过期后旧持有者的延迟写入覆盖新持有者
+     */
+    public long getFence() {
+        return fence;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ice.log;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * 记录丢弃数的 AsyncAppender。
+ * <p>
+ * neverBlock 时 Logback 在队列满后直接丢弃事件且不留痕迹，这里在入队前检查剩余容量，队列已满就自己丢弃并计数。
+ * 多个线程同时抢最后一个空位时，落败的那次仍由父类静默丢弃，计数可能略少于实际。
+ * <p>
+ * Spring Boot 启动时会重新加载日志配置并创建新的 appender 实例，计数放在静态字段里，重载前后累计。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 21:45
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+    private static final LongAdder DROPPED = new LongAdder();
+
+    private static final LongAdder APPENDED = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            DROPPED.increment();
+            return;
+        }
+        APPENDED.increment();
+        super.append(event);
+    }
+
+    public static long getDropped() {
+        return DROPPED.sum();
+    }
+
+    public static long getAppended() {
+        return APPENDED.sum();
+    }
+}
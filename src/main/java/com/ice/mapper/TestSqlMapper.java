@@ -1,10 +1,11 @@
 package com.ice.mapper;
 
+import java.util.List;
+
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
-import com.ice.entity.Tenant;
-
 /**
  * @author : eclair
  * @date : 2024/8/7 07:20
@@ -13,11 +14,28 @@ public interface TestSqlMapper {
     @Update("update t_tenant set name = 'test' where id = 2")
     int updateTenantNameById2();
 
-    @Update("update t_tenant set name = 'test' where id = 5")
-    int updateTenantNameById5();
+    @Update("update t_tenant set name = 'test' where id = #{id}")
+    int updateTenantNameById(@Param("id") Integer id);
+
+    /**
+     * 带 fencing token 的写入：只有 token 不小于上次写入的 token 才生效，租约丢失后的旧持有者写不进来。
+     * 需要 t_tenant 增加一列：alter table t_tenant add column lock_fence bigint not null default 0，
+     * 由 lock.fencing.enabled 控制是否使用
+     *
+     * @return 0 表示 token 已过期，调用方应回滚
+     */
+    @Update("update t_tenant set name = 'test', lock_fence = #{fence} where id = #{id} and lock_fence <= #{fence}")
+    int updateTenantNameFenced(@Param("id") Integer id, @Param("fence") long fence);
 
-    @Select("select * from t_tenant where id = 1")
-    Tenant selectOne();
+    /**
+     * 批量冻结已过期的正常租户，返回实际更新行数
+     */
+    @Update({ "<script>",
+            "update t_tenant set status = 1, update_time = #{now} where status = 0 and del_flag = 0",
+            "and expire_time &gt; 0 and expire_time &lt; #{now} and id in",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>" })
+    int freezeExpired(@Param("ids") List<Integer> ids, @Param("now") long now);
 
     @Select("select sleep(10), id from t_third_access_record where id=13198143")
     Object selectLong();
@@ -0,0 +1,45 @@
+package com.ice.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 按接口路径模板记录请求耗时，异步请求记录到真正完成
+ *
+ * @author : eclair
+ * @date : 2026/10/19 17:50
+ */
+@Component
+public class EndpointLatencyInterceptor implements HandlerInterceptor {
+    private static final String START_ATTRIBUTE = EndpointLatencyInterceptor.class.getName() + ".start";
+
+    @Autowired
+    LatencyRegistry latencyRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 异步请求再次分派时保留第一次的开始时间
+        if (request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String name = LatencyRegistry.HTTP + request.getMethod() + " "
+                + (pattern == null ? request.getRequestURI() : pattern);
+        latencyRegistry.record(name, System.nanoTime() - (Long) start);
+    }
+}
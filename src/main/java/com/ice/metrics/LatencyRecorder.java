@@ -0,0 +1,144 @@
+package com.ice.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * 单个指标的延迟分布。
+ * <p>
+ * 写入走 HdrHistogram 的 Recorder，recordValue 是 wait-free 的；读取侧定期翻转出区间直方图，
+ * 同时累加到全量直方图，读写互不阻塞。数值单位为微秒。
+ * <p>
+ * 每个指标常驻 4 个直方图（Recorder 内两个、区间、全量），量程和精度决定了指标数乘上去的内存：
+ * 1 小时、3 位有效数字时每个约 180KB，现在 60 秒、2 位有效数字（误差 1%）每个约 20KB。
+ * 超过 60 秒的值按 60 秒记录。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 17:30
+ */
+public class LatencyRecorder {
+    /**
+     * 最大可记录 60 秒，锁等待、慢 SQL 都远在这之内
+     */
+    static final long HIGHEST_MICROS = 60_000_000L;
+
+    static final int SIGNIFICANT_DIGITS = 2;
+
+    private final String name;
+
+    private final Recorder recorder = new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+
+    private final Histogram total = new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+
+    private Histogram interval;
+
+    /**
+     * 最近一个区间的统计，供 gauge 无锁读取
+     */
+    private volatile Summary recent = Summary.EMPTY;
+
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    public void recordNanos(long nanos) {
+        if (LatencyRegistry.isMuted()) {
+            return;
+        }
+        long micros = nanos / 1000;
+        recorder.recordValue(Math.min(Math.max(micros, 0L), HIGHEST_MICROS));
+    }
+
+    /**
+     * 翻转区间直方图，由定时任务调用
+     */
+    synchronized void roll() {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+        recent = Summary.of(interval);
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", Summary.of(total).toMap());
+        result.put("recent", recent.toMap());
+        return result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Summary getRecent() {
+        return recent;
+    }
+
+    public static class Summary {
+        static final Summary EMPTY = new Summary(0, 0, 0, 0, 0, 0);
+
+        private final long count;
+
+        private final double meanMillis;
+
+        private final double p50Millis;
+
+        private final double p99Millis;
+
+        private final double p999Millis;
+
+        private final double maxMillis;
+
+        Summary(long count, double meanMillis, double p50Millis, double p99Millis, double p999Millis,
+                double maxMillis) {
+            this.count = count;
+            this.meanMillis = meanMillis;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.p999Millis = p999Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        static Summary of(Histogram histogram) {
+            if (histogram == null || histogram.getTotalCount() == 0) {
+                return EMPTY;
+            }
+            return new Summary(histogram.getTotalCount(), histogram.getMean() / 1000.0,
+                    histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("count", count);
+            result.put("meanMillis", meanMillis);
+            result.put("p50Millis", p50Millis);
+            result.put("p99Millis", p99Millis);
+            result.put("p999Millis", p999Millis);
+            result.put("maxMillis", maxMillis);
+            return result;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getP999Millis() {
+            return p999Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.ice.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 延迟指标注册表，按名称区分：http:接口、sql:mapper语句、redis:脚本、pool:连接池借还、game:房间 tick、lock:分布式锁等待与持有。
+ * <p>
+ * 已存在的指标记录时只有一次 ConcurrentHashMap 读和一次 wait-free 写；
+ * 存在 MeterRegistry 时每个指标额外注册 p50/p99/p999/max 四个 gauge，取最近一个区间的值。
+ * <p>
+ * 启动预热等非业务调用可以先 {@link #mute()} 当前线程，期间的记录全部丢弃，不会混进分位数。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 17:40
+ */
+@Component
+public class LatencyRegistry {
+    public static final String HTTP = "http:";
+
+    public static final String SQL = "sql:";
+
+    public static final String REDIS = "redis:";
+
+    public static final String POOL = "pool:";
+
+    public static final String GAME = "game:";
+
+    public static final String LOCK = "lock:";
+
+    private static final String METER_NAME = "ice.latency";
+
+    private static final ThreadLocal<Boolean> MUTED = new ThreadLocal<>();
+
+    /**
+     * 静音中的线程数，为 0 时记录路径不用查 ThreadLocal
+     */
+    private static final AtomicInteger MUTED_THREADS = new AtomicInteger();
+
+    @Autowired
+    ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+
+    public void record(String name, long nanos) {
+        if (isMuted()) {
+            return;
+        }
+        recorder(name).recordNanos(nanos);
+    }
+
+    /**
+     * 当前线程之后的记录都丢弃，直到 {@link #unmute()}
+     */
+    public static void mute() {
+        if (MUTED.get() == null) {
+            MUTED.set(Boolean.TRUE);
+            MUTED_THREADS.incrementAndGet();
+        }
+    }
+
+    public static void unmute() {
+        if (MUTED.get() != null) {
+            MUTED.remove();
+            MUTED_THREADS.decrementAndGet();
+        }
+    }
+
+    public static boolean isMuted() {
+        return MUTED_THREADS.get() > 0 && MUTED.get() != null;
+    }
+
+    public LatencyRecorder recorder(String name) {
+        LatencyRecorder recorder = recorders.get(name);
+        if (recorder != null) {
+            return recorder;
+        }
+        return recorders.computeIfAbsent(name, this::create);
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.latency.roll-interval-millis:10000}")
+    public void roll() {
+        for (LatencyRecorder recorder : recorders.values()) {
+            recorder.roll();
+        }
+    }
+
+    public Map<String, Object> snapshot(String prefix) {
+        List<String> names = new ArrayList<>(recorders.keySet());
+        Collections.sort(names);
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String name : names) {
+            if (prefix == null || name.startsWith(prefix)) {
+                result.put(name, recorders.get(name).snapshot());
+            }
+        }
+        return result;
+    }
+
+    private LatencyRecorder create(String name) {
+        LatencyRecorder recorder = new LatencyRecorder(name);
+        MeterRegistry registry = meterRegistry == null ? null : meterRegistry.getIfAvailable();
+        if (registry != null) {
+            gauge(registry, recorder, "0.5", r -> r.getRecent().getP50Millis());
+            gauge(registry, recorder, "0.99", r -> r.getRecent().getP99Millis());
+            gauge(registry, recorder, "0.999", r -> r.getRecent().getP999Millis());
+            gauge(registry, recorder, "max", r -> r.getRecent().getMaxMillis());
+        }
+        return recorder;
+    }
+
+    private static void gauge(MeterRegistry registry, LatencyRecorder recorder, String quantile,
+            ToDoubleFunction<LatencyRecorder> value) {
+        Gauge.builder(METER_NAME, recorder, value).tag("name", recorder.getName()).tag("quantile", quantile)
+                .baseUnit("milliseconds").register(registry);
+    }
+}
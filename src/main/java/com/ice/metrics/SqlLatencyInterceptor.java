@@ -0,0 +1,71 @@
+package com.ice.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 按 mapper 语句记录 SQL 耗时，替代 printQuery 的逐条打印：
+ * 只有慢 SQL 和按比例采样的语句才输出日志。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 17:55
+ */
+@Slf4j
+@Intercepts({
+        @Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class,
+                RowBounds.class, ResultHandler.class }),
+        @Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class,
+                RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class }),
+        @Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }) })
+public class SqlLatencyInterceptor implements Interceptor {
+    private final LatencyRegistry latencyRegistry;
+
+    private final long slowNanos;
+
+    private final double sampleRate;
+
+    public SqlLatencyInterceptor(LatencyRegistry latencyRegistry, long slowMillis, double sampleRate) {
+        this.latencyRegistry = latencyRegistry;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            latencyRegistry.record(LatencyRegistry.SQL + statement.getId(), elapsed);
+
+            boolean slow = elapsed >= slowNanos;
+            if (slow || !success || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+                log.info("sql statement={} elapsedMs={} slow={} success={} sql={}", statement.getId(),
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), slow, success,
+                        compact(statement.getBoundSql(invocation.getArgs()[1]).getSql()));
+            }
+        }
+    }
+
+    private static String compact(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+}
@@ -0,0 +1,44 @@
+package com.ice.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个 key 的限流判定耗时统计
+ *
+ * @author : eclair
+ * @date : 2026/10/19 11:30
+ */
+public class DecisionLatency {
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos, boolean allowed) {
+        count.increment();
+        totalNanos.add(nanos);
+        if (!allowed) {
+            rejected.increment();
+        }
+        long current = maxNanos.get();
+        while (nanos > current && !maxNanos.compareAndSet(current, nanos)) {
+            current = maxNanos.get();
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        long n = count.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", n);
+        result.put("rejected", rejected.sum());
+        result.put("avgMicros", n == 0 ? 0.0 : totalNanos.sum() / 1e3 / n);
+        result.put("maxMicros", maxNanos.get() / 1e3);
+        return result;
+    }
+}
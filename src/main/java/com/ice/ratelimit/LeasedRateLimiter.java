@@ -0,0 +1,237 @@
+package com.ice.ratelimit;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ice.config.LeaseRateLimitProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 按天限流的本地预检层。
+ * <p>
+ * 每个 key 在本节点持有一份从 Redis 租来的额度，请求只在本地 AtomicLong 上计数，快路径一次 incrementAndGet 就能判定；
+ * 额度快用完时由后台批量续租，用完且 Redis 也没有余量时本地直接拒绝到当天结束。
+ * 只有租约耗尽又没来得及预取时才会同步访问 Redis。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 13:15
+ */
+@Slf4j
+@Component
+public class LeasedRateLimiter {
+    /**
+     * KEYS[1] 计数 key，ARGV[1] 过期秒数，ARGV[2] 上限，ARGV[3] 申请额度；返回实际批给的额度
+     */
+    static final RedisScript<Long> LEASE_SCRIPT = new DefaultRedisScript<>(
+            "local used = tonumber(redis.call('get',KEYS[1]) or '0') "
+                    + "local grant = math.min(tonumber(ARGV[3]), tonumber(ARGV[2]) - used) "
+                    + "if grant <= 0 then return 0 end "
+                    + "if redis.call('incrby',KEYS[1],grant) == grant then redis.call('expire',KEYS[1],ARGV[1]) end "
+                    + "return grant",
+            Long.class);
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String KEY_PREFIX = "rl:lease:";
+
+    /**
+     * 预取每 50ms 一次，Redis 故障期间连续失败只按这个间隔打一条 warn，其余走 debug
+     */
+    private static final long FAILURE_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @Autowired
+    RedisRateLimiter redisRateLimiter;
+
+    @Autowired
+    LeaseRateLimitProperties properties;
+
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    private final LongAdder prefetchFailures = new LongAdder();
+
+    private final AtomicLong consecutiveFailures = new AtomicLong();
+
+    private volatile long lastFailureLogNanos;
+
+    /**
+     * 同步续租时 Redis 出错会抛出异常，这次计数会先撤回
+     */
+    public boolean tryAcquire(String key, long limit) {
+        Lease lease = lease(key, limit);
+        long consumed = lease.consumed.incrementAndGet();
+        long granted = lease.granted;
+        if (consumed <= granted) {
+            if (granted - consumed < properties.getLeaseSize() * properties.getPrefetchRatio()
+                    && !lease.prefetch.get()) {
+                lease.prefetch.set(true);
+            }
+            return true;
+        }
+
+        // 本地额度不够，同步续租；每轮要么批到额度要么确认 Redis 已耗尽，循环必然结束
+        try {
+            while (!lease.exhausted) {
+                synchronized (lease) {
+                    long deficit = lease.consumed.get() - lease.granted;
+                    if (deficit > 0 && !lease.exhausted) {
+                        renew(Collections.singletonList(lease), Math.max(properties.getLeaseSize(), deficit));
+                    }
+                }
+                if (lease.consumed.get() <= lease.granted) {
+                    return true;
+                }
+            }
+        } catch (RuntimeException e) {
+            lease.consumed.decrementAndGet();
+            throw e;
+        }
+        lease.consumed.decrementAndGet();
+        return false;
+    }
+
+    /**
+     * 把需要预取的 key 按上限分组，每组一次 pipeline 往返续租
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.lease.sync-interval-millis:50}")
+    public void prefetch() {
+        List<Lease> pending = new ArrayList<>();
+        for (Lease lease : leases.values()) {
+            if (!lease.exhausted && lease.prefetch.compareAndSet(true, false)) {
+                pending.add(lease);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            renew(pending, properties.getLeaseSize());
+        } catch (Exception e) {
+            // 标记放回去，下一轮重试
+            for (Lease lease : pending) {
+                lease.prefetch.set(true);
+            }
+            onPrefetchFailure(pending.size(), e);
+            return;
+        }
+        if (consecutiveFailures.get() > 0) {
+            log.info("lease prefetch recovered after {} failures", consecutiveFailures.getAndSet(0));
+        }
+    }
+
+    public long getPrefetchFailures() {
+        return prefetchFailures.sum();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new HashMap<>();
+        leases.forEach((key, lease) -> {
+            Map<String, Object> item = new HashMap<>();
+            item.put("day", lease.day);
+            item.put("granted", lease.granted);
+            item.put("consumed", lease.consumed.get());
+            item.put("exhausted", lease.exhausted);
+            result.put(key, item);
+        });
+        return result;
+    }
+
+    private void onPrefetchFailure(int keys, Exception e) {
+        prefetchFailures.increment();
+        long now = System.nanoTime();
+        long failures = consecutiveFailures.incrementAndGet();
+        if (failures == 1) {
+            lastFailureLogNanos = now;
+            log.warn("lease prefetch failed, keys={}", keys, e);
+        } else if (now - lastFailureLogNanos >= FAILURE_LOG_INTERVAL_NANOS) {
+            lastFailureLogNanos = now;
+            log.warn("lease prefetch still failing, consecutiveFailures={}, cause={}", failures, e.toString());
+        } else {
+            log.debug("lease prefetch failed, keys={}, consecutiveFailures={}", keys, failures, e);
+        }
+    }
+
+    private Lease lease(String key, long limit) {
+        String day = LocalDate.now(ZoneId.systemDefault()).format(DAY);
+        Lease lease = leases.get(key);
+        if (lease == null || !lease.day.equals(day) || lease.limit != limit) {
+            Lease fresh = new Lease(key, day, limit);
+            lease = leases.compute(key,
+                    (k, old) -> old != null && old.day.equals(day) && old.limit == limit ? old : fresh);
+        }
+        return lease;
+    }
+
+    private void renew(List<Lease> batch, long amount) {
+        Map<Long, List<Lease>> byLimit = new HashMap<>();
+        for (Lease lease : batch) {
+            byLimit.computeIfAbsent(lease.limit, k -> new ArrayList<>()).add(lease);
+        }
+
+        String ttl = String.valueOf(RedisRateLimiter.secondsToMidnight() + 60);
+        String leaseSize = String.valueOf(amount);
+        byLimit.forEach((limit, group) -> {
+            List<String> keys = new ArrayList<>(group.size());
+            for (Lease lease : group) {
+                keys.add(KEY_PREFIX + lease.key + ":" + lease.day);
+            }
+            List<Object> grants = redisRateLimiter.evalPipelined(LEASE_SCRIPT, keys, ttl, String.valueOf(limit),
+                    leaseSize);
+            for (int i = 0; i < group.size(); i++) {
+                Object grant = grants.get(i);
+                group.get(i).apply(grant instanceof Number ? ((Number) grant).longValue() : 0L);
+            }
+        });
+    }
+
+    private static class Lease {
+        final String key;
+
+        final String day;
+
+        final long limit;
+
+        final AtomicLong consumed = new AtomicLong();
+
+        final AtomicBoolean prefetch = new AtomicBoolean();
+
+        volatile long granted;
+
+        /**
+         * Redis 侧当天额度已经全部租出
+         */
+        volatile boolean exhausted;
+
+        Lease(String key, String day, long limit) {
+            this.key = key;
+            this.day = day;
+            this.limit = limit;
+        }
+
+        synchronized void apply(long grant) {
+            if (grant <= 0) {
+                exhausted = true;
+            } else {
+                granted += grant;
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ice.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 控制器方法上的限流规则，可重复标注，同一请求的所有规则在一次 Redis 往返内原子判定：
+ * 任一规则不通过则都不计数。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 14:05
+ */
+@Documented
+@Repeatable(RateLimits.class)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimit {
+    RateLimitDimension[] dimensions() default { RateLimitDimension.ENDPOINT };
+
+    RateLimitAlgorithm algorithm() default RateLimitAlgorithm.SLIDING_WINDOW_COUNTER;
+
+    long limit();
+
+    long window() default 1;
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+}
@@ -0,0 +1,36 @@
+package com.ice.ratelimit;
+
+/**
+ * 限流算法，code 与 Lua 脚本中的分支一一对应
+ *
+ * @author : eclair
+ * @date : 2026/10/19 14:00
+ */
+public enum RateLimitAlgorithm {
+    /**
+     * 固定窗口计数
+     */
+    FIXED_WINDOW(1),
+    /**
+     * 滑动日志，ZSET 记录窗口内每次请求的时间，精确但占内存与 limit 成正比
+     */
+    SLIDING_LOG(2),
+    /**
+     * 滑动窗口计数，按上一窗口计数加权估算，两个计数器即可
+     */
+    SLIDING_WINDOW_COUNTER(3),
+    /**
+     * 通用信元速率算法，只存一个理论到达时间，允许 limit 大小的突发
+     */
+    GCRA(4);
+
+    private final int code;
+
+    RateLimitAlgorithm(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ice.ratelimit;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 14:08
+ */
+public class RateLimitDecision {
+    public static final RateLimitDecision ALLOWED = new RateLimitDecision(true, -1, 0L);
+
+    /**
+     * Redis 不可用且配置为 fail-closed 时的拒绝结果，没有对应的规则
+     */
+    public static final RateLimitDecision UNAVAILABLE = new RateLimitDecision(false, -1, 1000L);
+
+    private final boolean allowed;
+
+    /**
+     * 拒绝时为第一条未通过规则的下标，限流服务不可用时为 -1
+     */
+    private final int deniedRule;
+
+    private final long retryAfterMillis;
+
+    public RateLimitDecision(boolean allowed, int deniedRule, long retryAfterMillis) {
+        this.allowed = allowed;
+        this.deniedRule = deniedRule;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public boolean isAllowed() {
+        return allowed;
+    }
+
+    public int getDeniedRule() {
+        return deniedRule;
+    }
+
+    public boolean isUnavailable() {
+        return !allowed && deniedRule < 0;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
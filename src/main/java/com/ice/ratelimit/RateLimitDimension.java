@@ -0,0 +1,26 @@
+package com.ice.ratelimit;
+
+/**
+ * 限流维度，一条规则可以组合多个维度作为 key
+ *
+ * @author : eclair
+ * @date : 2026/10/19 14:02
+ */
+public enum RateLimitDimension {
+    /**
+     * 租户id，取自请求头
+     */
+    TENANT,
+    /**
+     * 用户id，取自请求头
+     */
+    USER,
+    /**
+     * 客户端 IP，优先取 X-Forwarded-For 第一段
+     */
+    IP,
+    /**
+     * 接口路径模板，例如 /test/sql/{id}
+     */
+    ENDPOINT
+}
@@ -0,0 +1,157 @@
+package com.ice.ratelimit;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ice.config.RateLimitProperties;
+import com.xiliulou.core.web.R;
+
+/**
+ * 处理控制器方法上的 {@link RateLimit}
+ *
+ * @author : eclair
+ * @date : 2026/10/19 14:35
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
+    public static final String USER_HEADER = "X-User-Id";
+
+    private static final String UNKNOWN = "-";
+
+    @Autowired
+    RateLimitEngine rateLimitEngine;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    RateLimitProperties rateLimitProperties;
+
+    private final Map<Method, List<RateLimitRule>> rules = new ConcurrentHashMap<>();
+
+    private TrustedProxies trustedProxies;
+
+    @PostConstruct
+    public void init() {
+        trustedProxies = new TrustedProxies(rateLimitProperties.getTrustedProxies());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        // 异步接口结果回来后会再分派一次，判定已经在第一次分派时做过，不能重复扣额度
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        List<RateLimitRule> methodRules = rules.computeIfAbsent(((HandlerMethod) handler).getMethod(),
+                RateLimitInterceptor::resolveRules);
+        if (methodRules.isEmpty()) {
+            return true;
+        }
+
+        String scope = request.getMethod() + " " + endpoint(request);
+        List<String> keys = new ArrayList<>(methodRules.size());
+        for (RateLimitRule rule : methodRules) {
+            RateLimitDimension[] dimensions = rule.getDimensions();
+            String[] values = new String[dimensions.length];
+            for (int i = 0; i < dimensions.length; i++) {
+                values[i] = dimensionValue(dimensions[i], request);
+            }
+            keys.add(RateLimitEngine.key(rule, scope, values));
+        }
+
+        RateLimitDecision decision = rateLimitEngine.check(methodRules, keys);
+        if (decision.isAllowed()) {
+            return true;
+        }
+
+        R body = decision.isUnavailable() ? R.fail("503", "限流服务不可用") : R.fail("429", "请求过于频繁");
+        response.setStatus(decision.isUnavailable() ? HttpStatus.SERVICE_UNAVAILABLE.value()
+                : HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf((decision.getRetryAfterMillis() + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(objectMapper.writeValueAsString(body));
+        return false;
+    }
+
+    private static List<RateLimitRule> resolveRules(Method method) {
+        Set<RateLimit> annotations = AnnotatedElementUtils.findMergedRepeatableAnnotations(method, RateLimit.class);
+        List<RateLimitRule> result = new ArrayList<>(annotations.size());
+        for (RateLimit annotation : annotations) {
+            result.add(RateLimitRule.of(annotation));
+        }
+        return result;
+    }
+
+    String dimensionValue(RateLimitDimension dimension, HttpServletRequest request) {
+        switch (dimension) {
+            case TENANT:
+                Integer tenantId = tenantId(request);
+                return tenantId == null ? UNKNOWN : tenantId.toString();
+            case USER:
+                return headerOrUnknown(request, USER_HEADER);
+            case IP:
+                return clientIp(request);
+            case ENDPOINT:
+            default:
+                return endpoint(request);
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? request.getRequestURI() : pattern.toString();
+    }
+
+    /**
+     * 请求头里的租户id，对应 Tenant.id，非法值按未知处理
+     */
+    public static Integer tenantId(HttpServletRequest request) {
+        String value = request.getHeader(TENANT_HEADER);
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 只有直连地址是配置的可信代理时才采信 X-Forwarded-For，否则客户端可以随意伪造来绕过按 IP 限流
+     */
+    String clientIp(HttpServletRequest request) {
+        return trustedProxies.resolve(request.getRemoteAddr(), request.getHeader("X-Forwarded-For"));
+    }
+
+    private static String headerOrUnknown(HttpServletRequest request, String name) {
+        String value = request.getHeader(name);
+        return StringUtils.hasText(value) ? value.trim() : UNKNOWN;
+    }
+}
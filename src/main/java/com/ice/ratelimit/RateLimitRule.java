@@ -0,0 +1,49 @@
+package com.ice.ratelimit;
+
+/**
+ * 解析后的限流规则
+ *
+ * @author : eclair
+ * @date : 2026/10/19 14:20
+ */
+public class RateLimitRule {
+    private final RateLimitDimension[] dimensions;
+
+    private final RateLimitAlgorithm algorithm;
+
+    private final long limit;
+
+    private final long windowMillis;
+
+    public RateLimitRule(RateLimitDimension[] dimensions, RateLimitAlgorithm algorithm, long limit,
+            long windowMillis) {
+        if (limit <= 0 || windowMillis <= 0) {
+            throw new IllegalArgumentException("rate limit and window must be positive");
+        }
+        this.dimensions = dimensions;
+        this.algorithm = algorithm;
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+    }
+
+    public static RateLimitRule of(RateLimit rateLimit) {
+        return new RateLimitRule(rateLimit.dimensions(), rateLimit.algorithm(), rateLimit.limit(),
+                rateLimit.unit().toMillis(rateLimit.window()));
+    }
+
+    public RateLimitDimension[] getDimensions() {
+        return dimensions;
+    }
+
+    public RateLimitAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+}
@@ -0,0 +1,212 @@
+package com.ice.ratelimit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Component;
+
+import com.ice.metrics.LatencyRegistry;
+import com.xiliulou.cache.redis.RedisService;
+
+/**
+ * 基于 Lua 脚本的按天计数限流。
+ * <p>
+ * 脚本只构造一次，SHA1 随之固定；单 key 走 RedisTemplate 的 EVALSHA（NOSCRIPT 时框架自动回退 EVAL），
+ * 多 key 走 pipeline 一次往返，遇到 NOSCRIPT 先 SCRIPT LOAD 再重放一次。
+ * 两条路径的 key 都用 RedisTemplate 的 key 序列化器，参数都按字符串序列化，同一个 key 落到同一个计数上。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 11:35
+ */
+@Component
+public class RedisRateLimiter {
+    /**
+     * KEYS[1] 计数 key，ARGV[1] 过期秒数，ARGV[2] 上限；返回 1 放行 0 拒绝
+     */
+    public static final RedisScript<Long> DAILY_LIMIT_SCRIPT = new DefaultRedisScript<>(
+            "local times = redis.call('incr',KEYS[1]) if times == 1 then redis.call('expire',KEYS[1],ARGV[1]) end if times > tonumber(ARGV[2]) then return 0 end return 1",
+            Long.class);
+
+    /**
+     * 单独统计耗时的 key 数量上限，超出的归到 "*"
+     */
+    private static final int MAX_TRACKED_KEYS = 1024;
+
+    private static final String OTHER_KEYS = "*";
+
+    /**
+     * 脚本参数的序列化，key 用模板自己的序列化器
+     */
+    private static final StringRedisSerializer ARGS = StringRedisSerializer.UTF_8;
+
+    @Autowired
+    RedisService redisService;
+
+    @Autowired
+    LatencyRegistry latencyRegistry;
+
+    private final Map<String, DecisionLatency> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * 当天第 limit 次之后的调用返回 false，计数在次日零点过期
+     */
+    public boolean tryAcquire(String key, long limit) {
+        long start = System.nanoTime();
+        Long result = template().execute(DAILY_LIMIT_SCRIPT, ARGS, (RedisSerializer<Long>) null,
+                Collections.singletonList(key), String.valueOf(secondsToMidnight()), String.valueOf(limit));
+        boolean allowed = result != null && result == 1L;
+        long elapsed = System.nanoTime() - start;
+        latencyRegistry.record(LatencyRegistry.REDIS + "daily_limit", elapsed);
+        if (!LatencyRegistry.isMuted()) {
+            latency(key).record(elapsed, allowed);
+        }
+        return allowed;
+    }
+
+    /**
+     * 多个 key 一次往返完成判定，返回值与 keys 顺序一致
+     */
+    public boolean[] tryAcquireAll(List<String> keys, long limit) {
+        List<Object> results = evalPipelined(DAILY_LIMIT_SCRIPT, keys, String.valueOf(secondsToMidnight()),
+                String.valueOf(limit));
+        boolean[] allowed = new boolean[keys.size()];
+        for (int i = 0; i < allowed.length; i++) {
+            allowed[i] = granted(results.get(i));
+        }
+        return allowed;
+    }
+
+    /**
+     * 每个 key 各执行一次脚本（KEYS[1] = key，ARGV 共用），整体一次 pipeline 往返。
+     * <p>
+     * 每个 key 的判定耗时记为整个往返的耗时，脚本返回正数算放行
+     */
+    public List<Object> evalPipelined(RedisScript<?> script, List<String> keys, String... args) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        RedisTemplate<String, Object> template = template();
+        RedisSerializer<String> keySerializer = keySerializer(template);
+        byte[] sha = ARGS.serialize(script.getSha1());
+        byte[][] keyBytes = new byte[keys.size()][];
+        for (int i = 0; i < keys.size(); i++) {
+            keyBytes[i] = keySerializer.serialize(keys.get(i));
+        }
+        byte[][] argBytes = new byte[args.length][];
+        for (int i = 0; i < args.length; i++) {
+            argBytes[i] = ARGS.serialize(args[i]);
+        }
+        ReturnType returnType = ReturnType.fromJavaType(script.getResultType());
+
+        RedisCallback<Object> callback = connection -> {
+            for (byte[] key : keyBytes) {
+                byte[][] params = new byte[1 + argBytes.length][];
+                params[0] = key;
+                System.arraycopy(argBytes, 0, params, 1, argBytes.length);
+                connection.scriptingCommands().evalSha(sha, returnType, 1, params);
+            }
+            return null;
+        };
+
+        long start = System.nanoTime();
+        List<Object> results;
+        try {
+            results = template.executePipelined(callback, ARGS);
+        } catch (RuntimeException e) {
+            if (!isNoScript(e)) {
+                throw e;
+            }
+            load(script);
+            results = template.executePipelined(callback, ARGS);
+        } finally {
+            latencyRegistry.record(LatencyRegistry.REDIS + "pipeline", System.nanoTime() - start);
+        }
+
+        if (LatencyRegistry.isMuted()) {
+            return results;
+        }
+        long elapsed = System.nanoTime() - start;
+        for (int i = 0; i < keys.size(); i++) {
+            latency(keys.get(i)).record(elapsed, granted(results.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * 预先 SCRIPT LOAD，避免第一次请求走 NOSCRIPT 回退
+     */
+    public void load(RedisScript<?> script) {
+        template().execute((RedisCallback<String>) connection -> loadScript(connection, script));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        List<String> keys = new ArrayList<>(latencies.keySet());
+        Collections.sort(keys);
+        for (String key : keys) {
+            result.put(key, latencies.get(key).snapshot());
+        }
+        return result;
+    }
+
+    static long secondsToMidnight() {
+        return ChronoUnit.SECONDS.between(LocalDateTime.now(), LocalDate.now().plusDays(1).atStartOfDay());
+    }
+
+    private DecisionLatency latency(String key) {
+        DecisionLatency latency = latencies.get(key);
+        if (latency != null) {
+            return latency;
+        }
+        if (latencies.size() >= MAX_TRACKED_KEYS) {
+            return latencies.computeIfAbsent(OTHER_KEYS, k -> new DecisionLatency());
+        }
+        return latencies.computeIfAbsent(key, k -> new DecisionLatency());
+    }
+
+    private static boolean granted(Object result) {
+        return result instanceof Number && ((Number) result).longValue() > 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisSerializer<String> keySerializer(RedisTemplate<String, Object> template) {
+        RedisSerializer<?> serializer = template.getKeySerializer();
+        return serializer == null ? ARGS : (RedisSerializer<String>) serializer;
+    }
+
+    private static String loadScript(RedisConnection connection, RedisScript<?> script) {
+        return connection.scriptingCommands().scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isNoScript(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisTemplate<String, Object> template() {
+        return (RedisTemplate<String, Object>) (RedisTemplate<?, ?>) redisService.getRedisTemplate();
+    }
+}
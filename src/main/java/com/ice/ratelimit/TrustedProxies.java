@@ -0,0 +1,106 @@
+package com.ice.ratelimit;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * 可信代理列表，按 X-Forwarded-For 从右往左跳过可信代理，第一个不可信的地址就是客户端
+ *
+ * @author : eclair
+ * @date : 2026/10/19 14:32
+ */
+public class TrustedProxies {
+    private final List<byte[]> networks = new ArrayList<>();
+
+    private final List<Integer> prefixes = new ArrayList<>();
+
+    /**
+     * @param entries IP 或 CIDR，例如 10.0.0.1、10.0.0.0/8、::1
+     */
+    public TrustedProxies(List<String> entries) {
+        for (String entry : entries) {
+            String value = entry.trim();
+            int slash = value.indexOf('/');
+            byte[] address = parse(slash < 0 ? value : value.substring(0, slash));
+            if (address == null) {
+                throw new IllegalArgumentException("illegal trusted proxy: " + entry);
+            }
+            networks.add(address);
+            prefixes.add(slash < 0 ? address.length * 8 : Integer.parseInt(value.substring(slash + 1)));
+        }
+    }
+
+    public boolean isEmpty() {
+        return networks.isEmpty();
+    }
+
+    public boolean contains(String ip) {
+        byte[] address = parse(ip);
+        if (address == null) {
+            return false;
+        }
+        for (int i = 0; i < networks.size(); i++) {
+            if (matches(networks.get(i), prefixes.get(i), address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 直连地址不可信时忽略 X-Forwarded-For；否则取链路上最右边的不可信地址，全部可信时取最左边的
+     */
+    public String resolve(String remoteAddr, String forwardedFor) {
+        if (!StringUtils.hasText(forwardedFor) || !contains(remoteAddr)) {
+            return remoteAddr;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !contains(hop)) {
+                return hop;
+            }
+        }
+        String first = hops[0].trim();
+        return first.isEmpty() ? remoteAddr : first;
+    }
+
+    private static boolean matches(byte[] network, int prefix, byte[] address) {
+        if (network.length != address.length) {
+            return false;
+        }
+        int bytes = prefix / 8;
+        for (int i = 0; i < bytes; i++) {
+            if (network[i] != address[i]) {
+                return false;
+            }
+        }
+        int bits = prefix % 8;
+        if (bits == 0) {
+            return true;
+        }
+        int mask = 0xFF << (8 - bits);
+        return (network[bytes] & mask) == (address[bytes] & mask);
+    }
+
+    /**
+     * 只接受字面量地址，不做 DNS 解析
+     */
+    private static byte[] parse(String ip) {
+        if (!StringUtils.hasText(ip) || !(Character.digit(ip.charAt(0), 16) >= 0 || ip.charAt(0) == ':')) {
+            return null;
+        }
+        if (ip.indexOf(':') < 0 && !ip.matches("\\d{1,3}(\\.\\d{1,3}){3}")) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(ip).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+}
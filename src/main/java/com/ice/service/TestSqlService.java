@@ -1,7 +1,17 @@
 package com.ice.service;
 
+import com.ice.config.DistributedLockProperties;
+import com.ice.dao.TenantJdbcDao;
+import com.ice.entity.Tenant;
+import com.ice.lock.DistributedLock;
+import com.ice.lock.DistributedLockService;
+import com.ice.lock.FencingTokenRejectedException;
 import com.ice.mapper.TestSqlMapper;
+import com.ice.singleflight.SingleFlight;
+import com.ice.tenant.TenantChangedEvent;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -9,20 +19,35 @@ import org.springframework.transaction.annotation.Transactional;
  * @author : eclair
  * @date : 2024/8/7 07:20
  */
+@Slf4j
 @Service
 public class TestSqlService {
     @Autowired
     TestSqlMapper testSqlMapper;
+    @Autowired
+    TenantJdbcDao tenantJdbcDao;
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+    @Autowired
+    DistributedLockService lockService;
+    @Autowired
+    DistributedLockProperties lockProperties;
     
     public void testUpdateSQl1() {
         testSqlMapper.updateTenantNameById2();
-        System.out.println("test");
+        eventPublisher.publishEvent(new TenantChangedEvent(this, 2));
+        log.info("test");
     }
     
+    /**
+     * 与 testUpdateSqlLock 都会改 id 2，用同一把分布式锁串行，各节点不再在 MySQL 行锁上互相等待
+     */
+    @DistributedLock(name = "tenant-update", waitMillis = 30000)
     @Transactional
     public void testUpdateLong() {
-        testSqlMapper.updateTenantNameById2();
-        System.out.println("test long");
+        updateFenced(2);
+        eventPublisher.publishEvent(new TenantChangedEvent(this, 2));
+        log.info("test long");
         try {
             Thread.sleep(10000);
         } catch (InterruptedException e) {
@@ -30,20 +55,41 @@ public class TestSqlService {
         }
     }
 
+    @DistributedLock(name = "tenant-update", waitMillis = 30000)
     @Transactional
     public void testUpdateSqlLock() {
-        testSqlMapper.updateTenantNameById5();
+        updateFenced(5);
+        eventPublisher.publishEvent(new TenantChangedEvent(this, 5));
         try {
             Thread.sleep(5000);
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
-        System.out.println("testLock");
-        testSqlMapper.updateTenantNameById2();
+        log.info("testLock fence={}", lockService.currentFence());
+        updateFenced(2);
+        eventPublisher.publishEvent(new TenantChangedEvent(this, 2));
+    }
+
+    /**
+     * 打开 fencing 时持锁期间的写入带上 token，租约已丢、别的节点用更大的 token 写过时抛异常回滚整个事务
+     */
+    private void updateFenced(Integer id) {
+        if (!lockProperties.getFencing().isEnabled()) {
+            testSqlMapper.updateTenantNameById(id);
+            return;
+        }
+        long fence = lockService.requireFence();
+        if (testSqlMapper.updateTenantNameFenced(id, fence) == 0) {
+            throw new FencingTokenRejectedException("t_tenant:" + id, fence);
+        }
     }
 
-    public void testSelect() {
-        testSqlMapper.selectOne();
+    /**
+     * 缓存失效后的并发读合并成一次查询，结果再复用 100ms
+     */
+    @SingleFlight(reuseMillis = 100)
+    public Tenant testSelect() {
+        return tenantJdbcDao.selectById(1);
     }
     
 
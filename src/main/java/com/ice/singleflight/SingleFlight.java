@@ -0,0 +1,35 @@
+package com.ice.singleflight;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 相同 key 的并发调用合并成一次执行，结果（或异常）分发给所有等待者。
+ * <p>
+ * 只适合只读方法；返回值会被多个调用方共享，调用方不要修改它。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 16:00
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+    /**
+     * 指标名称，为空时取 类名.方法名
+     */
+    String name() default "";
+
+    /**
+     * 可选的 SpEL，如 "#id"；为空时以全部参数作为 key
+     */
+    String key() default "";
+
+    /**
+     * 执行成功后结果继续复用的毫秒数，0 表示只合并执行期间到达的调用。异常结果从不复用
+     */
+    long reuseMillis() default 0;
+}
@@ -0,0 +1,37 @@
+package com.ice.singleflight;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+
+import com.ice.lock.DistributedLockAdvisor;
+
+/**
+ * 匹配标注了 {@link SingleFlight} 的方法，排在分布式锁和事务之外：合并掉的调用不会去抢锁、开事务
+ *
+ * @author : eclair
+ * @date : 2026/10/20 16:15
+ */
+public class SingleFlightAdvisor extends AbstractPointcutAdvisor {
+    public static final int ORDER = DistributedLockAdvisor.ORDER - 100;
+
+    private final Pointcut pointcut = AnnotationMatchingPointcut.forMethodAnnotation(SingleFlight.class);
+
+    private final SingleFlightInterceptor interceptor;
+
+    public SingleFlightAdvisor(SingleFlightInterceptor interceptor) {
+        this.interceptor = interceptor;
+        setOrder(ORDER);
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return interceptor;
+    }
+}
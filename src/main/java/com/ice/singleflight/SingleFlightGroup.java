@@ -0,0 +1,136 @@
+package com.ice.singleflight;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一个方法的在途调用表。
+ * <p>
+ * 第一个到达的调用在自己的线程里执行，其余相同 key 的调用阻塞等待同一个结果；
+ * 有复用窗口时结果在表里多留 reuseMillis，到期由延迟任务摘除，不会因为 key 太多而堆积。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 16:05
+ */
+public class SingleFlightGroup {
+    private final String name;
+
+    private final Map<Object, Call> calls = new ConcurrentHashMap<>();
+
+    private final LongAdder total = new LongAdder();
+
+    private final LongAdder executions = new LongAdder();
+
+    private final LongAdder joined = new LongAdder();
+
+    private final LongAdder reused = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    public SingleFlightGroup(String name) {
+        this.name = name;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, long reuseMillis, Execution<T> execution) throws Throwable {
+        total.increment();
+        Call mine = new Call();
+        while (true) {
+            Call existing = calls.putIfAbsent(key, mine);
+            if (existing == null) {
+                break;
+            }
+            if (existing.isReusable(System.nanoTime())) {
+                if (existing.future.isDone()) {
+                    reused.increment();
+                } else {
+                    joined.increment();
+                }
+                return (T) existing.await();
+            }
+            // 复用窗口已过但延迟摘除还没执行，替换掉它
+            if (calls.replace(key, existing, mine)) {
+                break;
+            }
+        }
+
+        executions.increment();
+        T value;
+        try {
+            value = execution.run();
+        } catch (Throwable e) {
+            failures.increment();
+            calls.remove(key, mine);
+            mine.future.completeExceptionally(e);
+            throw e;
+        }
+        if (reuseMillis > 0) {
+            mine.expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(reuseMillis);
+            mine.future.complete(value);
+            CompletableFuture.delayedExecutor(reuseMillis, TimeUnit.MILLISECONDS)
+                    .execute(() -> calls.remove(key, mine));
+        } else {
+            calls.remove(key, mine);
+            mine.future.complete(value);
+        }
+        return value;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 合并率：没有真正执行、直接拿到别人结果的调用占比
+     */
+    public double coalescingRatio() {
+        long n = total.sum();
+        return n == 0 ? 0.0 : (double) (joined.sum() + reused.sum()) / n;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("calls", total.sum());
+        result.put("executions", executions.sum());
+        result.put("joined", joined.sum());
+        result.put("reused", reused.sum());
+        result.put("failures", failures.sum());
+        result.put("inflight", calls.size());
+        result.put("coalescingRatio", coalescingRatio());
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface Execution<T> {
+        T run() throws Throwable;
+    }
+
+    private static final class Call {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        /**
+         * 执行期间为最大值，成功后改为复用截止时间；先写它再 complete，读到 done 时一定是新值
+         */
+        volatile long expiresAt = Long.MAX_VALUE;
+
+        boolean isReusable(long now) {
+            if (!future.isDone()) {
+                return true;
+            }
+            return !future.isCompletedExceptionally() && now < expiresAt;
+        }
+
+        Object await() throws Throwable {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.ice.singleflight;
+
+import java.lang.reflect.Method;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import com.ice.util.MethodKeyEvaluator;
+
+/**
+ * {@link SingleFlight} 的切面逻辑，registry 延迟获取
+ *
+ * @author : eclair
+ * @date : 2026/10/20 16:15
+ */
+public class SingleFlightInterceptor implements MethodInterceptor {
+    private final ObjectProvider<SingleFlightRegistry> registry;
+
+    private final MethodKeyEvaluator keyEvaluator = new MethodKeyEvaluator();
+
+    public SingleFlightInterceptor(ObjectProvider<SingleFlightRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object target = invocation.getThis();
+        Method method = target == null ? invocation.getMethod()
+                : AopUtils.getMostSpecificMethod(invocation.getMethod(), target.getClass());
+        SingleFlight annotation = AnnotatedElementUtils.findMergedAnnotation(method, SingleFlight.class);
+        if (annotation == null) {
+            return invocation.proceed();
+        }
+
+        String name = annotation.name().isEmpty()
+                ? method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                : annotation.name();
+        Object key = annotation.key().isEmpty() ? new SimpleKey(invocation.getArguments())
+                : keyEvaluator.evaluate(annotation.key(), target, method, invocation.getArguments());
+        return registry.getObject().group(name).execute(key, annotation.reuseMillis(), invocation::proceed);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ice.singleflight;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 按名称管理 {@link SingleFlightGroup}，存在 MeterRegistry 时为每组注册合并率 gauge
+ *
+ * @author : eclair
+ * @date : 2026/10/20 16:10
+ */
+@Component
+public class SingleFlightRegistry {
+    private static final String METER_NAME = "ice.singleflight.coalescing.ratio";
+
+    @Autowired
+    ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final Map<String, SingleFlightGroup> groups = new ConcurrentHashMap<>();
+
+    public SingleFlightGroup group(String name) {
+        SingleFlightGroup group = groups.get(name);
+        if (group != null) {
+            return group;
+        }
+        return groups.computeIfAbsent(name, this::create);
+    }
+
+    public Map<String, Object> snapshot() {
+        List<String> names = new ArrayList<>(groups.keySet());
+        Collections.sort(names);
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String name : names) {
+            result.put(name, groups.get(name).snapshot());
+        }
+        return result;
+    }
+
+    private SingleFlightGroup create(String name) {
+        SingleFlightGroup group = new SingleFlightGroup(name);
+        MeterRegistry registry = meterRegistry == null ? null : meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder(METER_NAME, group, SingleFlightGroup::coalescingRatio).tag("name", name)
+                    .register(registry);
+        }
+        return group;
+    }
+}
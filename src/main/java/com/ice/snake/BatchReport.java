@@ -0,0 +1,57 @@
+package com.ice.snake;
+
+import java.util.Map;
+
+/**
+ * 一次批量运行的结果
+ *
+ * @author : eclair
+ * @date : 2026/10/20 11:30
+ */
+public class BatchReport {
+    private final long elapsedNanos;
+
+    private final int parallelism;
+
+    private final Map<String, PolicyStats> policies;
+
+    BatchReport(long elapsedNanos, int parallelism, Map<String, PolicyStats> policies) {
+        this.elapsedNanos = elapsedNanos;
+        this.parallelism = parallelism;
+        this.policies = policies;
+    }
+
+    public long totalGames() {
+        return policies.values().stream().mapToLong(PolicyStats::getGames).sum();
+    }
+
+    public long totalTicks() {
+        return policies.values().stream().mapToLong(PolicyStats::getTicks).sum();
+    }
+
+    public double gamesPerSecond() {
+        return totalGames() * 1e9 / elapsedNanos;
+    }
+
+    public double ticksPerSecond() {
+        return totalTicks() * 1e9 / elapsedNanos;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public Map<String, PolicyStats> getPolicies() {
+        return policies;
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d games in %.2f s on %d threads: %.0f games/s, %.1f M ticks/s%n", totalGames(),
+                elapsedNanos / 1e9, parallelism, gamesPerSecond(), ticksPerSecond() / 1e6));
+        for (Map.Entry<String, PolicyStats> entry : policies.entrySet()) {
+            sb.append(String.format("  %-12s %s%n", entry.getKey(), entry.getValue().toMap()));
+        }
+        return sb.toString();
+    }
+}
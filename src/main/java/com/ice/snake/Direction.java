@@ -0,0 +1,44 @@
+package com.ice.snake;
+
+/**
+ * 蛇的移动方向，坐标系与 Swing 一致：x 向右，y 向下
+ *
+ * @author : eclair
+ * @date : 2026/10/20 10:00
+ */
+public enum Direction {
+    UP(0, -1),
+    DOWN(0, 1),
+    LEFT(-1, 0),
+    RIGHT(1, 0);
+
+    private static final Direction[] VALUES = values();
+
+    private final int dx;
+
+    private final int dy;
+
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    public int dx() {
+        return dx;
+    }
+
+    public int dy() {
+        return dy;
+    }
+
+    public boolean isOpposite(Direction other) {
+        return other != null && dx == -other.dx && dy == -other.dy;
+    }
+
+    /**
+     * 按 ordinal 取值，回放和网络协议里方向只占 2 bit
+     */
+    public static Direction of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,77 @@
+package com.ice.snake;
+
+/**
+ * 内置策略，用作评估基线
+ *
+ * @author : eclair
+ * @date : 2026/10/20 11:20
+ */
+public final class Policies {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private Policies() {
+    }
+
+    /**
+     * 在不会立即死亡的方向里随机选，随机数由种子和 tick 派生
+     */
+    public static Policy randomSafe() {
+        return view -> {
+            Direction current = view.getDirection();
+            int offset = (int) (SplitMix64.mix(view.getSeed() ^ view.getTicks() * 0x9E3779B97F4A7C15L) >>> 62);
+            for (int i = 0; i < DIRECTIONS.length; i++) {
+                Direction candidate = DIRECTIONS[(offset + i) & 3];
+                if (!candidate.isOpposite(current) && view.isSafe(candidate)) {
+                    return candidate;
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * 在安全方向里选离食物曼哈顿距离最近的，距离相同时优先保持方向
+     */
+    public static Policy greedy() {
+        return view -> {
+            Direction current = view.getDirection();
+            Direction best = null;
+            int bestDistance = Integer.MAX_VALUE;
+            for (Direction candidate : DIRECTIONS) {
+                if (candidate.isOpposite(current) || !view.isSafe(candidate)) {
+                    continue;
+                }
+                int distance = Math.abs(view.getHeadX() + candidate.dx() - view.getFoodX())
+                        + Math.abs(view.getHeadY() + candidate.dy() - view.getFoodY());
+                if (distance < bestDistance || (distance == bestDistance && candidate == current)) {
+                    best = candidate;
+                    bestDistance = distance;
+                }
+            }
+            return best;
+        };
+    }
+
+    /**
+     * 沿哈密顿回路走：第 0 列留作回程向上，其余列按行蛇形扫描。永远不会死，但很慢。
+     * 棋盘高度必须是偶数。
+     */
+    public static Policy cycle() {
+        return view -> {
+            int x = view.getHeadX();
+            int y = view.getHeadY();
+            Direction wanted;
+            if (x == 0) {
+                wanted = y == 0 ? Direction.RIGHT : Direction.UP;
+            } else if ((y & 1) == 0) {
+                wanted = x < view.getWidth() - 1 ? Direction.RIGHT : Direction.DOWN;
+            } else if (x > 1) {
+                wanted = Direction.LEFT;
+            } else {
+                wanted = y == view.getHeight() - 1 ? Direction.LEFT : Direction.DOWN;
+            }
+            // 开局在奇数行向右，先下移一行并入回路
+            return wanted.isOpposite(view.getDirection()) ? Direction.DOWN : wanted;
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.ice.snake;
+
+/**
+ * 代替键盘输入的决策策略，每个 tick 调用一次。
+ * <p>
+ * 批量运行时每个工作线程通过工厂拿到自己的实例，实现可以持有状态但不要求线程安全；
+ * 需要随机性时应从 {@link SnakeView#getSeed()} 和 tick 派生，保证对局可复现。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 11:05
+ */
+public interface Policy {
+    /**
+     * @return 本 tick 的方向，null 表示保持当前方向
+     */
+    Direction decide(SnakeView view);
+
+    /**
+     * 新的一局开始时调用
+     */
+    default void reset(SnakeView view) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.ice.snake;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 单个策略的对局统计，分数用直方图记录，可以合并并求分位数
+ *
+ * @author : eclair
+ * @date : 2026/10/20 11:25
+ */
+public class PolicyStats {
+    private final long[] scoreHistogram;
+
+    private long games;
+
+    private long ticks;
+
+    private long scoreSum;
+
+    private double scoreSquareSum;
+
+    private int maxScore;
+
+    private long wallDeaths;
+
+    private long selfDeaths;
+
+    private long wins;
+
+    private long timeouts;
+
+    public PolicyStats(int maxScore) {
+        this.scoreHistogram = new long[maxScore + 1];
+    }
+
+    void record(byte status, int score, long gameTicks) {
+        games++;
+        ticks += gameTicks;
+        scoreSum += score;
+        scoreSquareSum += (double) score * score;
+        maxScore = Math.max(maxScore, score);
+        scoreHistogram[score]++;
+        switch (status) {
+            case SnakeBatch.WALL:
+                wallDeaths++;
+                break;
+            case SnakeBatch.SELF:
+                selfDeaths++;
+                break;
+            case SnakeBatch.WON:
+                wins++;
+                break;
+            default:
+                timeouts++;
+                break;
+        }
+    }
+
+    PolicyStats merge(PolicyStats other) {
+        for (int i = 0; i < scoreHistogram.length; i++) {
+            scoreHistogram[i] += other.scoreHistogram[i];
+        }
+        games += other.games;
+        ticks += other.ticks;
+        scoreSum += other.scoreSum;
+        scoreSquareSum += other.scoreSquareSum;
+        maxScore = Math.max(maxScore, other.maxScore);
+        wallDeaths += other.wallDeaths;
+        selfDeaths += other.selfDeaths;
+        wins += other.wins;
+        timeouts += other.timeouts;
+        return this;
+    }
+
+    public double meanScore() {
+        return games == 0 ? 0 : scoreSum / (double) games;
+    }
+
+    public double stddevScore() {
+        if (games == 0) {
+            return 0;
+        }
+        double mean = meanScore();
+        return Math.sqrt(Math.max(0, scoreSquareSum / games - mean * mean));
+    }
+
+    public int percentileScore(double percentile) {
+        long target = (long) Math.ceil(games * percentile / 100.0);
+        long seen = 0;
+        for (int score = 0; score < scoreHistogram.length; score++) {
+            seen += scoreHistogram[score];
+            if (seen >= target && seen > 0) {
+                return score;
+            }
+        }
+        return maxScore;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("games", games);
+        result.put("meanScore", meanScore());
+        result.put("stddev", stddevScore());
+        result.put("p50", percentileScore(50));
+        result.put("p90", percentileScore(90));
+        result.put("p99", percentileScore(99));
+        result.put("max", maxScore);
+        result.put("meanTicks", games == 0 ? 0 : ticks / (double) games);
+        result.put("wall", wallDeaths);
+        result.put("self", selfDeaths);
+        result.put("won", wins);
+        result.put("timeout", timeouts);
+        return result;
+    }
+}
@@ -0,0 +1,137 @@
+package com.ice.snake;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * 无界面批量评估策略：每个策略在同一组种子（baseSeed + 局号）上各跑 gamesPerPolicy 局，
+ * 结果与线程数无关，可直接横向比较。
+ * <p>
+ * 局号区间在 ForkJoinPool 里二分到叶子，叶子用一个 {@link SnakeBatch} 的多个 lane 轮流推进，
+ * 一局结束立刻在该 lane 上开下一局。叶子统计在回溯时合并，运行期间没有共享写。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 11:35
+ */
+public class SnakeBatchRunner {
+    private final int parallelism;
+
+    private final int lanes;
+
+    private final long maxTicks;
+
+    private final int width;
+
+    private final int height;
+
+    public SnakeBatchRunner(int parallelism, int lanes, long maxTicks) {
+        this(parallelism, lanes, maxTicks, SnakeSimulation.DEFAULT_WIDTH, SnakeSimulation.DEFAULT_HEIGHT);
+    }
+
+    public SnakeBatchRunner(int parallelism, int lanes, long maxTicks, int width, int height) {
+        this.parallelism = parallelism;
+        this.lanes = lanes;
+        this.maxTicks = maxTicks;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @param policies 策略名到工厂，每个叶子任务创建自己的实例
+     */
+    public BatchReport run(Map<String, Supplier<? extends Policy>> policies, int gamesPerPolicy, long baseSeed) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long start = System.nanoTime();
+            List<ForkJoinTask<PolicyStats>> tasks = new ArrayList<>();
+            for (Supplier<? extends Policy> factory : policies.values()) {
+                tasks.add(pool.submit(new GameRange(factory, baseSeed, 0, gamesPerPolicy)));
+            }
+
+            Map<String, PolicyStats> result = new LinkedHashMap<>();
+            int i = 0;
+            for (String name : policies.keySet()) {
+                result.put(name, tasks.get(i++).join());
+            }
+            return new BatchReport(System.nanoTime() - start, parallelism, result);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private class GameRange extends RecursiveTask<PolicyStats> {
+        private final Supplier<? extends Policy> factory;
+
+        private final long baseSeed;
+
+        private final int from;
+
+        private final int to;
+
+        GameRange(Supplier<? extends Policy> factory, long baseSeed, int from, int to) {
+            this.factory = factory;
+            this.baseSeed = baseSeed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PolicyStats compute() {
+            // 叶子至少能让每个 lane 跑几局，摊薄批量引擎的分配
+            if (to - from <= lanes * 4) {
+                return play();
+            }
+            int mid = (from + to) >>> 1;
+            GameRange left = new GameRange(factory, baseSeed, from, mid);
+            left.fork();
+            PolicyStats right = new GameRange(factory, baseSeed, mid, to).compute();
+            return left.join().merge(right);
+        }
+
+        private PolicyStats play() {
+            int laneCount = Math.min(lanes, to - from);
+            SnakeBatch batch = new SnakeBatch(laneCount, width, height);
+            PolicyStats stats = new PolicyStats(batch.cells());
+            Policy policy = factory.get();
+
+            int next = from;
+            boolean[] active = new boolean[laneCount];
+            int running = 0;
+            for (int lane = 0; lane < laneCount; lane++) {
+                batch.reset(lane, baseSeed + next++);
+                active[lane] = true;
+                running++;
+            }
+
+            while (running > 0) {
+                for (int lane = 0; lane < laneCount; lane++) {
+                    if (!active[lane]) {
+                        continue;
+                    }
+                    SnakeView view = batch.view(lane);
+                    if (batch.ticks(lane) == 0) {
+                        policy.reset(view);
+                    }
+                    byte status = batch.step(lane, policy.decide(view));
+                    if (status == SnakeBatch.RUNNING && batch.ticks(lane) < maxTicks) {
+                        continue;
+                    }
+                    stats.record(status, batch.score(lane), batch.ticks(lane));
+                    if (next < to) {
+                        batch.reset(lane, baseSeed + next++);
+                    } else {
+                        active[lane] = false;
+                        running--;
+                    }
+                }
+            }
+            return stats;
+        }
+    }
+}
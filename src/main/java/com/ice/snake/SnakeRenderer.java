@@ -0,0 +1,220 @@
+package com.ice.snake;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * 增量渲染到 BufferedImage 后备缓冲区。
+ * <p>
+ * 渲染器自己记着上一帧画过的蛇身顺序和每格颜色，每帧只比较真正可能变化的格子：
+ * 新的头、上一帧的头、离开的尾巴、新旧食物。颜色没变的格子不重画，变了的直接写像素数组，
+ * 不经过 Graphics，也不依赖显示器，可以在无界面环境下跑。
+ * 两帧之间推进了多个 tick 也能正确追上；蛇整个换了位置（重开一局）时退化为全量重画。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 12:00
+ */
+public class SnakeRenderer {
+    public static final int BACKGROUND = 0x000000;
+
+    public static final int HEAD = 0x00FF00;
+
+    public static final int BODY = 0xFFFF00;
+
+    public static final int FOOD = 0xFF0000;
+
+    private final int width;
+
+    private final int height;
+
+    private final int blockSize;
+
+    private final int cells;
+
+    private final BufferedImage image;
+
+    private final int[] pixels;
+
+    /**
+     * 每格当前画的颜色
+     */
+    private final int[] drawn;
+
+    /**
+     * 上一帧画过的蛇身，trail[trailHead] 是头
+     */
+    private final int[] trail;
+
+    private int trailHead;
+
+    private int trailLength;
+
+    private int drawnFood = -1;
+
+    private long drawnTicks;
+
+    private long drawnSeed;
+
+    private boolean full = true;
+
+    /**
+     * 本帧重画的格子，-1 表示整张图
+     */
+    private final int[] dirty;
+
+    private int dirtyCount;
+
+    private long frames;
+
+    private long frameNanos;
+
+    private long maxFrameNanos;
+
+    public SnakeRenderer(int width, int height, int blockSize) {
+        this.width = width;
+        this.height = height;
+        this.blockSize = blockSize;
+        this.cells = width * height;
+        this.image = new BufferedImage(width * blockSize, height * blockSize, BufferedImage.TYPE_INT_RGB);
+        this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        this.drawn = new int[cells];
+        this.trail = new int[cells];
+        this.dirty = new int[cells * 2 + 4];
+    }
+
+    /**
+     * 把后备缓冲区更新到 simulation 的当前状态
+     *
+     * @return 本帧重画的区域数，用 {@link #dirtyRect} 取出
+     */
+    public int render(SnakeSimulation simulation) {
+        long start = System.nanoTime();
+        dirtyCount = 0;
+        long steps = simulation.getTicks() - drawnTicks;
+        if (full || simulation.getSeed() != drawnSeed || steps < 0 || steps >= simulation.getLength()) {
+            renderFull(simulation);
+        } else if (steps > 0 || foodCell(simulation) != drawnFood) {
+            renderDelta(simulation, (int) steps);
+        }
+        drawnTicks = simulation.getTicks();
+        drawnSeed = simulation.getSeed();
+
+        long elapsed = System.nanoTime() - start;
+        frames++;
+        frameNanos += elapsed;
+        maxFrameNanos = Math.max(maxFrameNanos, elapsed);
+        return dirtyCount;
+    }
+
+    public void invalidate() {
+        full = true;
+    }
+
+    /**
+     * 第 i 个重画区域，单位为像素
+     */
+    public Rectangle dirtyRect(int i) {
+        int cell = dirty[i];
+        if (cell < 0) {
+            return new Rectangle(0, 0, image.getWidth(), image.getHeight());
+        }
+        return new Rectangle(cell % width * blockSize, cell / width * blockSize, blockSize, blockSize);
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public double getAverageFrameMicros() {
+        return frames == 0 ? 0 : frameNanos / 1e3 / frames;
+    }
+
+    public double getMaxFrameMicros() {
+        return maxFrameNanos / 1e3;
+    }
+
+    private void renderFull(SnakeSimulation simulation) {
+        Arrays.fill(pixels, BACKGROUND);
+        Arrays.fill(drawn, BACKGROUND);
+        int length = simulation.getLength();
+        trailLength = 0;
+        trailHead = -1;
+        for (int i = length - 1; i >= 0; i--) {
+            int cell = simulation.segmentCell(i);
+            pushTrail(cell);
+            paint(cell, i == 0 ? HEAD : BODY);
+        }
+        drawnFood = foodCell(simulation);
+        paint(drawnFood, FOOD);
+        full = false;
+        dirtyCount = 0;
+        dirty[dirtyCount++] = -1;
+    }
+
+    private void renderDelta(SnakeSimulation simulation, int steps) {
+        if (steps > 0) {
+            // 上一帧的头变成身体，然后按从旧到新的顺序补上这几步新走的格子
+            update(trail[trailHead], BODY);
+            for (int i = steps - 1; i >= 0; i--) {
+                int cell = simulation.segmentCell(i);
+                pushTrail(cell);
+                update(cell, i == 0 ? HEAD : BODY);
+            }
+            int length = simulation.getLength();
+            while (trailLength > length) {
+                int tail = popTrail();
+                if (!simulation.isOccupied(tail)) {
+                    update(tail, BACKGROUND);
+                }
+            }
+        }
+
+        int food = foodCell(simulation);
+        if (food != drawnFood) {
+            if (drawnFood >= 0 && !simulation.isOccupied(drawnFood)) {
+                update(drawnFood, BACKGROUND);
+            }
+            update(food, FOOD);
+            drawnFood = food;
+        }
+    }
+
+    private void update(int cell, int color) {
+        if (drawn[cell] == color) {
+            return;
+        }
+        paint(cell, color);
+        dirty[dirtyCount++] = cell;
+    }
+
+    private void paint(int cell, int color) {
+        drawn[cell] = color;
+        int imageWidth = width * blockSize;
+        int offset = cell / width * blockSize * imageWidth + cell % width * blockSize;
+        for (int row = 0; row < blockSize; row++, offset += imageWidth) {
+            Arrays.fill(pixels, offset, offset + blockSize, color);
+        }
+    }
+
+    private void pushTrail(int cell) {
+        trailHead = trailHead + 1 == cells ? 0 : trailHead + 1;
+        trail[trailHead] = cell;
+        trailLength++;
+    }
+
+    private int popTrail() {
+        int index = trailHead - (trailLength - 1);
+        trailLength--;
+        return trail[index < 0 ? index + cells : index];
+    }
+
+    private int foodCell(SnakeSimulation simulation) {
+        return simulation.getFoodY() * width + simulation.getFoodX();
+    }
+}
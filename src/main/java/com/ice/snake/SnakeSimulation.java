@@ -0,0 +1,362 @@
+package com.ice.snake;
+
+import java.util.Arrays;
+
+/**
+ * 无界面的贪吃蛇规则引擎，坐标以格子为单位，默认 40×30（即 SnakeGame 的 800×600 / 20）。
+ * <p>
+ * 规则与 SnakeGame 一致：初始长度 3、头在 (5,5) 向右；不能直接掉头；
+ * 撞墙或撞到身体（包括本步将要离开的尾巴所在格）即结束；吃到食物长度加一。
+ * 与原 Swing 版本有三处区别：碰撞在移动的这一步判定，而不是下一个 tick；
+ * 头移到食物格的这一步就吃掉并变长，原来要到下一个 tick 检查时才吃（先 checkFood 再 move）；
+ * 食物只会放在空格上。
+ * <p>
+ * 蛇身按格子编号（y * width + x）存放在环形缓冲区里，移动只写新头、擦旧尾；
+ * 占用情况用位图记录，撞身体判断是一次位运算；空格另外维护一个可 O(1) 增删的列表，
+ * 放食物时直接从空格里抽样。每个 tick 的开销与蛇长和棋盘大小无关。
+ * <p>
+ * 随机数由种子完全决定，同样的种子和输入序列得到同样的对局；调用方每次 {@link #step} 推进一个 tick，
+ * 没有计时器，推进速度只受 CPU 限制。非线程安全。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 10:15
+ */
+public class SnakeSimulation implements SnakeView {
+    public static final int DEFAULT_WIDTH = 40;
+
+    public static final int DEFAULT_HEIGHT = 30;
+
+    public static final int INITIAL_LENGTH = 3;
+
+    private static final int START_X = 5;
+
+    private static final int START_Y = 5;
+
+    private final int width;
+
+    private final int height;
+
+    private final int cells;
+
+    /**
+     * 环形缓冲区，body[head] 是蛇头，往前 length - 1 个位置是蛇尾
+     */
+    private final int[] body;
+
+    private final long[] occupied;
+
+    /**
+     * 空格列表，前 freeCount 个有效；freeIndex[cell] 是该格在列表中的位置，被占用时为 -1
+     */
+    private final int[] free;
+
+    private final int[] freeIndex;
+
+    private final SplitMix64 random;
+
+    private long seed;
+
+    private int head;
+
+    private int length;
+
+    private int freeCount;
+
+    private Direction direction;
+
+    private int foodCell;
+
+    private boolean alive;
+
+    private long ticks;
+
+    private int score;
+
+    public SnakeSimulation(long seed) {
+        this(DEFAULT_WIDTH, DEFAULT_HEIGHT, seed);
+    }
+
+    public SnakeSimulation(int width, int height, long seed) {
+        if (width <= START_X || height <= START_Y) {
+            throw new IllegalArgumentException("board too small: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.cells = width * height;
+        this.body = new int[cells];
+        this.occupied = new long[(cells + 63) >>> 6];
+        this.free = new int[cells];
+        this.freeIndex = new int[cells];
+        this.random = new SplitMix64(seed);
+        reset(seed);
+    }
+
+    public void reset(long seed) {
+        this.seed = seed;
+        random.setState(seed);
+        Arrays.fill(occupied, 0L);
+        for (int cell = 0; cell < cells; cell++) {
+            free[cell] = cell;
+            freeIndex[cell] = cell;
+        }
+        freeCount = cells;
+
+        // 从尾到头依次压入，最后压入的是头
+        length = 0;
+        head = -1;
+        for (int i = INITIAL_LENGTH - 1; i >= 0; i--) {
+            pushHead(START_Y * width + START_X - i);
+        }
+        direction = Direction.RIGHT;
+        alive = true;
+        ticks = 0;
+        score = 0;
+        placeFood();
+    }
+
+    /**
+     * 推进一个 tick
+     *
+     * @param input 本 tick 的输入，null 表示保持方向；与当前方向相反的输入被忽略
+     */
+    public StepResult step(Direction input) {
+        if (!alive) {
+            return StepResult.OVER;
+        }
+        if (input != null && !input.isOpposite(direction)) {
+            direction = input;
+        }
+        ticks++;
+
+        int headCell = body[head];
+        int nx = headCell % width + direction.dx();
+        int ny = headCell / width + direction.dy();
+        if (nx < 0 || ny < 0 || nx >= width || ny >= height) {
+            alive = false;
+            return StepResult.DIED;
+        }
+        int cell = ny * width + nx;
+        // 尾巴此时还在位图里，撞上将要离开的尾巴同样算撞身体
+        if (isOccupied(cell)) {
+            alive = false;
+            return StepResult.DIED;
+        }
+
+        boolean eat = cell == foodCell;
+        if (!eat) {
+            popTail();
+        }
+        pushHead(cell);
+        if (!eat) {
+            return StepResult.MOVED;
+        }
+
+        score++;
+        if (length == cells) {
+            alive = false;
+            return StepResult.WON;
+        }
+        placeFood();
+        return StepResult.ATE;
+    }
+
+    private void pushHead(int cell) {
+        head = head + 1 == cells ? 0 : head + 1;
+        body[head] = cell;
+        length++;
+        occupied[cell >>> 6] |= 1L << cell;
+
+        // 从空格列表里换出：用最后一个空格填它的位置
+        int index = freeIndex[cell];
+        int last = free[--freeCount];
+        free[index] = last;
+        freeIndex[last] = index;
+        freeIndex[cell] = -1;
+    }
+
+    private void popTail() {
+        int cell = body[ringIndex(length - 1)];
+        length--;
+        occupied[cell >>> 6] &= ~(1L << cell);
+        free[freeCount] = cell;
+        freeIndex[cell] = freeCount++;
+    }
+
+    /**
+     * 复制当前完整状态，包括空格列表的顺序（决定后续食物位置）和随机数状态
+     */
+    public Snapshot snapshot() {
+        int[] bodyCells = new int[length];
+        for (int i = 0; i < length; i++) {
+            // 从尾到头存放，恢复时按顺序压入
+            bodyCells[i] = body[ringIndex(length - 1 - i)];
+        }
+        return new Snapshot(seed, random.getState(), ticks, score, foodCell, direction, alive, bodyCells,
+                Arrays.copyOf(free, freeCount));
+    }
+
+    /**
+     * 恢复到快照时的状态，快照必须来自同样大小的棋盘
+     */
+    public void restore(Snapshot snapshot) {
+        if (snapshot.bodyCells.length + snapshot.freeCells.length > cells) {
+            throw new IllegalArgumentException("snapshot from a different board size");
+        }
+        seed = snapshot.seed;
+        random.setState(snapshot.randomState);
+        ticks = snapshot.ticks;
+        score = snapshot.score;
+        foodCell = snapshot.foodCell;
+        direction = snapshot.direction;
+        alive = snapshot.alive;
+
+        Arrays.fill(occupied, 0L);
+        Arrays.fill(freeIndex, -1);
+        length = snapshot.bodyCells.length;
+        System.arraycopy(snapshot.bodyCells, 0, body, 0, length);
+        head = length - 1;
+        for (int cell : snapshot.bodyCells) {
+            occupied[cell >>> 6] |= 1L << cell;
+        }
+        freeCount = snapshot.freeCells.length;
+        System.arraycopy(snapshot.freeCells, 0, free, 0, freeCount);
+        for (int i = 0; i < freeCount; i++) {
+            freeIndex[free[i]] = i;
+        }
+    }
+
+    private void placeFood() {
+        foodCell = free[random.nextInt(freeCount)];
+    }
+
+    private int ringIndex(int segment) {
+        int index = head - segment;
+        return index < 0 ? index + cells : index;
+    }
+
+    public boolean isOccupied(int cell) {
+        return (occupied[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    @Override
+    public boolean isOccupied(int x, int y) {
+        return isOccupied(y * width + x);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * 第 i 节所在格子编号（y * width + x），0 为头
+     */
+    public int segmentCell(int i) {
+        return body[ringIndex(i)];
+    }
+
+    /**
+     * 第 i 节的 x 坐标，0 为头
+     */
+    public int segmentX(int i) {
+        return segmentCell(i) % width;
+    }
+
+    public int segmentY(int i) {
+        return segmentCell(i) / width;
+    }
+
+    @Override
+    public int getHeadX() {
+        return body[head] % width;
+    }
+
+    @Override
+    public int getHeadY() {
+        return body[head] / width;
+    }
+
+    @Override
+    public Direction getDirection() {
+        return direction;
+    }
+
+    @Override
+    public int getFoodX() {
+        return foodCell % width;
+    }
+
+    @Override
+    public int getFoodY() {
+        return foodCell / width;
+    }
+
+    public int getFreeCellCount() {
+        return freeCount;
+    }
+
+    public boolean isAlive() {
+        return alive;
+    }
+
+    @Override
+    public long getTicks() {
+        return ticks;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public static final class Snapshot {
+        private final long seed;
+
+        private final long randomState;
+
+        private final long ticks;
+
+        private final int score;
+
+        private final int foodCell;
+
+        private final Direction direction;
+
+        private final boolean alive;
+
+        private final int[] bodyCells;
+
+        private final int[] freeCells;
+
+        Snapshot(long seed, long randomState, long ticks, int score, int foodCell, Direction direction, boolean alive,
+                int[] bodyCells, int[] freeCells) {
+            this.seed = seed;
+            this.randomState = randomState;
+            this.ticks = ticks;
+            this.score = score;
+            this.foodCell = foodCell;
+            this.direction = direction;
+            this.alive = alive;
+            this.bodyCells = bodyCells;
+            this.freeCells = freeCells;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+    }
+}
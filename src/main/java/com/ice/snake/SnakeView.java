@@ -0,0 +1,40 @@
+package com.ice.snake;
+
+/**
+ * 策略能看到的对局状态，单局引擎和批量引擎都实现这个接口
+ *
+ * @author : eclair
+ * @date : 2026/10/20 11:00
+ */
+public interface SnakeView {
+    int getWidth();
+
+    int getHeight();
+
+    int getHeadX();
+
+    int getHeadY();
+
+    Direction getDirection();
+
+    int getFoodX();
+
+    int getFoodY();
+
+    int getLength();
+
+    boolean isOccupied(int x, int y);
+
+    long getTicks();
+
+    long getSeed();
+
+    /**
+     * 往 direction 走一步是否不会立即死亡
+     */
+    default boolean isSafe(Direction direction) {
+        int x = getHeadX() + direction.dx();
+        int y = getHeadY() + direction.dy();
+        return x >= 0 && y >= 0 && x < getWidth() && y < getHeight() && !isOccupied(x, y);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ice.snake;
+
+/**
+ * 可确定复现的随机数：同一个种子在任何机器、任何 JDK 上产生同样的序列。
+ * 不做同步，每局游戏各自持有一个实例；批量模拟时状态直接放在 long[] 里，用静态方法推进。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 10:05
+ */
+public final class SplitMix64 {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long[] state = new long[1];
+
+    public SplitMix64(long seed) {
+        state[0] = seed;
+    }
+
+    public long nextLong() {
+        return nextLong(state, 0);
+    }
+
+    /**
+     * [0, bound) 内均匀分布，bound 必须为正
+     */
+    public int nextInt(int bound) {
+        return nextInt(state, 0, bound);
+    }
+
+    public long getState() {
+        return state[0];
+    }
+
+    public void setState(long state) {
+        this.state[0] = state;
+    }
+
+    public static long nextLong(long[] states, int index) {
+        return mix(states[index] += GOLDEN_GAMMA);
+    }
+
+    public static int nextInt(long[] states, int index, int bound) {
+        // Lemire 乘法取高位，拒绝采样消除偏差
+        long m = (nextLong(states, index) >>> 32) * bound;
+        long low = m & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x1_0000_0000L - bound) % bound;
+            while (low < threshold) {
+                m = (nextLong(states, index) >>> 32) * bound;
+                low = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    /**
+     * SplitMix64 的输出函数，也可单独用作 64 位哈希
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ice.snake;
+
+/**
+ * 单步推进的结果
+ *
+ * @author : eclair
+ * @date : 2026/10/20 10:10
+ */
+public enum StepResult {
+    MOVED,
+    ATE,
+    /**
+     * 撞墙或撞到自己
+     */
+    DIED,
+    /**
+     * 蛇占满棋盘
+     */
+    WON,
+    /**
+     * 游戏已经结束，本次调用没有推进
+     */
+    OVER
+}
@@ -0,0 +1,224 @@
+package com.ice.snake.replay;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.ice.snake.Direction;
+
+/**
+ * 一局游戏的回放：种子 + 棋盘大小 + 逐 tick 输入的游程编码。
+ * <p>
+ * 规则引擎是确定的，重放输入即可得到完全相同的对局。输入取值为四个方向或“保持”，
+ * 每个游程编码成一个 varint：(runLength - 1) &lt;&lt; 3 | code，大部分 tick 都是“保持”，
+ * 一局几千 tick 通常只占几百字节。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 13:00
+ */
+public final class Replay {
+    /**
+     * 保持当前方向
+     */
+    static final int KEEP = 4;
+
+    private final long seed;
+
+    private final int width;
+
+    private final int height;
+
+    private final long ticks;
+
+    private final byte[] runs;
+
+    Replay(long seed, int width, int height, long ticks, byte[] runs) {
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        this.ticks = ticks;
+        this.runs = runs;
+    }
+
+    public static Builder builder(long seed, int width, int height) {
+        return new Builder(seed, width, height);
+    }
+
+    public Cursor cursor() {
+        return new Cursor(runs);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * 序列化后的字节数
+     */
+    public int encodedSize() {
+        return 8 + 2 + 2 + varintSize(ticks) + varintSize(runs.length) + runs.length;
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putLong(seed);
+        buffer.putShort((short) width);
+        buffer.putShort((short) height);
+        writeVarint(buffer, ticks);
+        writeVarint(buffer, runs.length);
+        buffer.put(runs);
+    }
+
+    public static Replay readFrom(ByteBuffer buffer) {
+        long seed = buffer.getLong();
+        int width = buffer.getShort() & 0xFFFF;
+        int height = buffer.getShort() & 0xFFFF;
+        long ticks = readVarint(buffer);
+        byte[] runs = new byte[(int) readVarint(buffer)];
+        buffer.get(runs);
+        return new Replay(seed, width, height, ticks, runs);
+    }
+
+    static void writeVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            size++;
+            value >>>= 7;
+        }
+        return size;
+    }
+
+    public static final class Builder {
+        private final long seed;
+
+        private final int width;
+
+        private final int height;
+
+        private ByteBuffer runs = ByteBuffer.allocate(256);
+
+        private long ticks;
+
+        private int code = -1;
+
+        private long count;
+
+        Builder(long seed, int width, int height) {
+            this.seed = seed;
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * 追加一个 tick 的输入，与传给 step 的参数一致
+         */
+        public Builder add(Direction input) {
+            int next = input == null ? KEEP : input.ordinal();
+            ticks++;
+            if (next == code) {
+                count++;
+                return this;
+            }
+            flush();
+            code = next;
+            count = 1;
+            return this;
+        }
+
+        public Replay build() {
+            flush();
+            code = -1;
+            return new Replay(seed, width, height, ticks, Arrays.copyOf(runs.array(), runs.position()));
+        }
+
+        private void flush() {
+            if (code < 0) {
+                return;
+            }
+            if (runs.remaining() < 10) {
+                runs = ByteBuffer.allocate(runs.capacity() * 2).put(runs.flip());
+            }
+            writeVarint(runs, (count - 1) << 3 | code);
+        }
+    }
+
+    /**
+     * 顺序读取输入，可以复制当前位置以便从快照处继续
+     */
+    public static final class Cursor {
+        private final byte[] runs;
+
+        private int offset;
+
+        private int code;
+
+        private long remaining;
+
+        Cursor(byte[] runs) {
+            this.runs = runs;
+        }
+
+        private Cursor(Cursor other) {
+            this.runs = other.runs;
+            this.offset = other.offset;
+            this.code = other.code;
+            this.remaining = other.remaining;
+        }
+
+        /**
+         * 下一个 tick 的输入，null 表示保持方向；超出录制长度时也返回 null
+         */
+        public Direction next() {
+            if (remaining == 0) {
+                if (offset >= runs.length) {
+                    return null;
+                }
+                long run = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = runs[offset++];
+                    run |= (long) (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                }
+                code = (int) (run & 7);
+                remaining = (run >>> 3) + 1;
+            }
+            remaining--;
+            return code == KEEP ? null : Direction.of(code);
+        }
+
+        public Cursor copy() {
+            return new Cursor(this);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ice.snake.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * 读取 {@link ReplayArchiveWriter} 写出的归档。打开时按段映射并扫描一遍记录长度建立偏移索引，
+ * 之后可按序号随机读取，读取只是在映射内存上解码，不产生系统调用。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 13:25
+ */
+public class ReplayArchiveReader implements Closeable {
+    private final FileChannel channel;
+
+    private final int segmentBytes;
+
+    private final MappedByteBuffer[] segments;
+
+    private final long[] offsets;
+
+    public ReplayArchiveReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, ReplayArchiveWriter.HEADER_BYTES);
+        if (header.getInt(0) != ReplayArchiveWriter.MAGIC || header.getInt(4) != ReplayArchiveWriter.VERSION) {
+            channel.close();
+            throw new IOException("not a replay archive: " + path);
+        }
+        long end = header.getLong(8);
+        long count = header.getLong(16);
+        this.segmentBytes = header.getInt(24);
+
+        int segmentCount = (int) ((end + segmentBytes - 1) / segmentBytes);
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long start = (long) i * segmentBytes;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentBytes, end - start));
+        }
+        this.offsets = index(end, (int) count);
+    }
+
+    public long size() {
+        return offsets.length;
+    }
+
+    public Replay read(long index) {
+        long offset = offsets[(int) index];
+        MappedByteBuffer segment = segments[(int) (offset / segmentBytes)].duplicate();
+        segment.position((int) (offset % segmentBytes) + 4);
+        return Replay.readFrom(segment);
+    }
+
+    public void forEach(Consumer<Replay> consumer) {
+        for (int i = 0; i < offsets.length; i++) {
+            consumer.accept(read(i));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long[] index(long end, int count) {
+        long[] result = new long[count];
+        int found = 0;
+        long offset = ReplayArchiveWriter.HEADER_BYTES;
+        while (offset < end && found < count) {
+            int segmentIndex = (int) (offset / segmentBytes);
+            int position = (int) (offset % segmentBytes);
+            MappedByteBuffer segment = segments[segmentIndex];
+            int size = segment.limit() - position >= 4 ? segment.getInt(position) : 0;
+            if (size == 0) {
+                offset = (long) (segmentIndex + 1) * segmentBytes;
+                continue;
+            }
+            result[found++] = offset;
+            offset += 4 + size;
+        }
+        return found == count ? result : Arrays.copyOf(result, found);
+    }
+}
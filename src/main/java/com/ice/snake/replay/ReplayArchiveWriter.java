@@ -0,0 +1,126 @@
+package com.ice.snake.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 以内存映射方式追加回放的归档文件。
+ * <p>
+ * 文件按固定大小的段映射，每条记录是 int 长度 + {@link Replay} 序列化内容，记录不跨段：
+ * 段尾放不下时写一个长度 0 的占位，跳到下一段开头。文件头记录有效数据的结束位置和记录数，
+ * 只在 {@link #flush()} / {@link #close()} 时更新，读者以文件头为准，未刷新的尾部不可见。
+ * 打开已有文件时接着末尾追加。非线程安全。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 13:15
+ */
+public class ReplayArchiveWriter implements Closeable {
+    static final int MAGIC = 0x534E4B52;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_BYTES = 32;
+
+    public static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+
+    private final FileChannel channel;
+
+    private final int segmentBytes;
+
+    private final MappedByteBuffer header;
+
+    private MappedByteBuffer segment;
+
+    private long segmentStart;
+
+    private long end;
+
+    private long count;
+
+    public ReplayArchiveWriter(Path path) throws IOException {
+        this(path, DEFAULT_SEGMENT_BYTES);
+    }
+
+    public ReplayArchiveWriter(Path path, int segmentBytes) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        boolean existing = channel.size() >= HEADER_BYTES;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        if (existing) {
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                channel.close();
+                throw new IOException("not a replay archive: " + path);
+            }
+            this.end = header.getLong(8);
+            this.count = header.getLong(16);
+            this.segmentBytes = header.getInt(24);
+        } else {
+            this.segmentBytes = segmentBytes;
+            this.end = HEADER_BYTES;
+            this.count = 0;
+            header.putInt(0, MAGIC).putInt(4, VERSION).putInt(24, segmentBytes);
+            writeHeader();
+        }
+        mapSegment(end / this.segmentBytes);
+    }
+
+    /**
+     * @return 记录序号，从 0 开始
+     */
+    public long append(Replay replay) throws IOException {
+        int size = replay.encodedSize();
+        if (size + 4 > segmentBytes - HEADER_BYTES) {
+            throw new IllegalArgumentException("replay larger than segment: " + size);
+        }
+        int position = (int) (end - segmentStart);
+        if (position + 4 + size > segmentBytes) {
+            if (segmentBytes - position >= 4) {
+                segment.putInt(position, 0);
+            }
+            mapSegment(segmentStart / segmentBytes + 1);
+            end = segmentStart;
+            position = 0;
+        }
+        segment.putInt(position, size);
+        segment.position(position + 4);
+        replay.writeTo(segment);
+        end += 4 + size;
+        return count++;
+    }
+
+    public long size() {
+        return count;
+    }
+
+    public void flush() {
+        writeHeader();
+        segment.force();
+        header.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void writeHeader() {
+        header.putLong(8, end).putLong(16, count);
+    }
+
+    private void mapSegment(long index) throws IOException {
+        if (segment != null) {
+            segment.force();
+        }
+        segmentStart = index * segmentBytes;
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentStart, segmentBytes);
+        if (segmentStart == 0) {
+            // 第一段开头是文件头
+            end = Math.max(end, HEADER_BYTES);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ice.snake.replay;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ice.snake.SnakeSimulation;
+import com.ice.snake.StepResult;
+
+/**
+ * 回放播放器，可以跳到任意 tick。
+ * <p>
+ * 向前播放时每隔 snapshotInterval 个 tick 存一份状态快照（连同输入游标的位置），
+ * 跳转时从不晚于目标的最近快照恢复，最多再推进 snapshotInterval - 1 个 tick；
+ * 目标在已播放位置之后且比最近快照更近时直接从当前位置往后走。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 13:35
+ */
+public class ReplayPlayer {
+    private final Replay replay;
+
+    private final int snapshotInterval;
+
+    private final SnakeSimulation simulation;
+
+    /**
+     * 第 i 个元素是第 i * snapshotInterval 个 tick 之后的状态
+     */
+    private final List<SnakeSimulation.Snapshot> snapshots = new ArrayList<>();
+
+    private final List<Replay.Cursor> cursors = new ArrayList<>();
+
+    private Replay.Cursor cursor;
+
+    public ReplayPlayer(Replay replay, int snapshotInterval) {
+        this.replay = replay;
+        this.snapshotInterval = snapshotInterval;
+        this.simulation = new SnakeSimulation(replay.getWidth(), replay.getHeight(), replay.getSeed());
+        this.cursor = replay.cursor();
+        snapshots.add(simulation.snapshot());
+        cursors.add(cursor.copy());
+    }
+
+    /**
+     * 跳到第 tick 个 tick 执行完之后的状态，超出录制长度时停在最后一个 tick
+     */
+    public SnakeSimulation seek(long tick) {
+        long target = Math.min(Math.max(tick, 0), replay.getTicks());
+        long position = simulation.getTicks();
+        int nearest = (int) Math.min(target / snapshotInterval, snapshots.size() - 1);
+        long snapshotTick = (long) nearest * snapshotInterval;
+        if (target < position || snapshotTick > position) {
+            simulation.restore(snapshots.get(nearest));
+            cursor = cursors.get(nearest).copy();
+        }
+        while (simulation.getTicks() < target && step() != StepResult.OVER) {
+            // 推进到目标
+        }
+        return simulation;
+    }
+
+    /**
+     * 往后播放一个 tick
+     */
+    public StepResult step() {
+        if (simulation.getTicks() >= replay.getTicks()) {
+            return StepResult.OVER;
+        }
+        StepResult result = simulation.step(cursor.next());
+        long ticks = simulation.getTicks();
+        if (ticks % snapshotInterval == 0 && ticks / snapshotInterval == snapshots.size()) {
+            snapshots.add(simulation.snapshot());
+            cursors.add(cursor.copy());
+        }
+        return result;
+    }
+
+    public SnakeSimulation getSimulation() {
+        return simulation;
+    }
+
+    public int getSnapshotCount() {
+        return snapshots.size();
+    }
+}
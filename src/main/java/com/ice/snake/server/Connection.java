@@ -0,0 +1,147 @@
+package com.ice.snake.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 一个客户端连接。
+ * <p>
+ * 读写都在 selector 线程；房间 tick 线程只往发送队列里放整帧、从输入队列里取方向。
+ * 输入队列是单生产者（selector）单消费者（房间）的环，满了丢最新的输入。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 14:05
+ */
+final class Connection {
+    static final int INPUT_CAPACITY = 8;
+
+    private static final int INPUT_MASK = INPUT_CAPACITY - 1;
+
+    final SocketChannel channel;
+
+    final SelectionKey key;
+
+    final ByteBuffer readBuffer = ByteBuffer.allocate(4096);
+
+    /**
+     * 待发送的整帧，tick 线程放、selector 线程取
+     */
+    private final ConcurrentLinkedQueue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger outboundBytes = new AtomicInteger();
+
+    /**
+     * 已出队但还没写完的那一帧，只有 selector 线程访问
+     */
+    private ByteBuffer writing;
+
+    private final byte[] inputs = new byte[INPUT_CAPACITY];
+
+    private volatile int inputHead;
+
+    private volatile int inputTail;
+
+    final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    volatile Room room;
+
+    volatile int playerId = -1;
+
+    volatile boolean closed;
+
+    Connection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+
+    /**
+     * selector 线程调用
+     */
+    boolean offerInput(int direction) {
+        int tail = inputTail;
+        if (tail - inputHead == INPUT_CAPACITY) {
+            return false;
+        }
+        inputs[tail & INPUT_MASK] = (byte) direction;
+        inputTail = tail + 1;
+        return true;
+    }
+
+    /**
+     * 房间 tick 线程调用，没有输入返回 -1
+     */
+    int pollInput() {
+        int head = inputHead;
+        if (head == inputTail) {
+            return -1;
+        }
+        int direction = inputs[head & INPUT_MASK];
+        inputHead = head + 1;
+        return direction;
+    }
+
+    void clearInputs() {
+        inputHead = inputTail;
+    }
+
+    void enqueue(ByteBuffer frame) {
+        outboundBytes.addAndGet(frame.remaining());
+        outbound.offer(frame);
+    }
+
+    int getOutboundBytes() {
+        return outboundBytes.get();
+    }
+
+    /**
+     * 丢弃积压的帧，正在写的那一帧不受影响，保证不会发出半帧
+     */
+    int discardOutbound() {
+        int dropped = 0;
+        ByteBuffer frame;
+        while ((frame = outbound.poll()) != null) {
+            outboundBytes.addAndGet(-frame.remaining());
+            dropped++;
+        }
+        return dropped;
+    }
+
+    /**
+     * 取出下一帧并扣减积压字节数，没有待发送的帧返回 null
+     */
+    ByteBuffer pollOutbound() {
+        ByteBuffer frame = outbound.poll();
+        if (frame != null) {
+            outboundBytes.addAndGet(-frame.remaining());
+        }
+        return frame;
+    }
+
+    /**
+     * 尽量写完发送队列，返回写出的字节数；写不完时关注 OP_WRITE 等下次可写
+     */
+    long flush() throws IOException {
+        long written = 0;
+        while (true) {
+            if (writing == null) {
+                writing = pollOutbound();
+                if (writing == null) {
+                    break;
+                }
+            }
+            written += channel.write(writing);
+            if (writing.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return written;
+            }
+            writing = null;
+        }
+        key.interestOps(SelectionKey.OP_READ);
+        return written;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ice.snake.server;
+
+/**
+ * 多人对战的二进制协议。
+ * <p>
+ * 每帧 = 2 字节长度（不含自身）+ 1 字节类型 + 载荷，大端序。坐标统一编码成 cell = y * width + x，占 2 字节。
+ * <pre>
+ * 客户端 → 服务端
+ *   JOIN   roomId:int
+ *   INPUT  count:u8 directions:u8[count]     一个包里可以攒多个方向，服务端每 tick 消费一个
+ *   LEAVE
+ * 服务端 → 客户端
+ *   WELCOME roomId:int playerId:u8 width:u16 height:u16
+ *   FULL    tick:long players:u8 {id:u8 alive:u8 score:u16 length:u16 cells:u16[length]（头在前）}
+ *           foods:u8 cells:u16[foods]
+ *   DELTA   tick:long events:u16 {kind:u8 player:u8 载荷}
+ *   ERROR   code:u8
+ * </pre>
+ * DELTA 只描述本 tick 的变化：移动的蛇只发新蛇头（尾巴是否收缩由事件类型区分），
+ * 每条蛇每 tick 4 字节，与蛇身长度无关。刚进房间或发送积压时补发一次 FULL。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 14:00
+ */
+public final class Protocol {
+    public static final int HEADER_BYTES = 3;
+
+    /**
+     * 长度前缀是 u16，创建 SnakeServer 时按棋盘大小校验最长的全量帧不超过它
+     */
+    public static final int MAX_FRAME = 0xFFFF;
+
+    public static final byte JOIN = 0x01;
+
+    public static final byte INPUT = 0x02;
+
+    public static final byte LEAVE = 0x03;
+
+    public static final byte WELCOME = 0x11;
+
+    public static final byte FULL = 0x12;
+
+    public static final byte DELTA = 0x13;
+
+    public static final byte ERROR = 0x1F;
+
+    /**
+     * 蛇头前进一格，尾巴收缩：head:u16
+     */
+    public static final byte EVENT_MOVE = 0;
+
+    /**
+     * 吃到食物，蛇头前进一格，尾巴不动：head:u16
+     */
+    public static final byte EVENT_GROW = 1;
+
+    public static final byte EVENT_DIE = 2;
+
+    /**
+     * 出生或复活：length:u16 cells:u16[length]
+     */
+    public static final byte EVENT_SPAWN = 3;
+
+    /**
+     * 新食物：cell:u16，player 字段无意义
+     */
+    public static final byte EVENT_FOOD = 4;
+
+    public static final byte EVENT_LEAVE = 5;
+
+    public static final byte ERROR_ROOM_FULL = 1;
+
+    public static final byte ERROR_BAD_FRAME = 2;
+
+    private Protocol() {
+    }
+}
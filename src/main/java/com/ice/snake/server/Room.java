@@ -0,0 +1,562 @@
+package com.ice.snake.server;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.ice.config.SnakeServerProperties;
+import com.ice.snake.Direction;
+import com.ice.snake.SplitMix64;
+
+/**
+ * 一个房间：同一块棋盘上的多条蛇。
+ * <p>
+ * 规则沿用单机版：撞墙、撞任何蛇身（包括本 tick 将要收缩的尾巴）都算死亡，两个蛇头撞到同一格同归于尽。
+ * 死亡的蛇从棋盘上移除，respawnTicks 后在随机空位复活。
+ * <p>
+ * 房间状态只在所属 tick 线程上读写；selector 线程通过命令队列投递加入/离开，通过连接的输入环投递方向。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 14:10
+ */
+final class Room {
+    private static final int SPAWN_LENGTH = 3;
+
+    private static final int SAMPLE_TRIES = 64;
+
+    final int id;
+
+    private final int width;
+
+    private final int height;
+
+    private final int cellCount;
+
+    private final int respawnTicks;
+
+    private final int outboundLimitBytes;
+
+    private final long[] occupied;
+
+    private final int[] foods;
+
+    private int foodCount;
+
+    private final Player[] players;
+
+    private int playerCount;
+
+    private final SplitMix64 random;
+
+    private final ConcurrentLinkedQueue<Command> commands = new ConcurrentLinkedQueue<>();
+
+    private final ByteBuffer delta;
+
+    private int eventCount;
+
+    private long tick;
+
+    private int idleTicks;
+
+    private volatile long lastTickNanos;
+
+    private volatile long maxTickNanos;
+
+    Room(int id, SnakeServerProperties properties, long seed) {
+        this.id = id;
+        this.width = properties.getWidth();
+        this.height = properties.getHeight();
+        this.cellCount = width * height;
+        this.respawnTicks = properties.getRespawnTicks();
+        this.outboundLimitBytes = properties.getOutboundLimitBytes();
+        this.occupied = new long[(cellCount + 63) >>> 6];
+        this.foods = new int[properties.getFoodsPerRoom()];
+        this.players = new Player[properties.getMaxPlayersPerRoom()];
+        this.random = new SplitMix64(seed);
+        this.delta = ByteBuffer.allocate(maxDeltaBytes(players.length, foods.length));
+    }
+
+    /**
+     * 每个玩家每 tick 的事件不超过 32 字节（离开、重新加入出生、移动），另加补充食物
+     */
+    private static int maxDeltaBytes(int players, int foods) {
+        return Protocol.HEADER_BYTES + 8 + 2 + players * 32 + foods * 4;
+    }
+
+    /**
+     * 全量帧最大时所有格子都是蛇身
+     */
+    private static int maxFullBytes(int players, int foods, int cells) {
+        return Protocol.HEADER_BYTES + 8 + 1 + 1 + foods * 2 + players * 6 + cells * 2;
+    }
+
+    /**
+     * 按配置算出的最长帧（不含 2 字节长度），超过 {@link Protocol#MAX_FRAME} 时长度前缀会溢出
+     */
+    static int maxFrameLength(SnakeServerProperties properties) {
+        int players = properties.getMaxPlayersPerRoom();
+        int foods = properties.getFoodsPerRoom();
+        int cells = properties.getWidth() * properties.getHeight();
+        return Math.max(maxDeltaBytes(players, foods), maxFullBytes(players, foods, cells)) - 2;
+    }
+
+    void postJoin(Connection connection) {
+        commands.offer(new Command(true, connection));
+    }
+
+    void postLeave(Connection connection) {
+        commands.offer(new Command(false, connection));
+    }
+
+    boolean isIdle(int idleRoomTicks) {
+        return idleTicks >= idleRoomTicks && commands.isEmpty();
+    }
+
+    int getPlayerCount() {
+        return playerCount;
+    }
+
+    long getTick() {
+        return tick;
+    }
+
+    long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    long getMaxTickNanos() {
+        return maxTickNanos;
+    }
+
+    /**
+     * 推进一个 tick 并把增量投递给所有玩家，返回耗时纳秒
+     */
+    long tick(SnakeServer server) {
+        long start = System.nanoTime();
+        tick++;
+        delta.clear();
+        delta.position(Protocol.HEADER_BYTES + 8 + 2);
+        eventCount = 0;
+
+        runCommands(server);
+        if (playerCount == 0) {
+            idleTicks++;
+        } else {
+            idleTicks = 0;
+            advance();
+            replenishFood();
+            respawn();
+            broadcast(server);
+        }
+
+        long cost = System.nanoTime() - start;
+        lastTickNanos = cost;
+        if (cost > maxTickNanos) {
+            maxTickNanos = cost;
+        }
+        return cost;
+    }
+
+    private void runCommands(SnakeServer server) {
+        Command command;
+        while ((command = commands.poll()) != null) {
+            if (command.join) {
+                join(command.connection, server);
+            } else {
+                leave(command.connection);
+            }
+        }
+    }
+
+    private void join(Connection connection, SnakeServer server) {
+        if (connection.closed) {
+            return;
+        }
+        int slot = -1;
+        for (int i = 0; i < players.length; i++) {
+            if (players[i] == null) {
+                slot = i;
+                break;
+            }
+        }
+        if (slot < 0) {
+            connection.room = null;
+            connection.enqueue(error(Protocol.ERROR_ROOM_FULL));
+            server.scheduleFlush(connection);
+            return;
+        }
+
+        Player player = new Player(slot, connection);
+        players[slot] = player;
+        playerCount++;
+        connection.playerId = slot;
+        connection.enqueue(welcome(slot));
+        server.scheduleFlush(connection);
+        spawn(player);
+    }
+
+    private void leave(Connection connection) {
+        for (int i = 0; i < players.length; i++) {
+            Player player = players[i];
+            if (player != null && player.connection == connection) {
+                if (player.alive) {
+                    clearBody(player);
+                }
+                players[i] = null;
+                playerCount--;
+                event(Protocol.EVENT_LEAVE, i);
+                return;
+            }
+        }
+    }
+
+    private void advance() {
+        // 先算出所有蛇的下一格，碰撞基于本 tick 开始时的棋盘，与移动顺序无关
+        for (Player player : players) {
+            if (player == null) {
+                continue;
+            }
+            if (!player.alive) {
+                // 死亡期间的输入没有意义，不让它们堆到复活之后
+                player.connection.clearInputs();
+                continue;
+            }
+            int input = player.connection.pollInput();
+            if (input >= 0) {
+                Direction direction = Direction.of(input);
+                if (!direction.isOpposite(player.direction)) {
+                    player.direction = direction;
+                }
+            }
+            int head = player.head();
+            int x = head % width + player.direction.dx();
+            int y = head / width + player.direction.dy();
+            if (x < 0 || x >= width || y < 0 || y >= height) {
+                player.next = -1;
+            } else {
+                player.next = y * width + x;
+            }
+            player.dying = player.next < 0 || isOccupied(player.next);
+        }
+        for (int i = 0; i < players.length; i++) {
+            Player a = players[i];
+            if (a == null || !a.alive || a.next < 0) {
+                continue;
+            }
+            for (int j = i + 1; j < players.length; j++) {
+                Player b = players[j];
+                if (b != null && b.alive && b.next == a.next) {
+                    a.dying = true;
+                    b.dying = true;
+                }
+            }
+        }
+
+        for (Player player : players) {
+            if (player != null && player.alive && player.dying) {
+                clearBody(player);
+                player.alive = false;
+                player.respawnAt = tick + respawnTicks;
+                event(Protocol.EVENT_DIE, player.id);
+            }
+        }
+        for (Player player : players) {
+            if (player == null || !player.alive) {
+                continue;
+            }
+            int next = player.next;
+            boolean ate = removeFood(next);
+            if (!ate) {
+                clear(player.popTail());
+            }
+            player.pushHead(next);
+            set(next);
+            if (ate) {
+                player.score++;
+                event(Protocol.EVENT_GROW, player.id);
+            } else {
+                event(Protocol.EVENT_MOVE, player.id);
+            }
+            delta.putShort((short) next);
+        }
+    }
+
+    private void replenishFood() {
+        while (foodCount < foods.length) {
+            int cell = sampleFreeCell();
+            if (cell < 0) {
+                return;
+            }
+            foods[foodCount++] = cell;
+            event(Protocol.EVENT_FOOD, 0);
+            delta.putShort((short) cell);
+        }
+    }
+
+    private void respawn() {
+        for (Player player : players) {
+            if (player != null && !player.alive && player.respawnAt <= tick) {
+                spawn(player);
+            }
+        }
+    }
+
+    /**
+     * 在随机一行上找连续三格空位，蛇头朝右；找不到就等下个 tick 再试
+     */
+    private void spawn(Player player) {
+        if (width < SPAWN_LENGTH + 3) {
+            return;
+        }
+        for (int i = 0; i < SAMPLE_TRIES; i++) {
+            int x = SPAWN_LENGTH - 1 + random.nextInt(width - SPAWN_LENGTH - 2);
+            int y = random.nextInt(height);
+            int head = y * width + x;
+            if (isBlocked(head) || isBlocked(head - 1) || isBlocked(head - 2)) {
+                continue;
+            }
+            player.resetBody();
+            for (int cell = head - SPAWN_LENGTH + 1; cell <= head; cell++) {
+                player.pushHead(cell);
+                set(cell);
+            }
+            player.direction = Direction.RIGHT;
+            player.alive = true;
+            player.connection.clearInputs();
+            event(Protocol.EVENT_SPAWN, player.id);
+            delta.putShort((short) SPAWN_LENGTH);
+            for (int k = SPAWN_LENGTH - 1; k >= 0; k--) {
+                delta.putShort((short) player.segment(k));
+            }
+            return;
+        }
+    }
+
+    private void broadcast(SnakeServer server) {
+        int length = delta.position();
+        delta.putShort(0, (short) (length - 2));
+        delta.put(2, Protocol.DELTA);
+        delta.putLong(3, tick);
+        delta.putShort(11, (short) eventCount);
+        byte[] frame = new byte[length];
+        delta.get(0, frame);
+
+        for (Player player : players) {
+            if (player == null) {
+                continue;
+            }
+            Connection connection = player.connection;
+            if (connection.closed) {
+                continue;
+            }
+            if (connection.getOutboundBytes() > outboundLimitBytes) {
+                // 客户端跟不上，丢掉积压的增量，下一帧直接给全量
+                connection.discardOutbound();
+                player.needsFull = true;
+                server.stats.resyncs.increment();
+            }
+            if (player.needsFull) {
+                connection.enqueue(full());
+                player.needsFull = false;
+            } else {
+                connection.enqueue(ByteBuffer.wrap(frame));
+            }
+            server.scheduleFlush(connection);
+        }
+    }
+
+    ByteBuffer full() {
+        int size = Protocol.HEADER_BYTES + 8 + 1 + 1 + foodCount * 2;
+        for (Player player : players) {
+            if (player != null) {
+                size += 6 + (player.alive ? player.length * 2 : 0);
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putShort((short) (size - 2));
+        buffer.put(Protocol.FULL);
+        buffer.putLong(tick);
+        buffer.put((byte) playerCount);
+        for (Player player : players) {
+            if (player == null) {
+                continue;
+            }
+            buffer.put((byte) player.id);
+            buffer.put((byte) (player.alive ? 1 : 0));
+            buffer.putShort((short) player.score);
+            int length = player.alive ? player.length : 0;
+            buffer.putShort((short) length);
+            for (int k = length - 1; k >= 0; k--) {
+                buffer.putShort((short) player.segment(k));
+            }
+        }
+        buffer.put((byte) foodCount);
+        for (int i = 0; i < foodCount; i++) {
+            buffer.putShort((short) foods[i]);
+        }
+        return buffer.flip();
+    }
+
+    private ByteBuffer welcome(int playerId) {
+        ByteBuffer buffer = ByteBuffer.allocate(Protocol.HEADER_BYTES + 4 + 1 + 2 + 2);
+        buffer.putShort((short) (buffer.capacity() - 2));
+        buffer.put(Protocol.WELCOME);
+        buffer.putInt(id);
+        buffer.put((byte) playerId);
+        buffer.putShort((short) width);
+        buffer.putShort((short) height);
+        return buffer.flip();
+    }
+
+    static ByteBuffer error(byte code) {
+        ByteBuffer buffer = ByteBuffer.allocate(Protocol.HEADER_BYTES + 1);
+        buffer.putShort((short) 2);
+        buffer.put(Protocol.ERROR);
+        buffer.put(code);
+        return buffer.flip();
+    }
+
+    private void event(byte kind, int playerId) {
+        delta.put(kind);
+        delta.put((byte) playerId);
+        eventCount++;
+    }
+
+    private boolean removeFood(int cell) {
+        for (int i = 0; i < foodCount; i++) {
+            if (foods[i] == cell) {
+                foods[i] = foods[--foodCount];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isFood(int cell) {
+        for (int i = 0; i < foodCount; i++) {
+            if (foods[i] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 棋盘大部分时间是空的，先随机拒绝采样，连续失败再从随机起点线性扫描
+     */
+    private int sampleFreeCell() {
+        for (int i = 0; i < SAMPLE_TRIES; i++) {
+            int cell = random.nextInt(cellCount);
+            if (!isBlocked(cell)) {
+                return cell;
+            }
+        }
+        int start = random.nextInt(cellCount);
+        for (int i = 0; i < cellCount; i++) {
+            int cell = (start + i) % cellCount;
+            if (!isBlocked(cell)) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isBlocked(int cell) {
+        return isOccupied(cell) || isFood(cell);
+    }
+
+    private boolean isOccupied(int cell) {
+        return (occupied[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private void set(int cell) {
+        occupied[cell >>> 6] |= 1L << cell;
+    }
+
+    private void clear(int cell) {
+        occupied[cell >>> 6] &= ~(1L << cell);
+    }
+
+    private void clearBody(Player player) {
+        for (int k = 0; k < player.length; k++) {
+            clear(player.segment(k));
+        }
+    }
+
+    private static final class Command {
+        final boolean join;
+
+        final Connection connection;
+
+        Command(boolean join, Connection connection) {
+            this.join = join;
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * 蛇身是按需扩容的环形缓冲，segment(0) 是尾巴
+     */
+    private static final class Player {
+        final int id;
+
+        final Connection connection;
+
+        int[] body = new int[16];
+
+        int tail;
+
+        int length;
+
+        Direction direction = Direction.RIGHT;
+
+        boolean alive;
+
+        boolean dying;
+
+        boolean needsFull = true;
+
+        long respawnAt;
+
+        int score;
+
+        int next;
+
+        Player(int id, Connection connection) {
+            this.id = id;
+            this.connection = connection;
+        }
+
+        int head() {
+            return segment(length - 1);
+        }
+
+        int segment(int index) {
+            return body[(tail + index) & (body.length - 1)];
+        }
+
+        void pushHead(int cell) {
+            if (length == body.length) {
+                int[] grown = new int[body.length << 1];
+                for (int k = 0; k < length; k++) {
+                    grown[k] = segment(k);
+                }
+                body = grown;
+                tail = 0;
+            }
+            body[(tail + length) & (body.length - 1)] = cell;
+            length++;
+        }
+
+        int popTail() {
+            int cell = body[tail];
+            tail = (tail + 1) & (body.length - 1);
+            length--;
+            return cell;
+        }
+
+        void resetBody() {
+            tail = 0;
+            length = 0;
+        }
+    }
+}
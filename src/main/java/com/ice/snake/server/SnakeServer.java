@@ -0,0 +1,395 @@
+package com.ice.snake.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.ice.config.SnakeServerProperties;
+import com.ice.metrics.LatencyRecorder;
+import com.ice.snake.SplitMix64;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 多人贪吃蛇服务：一个 selector 线程处理所有连接的读写，房间按 id 取模分到固定的几个 tick 组，
+ * 每组在共享的 ScheduledExecutorService 上以固定频率依次推进组内所有房间。
+ * <p>
+ * 输入在两个 tick 之间攒在连接上，每 tick 每个玩家消费一个方向；每个房间每 tick 只编码一次增量，
+ * 同一份字节包装后发给房间内所有连接。一组房间 tick 完只唤醒一次 selector，由它统一写出。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 14:20
+ */
+@Slf4j
+public class SnakeServer {
+    private final SnakeServerProperties properties;
+
+    private final LatencyRecorder tickCost;
+
+    private final TickGroup[] groups;
+
+    private final ConcurrentLinkedQueue<Connection> flushQueue = new ConcurrentLinkedQueue<>();
+
+    final Stats stats = new Stats();
+
+    private ScheduledExecutorService scheduler;
+
+    private ServerSocketChannel serverChannel;
+
+    private Selector selector;
+
+    private Thread ioThread;
+
+    private volatile boolean running;
+
+    public SnakeServer(SnakeServerProperties properties, LatencyRecorder tickCost) {
+        if (properties.getWidth() * properties.getHeight() > 0xFFFF) {
+            throw new IllegalArgumentException("board too large, cells must fit in u16");
+        }
+        if (Room.maxFrameLength(properties) > Protocol.MAX_FRAME) {
+            throw new IllegalArgumentException("board too large, a FULL frame could overflow the u16 length prefix");
+        }
+        this.properties = properties;
+        this.tickCost = tickCost;
+        this.groups = new TickGroup[properties.getTickThreads()];
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = new TickGroup();
+        }
+    }
+
+    public void start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(new InetSocketAddress(properties.getPort()), 1024);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+
+        ioThread = new Thread(this::ioLoop, "snake-io");
+        ioThread.setDaemon(true);
+        ioThread.start();
+
+        AtomicInteger index = new AtomicInteger();
+        scheduler = Executors.newScheduledThreadPool(groups.length, r -> {
+            Thread thread = new Thread(r, "snake-tick-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (TickGroup group : groups) {
+            scheduler.scheduleAtFixedRate(group, properties.getTickMillis(), properties.getTickMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+        log.info("snake server listening on {}, tick={}ms, groups={}", getPort(), properties.getTickMillis(),
+                groups.length);
+    }
+
+    public void stop() throws IOException {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (selector != null) {
+            selector.wakeup();
+        }
+        if (ioThread != null) {
+            try {
+                ioThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (serverChannel != null) {
+            serverChannel.close();
+        }
+    }
+
+    /**
+     * 实际监听的端口，配置为 0 时由系统分配
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    void scheduleFlush(Connection connection) {
+        if (connection.flushScheduled.compareAndSet(false, true)) {
+            flushQueue.offer(connection);
+        }
+    }
+
+    /**
+     * @param top 返回单 tick 最慢的前几个房间
+     */
+    public Map<String, Object> snapshot(int top) {
+        List<Room> all = new ArrayList<>();
+        int players = 0;
+        for (TickGroup group : groups) {
+            for (Room room : group.rooms.values()) {
+                all.add(room);
+                players += room.getPlayerCount();
+            }
+        }
+        all.sort(Comparator.comparingLong(Room::getLastTickNanos).reversed());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("connections", stats.connections.get());
+        result.put("rooms", all.size());
+        result.put("players", players);
+        result.put("bytesIn", stats.bytesIn.sum());
+        result.put("bytesOut", stats.bytesOut.sum());
+        result.put("inputsDropped", stats.inputsDropped.sum());
+        result.put("resyncs", stats.resyncs.sum());
+        result.put("groupOverruns", stats.groupOverruns.sum());
+        result.put("tickCost", tickCost.snapshot());
+        List<Map<String, Object>> slowest = new ArrayList<>();
+        for (int i = 0; i < Math.min(top, all.size()); i++) {
+            Room room = all.get(i);
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("room", room.id);
+            item.put("players", room.getPlayerCount());
+            item.put("tick", room.getTick());
+            item.put("lastTickMicros", room.getLastTickNanos() / 1000);
+            item.put("maxTickMicros", room.getMaxTickNanos() / 1000);
+            slowest.add(item);
+        }
+        result.put("slowestRooms", slowest);
+        return result;
+    }
+
+    private void ioLoop() {
+        while (running) {
+            try {
+                selector.select();
+                drainFlushQueue();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            } catch (ClosedSelectorException e) {
+                return;
+            } catch (Exception e) {
+                log.error("snake io loop error", e);
+            }
+        }
+        closeAll();
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                read(connection);
+            }
+            if (!connection.closed && key.isWritable()) {
+                stats.bytesOut.add(connection.flush());
+            }
+        } catch (IOException | CancelledKeyException e) {
+            close(connection);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new Connection(channel, key));
+                stats.connections.incrementAndGet();
+            }
+        } catch (IOException e) {
+            log.warn("snake accept failed", e);
+        }
+    }
+
+    private void drainFlushQueue() {
+        Connection connection;
+        while ((connection = flushQueue.poll()) != null) {
+            // 先清标记再写，写的过程中新入队的帧会重新登记
+            connection.flushScheduled.set(false);
+            if (connection.closed) {
+                continue;
+            }
+            try {
+                stats.bytesOut.add(connection.flush());
+            } catch (IOException | CancelledKeyException e) {
+                close(connection);
+            }
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        ByteBuffer buffer = connection.readBuffer;
+        int n = connection.channel.read(buffer);
+        if (n < 0) {
+            close(connection);
+            return;
+        }
+        stats.bytesIn.add(n);
+        buffer.flip();
+        while (buffer.remaining() >= 2) {
+            int length = buffer.getShort(buffer.position()) & 0xFFFF;
+            if (length == 0 || length > buffer.capacity() - 2) {
+                reject(connection);
+                return;
+            }
+            if (buffer.remaining() < 2 + length) {
+                break;
+            }
+            int end = buffer.position() + 2 + length;
+            buffer.position(buffer.position() + 2);
+            dispatch(connection, buffer, end);
+            buffer.position(end);
+        }
+        buffer.compact();
+    }
+
+    private void dispatch(Connection connection, ByteBuffer buffer, int end) {
+        byte type = buffer.get();
+        if (type == Protocol.INPUT) {
+            int count = end - buffer.position() > 0 ? buffer.get() & 0xFF : 0;
+            for (int i = 0; i < count && buffer.position() < end; i++) {
+                int direction = buffer.get() & 0xFF;
+                if (direction > 3 || !connection.offerInput(direction)) {
+                    stats.inputsDropped.increment();
+                }
+            }
+        } else if (type == Protocol.JOIN && end - buffer.position() >= 4) {
+            join(connection, buffer.getInt());
+        } else if (type == Protocol.LEAVE) {
+            leave(connection);
+        }
+    }
+
+    private void join(Connection connection, int roomId) {
+        if (connection.room != null) {
+            return;
+        }
+        TickGroup group = groups[Math.floorMod(roomId, groups.length)];
+        // 和 tick 线程回收空房间用同一个 key 上的 compute，不会把加入命令投给已经摘掉的房间
+        group.rooms.compute(roomId, (id, room) -> {
+            if (room == null) {
+                room = new Room(id, properties, SplitMix64.mix(id ^ System.nanoTime()));
+            }
+            connection.room = room;
+            room.postJoin(connection);
+            return room;
+        });
+    }
+
+    private void leave(Connection connection) {
+        Room room = connection.room;
+        if (room != null) {
+            connection.room = null;
+            room.postLeave(connection);
+        }
+    }
+
+    private void reject(Connection connection) {
+        connection.enqueue(Room.error(Protocol.ERROR_BAD_FRAME));
+        try {
+            connection.flush();
+        } catch (IOException | CancelledKeyException ignored) {
+            // 马上就关了
+        }
+        close(connection);
+    }
+
+    private void close(Connection connection) {
+        if (connection.closed) {
+            return;
+        }
+        connection.closed = true;
+        leave(connection);
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException ignored) {
+            // 关闭失败不影响后续
+        }
+        stats.connections.decrementAndGet();
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection) {
+                close((Connection) key.attachment());
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+            // 停机阶段
+        }
+    }
+
+    private final class TickGroup implements Runnable {
+        final ConcurrentHashMap<Integer, Room> rooms = new ConcurrentHashMap<>();
+
+        private final long budgetNanos = TimeUnit.MILLISECONDS.toNanos(properties.getTickMillis());
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            for (Room room : rooms.values()) {
+                try {
+                    tickCost.recordNanos(room.tick(SnakeServer.this));
+                } catch (Exception e) {
+                    log.error("snake room {} tick error", room.id, e);
+                }
+                if (room.isIdle(properties.getIdleRoomTicks())) {
+                    rooms.computeIfPresent(room.id, (id, r) -> r.isIdle(properties.getIdleRoomTicks()) ? null : r);
+                }
+            }
+            if (!flushQueue.isEmpty()) {
+                selector.wakeup();
+            }
+            if (System.nanoTime() - start > budgetNanos) {
+                stats.groupOverruns.increment();
+            }
+        }
+    }
+
+    static final class Stats {
+        final AtomicInteger connections = new AtomicInteger();
+
+        final LongAdder bytesIn = new LongAdder();
+
+        final LongAdder bytesOut = new LongAdder();
+
+        final LongAdder inputsDropped = new LongAdder();
+
+        final LongAdder resyncs = new LongAdder();
+
+        final LongAdder groupOverruns = new LongAdder();
+    }
+}
@@ -0,0 +1,140 @@
+package com.ice.startup;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationContextInitializedEvent;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.boot.context.event.SpringApplicationEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 启动各阶段耗时。
+ * <p>
+ * 在 main 里通过 addListeners 注册，才能收到 context 创建之前的事件；context 准备好后把自己注册成单例，
+ * 供 /metrics/startup 读取。阶段划分：
+ * <pre>
+ * jvm          JVM 启动到进入 main
+ * environment  读取配置，含 Spring Cloud bootstrap 上下文
+ * context      创建并初始化 ApplicationContext、加载 bean 定义
+ * refresh      实例化单例 bean、启动内嵌 Tomcat
+ * runners      ApplicationRunner / CommandLineRunner
+ * </pre>
+ * 配合 BufferingApplicationStartup 时还会列出实例化最慢的 bean（耗时包含其依赖的实例化）。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 17:00
+ */
+@Slf4j
+public class StartupPhaseListener implements ApplicationListener<SpringApplicationEvent> {
+    public static final String BEAN_NAME = "startupPhaseListener";
+
+    private static final int TOP_BEANS = 10;
+
+    private final long jvmMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+
+    private final long mainNanos = System.nanoTime();
+
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    private final List<Map<String, Object>> slowestBeans = new ArrayList<>();
+
+    private SpringApplication application;
+
+    private long lastNanos = mainNanos;
+
+    @Override
+    public void onApplicationEvent(SpringApplicationEvent event) {
+        // bootstrap 子上下文也会发事件，只统计主应用
+        if (event instanceof ApplicationStartingEvent && application == null) {
+            application = event.getSpringApplication();
+        }
+        if (event.getSpringApplication() != application) {
+            return;
+        }
+
+        if (event instanceof ApplicationEnvironmentPreparedEvent) {
+            mark("environment");
+        } else if (event instanceof ApplicationContextInitializedEvent) {
+            mark("contextInitialize");
+        } else if (event instanceof ApplicationPreparedEvent) {
+            mark("contextLoad");
+            ((ApplicationPreparedEvent) event).getApplicationContext().getBeanFactory()
+                    .registerSingleton(BEAN_NAME, this);
+        } else if (event instanceof ApplicationStartedEvent) {
+            mark("refresh");
+        } else if (event instanceof ApplicationReadyEvent) {
+            mark("runners");
+            collectSlowestBeans(((ApplicationReadyEvent) event).getApplicationContext().getApplicationStartup());
+            report();
+        }
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("jvmMillis", jvmMillis);
+        result.put("phasesMillis", new LinkedHashMap<>(phases));
+        result.put("totalMillis", jvmMillis + TimeUnit.NANOSECONDS.toMillis(lastNanos - mainNanos));
+        result.put("slowestBeans", new ArrayList<>(slowestBeans));
+        return result;
+    }
+
+    private synchronized void mark(String phase) {
+        long now = System.nanoTime();
+        phases.put(phase, TimeUnit.NANOSECONDS.toMillis(now - lastNanos));
+        lastNanos = now;
+    }
+
+    private synchronized void collectSlowestBeans(ApplicationStartup startup) {
+        if (!(startup instanceof BufferingApplicationStartup)) {
+            return;
+        }
+        List<StartupTimeline.TimelineEvent> events = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent event : ((BufferingApplicationStartup) startup).getBufferedTimeline()
+                .getEvents()) {
+            if ("spring.beans.instantiate".equals(event.getStartupStep().getName())) {
+                events.add(event);
+            }
+        }
+        events.sort(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed());
+        for (StartupTimeline.TimelineEvent event : events.subList(0, Math.min(TOP_BEANS, events.size()))) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("bean", beanName(event.getStartupStep()));
+            item.put("millis", event.getDuration().toMillis());
+            slowestBeans.add(item);
+        }
+    }
+
+    private void report() {
+        Map<String, Object> snapshot = snapshot();
+        log.info("startup finished in {}ms, jvm={}ms, phases={}", snapshot.get("totalMillis"), jvmMillis, phases);
+        for (Map<String, Object> bean : slowestBeans) {
+            log.info("startup slow bean {} {}ms", bean.get("bean"), bean.get("millis"));
+        }
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return String.valueOf(step.getId());
+    }
+}
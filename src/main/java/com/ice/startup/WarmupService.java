@@ -0,0 +1,321 @@
+package com.ice.startup;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.stat.DruidDataSourceStatManager;
+import com.ice.config.WarmupProperties;
+import com.ice.dao.TenantJdbcDao;
+import com.ice.metrics.LatencyRegistry;
+import com.ice.ratelimit.RateLimitAlgorithm;
+import com.ice.ratelimit.RateLimitDimension;
+import com.ice.ratelimit.RateLimitEngine;
+import com.ice.ratelimit.RateLimitRule;
+import com.ice.ratelimit.RedisRateLimiter;
+import com.ice.service.TestSqlService;
+import com.ice.util.CommonUtils;
+import com.ice.util.PasswordHash;
+import com.xiliulou.cache.redis.RedisService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 启动预热与 readiness 门控。
+ * <p>
+ * context 启动后在后台线程依次执行：连接池借满到 minIdle、加载限流脚本并走几百次判定、
+ * CommonUtils 编解码、PBKDF2、租户查询，然后等 JIT 平静（一个窗口内编译耗时足够小）且各连接池达到 minIdle。
+ * 这之前 readiness 保持 REFUSING_TRAFFIC：Spring Boot 在就绪时发布的 ACCEPTING_TRAFFIC 会被立即改回去，
+ * 预热完成后再由这里发布 ACCEPTING_TRAFFIC。每一步的起止、次数和期间的 JIT 编译耗时记录在时间线里。
+ * <p>
+ * 预热线程的延迟记录全部丢弃，不计入接口、SQL、Redis 的分位数；限流判定用本实例独占的 key，结束后删除，
+ * 不占用真实接口的计数。
+ *
+ * @author : eclair
+ * @date : 2026/10/20 18:05
+ */
+@Slf4j
+@Component
+public class WarmupService {
+    private static final String WARMUP_KEY = "warmup";
+
+    /**
+     * 真实作用域是 "请求方法 路径"，加上实例随机串后不会和业务 key 或其他实例撞上
+     */
+    private final String warmupScope = "warmup:" + UUID.randomUUID();
+
+    @Autowired
+    WarmupProperties properties;
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+    @Autowired
+    ObjectProvider<DataSource> dataSource;
+    @Autowired
+    ObjectProvider<RedisRateLimiter> redisRateLimiter;
+    @Autowired
+    ObjectProvider<RateLimitEngine> rateLimitEngine;
+    @Autowired
+    ObjectProvider<RedisService> redisService;
+    @Autowired
+    ObjectProvider<TenantJdbcDao> tenantJdbcDao;
+    @Autowired
+    ObjectProvider<TestSqlService> testSqlService;
+
+    private final CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+
+    private final List<Map<String, Object>> timeline = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile boolean finished;
+
+    private volatile long startNanos;
+
+    /**
+     * 防止 JIT 把预热循环整个消掉
+     */
+    private volatile long sink;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStarted() {
+        if (!properties.isEnabled()) {
+            finished = true;
+            return;
+        }
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        Thread thread = new Thread(this::warmUp, "warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (!finished && event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("finished", finished);
+        synchronized (timeline) {
+            result.put("timeline", new ArrayList<>(timeline));
+        }
+        return result;
+    }
+
+    void warmUp() {
+        startNanos = System.nanoTime();
+        LatencyRegistry.mute();
+        try {
+            step("pools", 1, i -> fillPools());
+            step("rateLimitScript", properties.getRateLimitIterations(), this::rateLimit);
+            step("rateLimitCleanup", 1, i -> deleteRateLimitKeys());
+            step("codecs", properties.getCodecIterations(), this::codecs);
+            step("passwordHash", properties.getPasswordHashIterations(),
+                    i -> sink += PasswordHash.validatePassword(WARMUP_KEY, PasswordHash.createHash(WARMUP_KEY)) ? 1 : 0);
+            step("tenantSelect", properties.getTenantSelectIterations(), this::tenantSelect);
+            awaitGate();
+        } finally {
+            LatencyRegistry.unmute();
+        }
+
+        finished = true;
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        log.info("warm-up finished in {}ms, timeline={}", elapsedMillis(), timeline);
+    }
+
+    private void step(String name, int iterations, Action action) {
+        long offset = elapsedMillis();
+        long compileBefore = compileMillis();
+        long start = System.nanoTime();
+        int done = 0;
+        String error = null;
+        try {
+            for (; done < iterations; done++) {
+                action.run(done);
+            }
+        } catch (Exception e) {
+            // 单步失败不影响其他步骤，依赖的资源在第一次真实请求时再初始化
+            error = e.toString();
+            log.warn("warm-up step {} failed after {} iterations", name, done, e);
+        }
+
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("step", name);
+        item.put("startMillis", offset);
+        item.put("millis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        item.put("iterations", done);
+        item.put("compileMillis", compileBefore < 0 ? -1 : compileMillis() - compileBefore);
+        if (error != null) {
+            item.put("error", error);
+        }
+        timeline.add(item);
+    }
+
+    /**
+     * 等 JIT 平静且连接池达到 minIdle，最多等到 maxWaitMillis
+     */
+    private void awaitGate() {
+        long offset = elapsedMillis();
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(properties.getMaxWaitMillis());
+        int windows = 0;
+        boolean compileQuiet = false;
+        boolean poolsReady = false;
+        while (System.nanoTime() < deadline) {
+            long before = compileMillis();
+            try {
+                Thread.sleep(properties.getCompileWindowMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            windows++;
+            compileQuiet = before < 0 || compileMillis() - before < properties.getCompileQuietMillis();
+            poolsReady = poolsAtMinimum();
+            if (compileQuiet && poolsReady) {
+                break;
+            }
+            if (!poolsReady) {
+                step("pools", 1, i -> fillPools());
+            }
+        }
+
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("step", "gate");
+        item.put("startMillis", offset);
+        item.put("millis", elapsedMillis() - offset);
+        item.put("windows", windows);
+        item.put("compileQuiet", compileQuiet);
+        item.put("poolsReady", poolsReady);
+        timeline.add(item);
+        if (!compileQuiet || !poolsReady) {
+            log.warn("warm-up gate not satisfied within {}ms (compileQuiet={}, poolsReady={}), accepting traffic anyway",
+                    properties.getMaxWaitMillis(), compileQuiet, poolsReady);
+        }
+    }
+
+    /**
+     * 懒加载时先借一次连接把数据源建出来，再把每个 Druid 池同时借出 minIdle 个后归还，归还的连接留作空闲连接
+     */
+    private void fillPools() throws Exception {
+        DataSource primary = dataSource.getIfAvailable();
+        if (primary != null) {
+            try (Connection ignored = primary.getConnection()) {
+                log.debug("warm-up primary datasource ready");
+            }
+        }
+        for (Object instance : DruidDataSourceStatManager.getDruidDataSourceInstances()) {
+            DruidDataSource pool = (DruidDataSource) instance;
+            // 借出时先用掉已有的空闲连接，所以按 minIdle 减去在用数来借
+            int target = pool.getMinIdle() - pool.getActiveCount();
+            List<Connection> borrowed = new ArrayList<>();
+            try {
+                for (int i = 0; i < target; i++) {
+                    borrowed.add(pool.getConnection());
+                }
+            } finally {
+                for (Connection connection : borrowed) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    private boolean poolsAtMinimum() {
+        for (Object instance : DruidDataSourceStatManager.getDruidDataSourceInstances()) {
+            DruidDataSource pool = (DruidDataSource) instance;
+            if (pool.getPoolingCount() + pool.getActiveCount() < pool.getMinIdle()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rateLimit(int i) {
+        RateLimitEngine engine = rateLimitEngine.getObject();
+        RedisRateLimiter limiter = redisRateLimiter.getObject();
+        if (i == 0) {
+            engine.load();
+            limiter.load(RedisRateLimiter.DAILY_LIMIT_SCRIPT);
+        }
+        engine.check(List.of(warmupRule()), List.of(rateLimitKey()));
+        sink += limiter.tryAcquire(dailyLimitKey(), Long.MAX_VALUE) ? 1 : 0;
+    }
+
+    private void deleteRateLimitKeys() {
+        redisService.getObject().getRedisTemplate().delete(List.of(rateLimitKey(), dailyLimitKey()));
+    }
+
+    private static RateLimitRule warmupRule() {
+        return new RateLimitRule(new RateLimitDimension[] { RateLimitDimension.ENDPOINT },
+                RateLimitAlgorithm.SLIDING_WINDOW_COUNTER, Integer.MAX_VALUE, 1000);
+    }
+
+    String rateLimitKey() {
+        return RateLimitEngine.key(warmupRule(), warmupScope, WARMUP_KEY);
+    }
+
+    String dailyLimitKey() {
+        return warmupScope + ":daily";
+    }
+
+    private void codecs(int i) {
+        byte[] bytes = CommonUtils.convertIntToBytes(i * 0x9E3779B9);
+        String hex = CommonUtils.bytes2hex(bytes);
+        long acc = CommonUtils.byteArrayToInt(bytes) + CommonUtils.readInt32(bytes, 0) + CommonUtils.getInt16(bytes, 0)
+                + CommonUtils.readUInt16(bytes, 2);
+        acc += Float.floatToRawIntBits(CommonUtils.readFloat32(bytes, 0));
+        acc += Float.floatToRawIntBits(CommonUtils.hexToFloat(hex));
+        acc += CommonUtils.bytes2hex(bytes, " ").length() + CommonUtils.bytes2hexRevert(bytes.clone()).length();
+        acc += CommonUtils.convertIntToHex(i).length() + CommonUtils.fromInt16(i & 0xFFFF).length;
+        acc += CommonUtils.fillString(hex, "0", 12, true).length();
+        sink += acc;
+    }
+
+    private void tenantSelect(int i) {
+        // 直接查询走 JDBC 热路径，经过 service 的调用同时预热 SingleFlight 代理
+        if ((i & 1) == 0) {
+            sink += tenantJdbcDao.getObject().selectById(1) == null ? 0 : 1;
+        } else {
+            sink += testSqlService.getObject().testSelect() == null ? 0 : 1;
+        }
+    }
+
+    private long compileMillis() {
+        if (compilation == null || !compilation.isCompilationTimeMonitoringSupported()) {
+            return -1;
+        }
+        return compilation.getTotalCompilationTime();
+    }
+
+    private long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run(int iteration) throws Exception;
+    }
+}
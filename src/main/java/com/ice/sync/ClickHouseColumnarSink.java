@@ -0,0 +1,117 @@
+package com.ice.sync;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.ice.config.ClickHouseSyncProperties;
+
+/**
+ * 通过 JDBC 批量写 ClickHouse，一个批次对应一次 INSERT，驱动会把整批作为一个 block 发送。
+ * <p>
+ * 连接来自连接池：可以复用已有的 ClickHouse DataSource（例如 xiliulou-common-clickhouse 提供的），
+ * 否则用 {@link #pooled} 按同步配置自建一个小的 Druid 池，大小等于写入并行度。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 09:20
+ */
+public class ClickHouseColumnarSink implements ColumnarSink, AutoCloseable {
+    private final DataSource dataSource;
+
+    /**
+     * 自建的池由 sink 负责关闭，外部传入的不管
+     */
+    private final boolean ownsDataSource;
+
+    public ClickHouseColumnarSink(DataSource dataSource) {
+        this(dataSource, false);
+    }
+
+    private ClickHouseColumnarSink(DataSource dataSource, boolean ownsDataSource) {
+        this.dataSource = dataSource;
+        this.ownsDataSource = ownsDataSource;
+    }
+
+    /**
+     * 不注册成 DataSource bean，避免影响主库数据源的自动配置
+     */
+    public static ClickHouseColumnarSink pooled(ClickHouseSyncProperties properties) {
+        DruidDataSource pool = new DruidDataSource();
+        pool.setName("clickhouse-sync");
+        pool.setUrl(properties.getUrl());
+        pool.setUsername(properties.getUsername());
+        pool.setPassword(properties.getPassword());
+        pool.setInitialSize(0);
+        pool.setMinIdle(0);
+        pool.setMaxActive(Math.max(1, properties.getParallelism()));
+        pool.setMaxWait(properties.getMaxWaitMillis());
+        pool.setValidationQuery("select 1");
+        pool.setTestWhileIdle(true);
+        return new ClickHouseColumnarSink(pool, true);
+    }
+
+    @Override
+    public void insert(String table, ColumnarBatch batch) throws Exception {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        String[] columns = batch.getColumns();
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement ps = connection.prepareStatement(buildInsertSql(table, columns))) {
+            Object[] cols = new Object[columns.length];
+            for (int c = 0; c < columns.length; c++) {
+                cols[c] = batch.column(c);
+            }
+
+            for (int r = 0; r < batch.getRowCount(); r++) {
+                for (int c = 0; c < cols.length; c++) {
+                    bind(ps, c + 1, cols[c], r);
+                }
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * 数值列走对应的 setXxx，不装箱
+     */
+    private static void bind(PreparedStatement ps, int index, Object column, int row) throws SQLException {
+        if (column instanceof long[]) {
+            ps.setLong(index, ((long[]) column)[row]);
+        } else if (column instanceof int[]) {
+            ps.setInt(index, ((int[]) column)[row]);
+        } else if (column instanceof float[]) {
+            ps.setFloat(index, ((float[]) column)[row]);
+        } else if (column instanceof double[]) {
+            ps.setDouble(index, ((double[]) column)[row]);
+        } else {
+            ps.setObject(index, ((Object[]) column)[row]);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ownsDataSource && dataSource instanceof DruidDataSource) {
+            ((DruidDataSource) dataSource).close();
+        }
+    }
+
+    static String buildInsertSql(String table, String[] columns) {
+        StringBuilder sql = new StringBuilder("insert into ").append(table).append(" (");
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sql.append(',');
+                placeholders.append(',');
+            }
+            sql.append(columns[i]);
+            placeholders.append('?');
+        }
+        return sql.append(") values (").append(placeholders).append(')').toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.ice.sync;
+
+import java.lang.reflect.Array;
+
+/**
+ * 列式批次：每列一个数组，写 ClickHouse 时按列组织数据。
+ * <p>
+ * 列可以是 Object[]，也可以是 long[]/int[]/float[]/double[]，数值列不必逐个装箱。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 09:15
+ */
+public class ColumnarBatch {
+    private final String[] columns;
+
+    private final Object[] values;
+
+    private final int rowCount;
+
+    /**
+     * 批次内最大的主键，写入成功后作为新的高水位
+     */
+    private final long maxId;
+
+    /**
+     * @param values 每列一个数组，长度不小于 rowCount
+     */
+    public ColumnarBatch(String[] columns, Object[] values, int rowCount, long maxId) {
+        this.columns = columns;
+        this.values = values;
+        this.rowCount = rowCount;
+        this.maxId = maxId;
+    }
+
+    public String[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * 原始列数组，Object[] 或基本类型数组
+     */
+    public Object column(int index) {
+        return values[index];
+    }
+
+    /**
+     * 取单个值，基本类型列会装箱，只适合零散访问
+     */
+    public Object value(int column, int row) {
+        return Array.get(values[column], row);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getMaxId() {
+        return maxId;
+    }
+
+    public boolean isEmpty() {
+        return rowCount == 0;
+    }
+}
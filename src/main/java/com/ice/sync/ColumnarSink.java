@@ -0,0 +1,14 @@
+package com.ice.sync;
+
+/**
+ * 列式批次的写入目标
+ *
+ * @author : eclair
+ * @date : 2026/10/19 09:18
+ */
+public interface ColumnarSink {
+    /**
+     * 整批写入，失败时抛异常，调用方不会推进高水位
+     */
+    void insert(String table, ColumnarBatch batch) throws Exception;
+}
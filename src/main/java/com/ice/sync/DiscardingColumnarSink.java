@@ -0,0 +1,22 @@
+package com.ice.sync;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 没有配置落库目标时的占位写入目标：只计数不保存，避免像内存版那样无限累积
+ *
+ * @author : eclair
+ * @date : 2026/10/19 11:02
+ */
+public class DiscardingColumnarSink implements ColumnarSink {
+    private final LongAdder discardedRows = new LongAdder();
+
+    @Override
+    public void insert(String table, ColumnarBatch batch) {
+        discardedRows.add(batch.getRowCount());
+    }
+
+    public long getDiscardedRows() {
+        return discardedRows.sum();
+    }
+}
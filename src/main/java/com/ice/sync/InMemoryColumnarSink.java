@@ -0,0 +1,36 @@
+package com.ice.sync;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 内存版写入目标，本地联调和测试时替代 ClickHouse
+ *
+ * @author : eclair
+ * @date : 2026/10/19 09:24
+ */
+public class InMemoryColumnarSink implements ColumnarSink {
+    private final Map<String, List<ColumnarBatch>> tables = new ConcurrentHashMap<>();
+
+    @Override
+    public void insert(String table, ColumnarBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        tables.computeIfAbsent(table, k -> new CopyOnWriteArrayList<>()).add(batch);
+    }
+
+    public List<ColumnarBatch> batches(String table) {
+        return tables.getOrDefault(table, List.of());
+    }
+
+    public long rowCount(String table) {
+        long count = 0;
+        for (ColumnarBatch batch : batches(table)) {
+            count += batch.getRowCount();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,78 @@
+package com.ice.sync;
+
+import java.sql.ResultSetMetaData;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 按主键 keyset 分页读取源表，结果集直接按列装进 {@link ColumnarBatch}。
+ * <p>
+ * 列名取自 ResultSetMetaData，而不是第一行数据：Map 结果里值为 null 的列会被省略，按行推断列集会整批丢列。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 09:22
+ */
+public class JdbcKeysetSource {
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z0-9_]+(\\.[A-Za-z0-9_]+)?");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String idColumn;
+
+    private final String sql;
+
+    /**
+     * @param table    源表，来自配置，只允许 [库.]表 形式的标识符
+     * @param idColumn 自增主键列
+     */
+    public JdbcKeysetSource(JdbcTemplate jdbcTemplate, String table, String idColumn) {
+        if (!IDENTIFIER.matcher(table).matches() || !IDENTIFIER.matcher(idColumn).matches()) {
+            throw new IllegalArgumentException("illegal table or id column: " + table + "." + idColumn);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.idColumn = idColumn;
+        this.sql = "select * from " + table + " where " + idColumn + " > ? order by " + idColumn + " limit ?";
+    }
+
+    /**
+     * 读取 id 大于 lastId 的最多 limit 行，没有数据时返回空批次
+     */
+    public ColumnarBatch readAfter(long lastId, int limit) {
+        return jdbcTemplate.query(sql, rs -> {
+            ResultSetMetaData meta = rs.getMetaData();
+            int columnCount = meta.getColumnCount();
+            String[] columns = new String[columnCount];
+            int idIndex = -1;
+            for (int c = 0; c < columnCount; c++) {
+                columns[c] = meta.getColumnLabel(c + 1);
+                if (columns[c].equalsIgnoreCase(idColumn)) {
+                    idIndex = c;
+                }
+            }
+            if (idIndex < 0) {
+                throw new IllegalStateException("id column " + idColumn + " not in result set");
+            }
+
+            Object[][] values = new Object[columnCount][limit];
+            int rows = 0;
+            while (rs.next()) {
+                for (int c = 0; c < columnCount; c++) {
+                    values[c][rows] = rs.getObject(c + 1);
+                }
+                rows++;
+            }
+            if (rows == 0) {
+                return new ColumnarBatch(columns, new Object[columnCount][0], 0, lastId);
+            }
+            if (rows < limit) {
+                for (int c = 0; c < columnCount; c++) {
+                    values[c] = Arrays.copyOf(values[c], rows);
+                }
+            }
+            long maxId = ((Number) values[idIndex][rows - 1]).longValue();
+            return new ColumnarBatch(columns, values, rows, maxId);
+        }, lastId, limit);
+    }
+}
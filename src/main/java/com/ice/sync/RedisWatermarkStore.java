@@ -0,0 +1,28 @@
+package com.ice.sync;
+
+import com.xiliulou.cache.redis.RedisService;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 09:28
+ */
+public class RedisWatermarkStore implements WatermarkStore {
+    private static final String KEY_PREFIX = "sync:watermark:";
+
+    private final RedisService redisService;
+
+    public RedisWatermarkStore(RedisService redisService) {
+        this.redisService = redisService;
+    }
+
+    @Override
+    public long load(String name) {
+        Object value = redisService.getRedisTemplate().opsForValue().get(KEY_PREFIX + name);
+        return value == null ? 0L : Long.parseLong(String.valueOf(value));
+    }
+
+    @Override
+    public void save(String name, long watermark) {
+        redisService.getRedisTemplate().opsForValue().set(KEY_PREFIX + name, String.valueOf(watermark));
+    }
+}
@@ -0,0 +1,13 @@
+package com.ice.sync;
+
+/**
+ * 同步高水位持久化，重启后从上次写入成功的位置继续
+ *
+ * @author : eclair
+ * @date : 2026/10/19 09:26
+ */
+public interface WatermarkStore {
+    long load(String name);
+
+    void save(String name, long watermark);
+}
@@ -0,0 +1,21 @@
+package com.ice.tenant;
+
+/**
+ * 根据缓存的租户状态判断是否放行
+ *
+ * @author : eclair
+ * @date : 2026/10/19 20:30
+ */
+public enum TenantAdmission {
+    ALLOWED,
+    NOT_FOUND,
+    /**
+     * status 为 STA_OUT 或已删除
+     */
+    FROZEN,
+    EXPIRED,
+    /**
+     * 缓存里没有、加载又失败（数据库不可用），状态未知
+     */
+    UNAVAILABLE
+}
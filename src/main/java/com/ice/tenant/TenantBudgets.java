@@ -0,0 +1,56 @@
+package com.ice.tenant;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.ice.config.TenantIsolationProperties;
+
+/**
+ * 按租户懒创建 {@link TenantLoad}，配额取创建时的配置。
+ * 只为通过状态检查的租户创建，条目数以真实存在的租户数为上限
+ *
+ * @author : eclair
+ * @date : 2026/10/19 20:45
+ */
+@Component
+public class TenantBudgets {
+    @Autowired
+    TenantIsolationProperties properties;
+
+    private final Map<Integer, TenantLoad> loads = new ConcurrentHashMap<>();
+
+    public TenantLoad of(Integer tenantId) {
+        TenantLoad load = loads.get(tenantId);
+        if (load != null) {
+            return load;
+        }
+        return loads.computeIfAbsent(tenantId,
+                id -> new TenantLoad(id, properties.concurrencyOf(id), properties.connectionsOf(id)));
+    }
+
+    /**
+     * 已有的负载记录，不创建
+     */
+    public TenantLoad peek(Integer tenantId) {
+        return loads.get(tenantId);
+    }
+
+    public Map<String, Object> snapshot() {
+        List<Integer> ids = new ArrayList<>(loads.keySet());
+        Collections.sort(ids);
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (Integer id : ids) {
+            Map<String, Object> item = loads.get(id).snapshot();
+            item.put("route", properties.getRoutes().get(id));
+            result.put(String.valueOf(id), item);
+        }
+        return result;
+    }
+}
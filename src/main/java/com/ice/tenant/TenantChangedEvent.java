@@ -0,0 +1,22 @@
+package com.ice.tenant;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * t_tenant 有写入后发布，事务提交后由过期索引和状态缓存处理
+ *
+ * @author : eclair
+ * @date : 2026/10/19 21:20
+ */
+public class TenantChangedEvent extends ApplicationEvent {
+    private final Integer tenantId;
+
+    public TenantChangedEvent(Object source, Integer tenantId) {
+        super(source);
+        this.tenantId = tenantId;
+    }
+
+    public Integer getTenantId() {
+        return tenantId;
+    }
+}
@@ -0,0 +1,125 @@
+package com.ice.tenant;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.alibaba.druid.filter.FilterAdapter;
+import com.alibaba.druid.filter.FilterChain;
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.pool.DruidPooledConnection;
+import com.alibaba.druid.stat.DruidDataSourceStatManager;
+import com.ice.config.TenantIsolationProperties;
+import com.ice.db.PoolFilter;
+import com.ice.db.PoolTelemetryFilter;
+
+/**
+ * 挂在每个 Druid 连接池最前面的租户过滤器，由 DruidPoolMonitor 安装：
+ * <ul>
+ * <li>配置了路由的租户，借连接时直接改从目标数据源借，事务内的所有语句都落在同一个池上；</li>
+ * <li>每个租户同时持有的连接数不超过配额，超出时最多等待 maxWait，避免一个租户占满整个池。</li>
+ * </ul>
+ * 连接归还走连接所属池的过滤器链，路由出去的连接在目标池上释放配额；
+ * 被 Druid 丢弃的连接不会归还，由扫描时的 {@link #purgeDiscarded} 释放配额。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 20:55
+ */
+@Component
+public class TenantConnectionFilter extends FilterAdapter implements PoolFilter {
+    @Autowired
+    TenantBudgets tenantBudgets;
+    @Autowired
+    TenantIsolationProperties properties;
+
+    private final Map<DruidPooledConnection, TenantLoad> leased = new ConcurrentHashMap<>();
+
+    private final Map<String, DruidDataSource> dataSources = new ConcurrentHashMap<>();
+
+    @Override
+    public DruidPooledConnection dataSource_getConnection(FilterChain chain, DruidDataSource dataSource,
+            long maxWaitMillis) throws SQLException {
+        TenantContext context = TenantContext.current();
+        if (context == null || !properties.isEnabled()) {
+            return chain.dataSource_connect(dataSource, maxWaitMillis);
+        }
+
+        String route = context.getRoute();
+        if (route != null && !route.equals(dataSource.getName())) {
+            DruidDataSource target = dataSource(route);
+            if (target != null && target != dataSource) {
+                return target.getConnection(maxWaitMillis);
+            }
+        }
+
+        TenantLoad load = tenantBudgets.of(context.getTenantId());
+        try {
+            if (!load.tryBorrowConnection(maxWaitMillis > 0 ? maxWaitMillis : dataSource.getMaxWait())) {
+                throw new SQLException("租户连接数超出配额 tenant=" + context.getTenantId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("等待租户连接配额被打断", e);
+        }
+
+        DruidPooledConnection connection;
+        try {
+            connection = chain.dataSource_connect(dataSource, maxWaitMillis);
+        } catch (SQLException | RuntimeException e) {
+            load.returnConnection();
+            throw e;
+        }
+        leased.put(connection, load);
+        return connection;
+    }
+
+    @Override
+    public void dataSource_releaseConnection(FilterChain chain, DruidPooledConnection connection)
+            throws SQLException {
+        TenantLoad load = leased.remove(connection);
+        try {
+            chain.dataSource_recycle(connection);
+        } finally {
+            if (load != null) {
+                load.returnConnection();
+            }
+        }
+    }
+
+    @Override
+    public int purgeDiscarded() {
+        int purged = 0;
+        for (DruidPooledConnection connection : leased.keySet()) {
+            if (!PoolTelemetryFilter.isDiscarded(connection)) {
+                continue;
+            }
+            TenantLoad load = leased.remove(connection);
+            if (load != null) {
+                load.returnConnection();
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    int getLeasedCount() {
+        return leased.size();
+    }
+
+    private DruidDataSource dataSource(String name) {
+        DruidDataSource dataSource = dataSources.get(name);
+        if (dataSource != null && !dataSource.isClosed()) {
+            return dataSource;
+        }
+        for (Object instance : DruidDataSourceStatManager.getDruidDataSourceInstances()) {
+            if (instance instanceof DruidDataSource && name.equals(((DruidDataSource) instance).getName())) {
+                dataSources.put(name, (DruidDataSource) instance);
+                return (DruidDataSource) instance;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ice.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * 当前线程正在处理的租户，以及该租户的数据源路由。
+ * <p>
+ * 由 {@link TenantIsolationInterceptor} 在请求线程上设置，切到其他线程池执行时用 {@link #wrap} 传递。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 20:25
+ */
+public final class TenantContext {
+    private static final ThreadLocal<TenantContext> CURRENT = new ThreadLocal<>();
+
+    private final Integer tenantId;
+
+    private final String route;
+
+    public TenantContext(Integer tenantId, String route) {
+        this.tenantId = tenantId;
+        this.route = route;
+    }
+
+    public static TenantContext current() {
+        return CURRENT.get();
+    }
+
+    public static void set(TenantContext context) {
+        if (context == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 捕获调用线程的租户上下文，在执行线程上恢复，执行完还原
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        TenantContext captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            TenantContext previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                return task.get();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+
+    public Integer getTenantId() {
+        return tenantId;
+    }
+
+    /**
+     * 为 null 时不改变数据源
+     */
+    public String getRoute() {
+        return route;
+    }
+}
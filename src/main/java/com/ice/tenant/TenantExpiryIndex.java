@@ -0,0 +1,88 @@
+package com.ice.tenant;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ice.dao.TenantJdbcDao;
+import com.ice.entity.Tenant;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 内存中的租户过期索引，启动时全量加载一次，之后按 {@link TenantChangedEvent} 增量更新。
+ * <p>
+ * 读操作直接访问当前快照，不加锁；写操作串行执行并整体替换快照。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 21:30
+ */
+@Slf4j
+@Component
+public class TenantExpiryIndex {
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    @Autowired
+    TenantJdbcDao tenantJdbcDao;
+
+    private volatile TenantExpirySnapshot snapshot = TenantExpirySnapshot.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long start = System.nanoTime();
+        List<Tenant> tenants = tenantJdbcDao.selectAllStatus();
+        int n = tenants.size();
+        int[] ids = new int[n];
+        boolean[] frozen = new boolean[n];
+        boolean[] deleted = new boolean[n];
+        long[] expireTimes = new long[n];
+        for (int i = 0; i < n; i++) {
+            Tenant tenant = tenants.get(i);
+            ids[i] = tenant.getId();
+            frozen[i] = Tenant.STA_OUT.equals(tenant.getStatus());
+            deleted[i] = Tenant.DEL_DEL.equals(tenant.getDelFlag());
+            expireTimes[i] = tenant.getExpireTime() == null ? 0 : tenant.getExpireTime();
+        }
+        snapshot = TenantExpirySnapshot.build(ids, frozen, deleted, expireTimes);
+        log.info("租户过期索引加载完成 tenants={} costMillis={}", n, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTenantChanged(TenantChangedEvent event) {
+        Tenant tenant = tenantJdbcDao.selectStatusById(event.getTenantId());
+        if (tenant == null) {
+            snapshot = snapshot.without(event.getTenantId());
+            return;
+        }
+        snapshot = snapshot.with(tenant.getId(), Tenant.STA_OUT.equals(tenant.getStatus()),
+                Tenant.DEL_DEL.equals(tenant.getDelFlag()), tenant.getExpireTime() == null ? 0 : tenant.getExpireTime());
+    }
+
+    /**
+     * 清扫任务写库成功后调用
+     */
+    public synchronized void markFrozen(int[] tenantIds) {
+        snapshot = snapshot.withFrozen(tenantIds);
+    }
+
+    public int[] expiringWithinHours(long hours) {
+        long now = System.currentTimeMillis();
+        return snapshot.expiringWithin(now, hours * HOUR_MILLIS);
+    }
+
+    public int[] allActive() {
+        return snapshot.allActive(System.currentTimeMillis());
+    }
+
+    public int[] expiredPending(int limit) {
+        return snapshot.expiredPending(System.currentTimeMillis(), limit);
+    }
+
+    public TenantExpirySnapshot snapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,228 @@
+package com.ice.tenant;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * 租户过期索引的不可变快照。
+ * <p>
+ * 所有租户按 expireTime 升序存放在两个平行的基本类型数组里，状态按数组下标放在位图中：
+ * 过期区间查询是两次二分加一次位图过滤，不需要扫表也不产生装箱对象。
+ * 没有过期时间的租户 expireTime 记为 {@link #NEVER}，排在最后。
+ * <p>
+ * 更新返回新快照（写时复制），读方拿到的快照永远是一致的。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 21:10
+ */
+public final class TenantExpirySnapshot {
+    public static final long NEVER = Long.MAX_VALUE;
+
+    public static final TenantExpirySnapshot EMPTY = new TenantExpirySnapshot(new int[0], new long[0], new BitSet(),
+            new BitSet());
+
+    private final int[] ids;
+
+    private final long[] expireTimes;
+
+    /**
+     * status = STA_OUT 的位置
+     */
+    private final BitSet frozen;
+
+    /**
+     * delFlag = DEL_DEL 的位置
+     */
+    private final BitSet deleted;
+
+    /**
+     * frozen | deleted，查询活跃租户时直接跳过
+     */
+    private final BitSet inactive;
+
+    private TenantExpirySnapshot(int[] ids, long[] expireTimes, BitSet frozen, BitSet deleted) {
+        this.ids = ids;
+        this.expireTimes = expireTimes;
+        this.frozen = frozen;
+        this.deleted = deleted;
+        this.inactive = (BitSet) frozen.clone();
+        this.inactive.or(deleted);
+    }
+
+    /**
+     * 从无序的列数据构建，参数数组长度必须一致
+     */
+    public static TenantExpirySnapshot build(int[] ids, boolean[] frozen, boolean[] deleted, long[] expireTimes) {
+        int n = ids.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(normalize(expireTimes[a]), normalize(expireTimes[b])));
+
+        int[] sortedIds = new int[n];
+        long[] sortedExpire = new long[n];
+        BitSet frozenBits = new BitSet(n);
+        BitSet deletedBits = new BitSet(n);
+        for (int i = 0; i < n; i++) {
+            int source = order[i];
+            sortedIds[i] = ids[source];
+            sortedExpire[i] = normalize(expireTimes[source]);
+            frozenBits.set(i, frozen[source]);
+            deletedBits.set(i, deleted[source]);
+        }
+        return new TenantExpirySnapshot(sortedIds, sortedExpire, frozenBits, deletedBits);
+    }
+
+    /**
+     * 新增或替换一个租户
+     */
+    public TenantExpirySnapshot with(int id, boolean isFrozen, boolean isDeleted, long expireTime) {
+        TenantExpirySnapshot base = without(id);
+        long expire = normalize(expireTime);
+        int n = base.ids.length;
+        int insert = base.lowerBound(expire + (expire == NEVER ? 0 : 1));
+
+        int[] newIds = new int[n + 1];
+        long[] newExpire = new long[n + 1];
+        System.arraycopy(base.ids, 0, newIds, 0, insert);
+        System.arraycopy(base.expireTimes, 0, newExpire, 0, insert);
+        newIds[insert] = id;
+        newExpire[insert] = expire;
+        System.arraycopy(base.ids, insert, newIds, insert + 1, n - insert);
+        System.arraycopy(base.expireTimes, insert, newExpire, insert + 1, n - insert);
+        return new TenantExpirySnapshot(newIds, newExpire, shiftInsert(base.frozen, insert, isFrozen),
+                shiftInsert(base.deleted, insert, isDeleted));
+    }
+
+    public TenantExpirySnapshot without(int id) {
+        int position = positionOf(id);
+        if (position < 0) {
+            return this;
+        }
+        int n = ids.length;
+        int[] newIds = new int[n - 1];
+        long[] newExpire = new long[n - 1];
+        System.arraycopy(ids, 0, newIds, 0, position);
+        System.arraycopy(expireTimes, 0, newExpire, 0, position);
+        System.arraycopy(ids, position + 1, newIds, position, n - position - 1);
+        System.arraycopy(expireTimes, position + 1, newExpire, position, n - position - 1);
+        return new TenantExpirySnapshot(newIds, newExpire, shiftRemove(frozen, position),
+                shiftRemove(deleted, position));
+    }
+
+    /**
+     * 批量冻结，过期时间不变所以数组不用重排
+     */
+    public TenantExpirySnapshot withFrozen(int[] tenantIds) {
+        BitSet newFrozen = (BitSet) frozen.clone();
+        for (int id : tenantIds) {
+            int position = positionOf(id);
+            if (position >= 0) {
+                newFrozen.set(position);
+            }
+        }
+        return new TenantExpirySnapshot(ids, expireTimes, newFrozen, deleted);
+    }
+
+    /**
+     * 未冻结、未删除且 expireTime 落在 [now, now + windowMillis) 的租户
+     */
+    public int[] expiringWithin(long now, long windowMillis) {
+        return collectActive(lowerBound(now), lowerBound(now + windowMillis));
+    }
+
+    /**
+     * 未冻结、未删除且未过期的租户
+     */
+    public int[] allActive(long now) {
+        return collectActive(lowerBound(now), ids.length);
+    }
+
+    /**
+     * 已过期但状态还是正常的租户，即待清扫的租户，最多返回 limit 个
+     */
+    public int[] expiredPending(long now, int limit) {
+        int to = lowerBound(now);
+        int[] result = new int[Math.min(to, limit)];
+        int count = 0;
+        for (int i = inactive.nextClearBit(0); i < to && count < result.length; i = inactive.nextClearBit(i + 1)) {
+            result[count++] = ids[i];
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int frozenCount() {
+        return frozen.cardinality();
+    }
+
+    public int deletedCount() {
+        return deleted.cardinality();
+    }
+
+    private int[] collectActive(int from, int to) {
+        if (from >= to) {
+            return new int[0];
+        }
+        int[] result = new int[to - from];
+        int count = 0;
+        for (int i = inactive.nextClearBit(from); i < to; i = inactive.nextClearBit(i + 1)) {
+            result[count++] = ids[i];
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * 第一个 expireTime >= value 的下标
+     */
+    private int lowerBound(long value) {
+        int low = 0;
+        int high = expireTimes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (expireTimes[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * id 不是排序键，线性查找；只在写路径上使用
+     */
+    private int positionOf(int id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long normalize(long expireTime) {
+        return expireTime <= 0 ? NEVER : expireTime;
+    }
+
+    private static BitSet shiftInsert(BitSet bits, int position, boolean value) {
+        BitSet result = bits.get(0, position);
+        for (int i = bits.nextSetBit(position); i >= 0; i = bits.nextSetBit(i + 1)) {
+            result.set(i + 1);
+        }
+        result.set(position, value);
+        return result;
+    }
+
+    private static BitSet shiftRemove(BitSet bits, int position) {
+        BitSet result = bits.get(0, position);
+        for (int i = bits.nextSetBit(position + 1); i >= 0; i = bits.nextSetBit(i + 1)) {
+            result.set(i - 1);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ice.tenant;
+
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ice.config.TenantExpiryProperties;
+import com.ice.mapper.TestSqlMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 定时把已过期的正常租户置为冻结：候选来自内存索引，按批 update ... where id in (...)，
+ * 语句里再带上 status/expire_time 条件，索引落后于数据库时也不会误冻结。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 21:35
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "tenant.expiry", name = "sweep-enabled", havingValue = "true")
+public class TenantExpirySweeper {
+    @Autowired
+    TenantExpiryIndex tenantExpiryIndex;
+    @Autowired
+    TenantStatusCache tenantStatusCache;
+    @Autowired
+    TestSqlMapper testSqlMapper;
+    @Autowired
+    TenantExpiryProperties properties;
+
+    @Scheduled(fixedDelayString = "${tenant.expiry.sweep-interval-millis:60000}")
+    public void sweep() {
+        int batchSize = properties.getBatchSize();
+        int total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerSweep(); batch++) {
+            int[] ids = tenantExpiryIndex.expiredPending(batchSize);
+            if (ids.length == 0) {
+                break;
+            }
+            long now = System.currentTimeMillis();
+            int updated = testSqlMapper.freezeExpired(Arrays.stream(ids).boxed().toList(), now);
+            // 没命中的行说明已被其他途径修改，同样从待清扫集合里移除，等变更事件纠正
+            tenantExpiryIndex.markFrozen(ids);
+            for (int id : ids) {
+                tenantStatusCache.invalidate(id);
+            }
+            total += updated;
+            if (ids.length < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("过期租户已冻结 count={}", total);
+        }
+    }
+}
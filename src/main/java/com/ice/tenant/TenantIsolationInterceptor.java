@@ -0,0 +1,119 @@
+package com.ice.tenant;
+
+import java.nio.charset.StandardCharsets;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ice.config.TenantIsolationProperties;
+import com.ice.ratelimit.RateLimitInterceptor;
+import com.xiliulou.core.web.R;
+
+/**
+ * 带租户头的请求在进入业务前：按缓存状态拦截冻结/过期租户，按租户配额限制在途请求数，
+ * 并设置 {@link TenantContext} 供连接配额和数据源路由使用。
+ * <p>
+ * 异步请求的配额在首次分发时占用，到异步结果分发完成时释放。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 20:50
+ */
+@Component
+public class TenantIsolationInterceptor implements AsyncHandlerInterceptor {
+    private static final String LOAD_ATTRIBUTE = TenantIsolationInterceptor.class.getName() + ".load";
+
+    private static final String START_ATTRIBUTE = TenantIsolationInterceptor.class.getName() + ".start";
+
+    @Autowired
+    TenantIsolationProperties properties;
+    @Autowired
+    TenantStatusCache tenantStatusCache;
+    @Autowired
+    TenantBudgets tenantBudgets;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!properties.isEnabled() || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Integer tenantId = RateLimitInterceptor.tenantId(request);
+        if (tenantId == null) {
+            return true;
+        }
+
+        // 先判断状态再取负载记录，请求头里随便填的租户id不会在 TenantBudgets 里留下条目
+        TenantAdmission admission = tenantStatusCache.check(tenantId);
+        if (admission == TenantAdmission.UNAVAILABLE) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, R.fail("503", message(admission)));
+            return false;
+        }
+        if (admission != TenantAdmission.ALLOWED) {
+            TenantLoad known = tenantBudgets.peek(tenantId);
+            if (known != null) {
+                known.rejectStatus();
+            }
+            reject(response, HttpStatus.FORBIDDEN, R.fail("403", message(admission)));
+            return false;
+        }
+        TenantLoad load = tenantBudgets.of(tenantId);
+        if (!load.tryEnter()) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, R.fail("429", "租户并发超出配额"));
+            return false;
+        }
+
+        request.setAttribute(LOAD_ATTRIBUTE, load);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        TenantContext.set(new TenantContext(tenantId, properties.getRoutes().get(tenantId)));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        // 请求线程已释放，配额保留到异步分发结束
+        TenantContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        TenantContext.clear();
+        Object load = request.getAttribute(LOAD_ATTRIBUTE);
+        if (load != null) {
+            request.removeAttribute(LOAD_ATTRIBUTE);
+            ((TenantLoad) load).exit(System.nanoTime() - (Long) request.getAttribute(START_ATTRIBUTE));
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, R body) throws Exception {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(objectMapper.writeValueAsString(body));
+    }
+
+    private static String message(TenantAdmission admission) {
+        switch (admission) {
+            case FROZEN:
+                return "租户已冻结";
+            case EXPIRED:
+                return "租户已过期";
+            case UNAVAILABLE:
+                return "租户状态暂时无法确认，请稍后重试";
+            case NOT_FOUND:
+            default:
+                return "租户不存在";
+        }
+    }
+}
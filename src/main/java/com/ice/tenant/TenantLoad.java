@@ -0,0 +1,96 @@
+package com.ice.tenant;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个租户的配额和负载计数
+ *
+ * @author : eclair
+ * @date : 2026/10/19 20:40
+ */
+public class TenantLoad {
+    private final Integer tenantId;
+
+    private final int concurrencyLimit;
+
+    private final int connectionLimit;
+
+    private final Semaphore requestPermits;
+
+    private final Semaphore connectionPermits;
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    private final LongAdder rejectedStatus = new LongAdder();
+
+    private final LongAdder requestNanos = new LongAdder();
+
+    private final LongAdder connections = new LongAdder();
+
+    private final LongAdder rejectedConnections = new LongAdder();
+
+    TenantLoad(Integer tenantId, int concurrencyLimit, int connectionLimit) {
+        this.tenantId = tenantId;
+        this.concurrencyLimit = concurrencyLimit;
+        this.connectionLimit = connectionLimit;
+        this.requestPermits = new Semaphore(concurrencyLimit);
+        this.connectionPermits = new Semaphore(connectionLimit);
+    }
+
+    boolean tryEnter() {
+        if (requestPermits.tryAcquire()) {
+            requests.increment();
+            return true;
+        }
+        rejectedRequests.increment();
+        return false;
+    }
+
+    void exit(long elapsedNanos) {
+        requestNanos.add(elapsedNanos);
+        requestPermits.release();
+    }
+
+    void rejectStatus() {
+        rejectedStatus.increment();
+    }
+
+    boolean tryBorrowConnection(long timeoutMillis) throws InterruptedException {
+        if (connectionPermits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            connections.increment();
+            return true;
+        }
+        rejectedConnections.increment();
+        return false;
+    }
+
+    void returnConnection() {
+        connectionPermits.release();
+    }
+
+    public Map<String, Object> snapshot() {
+        long count = requests.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("inflight", concurrencyLimit - requestPermits.availablePermits());
+        result.put("concurrencyLimit", concurrencyLimit);
+        result.put("requests", count);
+        result.put("rejectedRequests", rejectedRequests.sum());
+        result.put("rejectedStatus", rejectedStatus.sum());
+        result.put("avgMillis", count == 0 ? 0 : requestNanos.sum() / count / 1_000_000.0);
+        result.put("connectionsHeld", connectionLimit - connectionPermits.availablePermits());
+        result.put("connectionLimit", connectionLimit);
+        result.put("connections", connections.sum());
+        result.put("rejectedConnections", rejectedConnections.sum());
+        return result;
+    }
+
+    public Integer getTenantId() {
+        return tenantId;
+    }
+}
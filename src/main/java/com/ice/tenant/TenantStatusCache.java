@@ -0,0 +1,100 @@
+package com.ice.tenant;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.ice.config.TenantIsolationProperties;
+import com.ice.dao.TenantJdbcDao;
+import com.ice.entity.Tenant;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 租户状态的本地缓存，只加载 id/status/delFlag/expireTime 投影。
+ * <p>
+ * 到期后先返回旧值再异步刷新，请求线程不会因为刷新去查库；
+ * 过期时间在每次判断时和当前时间比较，不依赖缓存刷新。
+ * <p>
+ * 冷启动或被失效后的第一次判断只能同步加载。加载失败时不把异常抛给拦截器变成 500，
+ * 而是返回 {@link TenantAdmission#UNAVAILABLE}；异步刷新失败时 Caffeine 保留旧值。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 20:35
+ */
+@Slf4j
+@Component
+public class TenantStatusCache {
+    /**
+     * 租户不存在的占位，Caffeine 不缓存 null
+     */
+    private static final Tenant MISSING = new Tenant();
+
+    @Autowired
+    TenantJdbcDao tenantJdbcDao;
+    @Autowired
+    TenantIsolationProperties properties;
+
+    private final LongAdder loadFailures = new LongAdder();
+
+    private LoadingCache<Integer, Tenant> cache;
+
+    @PostConstruct
+    public void init() {
+        long refreshSeconds = properties.getStatusRefreshSeconds();
+        cache = Caffeine.newBuilder().maximumSize(properties.getStatusCacheSize())
+                .refreshAfterWrite(refreshSeconds, TimeUnit.SECONDS)
+                .expireAfterWrite(refreshSeconds * 4, TimeUnit.SECONDS)
+                .build(id -> Objects.requireNonNullElse(tenantJdbcDao.selectStatusById(id), MISSING));
+    }
+
+    public TenantAdmission check(Integer tenantId) {
+        Tenant tenant;
+        try {
+            tenant = cache.get(tenantId);
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            log.warn("tenant {} status load failed: {}", tenantId, e.toString());
+            return TenantAdmission.UNAVAILABLE;
+        }
+        return admission(tenant, System.currentTimeMillis());
+    }
+
+    public long getLoadFailures() {
+        return loadFailures.sum();
+    }
+
+    /**
+     * 租户状态变更后调用，下一次请求重新加载
+     */
+    public void invalidate(Integer tenantId) {
+        cache.invalidate(tenantId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTenantChanged(TenantChangedEvent event) {
+        invalidate(event.getTenantId());
+    }
+
+    static TenantAdmission admission(Tenant tenant, long nowMillis) {
+        if (tenant == null || tenant == MISSING) {
+            return TenantAdmission.NOT_FOUND;
+        }
+        if (Tenant.STA_OUT.equals(tenant.getStatus()) || Tenant.DEL_DEL.equals(tenant.getDelFlag())) {
+            return TenantAdmission.FROZEN;
+        }
+        Long expireTime = tenant.getExpireTime();
+        if (expireTime != null && expireTime > 0 && expireTime < nowMillis) {
+            return TenantAdmission.EXPIRED;
+        }
+        return TenantAdmission.ALLOWED;
+    }
+}
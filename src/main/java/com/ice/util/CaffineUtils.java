@@ -7,7 +7,9 @@ import java.util.concurrent.ConcurrentMap;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 public class CaffineUtils {
     Cache<Integer, TreeMap<Integer, byte[]>> activeTriggerResponseCache = Caffeine.newBuilder().expireAfterAccess(5, TimeUnit.SECONDS).build();
     public static void main(String[] args) {
@@ -15,10 +17,10 @@ public class CaffineUtils {
         TreeMap<Integer, byte[]> treeMap = caffineUtils.activeTriggerResponseCache.get(1, key -> new TreeMap<>());
         treeMap.put(1, new byte[] { 0x01, 0x02, 0x03 });
         treeMap.put(2, new byte[] { 0x04, 0x05, 0x06 });
-        System.out.println(treeMap);
-        System.out.println(caffineUtils.activeTriggerResponseCache.getIfPresent(1));
-        System.out.println(caffineUtils.activeTriggerResponseCache.getIfPresent(2));
-        System.out.println(caffineUtils.activeTriggerResponseCache.getIfPresent(3));
+        log.info("{}", treeMap);
+        log.info("{}", caffineUtils.activeTriggerResponseCache.getIfPresent(1));
+        log.info("{}", caffineUtils.activeTriggerResponseCache.getIfPresent(2));
+        log.info("{}", caffineUtils.activeTriggerResponseCache.getIfPresent(3));
 
         try {
             Thread.sleep(6000);
@@ -26,9 +28,9 @@ public class CaffineUtils {
             // TODO Auto-generated catch block
             e.printStackTrace();
         }
-        System.out.println(caffineUtils.activeTriggerResponseCache.getIfPresent(1));
-        System.out.println(caffineUtils.activeTriggerResponseCache.getIfPresent(2));
-        System.out.println(caffineUtils.activeTriggerResponseCache.getIfPresent(3));
+        log.info("{}", caffineUtils.activeTriggerResponseCache.getIfPresent(1));
+        log.info("{}", caffineUtils.activeTriggerResponseCache.getIfPresent(2));
+        log.info("{}", caffineUtils.activeTriggerResponseCache.getIfPresent(3));
     }
 
 }
@@ -3,6 +3,8 @@ package com.ice.util;
 import java.text.DecimalFormat;
 import org.apache.commons.lang3.StringUtils;
 
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * Utility class providing common conversion methods for bytes, hexadecimal,
  * binary and other formats.
@@ -14,6 +16,7 @@ import org.apache.commons.lang3.StringUtils;
  * @description: Collection of utility methods for common data conversion
  *               operations
  */
+@Slf4j
 public class CommonUtils {
 	/** Hexadecimal character set used for conversions */
 	static final String HEX = "0123456789abcdef";
@@ -446,6 +449,60 @@ public class CommonUtils {
 		return toInt(subBytes(input, pos, 2));
 	}
 
+	/**
+	 * Reads an unsigned big-endian 16-bit integer at a specific position without
+	 * allocating. Same result as getInt16 for in-range positions.
+	 * 
+	 * Example:
+	 * byte[] data = {0x01, 0x02, 0x03, 0x04};
+	 * int result = readUInt16(data, 1);
+	 * // result = 0x0203
+	 * 
+	 * @param input The byte array to read from
+	 * @param pos   The starting position
+	 * @return The unsigned 16-bit value
+	 */
+	public static int readUInt16(byte[] input, int pos) {
+		return ((input[pos] & 0xFF) << 8) | (input[pos + 1] & 0xFF);
+	}
+
+	/**
+	 * Reads a signed big-endian 32-bit integer at a specific position without
+	 * allocating. Unlike getInt32, values with the highest bit set are returned
+	 * as negative integers instead of 0.
+	 * 
+	 * Example:
+	 * byte[] data = {0x01, 0x02, 0x03, 0x04, 0x05, 0x06};
+	 * int result = readInt32(data, 1);
+	 * // result = 0x02030405
+	 * 
+	 * @param input The byte array to read from
+	 * @param pos   The starting position
+	 * @return The 32-bit value
+	 */
+	public static int readInt32(byte[] input, int pos) {
+		return ((input[pos] & 0xFF) << 24) | ((input[pos + 1] & 0xFF) << 16) | ((input[pos + 2] & 0xFF) << 8)
+				| (input[pos + 3] & 0xFF);
+	}
+
+	/**
+	 * Reads a big-endian IEEE 754 float at a specific position without going
+	 * through a hex string. Same result as hexToFloat(bytes2hex(subBytes(input,
+	 * pos, 4))) for non-zero values.
+	 * 
+	 * Example:
+	 * byte[] data = {0x41, 0x20, 0x00, 0x00};
+	 * float result = readFloat32(data, 0);
+	 * // result = 10.0f
+	 * 
+	 * @param input The byte array to read from
+	 * @param pos   The starting position
+	 * @return The float value
+	 */
+	public static float readFloat32(byte[] input, int pos) {
+		return Float.intBitsToFloat(readInt32(input, pos));
+	}
+
 	/**
 	 * Converts a byte array to an integer by interpreting it as a hexadecimal
 	 * number.
@@ -566,8 +623,8 @@ public class CommonUtils {
 		double result = hexToDouble(bytes2hex(hexValues));
 		float result2 = hexToFloat2(bytes2hex(hexValues));
 
-		System.out.println("十六进制值: 0x" + bytes2hex(hexValues) + " 转换为浮点数: " + result);
-		System.out.println("十六进制值: 0x" + bytes2hex(hexValues) + " 转换为浮点数: " + result2);
+		log.info("十六进制值: 0x{} 转换为浮点数: {}", bytes2hex(hexValues), result);
+		log.info("十六进制值: 0x{} 转换为浮点数: {}", bytes2hex(hexValues), result2);
 
 	}
 }
\ No newline at end of file
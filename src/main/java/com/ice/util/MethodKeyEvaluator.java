@@ -0,0 +1,32 @@
+package com.ice.util;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+/**
+ * 注解上 SpEL key 的求值，表达式解析一次后缓存，参数按名称（#id）或位置（#p0）引用
+ *
+ * @author : eclair
+ * @date : 2026/10/20 15:10
+ */
+public class MethodKeyEvaluator {
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    public String evaluate(String expression, Object target, Method method, Object[] args) {
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(target, method, args,
+                PARAMETER_NAMES);
+        Object value = expressions.computeIfAbsent(expression, PARSER::parseExpression).getValue(context);
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,137 @@
+package com.ice.web;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.ice.config.ConcurrencyLimitProperties;
+
+/**
+ * 按接口类别的自适应并发限制，超出当前限制的请求立即返回 503，不进入 Tomcat 队列排队
+ *
+ * @author : eclair
+ * @date : 2026/10/19 16:55
+ */
+public class AdaptiveConcurrencyFilter extends OncePerRequestFilter {
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * 路径模式 -> 所属类别的限制器，同一类别的模式指向同一个实例
+     */
+    private final Map<String, GradientLimiter> patterns = new LinkedHashMap<>();
+
+    private final List<GradientLimiter> limiters = new ArrayList<>();
+
+    private final byte[] rejectBody;
+
+    public AdaptiveConcurrencyFilter(ConcurrencyLimitProperties properties, byte[] rejectBody) {
+        for (Map.Entry<String, List<String>> entry : properties.getEndpoints().entrySet()) {
+            GradientLimiter limiter = new GradientLimiter(entry.getKey(), properties);
+            limiters.add(limiter);
+            for (String pattern : entry.getValue()) {
+                patterns.put(pattern, limiter);
+            }
+        }
+        this.rejectBody = rejectBody;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        GradientLimiter limiter = match(request.getRequestURI());
+        if (limiter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(rejectBody);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // 异步请求在真正完成时才归还许可
+                request.getAsyncContext().addListener(new ReleaseListener(limiter, start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    public List<GradientLimiter> limiters() {
+        return Collections.unmodifiableList(limiters);
+    }
+
+    GradientLimiter match(String uri) {
+        for (Map.Entry<String, GradientLimiter> entry : patterns.entrySet()) {
+            if (pathMatcher.match(entry.getKey(), uri)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static class ReleaseListener implements AsyncListener {
+        private final GradientLimiter limiter;
+
+        private final long start;
+
+        private boolean released;
+
+        ReleaseListener(GradientLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private synchronized void release() {
+            if (!released) {
+                released = true;
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+}
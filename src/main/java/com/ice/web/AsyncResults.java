@@ -0,0 +1,86 @@
+package com.ice.web;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.ice.tenant.TenantContext;
+import com.xiliulou.core.web.R;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 把阻塞调用包装成带超时的异步结果，异常统一转换成 R，租户上下文随任务传到执行线程
+ *
+ * @author : eclair
+ * @date : 2026/10/19 16:10
+ */
+@Slf4j
+public class AsyncResults {
+    private AsyncResults() {
+    }
+
+    public static CompletableFuture<R> supply(Supplier<R> task, ExecutorService executor, long timeoutMillis) {
+        Supplier<R> contextual = TenantContext.wrap(task);
+        CompletableFuture<R> result = new CompletableFuture<>();
+        Future<?> running;
+        try {
+            running = executor.submit(() -> {
+                try {
+                    result.complete(contextual.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
+        }
+
+        // 超时后打断仍在执行的任务，把线程还给线程池
+        result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((r, e) -> running.cancel(true));
+        return result.exceptionally(AsyncResults::toR);
+    }
+
+    public static DeferredResult<R> defer(Supplier<R> task, ExecutorService executor, long timeoutMillis) {
+        DeferredResult<R> deferred = new DeferredResult<>(timeoutMillis + 500, () -> toR(new TimeoutException()));
+        supply(task, executor, timeoutMillis).thenAccept(deferred::setResult);
+        return deferred;
+    }
+
+    public static R toR(Throwable e) {
+        Throwable cause = unwrap(e);
+        if (cause instanceof TimeoutException) {
+            return R.fail("504", "请求超时");
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return busy();
+        }
+        if (cause instanceof CancellationException) {
+            return R.fail("499", "请求已取消");
+        }
+        log.error("async request error", cause);
+        return R.fail("500", "系统异常");
+    }
+
+    public static R busy() {
+        return R.fail("503", "服务繁忙，请稍后重试");
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        Throwable current = e;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+}
@@ -0,0 +1,203 @@
+package com.ice.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import com.ice.config.ConcurrencyLimitProperties;
+
+/**
+ * 基于延迟梯度的自适应并发限制（Vegas / gradient 思路）。
+ * <p>
+ * 基线 RTT 取无排队时的最小延迟，短期 RTT 为最近约 10 个采样窗口平均延迟的指数平均；
+ * gradient = clamp(tolerance * baseRtt / shortRtt, 0.5, 1)，
+ * newLimit = limit * gradient + sqrt(limit)，再按 smoothing 平滑。
+ * 延迟上升时限制收缩，请求在入口被快速拒绝而不是在队列里越排越久。
+ * <p>
+ * 基线每 longWindow 个样本复核一次：窗口内没有拒绝过请求、且整个窗口的最小值都超过 tolerance 倍基线，
+ * 说明下游本身变慢（而不是排队），才把基线上调到该窗口最小值。持续过载时排队永远清不空，
+ * 窗口最小值本身就带着排队时间，不加拒绝这个条件基线会被一路抬高。
+ * <p>
+ * 请求结束时只做无锁累加，每个 sampleWindowMillis 由恰好一个线程（tryLock 抢到的）汇总并调整限制，
+ * 其余线程不等待。汇总和累加之间不是原子的，边界上的样本可能记到下一个窗口，对限制没有影响。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 16:45
+ */
+public class GradientLimiter {
+    private static final double SHORT_ALPHA = 2.0 / 11;
+
+    private final String name;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double smoothing;
+
+    private final double rttTolerance;
+
+    private final int longWindow;
+
+    private final long sampleWindowNanos;
+
+    private final LongSupplier clock;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private final LongAdder accepted = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder sampleCount = new LongAdder();
+
+    private final LongAdder sampleRttSum = new LongAdder();
+
+    private final LongAccumulator sampleRttMin = new LongAccumulator(Math::min, Long.MAX_VALUE);
+
+    private final LongAccumulator sampleInflightMax = new LongAccumulator(Math::max, 0);
+
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile long nextUpdateNanos;
+
+    private volatile double limit;
+
+    private volatile double baseRttNanos;
+
+    private volatile double shortRttNanos;
+
+    /**
+     * 以下只在 updateLock 内访问
+     */
+    private long windowMinNanos = Long.MAX_VALUE;
+
+    private long windowSamples;
+
+    private long windowStartRejected;
+
+    public GradientLimiter(String name, ConcurrencyLimitProperties properties) {
+        this(name, properties, System::nanoTime);
+    }
+
+    GradientLimiter(String name, ConcurrencyLimitProperties properties, LongSupplier clock) {
+        this.name = name;
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.smoothing = properties.getSmoothing();
+        this.rttTolerance = properties.getRttTolerance();
+        this.longWindow = properties.getLongWindow();
+        this.limit = properties.getInitialLimit();
+        this.sampleWindowNanos = properties.getSampleWindowMillis() * 1_000_000;
+        this.clock = clock;
+        this.nextUpdateNanos = clock.getAsLong() + sampleWindowNanos;
+    }
+
+    /**
+     * @return 拿到许可返回 true，调用方完成后必须调用 {@link #release}
+     */
+    public boolean tryAcquire() {
+        int current = inflight.get();
+        while (current < (int) limit) {
+            if (inflight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return true;
+            }
+            current = inflight.get();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release(long rttNanos) {
+        int current = inflight.getAndDecrement();
+        sampleCount.increment();
+        sampleRttSum.add(rttNanos);
+        sampleRttMin.accumulate(rttNanos);
+        sampleInflightMax.accumulate(current);
+
+        long now = clock.getAsLong();
+        if (now - nextUpdateNanos >= 0 && updateLock.tryLock()) {
+            try {
+                if (now - nextUpdateNanos >= 0) {
+                    nextUpdateNanos = now + sampleWindowNanos;
+                    update();
+                }
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 汇总一个采样窗口，持有 updateLock 时调用
+     */
+    private void update() {
+        long count = sampleCount.sumThenReset();
+        long rttSum = sampleRttSum.sumThenReset();
+        long rttMin = sampleRttMin.getThenReset();
+        long inflightMax = sampleInflightMax.getThenReset();
+        if (count == 0) {
+            return;
+        }
+        double rttAvg = (double) rttSum / count;
+        if (baseRttNanos == 0) {
+            baseRttNanos = rttMin;
+            shortRttNanos = rttAvg;
+            return;
+        }
+        shortRttNanos = shortRttNanos * (1 - SHORT_ALPHA) + rttAvg * SHORT_ALPHA;
+        baseRttNanos = Math.min(baseRttNanos, rttMin);
+        windowMinNanos = Math.min(windowMinNanos, rttMin);
+        windowSamples += count;
+        if (windowSamples >= longWindow) {
+            long rejectedNow = rejected.sum();
+            if (rejectedNow == windowStartRejected && windowMinNanos > baseRttNanos * rttTolerance) {
+                baseRttNanos = windowMinNanos;
+            }
+            windowStartRejected = rejectedNow;
+            windowMinNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+
+        // 并发远低于限制时样本反映不了容量，不据此扩张
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * baseRttNanos / shortRttNanos));
+        if (gradient == 1.0 && inflightMax * 2 < limit) {
+            return;
+        }
+
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public double getBaseRttMillis() {
+        return baseRttNanos / 1e6;
+    }
+
+    public double getShortRttMillis() {
+        return shortRttNanos / 1e6;
+    }
+}
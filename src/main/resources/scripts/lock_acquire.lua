@@ -0,0 +1,38 @@
+-- 可重入公平锁加锁
+-- KEYS[1] 锁（hash：持有者 -> 重入次数，另有 fence 字段）
+-- KEYS[2] fencing token 计数器，只增不减，永不过期
+-- KEYS[3] 等待队列 zset，分数为第一次排队的时间
+-- KEYS[4] 等待者超时 zset，分数为过期时间，每次重试刷新
+-- ARGV[1] 持有者  ARGV[2] 租约毫秒  ARGV[3] 排队超时毫秒
+-- 返回 {1, fencing token} 获得；{0, 锁剩余毫秒} 未获得
+local t = redis.call('TIME')
+local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+
+-- 清掉放弃等待或已宕机的等待者，避免队头卡死
+local stale = redis.call('ZRANGEBYSCORE', KEYS[4], 0, now)
+if #stale > 0 then
+  redis.call('ZREM', KEYS[4], unpack(stale))
+  redis.call('ZREM', KEYS[3], unpack(stale))
+end
+
+if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 1 then
+  redis.call('HINCRBY', KEYS[1], ARGV[1], 1)
+  redis.call('PEXPIRE', KEYS[1], ARGV[2])
+  return { 1, tonumber(redis.call('HGET', KEYS[1], 'fence')) }
+end
+
+if redis.call('EXISTS', KEYS[1]) == 0 then
+  local head = redis.call('ZRANGE', KEYS[3], 0, 0)
+  if #head == 0 or head[1] == ARGV[1] then
+    local fence = redis.call('INCR', KEYS[2])
+    redis.call('HSET', KEYS[1], ARGV[1], 1, 'fence', fence)
+    redis.call('PEXPIRE', KEYS[1], ARGV[2])
+    redis.call('ZREM', KEYS[3], ARGV[1])
+    redis.call('ZREM', KEYS[4], ARGV[1])
+    return { 1, fence }
+  end
+end
+
+redis.call('ZADD', KEYS[3], 'NX', now, ARGV[1])
+redis.call('ZADD', KEYS[4], now + tonumber(ARGV[3]), ARGV[1])
+return { 0, redis.call('PTTL', KEYS[1]) }
@@ -0,0 +1,17 @@
+-- 可重入公平锁解锁
+-- KEYS[1] 锁  KEYS[2] 等待队列
+-- ARGV[1] 持有者  ARGV[2] 租约毫秒  ARGV[3] 通知频道
+-- 返回 -1 已不是持有者（租约丢失）；0 仍被重入持有；1 已释放
+if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then
+  return -1
+end
+if redis.call('HINCRBY', KEYS[1], ARGV[1], -1) > 0 then
+  redis.call('PEXPIRE', KEYS[1], ARGV[2])
+  return 0
+end
+redis.call('DEL', KEYS[1])
+-- 有人排队才通知，等待者收到后重试，只有队头能拿到
+if redis.call('ZCARD', KEYS[2]) > 0 then
+  redis.call('PUBLISH', ARGV[3], '1')
+end
+return 1
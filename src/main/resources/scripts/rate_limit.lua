@@ -0,0 +1,86 @@
+-- 多规则原子限流：所有规则先判定，全部通过才统一计数
+-- KEYS[i]             第 i 条规则的 key，脚本只访问这些 key（同一接口的 key 带相同 hash tag，集群下落在同一个槽）
+-- ARGV[3i-2 .. 3i]    第 i 条规则的 算法编码, 上限, 窗口毫秒
+-- 返回 {1, 0, 0} 放行；{0, 规则下标(从 0 开始), 建议重试毫秒} 拒绝
+-- 固定窗口和滑动窗口计数的 key 是 hash：w 当前窗口序号，c 当前窗口计数，p 上一个窗口计数
+local t = redis.call('TIME')
+local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+local pending = {}
+
+for i = 1, #KEYS do
+  local key = KEYS[i]
+  local algo = tonumber(ARGV[3 * i - 2])
+  local limit = tonumber(ARGV[3 * i - 1])
+  local window = tonumber(ARGV[3 * i])
+  local allowed, retry, commit
+
+  if algo == 1 then
+    -- 固定窗口
+    local w = math.floor(now / window)
+    local state = redis.call('HMGET', key, 'w', 'c')
+    local count = 0
+    if tonumber(state[1]) == w then
+      count = tonumber(state[2] or '0')
+    end
+    allowed = count < limit
+    retry = window - now % window
+    commit = { 1, key, w, count + 1, 0, window - now % window }
+  elseif algo == 2 then
+    -- 滑动日志
+    redis.call('ZREMRANGEBYSCORE', key, 0, now - window)
+    local count = redis.call('ZCARD', key)
+    allowed = count < limit
+    retry = 0
+    if not allowed then
+      local oldest = redis.call('ZRANGE', key, 0, 0, 'WITHSCORES')
+      retry = tonumber(oldest[2]) + window - now
+    end
+    commit = { 2, key, window, now .. '-' .. count }
+  elseif algo == 3 then
+    -- 滑动窗口计数
+    local w = math.floor(now / window)
+    local state = redis.call('HMGET', key, 'w', 'c', 'p')
+    local stored = tonumber(state[1])
+    local count, prev = 0, 0
+    if stored == w then
+      count = tonumber(state[2] or '0')
+      prev = tonumber(state[3] or '0')
+    elseif stored == w - 1 then
+      prev = tonumber(state[2] or '0')
+    end
+    allowed = prev * (1 - (now % window) / window) + count < limit
+    retry = window - now % window
+    commit = { 1, key, w, count + 1, prev, window * 2 }
+  else
+    -- GCRA
+    local interval = window / limit
+    local tat = tonumber(redis.call('GET', key) or now)
+    if tat < now then
+      tat = now
+    end
+    local newTat = tat + interval
+    local allowAt = newTat - window
+    allowed = allowAt <= now
+    retry = allowAt - now
+    commit = { 4, key, newTat, math.ceil(newTat - now) }
+  end
+
+  if not allowed then
+    return { 0, i - 1, math.max(0, math.ceil(retry)) }
+  end
+  pending[i] = commit
+end
+
+for i = 1, #pending do
+  local c = pending[i]
+  if c[1] == 1 then
+    redis.call('HSET', c[2], 'w', c[3], 'c', c[4], 'p', c[5])
+    redis.call('PEXPIRE', c[2], c[6])
+  elseif c[1] == 2 then
+    redis.call('ZADD', c[2], now, c[4])
+    redis.call('PEXPIRE', c[2], c[3])
+  else
+    redis.call('SET', c[2], c[3], 'PX', c[4])
+  end
+end
+return { 1, 0, 0 }
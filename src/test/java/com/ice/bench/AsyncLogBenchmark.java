@@ -0,0 +1,106 @@
+package com.ice.bench;
+
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+
+import com.ice.log.CountingAsyncAppender;
+
+/**
+ * 多线程写日志时同步输出与挂在 CountingAsyncAppender 后面的业务线程耗时对比。两者用同一个格式、都输出到空设备，
+ * 差异主要来自同步 appender 的锁和调用线程上的格式化；异步一侧同时打印队列满丢弃的条数。
+ * <p>
+ * 运行：mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ice.bench.AsyncLogBenchmark
+ *
+ * @author : eclair
+ * @date : 2026/10/20 21:55
+ */
+public class AsyncLogBenchmark {
+    private static final int THREADS = 8;
+
+    private static final int MESSAGES = 200_000;
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} %5p [%t] %logger{39} : %m%n";
+
+    public static void main(String[] args) throws Exception {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        Appender<ILoggingEvent> console = console(context);
+        Logger sync = context.getLogger("sync");
+        sync.setAdditive(false);
+        sync.addAppender(console);
+
+        CountingAsyncAppender appender = new CountingAsyncAppender();
+        appender.setContext(context);
+        appender.setName("async");
+        appender.setQueueSize(8192);
+        appender.setDiscardingThreshold(0);
+        appender.setNeverBlock(true);
+        appender.addAppender(console(context));
+        appender.start();
+        Logger async = context.getLogger("async");
+        async.setAdditive(false);
+        async.addAppender(appender);
+
+        long total = (long) THREADS * MESSAGES;
+        for (int round = 0; round < 3; round++) {
+            long syncNanos = run(i -> sync.info("Snake moved. Head position: ({}, {})", i, i * 2));
+            long droppedBefore = CountingAsyncAppender.getDropped();
+            long asyncNanos = run(i -> async.info("Snake moved. Head position: ({}, {})", i, i * 2));
+            long dropped = CountingAsyncAppender.getDropped() - droppedBefore;
+            System.out.printf("round %d: sync %.1f ns/op, async %.1f ns/op (dropped %d of %d)%n", round,
+                    syncNanos / (double) total, asyncNanos / (double) total, dropped, total);
+        }
+        context.stop();
+    }
+
+    /**
+     * 与 Spring Boot 控制台 appender 相同的结构：编码器格式化后写输出流，只是目标换成空设备
+     */
+    private static Appender<ILoggingEvent> console(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+
+    private static long run(Task task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < MESSAGES; i++) {
+                    task.run(i);
+                }
+                done.countDown();
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+
+    private interface Task {
+        void run(int i);
+    }
+}
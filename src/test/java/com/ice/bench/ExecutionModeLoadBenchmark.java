@@ -0,0 +1,110 @@
+package com.ice.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 对比 platform / virtual 两种执行模式的压测脚本。
+ * <p>
+ * 先分别用 --web.execution.mode=platform 和 --web.execution.mode=virtual 启动应用，再执行：
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ice.bench.ExecutionModeLoadBenchmark \
+ *     -Dexec.args="http://127.0.0.1:8111 platform 200 20"
+ * </pre>
+ *
+ * 参数依次为：服务地址、本次模式标签、并发数、每个接口压测秒数。
+ *
+ * @author : eclair
+ * @date : 2026/10/19 15:40
+ */
+public class ExecutionModeLoadBenchmark {
+    private static final String[] ENDPOINTS = { "/test/time/200", "/test/sql/0" };
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://127.0.0.1:8111";
+        String label = args.length > 1 ? args[1] : "unknown";
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        System.out.printf("%-8s %-18s %10s %8s %8s %10s %10s%n", "mode", "endpoint", "req/s", "ok", "failed",
+                "p50(ms)", "p99(ms)");
+        for (String endpoint : ENDPOINTS) {
+            Result result = run(client, URI.create(baseUrl + endpoint), concurrency, seconds);
+            System.out.printf("%-8s %-18s %10.1f %8d %8d %10.1f %10.1f%n", label, endpoint,
+                    result.ok / (double) seconds, result.ok, result.failed, result.percentile(0.50),
+                    result.percentile(0.99));
+        }
+    }
+
+    private static Result run(HttpClient client, URI uri, int concurrency, int seconds) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long[] latencies = new long[1 << 22];
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong failed = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failed.incrementAndGet();
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        continue;
+                    }
+                    int index = next.getAndIncrement();
+                    if (index < latencies.length) {
+                        latencies[index] = System.nanoTime() - start;
+                    }
+                }
+                done.countDown();
+            });
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+
+        int count = Math.min(next.get(), latencies.length);
+        long[] samples = Arrays.copyOf(latencies, count);
+        Arrays.sort(samples);
+        return new Result(samples, failed.get());
+    }
+
+    private static class Result {
+        final long[] sorted;
+
+        final long ok;
+
+        final long failed;
+
+        Result(long[] sorted, long failed) {
+            this.sorted = sorted;
+            this.ok = sorted.length;
+            this.failed = failed;
+        }
+
+        double percentile(double p) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
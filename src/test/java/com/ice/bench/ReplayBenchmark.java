@@ -0,0 +1,106 @@
+package com.ice.bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.ice.snake.Direction;
+import com.ice.snake.Policies;
+import com.ice.snake.Policy;
+import com.ice.snake.SnakeSimulation;
+import com.ice.snake.SplitMix64;
+import com.ice.snake.StepResult;
+import com.ice.snake.replay.Replay;
+import com.ice.snake.replay.ReplayArchiveReader;
+import com.ice.snake.replay.ReplayArchiveWriter;
+import com.ice.snake.replay.ReplayPlayer;
+
+/**
+ * 回放归档的写入/读取重放吞吐和每局字节数，以及长对局上随机跳转的耗时（有快照 vs 从 0 重放）
+ * <p>
+ * 运行：mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ice.bench.ReplayBenchmark
+ *
+ * @author : eclair
+ * @date : 2026/10/20 13:50
+ */
+public class ReplayBenchmark {
+    private static final int GAMES = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        Path file = Files.createTempFile("snake-replays", ".bin");
+        try {
+            archive(file);
+            seek();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void archive(Path file) throws Exception {
+        Policy policy = Policies.greedy();
+        SnakeSimulation simulation = new SnakeSimulation(0);
+        int[] scores = new int[GAMES];
+        long bytes = 0;
+        long start = System.nanoTime();
+        try (ReplayArchiveWriter writer = new ReplayArchiveWriter(file, 1 << 20)) {
+            for (int game = 0; game < GAMES; game++) {
+                simulation.reset(game);
+                Replay.Builder builder = Replay.builder(game, simulation.getWidth(), simulation.getHeight());
+                StepResult result = StepResult.MOVED;
+                while (result == StepResult.MOVED || result == StepResult.ATE) {
+                    Direction input = policy.decide(simulation);
+                    builder.add(input);
+                    result = simulation.step(input);
+                }
+                Replay replay = builder.build();
+                bytes += replay.encodedSize();
+                scores[game] = simulation.getScore();
+                writer.append(replay);
+            }
+        }
+        double writeSeconds = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        long ticks = 0;
+        try (ReplayArchiveReader reader = new ReplayArchiveReader(file)) {
+            for (int game = 0; game < reader.size(); game++) {
+                Replay replay = reader.read(game);
+                SnakeSimulation replayed = new ReplayPlayer(replay, Integer.MAX_VALUE).seek(replay.getTicks());
+                if (replayed.getScore() != scores[game]) {
+                    throw new IllegalStateException("replay diverged at game " + game);
+                }
+                ticks += replayed.getTicks();
+            }
+        }
+        double readSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games, %.1f bytes/game (%.2f bytes/tick), simulate+record %.0f games/s, "
+                + "read+re-simulate %.0f games/s, archive %d KB%n", GAMES, bytes / (double) GAMES,
+                bytes / (double) ticks, GAMES / writeSeconds, GAMES / readSeconds, Files.size(file) / 1024);
+    }
+
+    private static void seek() {
+        // 沿回路走的长对局，20 万 tick
+        Policy policy = Policies.cycle();
+        SnakeSimulation simulation = new SnakeSimulation(7);
+        Replay.Builder builder = Replay.builder(7, simulation.getWidth(), simulation.getHeight());
+        for (int i = 0; i < 200_000; i++) {
+            Direction input = policy.decide(simulation);
+            builder.add(input);
+            simulation.step(input);
+        }
+        Replay replay = builder.build();
+
+        for (int interval : new int[] { Integer.MAX_VALUE, 4096, 512 }) {
+            ReplayPlayer player = new ReplayPlayer(replay, interval);
+            player.seek(replay.getTicks());
+            SplitMix64 random = new SplitMix64(interval);
+            int seeks = interval == Integer.MAX_VALUE ? 50 : 5_000;
+            long start = System.nanoTime();
+            for (int i = 0; i < seeks; i++) {
+                player.seek(random.nextInt((int) replay.getTicks()));
+            }
+            System.out.printf("seek, snapshot interval %s: %.1f us/seek (%d snapshots, replay %d bytes)%n",
+                    interval == Integer.MAX_VALUE ? "none" : String.valueOf(interval),
+                    (System.nanoTime() - start) / 1e3 / seeks, player.getSnapshotCount(), replay.encodedSize());
+        }
+    }
+}
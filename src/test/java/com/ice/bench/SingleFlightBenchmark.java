@@ -0,0 +1,68 @@
+package com.ice.bench;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ice.singleflight.SingleFlightGroup;
+
+/**
+ * 模拟缓存失效后的惊群：多个线程反复读同一行，一次“查询”耗时 5ms，对比不合并、只合并在途、合并并复用 100ms 三种情况下
+ * 真正打到数据库的次数
+ * <p>
+ * 运行：mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ice.bench.SingleFlightBenchmark
+ *
+ * @author : eclair
+ * @date : 2026/10/20 16:25
+ */
+public class SingleFlightBenchmark {
+    private static final int THREADS = 64;
+
+    private static final int CALLS_PER_THREAD = 200;
+
+    private static final long QUERY_MILLIS = 5;
+
+    public static void main(String[] args) throws Exception {
+        run("none", -1);
+        run("inflight", 0);
+        run("reuse100ms", 100);
+    }
+
+    private static void run(String label, long reuseMillis) throws Exception {
+        SingleFlightGroup group = new SingleFlightGroup(label);
+        AtomicLong queries = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                try {
+                    for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                        if (reuseMillis < 0) {
+                            query(queries);
+                        } else {
+                            group.execute(1, reuseMillis, () -> query(queries));
+                        }
+                    }
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        pool.shutdown();
+        System.out.printf("%-11s calls=%d queries=%d elapsed=%dms ratio=%.3f%n", label,
+                (long) THREADS * CALLS_PER_THREAD, queries.get(), elapsedMillis, group.coalescingRatio());
+    }
+
+    private static Integer query(AtomicLong queries) throws InterruptedException {
+        queries.incrementAndGet();
+        Thread.sleep(QUERY_MILLIS);
+        return 1;
+    }
+}
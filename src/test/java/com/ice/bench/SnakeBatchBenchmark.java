@@ -0,0 +1,31 @@
+package com.ice.bench;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.ice.snake.Policies;
+import com.ice.snake.Policy;
+import com.ice.snake.SnakeBatchRunner;
+
+/**
+ * 批量运行器在不同线程数下的吞吐。批量引擎与单局引擎的一致性由 SnakeBatchTest 校验
+ * <p>
+ * 运行：mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ice.bench.SnakeBatchBenchmark
+ *
+ * @author : eclair
+ * @date : 2026/10/20 11:45
+ */
+public class SnakeBatchBenchmark {
+    private static final int GAMES = 20_000;
+
+    public static void main(String[] args) {
+        Map<String, Supplier<? extends Policy>> policies = new LinkedHashMap<>();
+        policies.put("randomSafe", Policies::randomSafe);
+        policies.put("greedy", Policies::greedy);
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            System.out.print(new SnakeBatchRunner(threads, 64, 100_000).run(policies, GAMES, 1L).format());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.ice.bench;
+
+import com.ice.snake.Policies;
+import com.ice.snake.Policy;
+import com.ice.snake.SnakeSimulation;
+import com.ice.snake.StepResult;
+
+/**
+ * 蛇身变长后单个 tick 的耗时。沿哈密顿回路走的策略不会死，能一直吃到占满棋盘，
+ * 按蛇长占棋盘的比例分段统计 ns/tick，段与段之间应当基本持平。
+ * <p>
+ * 运行：mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ice.bench.SnakeLongBodyBenchmark
+ *
+ * @author : eclair
+ * @date : 2026/10/20 10:50
+ */
+public class SnakeLongBodyBenchmark {
+    private static final int SIZE = 100;
+
+    private static final int BUCKETS = 4;
+
+    public static void main(String[] args) {
+        for (int round = 0; round < 2; round++) {
+            SnakeSimulation simulation = new SnakeSimulation(SIZE, SIZE, round);
+            Policy cycle = Policies.cycle();
+            int cells = SIZE * SIZE;
+            long[] bucketTicks = new long[BUCKETS];
+            long[] bucketNanos = new long[BUCKETS];
+
+            StepResult result = StepResult.MOVED;
+            while (result != StepResult.DIED && result != StepResult.WON) {
+                int bucket = Math.min(BUCKETS - 1, simulation.getLength() * BUCKETS / cells);
+                long start = System.nanoTime();
+                // 每段计时 1024 个 tick，摊薄 nanoTime 的开销
+                for (int i = 0; i < 1024 && result != StepResult.DIED && result != StepResult.WON; i++) {
+                    result = simulation.step(cycle.decide(simulation));
+                    bucketTicks[bucket]++;
+                }
+                bucketNanos[bucket] += System.nanoTime() - start;
+            }
+
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < BUCKETS; i++) {
+                line.append(String.format(" %d-%d%%: %.1f ns/tick", i * 100 / BUCKETS, (i + 1) * 100 / BUCKETS,
+                        bucketNanos[i] / (double) Math.max(1, bucketTicks[i])));
+            }
+            System.out.printf("round %d: %s, final length %d, ticks %d,%s%n", round, result, simulation.getLength(),
+                    simulation.getTicks(), line);
+        }
+    }
+}
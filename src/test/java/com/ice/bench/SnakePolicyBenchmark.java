@@ -0,0 +1,31 @@
+package com.ice.bench;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.ice.snake.Policies;
+import com.ice.snake.Policy;
+import com.ice.snake.SnakeBatchRunner;
+
+/**
+ * 用批量运行器横向比较内置策略的得分分布。参数：每个策略的局数、线程数
+ * <p>
+ * 运行：mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ice.bench.SnakePolicyBenchmark
+ *
+ * @author : eclair
+ * @date : 2026/10/20 11:50
+ */
+public class SnakePolicyBenchmark {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        Map<String, Supplier<? extends Policy>> policies = new LinkedHashMap<>();
+        policies.put("randomSafe", Policies::randomSafe);
+        policies.put("greedy", Policies::greedy);
+        policies.put("cycle", Policies::cycle);
+        System.out.print(new SnakeBatchRunner(threads, 64, 200_000).run(policies, games, 1L).format());
+    }
+}
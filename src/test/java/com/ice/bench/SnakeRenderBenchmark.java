@@ -0,0 +1,83 @@
+package com.ice.bench;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import com.ice.snake.Policies;
+import com.ice.snake.Policy;
+import com.ice.snake.SnakeRenderer;
+import com.ice.snake.SnakeSimulation;
+import com.ice.snake.StepResult;
+
+/**
+ * 无界面下每帧渲染耗时：原 paintComponent 的整屏重画（清屏 + 每节 setColor/fillRect）
+ * 与 {@link SnakeRenderer} 的增量重画，都画到 800×600 的离屏图上，每个 tick 一帧。
+ * <p>
+ * 运行：mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ice.bench.SnakeRenderBenchmark
+ * -Djava.awt.headless=true
+ *
+ * @author : eclair
+ * @date : 2026/10/20 12:20
+ */
+public class SnakeRenderBenchmark {
+    private static final int BLOCK_SIZE = 20;
+
+    private static final int GAMES = 300;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int width = SnakeSimulation.DEFAULT_WIDTH;
+        int height = SnakeSimulation.DEFAULT_HEIGHT;
+        Policy policy = Policies.greedy();
+
+        for (int round = 0; round < 3; round++) {
+            BufferedImage fullImage = new BufferedImage(width * BLOCK_SIZE, height * BLOCK_SIZE,
+                    BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = fullImage.createGraphics();
+            SnakeRenderer renderer = new SnakeRenderer(width, height, BLOCK_SIZE);
+            SnakeSimulation simulation = new SnakeSimulation(width, height, 0);
+
+            long frames = 0;
+            long fullNanos = 0;
+            long dirtyNanos = 0;
+            long dirtyCells = 0;
+            for (int game = 0; game < GAMES; game++) {
+                simulation.reset(game);
+                StepResult result = StepResult.MOVED;
+                while (result == StepResult.MOVED || result == StepResult.ATE) {
+                    result = simulation.step(policy.decide(simulation));
+
+                    long start = System.nanoTime();
+                    paintFull(g, simulation, fullImage.getWidth(), fullImage.getHeight());
+                    long middle = System.nanoTime();
+                    dirtyCells += renderer.render(simulation);
+                    long end = System.nanoTime();
+
+                    fullNanos += middle - start;
+                    dirtyNanos += end - middle;
+                    frames++;
+                }
+            }
+            g.dispose();
+            System.out.printf("round %d: %d frames, full repaint %.1f us/frame, dirty-region %.2f us/frame "
+                    + "(%.1f cells/frame)%n", round, frames, fullNanos / 1e3 / frames, dirtyNanos / 1e3 / frames,
+                    dirtyCells / (double) frames);
+        }
+    }
+
+    /**
+     * 原 SnakeGame.paintComponent 的画法
+     */
+    private static void paintFull(Graphics2D g, SnakeSimulation simulation, int imageWidth, int imageHeight) {
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, imageWidth, imageHeight);
+        g.setColor(Color.RED);
+        g.fillRect(simulation.getFoodX() * BLOCK_SIZE, simulation.getFoodY() * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
+        for (int i = 0; i < simulation.getLength(); i++) {
+            g.setColor(i == 0 ? Color.GREEN : Color.YELLOW);
+            g.fillRect(simulation.segmentX(i) * BLOCK_SIZE, simulation.segmentY(i) * BLOCK_SIZE, BLOCK_SIZE,
+                    BLOCK_SIZE);
+        }
+    }
+}
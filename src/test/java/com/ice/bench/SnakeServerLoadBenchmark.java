@@ -0,0 +1,190 @@
+package com.ice.bench;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.ice.config.SnakeServerProperties;
+import com.ice.metrics.LatencyRegistry;
+import com.ice.snake.SplitMix64;
+import com.ice.snake.server.Protocol;
+import com.ice.snake.server.SnakeServer;
+
+/**
+ * 本地机器人压测：进程内起一个 SnakeServer，用一个 selector 线程驱动所有机器人连接，
+ * 每个机器人每两个 tick 发一个攒了两个方向的 INPUT 包，统计收到的帧、字节和 tick 断档。
+ * <p>
+ * 参数：房间数 每房间人数 秒数，默认 1000 4 10
+ * <p>
+ * 运行：mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ice.bench.SnakeServerLoadBenchmark
+ *
+ * @author : eclair
+ * @date : 2026/10/20 14:40
+ */
+public class SnakeServerLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int playersPerRoom = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        SnakeServerProperties properties = new SnakeServerProperties();
+        properties.setPort(0);
+        LatencyRegistry registry = new LatencyRegistry();
+        SnakeServer server = new SnakeServer(properties,
+                registry.recorder(LatencyRegistry.GAME + "room_tick"));
+        server.start();
+
+        Selector selector = Selector.open();
+        List<Bot> bots = new ArrayList<>();
+        for (int room = 0; room < rooms; room++) {
+            for (int p = 0; p < playersPerRoom; p++) {
+                SocketChannel channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.getPort()));
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Bot bot = new Bot(channel, room, bots.size());
+                channel.register(selector, SelectionKey.OP_READ, bot);
+                bot.send(join(room));
+                bots.add(bot);
+            }
+        }
+        System.out.printf("connected %d bots in %d rooms%n", bots.size(), rooms);
+
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        long nextInput = start;
+        long inputIntervalNanos = 2 * properties.getTickMillis() * 1_000_000L;
+        while (System.nanoTime() < deadline) {
+            selector.select(Math.max(1, (nextInput - System.nanoTime()) / 1_000_000));
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                ((Bot) key.attachment()).read();
+            }
+            if (System.nanoTime() >= nextInput) {
+                for (Bot bot : bots) {
+                    bot.sendInputs();
+                }
+                nextInput = System.nanoTime() + inputIntervalNanos;
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        registry.roll();
+        Map<String, Object> snapshot = server.snapshot(5);
+
+        long frames = 0;
+        long deltas = 0;
+        long fulls = 0;
+        long bytes = 0;
+        long gaps = 0;
+        long errors = 0;
+        for (Bot bot : bots) {
+            frames += bot.frames;
+            deltas += bot.deltas;
+            fulls += bot.fulls;
+            bytes += bot.bytes;
+            gaps += bot.gaps;
+            errors += bot.errors;
+        }
+        System.out.printf("frames/s=%.0f deltas=%d fulls=%d errors=%d tickGaps=%d%n", frames / elapsed, deltas,
+                fulls, errors, gaps);
+        System.out.printf("recv=%.1f MB/s, avg delta+full frame=%.1f B%n", bytes / elapsed / 1e6,
+                (double) bytes / Math.max(1, frames));
+
+        snapshot.forEach((k, v) -> System.out.println(k + " = " + v));
+        for (Bot bot : bots) {
+            bot.channel.close();
+        }
+        server.stop();
+        selector.close();
+    }
+
+    private static ByteBuffer join(int room) {
+        ByteBuffer buffer = ByteBuffer.allocate(Protocol.HEADER_BYTES + 4);
+        buffer.putShort((short) 5).put(Protocol.JOIN).putInt(room);
+        return buffer.flip();
+    }
+
+    private static final class Bot {
+        final SocketChannel channel;
+
+        final ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+
+        final ByteBuffer input = ByteBuffer.allocate(Protocol.HEADER_BYTES + 3);
+
+        final SplitMix64 random;
+
+        long lastTick = -1;
+
+        long frames;
+
+        long deltas;
+
+        long fulls;
+
+        long bytes;
+
+        long gaps;
+
+        long errors;
+
+        Bot(SocketChannel channel, int room, int index) {
+            this.channel = channel;
+            this.random = new SplitMix64(SplitMix64.mix(room * 31L + index));
+        }
+
+        void sendInputs() throws IOException {
+            input.clear();
+            input.putShort((short) 4).put(Protocol.INPUT).put((byte) 2);
+            input.put((byte) random.nextInt(4)).put((byte) random.nextInt(4));
+            send(input.flip());
+        }
+
+        void send(ByteBuffer buffer) throws IOException {
+            // 包很小，内核缓冲区写不满；写不完说明服务端已经跟不上，直接丢掉
+            channel.write(buffer);
+        }
+
+        void read() throws IOException {
+            int n = channel.read(in);
+            if (n <= 0) {
+                return;
+            }
+            bytes += n;
+            in.flip();
+            while (in.remaining() >= 2) {
+                int length = in.getShort(in.position()) & 0xFFFF;
+                if (in.remaining() < 2 + length) {
+                    break;
+                }
+                int end = in.position() + 2 + length;
+                byte type = in.get(in.position() + 2);
+                frames++;
+                if (type == Protocol.DELTA) {
+                    deltas++;
+                    long tick = in.getLong(in.position() + 3);
+                    if (lastTick >= 0 && tick != lastTick + 1) {
+                        gaps++;
+                    }
+                    lastTick = tick;
+                } else if (type == Protocol.FULL) {
+                    fulls++;
+                    lastTick = in.getLong(in.position() + 3);
+                } else if (type == Protocol.ERROR) {
+                    errors++;
+                }
+                in.position(end);
+            }
+            in.compact();
+        }
+    }
+}
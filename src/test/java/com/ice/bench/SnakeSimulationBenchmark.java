@@ -0,0 +1,57 @@
+package com.ice.bench;
+
+import com.ice.snake.Direction;
+import com.ice.snake.SnakeSimulation;
+import com.ice.snake.SplitMix64;
+import com.ice.snake.StepResult;
+
+/**
+ * 单线程推进无界面对局的速度。输入是朝食物走、避开墙的简单策略，
+ * 让对局足够长，蛇身也会变长。
+ * <p>
+ * 运行：mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ice.bench.SnakeSimulationBenchmark
+ *
+ * @author : eclair
+ * @date : 2026/10/20 10:30
+ */
+public class SnakeSimulationBenchmark {
+    private static final int GAMES = 200_000;
+
+    private static final int MAX_TICKS = 5_000;
+
+    public static void main(String[] args) {
+        for (int round = 0; round < 3; round++) {
+            SnakeSimulation simulation = new SnakeSimulation(0);
+            SplitMix64 noise = new SplitMix64(round);
+            long ticks = 0;
+            long score = 0;
+            int maxLength = 0;
+            long start = System.nanoTime();
+            for (int game = 0; game < GAMES; game++) {
+                simulation.reset(game);
+                StepResult result = StepResult.MOVED;
+                while (result != StepResult.DIED && result != StepResult.WON && simulation.getTicks() < MAX_TICKS) {
+                    result = simulation.step(chase(simulation, noise));
+                }
+                ticks += simulation.getTicks();
+                score += simulation.getScore();
+                maxLength = Math.max(maxLength, simulation.getLength());
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("round %d: %.1f M ticks/s, %.0f games/s, avg score %.2f, max length %d%n", round,
+                    ticks / seconds / 1e6, GAMES / seconds, score / (double) GAMES, maxLength);
+        }
+    }
+
+    static Direction chase(SnakeSimulation simulation, SplitMix64 noise) {
+        if (noise.nextInt(16) == 0) {
+            return Direction.of(noise.nextInt(4));
+        }
+        int dx = simulation.getFoodX() - simulation.getHeadX();
+        int dy = simulation.getFoodY() - simulation.getHeadY();
+        if (dx != 0) {
+            return dx > 0 ? Direction.RIGHT : Direction.LEFT;
+        }
+        return dy > 0 ? Direction.DOWN : Direction.UP;
+    }
+}
@@ -0,0 +1,184 @@
+package com.ice.bench;
+
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.ice.config.IotAggregateProperties;
+import com.ice.iot.TelemetryAggregator;
+import com.ice.iot.TelemetryBatch;
+import com.ice.iot.TelemetryRollup;
+import com.ice.sync.InMemoryColumnarSink;
+
+/**
+ * 分钟级聚合对比：原来的做法是每个 (设备, 指标, 分钟) 一个 key 对象加一个 DoubleSummaryStatistics，
+ * 放在 ConcurrentHashMap 里逐点 compute；新做法是 TelemetryAggregator 的分段列式桶。
+ * 多个写线程模拟解码线程按批写入，统计吞吐、写完后的堆占用和一次全量查询的耗时。
+ * <p>
+ * 参数：设备数 每线程批数，默认 100000 200
+ * <p>
+ * 运行：mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ice.bench.TelemetryAggregateBenchmark
+ *
+ * @author : eclair
+ * @date : 2026/10/20 19:30
+ */
+public class TelemetryAggregateBenchmark {
+    private static final int WRITERS = 4;
+
+    private static final int BATCH_SIZE = 20000;
+
+    private static final int METRICS = 4;
+
+    /**
+     * 数据分布在这么多分钟里，和默认 retentionMinutes 一致，两边内存里保存的桶数相同
+     */
+    private static final int MINUTES = 10;
+
+    private static final int BATCHES = 200;
+
+    public static void main(String[] args) throws Exception {
+        int devices = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int batchesPerWriter = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        List<TelemetryBatch> batches = batches(devices);
+
+        // 两边各跑两轮，第一轮当预热
+        for (int round = 0; round < 2; round++) {
+            boxed(batches, batchesPerWriter);
+            columnar(batches, batchesPerWriter);
+        }
+    }
+
+    private static void boxed(List<TelemetryBatch> batches, int batchesPerWriter) throws Exception {
+        long heapBefore = usedHeap();
+        Map<Key, DoubleSummaryStatistics> stats = new ConcurrentHashMap<>();
+        long elapsed = write(batches, batchesPerWriter, batch -> {
+            for (int i = 0; i < batch.size(); i++) {
+                float value = batch.value(i);
+                stats.compute(new Key(batch.deviceId(i), batch.metric(i), batch.timestamp(i) / 60000), (k, s) -> {
+                    DoubleSummaryStatistics result = s == null ? new DoubleSummaryStatistics() : s;
+                    result.accept(value);
+                    return result;
+                });
+            }
+        });
+        long heap = usedHeap() - heapBefore;
+
+        long start = System.nanoTime();
+        DoubleSummaryStatistics total = new DoubleSummaryStatistics();
+        stats.forEach((k, s) -> {
+            if (k.metric == 1) {
+                total.combine(s);
+            }
+        });
+        long queryMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        report("boxed", batchesPerWriter, elapsed, heap, queryMicros, total.getCount(), stats.size());
+    }
+
+    private static void columnar(List<TelemetryBatch> batches, int batchesPerWriter) throws Exception {
+        IotAggregateProperties properties = new IotAggregateProperties();
+        long heapBefore = usedHeap();
+        TelemetryAggregator aggregator = new TelemetryAggregator(new InMemoryColumnarSink(), properties);
+        long elapsed = write(batches, batchesPerWriter, aggregator::write);
+        long heap = usedHeap() - heapBefore;
+
+        long start = System.nanoTime();
+        TelemetryRollup total = aggregator.query(1, 0, Long.MAX_VALUE);
+        long queryMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        Map<String, Object> snapshot = aggregator.snapshot();
+        report("columnar", batchesPerWriter, elapsed, heap, queryMicros, total.getCount(),
+                ((Number) snapshot.get("series")).longValue());
+        System.out.println("  " + snapshot);
+        aggregator.stop();
+    }
+
+    private static long write(List<TelemetryBatch> batches, int batchesPerWriter, Writer writer)
+            throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(WRITERS);
+        long start = System.nanoTime();
+        for (int w = 0; w < WRITERS; w++) {
+            int offset = w;
+            new Thread(() -> {
+                for (int i = 0; i < batchesPerWriter; i++) {
+                    writer.write(batches.get((offset + i * WRITERS) % batches.size()));
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String label, int batchesPerWriter, long elapsedNanos, long heapBytes,
+            long queryMicros, long metricCount, long keys) {
+        long points = (long) WRITERS * batchesPerWriter * BATCH_SIZE;
+        System.out.printf("%-9s points/s=%.1fM heap=%.1fMB keys=%d query(metric=1)=%dus count=%d%n", label,
+                points / (elapsedNanos / 1e9) / 1e6, heapBytes / 1e6, keys, queryMicros, metricCount);
+    }
+
+    /**
+     * 固定的一组批次，设备依次轮转，前 1/MINUTES 的批次落在最早的分钟，依此类推，每个设备在每分钟都有点
+     */
+    private static List<TelemetryBatch> batches(int devices) {
+        long now = System.currentTimeMillis() / 60000 * 60000;
+        List<TelemetryBatch> batches = new ArrayList<>();
+        int device = 0;
+        for (int b = 0; b < BATCHES; b++) {
+            TelemetryBatch batch = new TelemetryBatch(BATCH_SIZE);
+            long minute = now - (b * MINUTES / BATCHES) * 60000L;
+            while (batch.remaining() >= METRICS) {
+                for (int m = 1; m <= METRICS; m++) {
+                    batch.add(device, m, device * 0.01f + m, minute + b % 1000);
+                }
+                device = (device + 1) % devices;
+            }
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(TelemetryBatch batch);
+    }
+
+    private static final class Key {
+        final long deviceId;
+
+        final int metric;
+
+        final long minute;
+
+        Key(long deviceId, int metric, long minute) {
+            this.deviceId = deviceId;
+            this.metric = metric;
+            this.minute = minute;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return deviceId == other.deviceId && metric == other.metric && minute == other.minute;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(deviceId * 31 + metric) * 31 + Long.hashCode(minute);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ice.bench;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.ice.config.IotIngestProperties;
+import com.ice.iot.OverflowPolicy;
+import com.ice.iot.TelemetryFrameDecoder;
+import com.ice.iot.TelemetryIngestPipeline;
+
+/**
+ * 单机接入压测：多个生产者线程模拟 HTTP/UDP 接收线程，sink 为空实现，只测队列 + 解码 + 攒批的吞吐。
+ * <p>
+ * 运行：mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ice.bench.TelemetryIngestBenchmark
+ *
+ * @author : eclair
+ * @date : 2026/10/19 11:10
+ */
+public class TelemetryIngestBenchmark {
+    private static final int PRODUCERS = 4;
+
+    private static final int FRAMES_PER_PRODUCER = 2_000_000;
+
+    public static void main(String[] args) throws Exception {
+        IotIngestProperties properties = new IotIngestProperties();
+        properties.setWorkers(4);
+        properties.setQueueCapacity(1 << 16);
+        properties.setOverflowPolicy(OverflowPolicy.BLOCK);
+        properties.setBlockTimeoutMillis(1000);
+
+        TelemetryIngestPipeline pipeline = new TelemetryIngestPipeline(List.of(batch -> {
+        }), properties);
+        pipeline.start();
+
+        byte[][] frames = new byte[1024][];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = TelemetryFrameDecoder.encode(i, new int[] { 1, 2, 3, 4 },
+                    new float[] { i, i * 0.5f, 220.1f, 36.6f });
+        }
+
+        CountDownLatch done = new CountDownLatch(PRODUCERS);
+        long start = System.nanoTime();
+        for (int p = 0; p < PRODUCERS; p++) {
+            new Thread(() -> {
+                for (int i = 0; i < FRAMES_PER_PRODUCER; i++) {
+                    pipeline.offer(frames[i & (frames.length - 1)]);
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        pipeline.stop();
+        long elapsed = System.nanoTime() - start;
+
+        Map<String, Object> stats = pipeline.stats();
+        long frameCount = (long) PRODUCERS * FRAMES_PER_PRODUCER;
+        System.out.printf("frames=%d elapsed=%dms throughput=%d frames/s%n", frameCount,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), frameCount * 1_000_000_000L / elapsed);
+        System.out.println(stats);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ice.bench;
+
+import java.util.SplittableRandom;
+
+import com.ice.tenant.TenantExpirySnapshot;
+
+/**
+ * 10 万租户下过期索引的查询耗时，以及逐行判断（模拟扫表后在内存里过滤）的对比
+ * <p>
+ * 运行：mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ice.bench.TenantExpiryIndexBenchmark
+ *
+ * @author : eclair
+ * @date : 2026/10/19 21:45
+ */
+public class TenantExpiryIndexBenchmark {
+    private static final int TENANTS = 100_000;
+
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private static final int QUERIES = 2_000;
+
+    public static void main(String[] args) {
+        SplittableRandom random = new SplittableRandom(42);
+        long now = System.currentTimeMillis();
+        int[] ids = new int[TENANTS];
+        boolean[] frozen = new boolean[TENANTS];
+        boolean[] deleted = new boolean[TENANTS];
+        long[] expireTimes = new long[TENANTS];
+        for (int i = 0; i < TENANTS; i++) {
+            ids[i] = i + 1;
+            frozen[i] = random.nextInt(20) == 0;
+            deleted[i] = random.nextInt(50) == 0;
+            // 一成没有过期时间，其余分布在前后一年
+            expireTimes[i] = random.nextInt(10) == 0 ? 0 : now + random.nextLong(-365 * DAY_MILLIS, 365 * DAY_MILLIS);
+        }
+
+        long buildStart = System.nanoTime();
+        TenantExpirySnapshot snapshot = TenantExpirySnapshot.build(ids, frozen, deleted, expireTimes);
+        System.out.printf("build %d tenants: %.1f ms%n", TENANTS, (System.nanoTime() - buildStart) / 1e6);
+
+        for (int round = 0; round < 3; round++) {
+            long sink = 0;
+            long start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                sink += snapshot.expiringWithin(now, 24 * 3_600_000L).length;
+            }
+            double expiring = (System.nanoTime() - start) / 1e3 / QUERIES;
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES / 10; q++) {
+                sink += snapshot.allActive(now).length;
+            }
+            double active = (System.nanoTime() - start) / 1e3 / (QUERIES / 10);
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES / 10; q++) {
+                sink += scanExpiring(ids, frozen, deleted, expireTimes, now, 24 * 3_600_000L);
+            }
+            double scan = (System.nanoTime() - start) / 1e3 / (QUERIES / 10);
+
+            start = System.nanoTime();
+            TenantExpirySnapshot updated = snapshot;
+            for (int q = 0; q < 100; q++) {
+                updated = updated.with(q + 1, false, false, now + q * 1000L);
+            }
+            double update = (System.nanoTime() - start) / 1e3 / 100;
+
+            System.out.printf("round %d: expiring24h %.1f us, allActive %.1f us, row scan %.1f us, update %.1f us (%d)%n",
+                    round, expiring, active, scan, update, sink);
+        }
+    }
+
+    private static int scanExpiring(int[] ids, boolean[] frozen, boolean[] deleted, long[] expireTimes, long now,
+            long window) {
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (!frozen[i] && !deleted[i] && expireTimes[i] >= now && expireTimes[i] < now + window) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
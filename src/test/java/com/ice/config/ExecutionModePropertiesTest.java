@@ -0,0 +1,27 @@
+package com.ice.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 21:20
+ */
+class ExecutionModePropertiesTest {
+
+    @Test
+    void virtualModeIsNeverUnbounded() {
+        ExecutionModeProperties properties = new ExecutionModeProperties();
+        assertEquals(0, properties.effectiveMaxConcurrentRequests());
+
+        properties.setMode("virtual");
+        assertEquals(ExecutionModeProperties.DEFAULT_VIRTUAL_MAX_CONCURRENT_REQUESTS,
+                properties.effectiveMaxConcurrentRequests());
+
+        properties.setMaxConcurrentRequests(32);
+        assertEquals(32, properties.effectiveMaxConcurrentRequests());
+        properties.setMode("platform");
+        assertEquals(32, properties.effectiveMaxConcurrentRequests());
+    }
+}
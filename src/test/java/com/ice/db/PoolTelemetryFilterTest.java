@@ -0,0 +1,81 @@
+package com.ice.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.pool.DruidPooledConnection;
+import com.ice.metrics.LatencyRecorder;
+import com.ice.metrics.LatencyRegistry;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 18:10
+ */
+class PoolTelemetryFilterTest {
+    private DruidDataSource dataSource;
+
+    private PoolTelemetryFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        LatencyRegistry latencyRegistry = mock(LatencyRegistry.class);
+        when(latencyRegistry.recorder(anyString()))
+                .thenAnswer(invocation -> new LatencyRecorder(invocation.getArgument(0)));
+        filter = new PoolTelemetryFilter("h2", latencyRegistry, 100, false);
+
+        dataSource = new DruidDataSource();
+        dataSource.setUrl("jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1");
+        dataSource.setMaxActive(4);
+        dataSource.init();
+        filter.init(dataSource);
+        dataSource.getProxyFilters().add(filter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void releasedConnectionLeavesRegistry() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertEquals(1, filter.getBorrowedCount());
+        }
+        assertEquals(0, filter.getBorrowedCount());
+        assertEquals(1, filter.getBorrows());
+    }
+
+    @Test
+    void discardedAndAbandonedConnectionsArePurged() throws Exception {
+        DruidPooledConnection discarded = dataSource.getConnection();
+        DruidPooledConnection abandoned = dataSource.getConnection();
+        DruidPooledConnection live = dataSource.getConnection();
+        assertEquals(3, filter.getBorrowedCount());
+
+        // 同 Druid 处理致命错误：disable 后丢弃，之后的 close 不会回调 dataSource_releaseConnection
+        discarded.disable(new SQLException("fatal"));
+        dataSource.discardConnection(discarded.getConnectionHolder());
+        discarded.close();
+        // 已被标记 abandoned 的连接同样不再等它归还
+        abandoned.abandond();
+
+        assertEquals(2, filter.purgeDiscarded());
+        assertEquals(1, filter.getBorrowedCount());
+        assertEquals(2, filter.getDiscarded());
+        assertEquals(List.of(), filter.collectLeaks(Long.MAX_VALUE));
+
+        live.close();
+        assertEquals(0, filter.getBorrowedCount());
+    }
+}
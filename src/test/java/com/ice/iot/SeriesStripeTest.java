@@ -0,0 +1,102 @@
+package com.ice.iot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 20:45
+ */
+class SeriesStripeTest {
+    private static final int BUCKETS = 4;
+
+    @Test
+    void closeEmitsEachMinuteOnceThenRejectsLatePoints() {
+        SeriesStripe stripe = new SeriesStripe(BUCKETS, 4);
+        assertEquals(SeriesStripe.ADDED, stripe.add(1, 0, 10, 2f));
+        assertEquals(SeriesStripe.ADDED, stripe.add(1, 0, 10, 5f));
+        assertEquals(SeriesStripe.ADDED, stripe.add(1, 0, 11, 1f));
+        assertEquals(SeriesStripe.ADDED, stripe.add(2, 0, 10, 7f));
+
+        TelemetryRollupBatch out = new TelemetryRollupBatch(16);
+        stripe.close(10, out);
+        assertEquals(2, out.size());
+        Map<String, Object> row = rows(stripe, 1, 0).get(0);
+        assertEquals(2f, row.get("min"));
+        assertEquals(5f, row.get("max"));
+        assertEquals(7.0, row.get("sum"));
+        assertEquals(2L, row.get("count"));
+
+        // 已关闭的分钟不再接收，也不会第二次刷出
+        assertEquals(SeriesStripe.LATE, stripe.add(1, 0, 10, 3f));
+        out.clear();
+        stripe.close(10, out);
+        assertEquals(0, out.size());
+        stripe.close(11, out);
+        assertEquals(1, out.size());
+    }
+
+    @Test
+    void ringSlotReuseEvictsUnflushedAndRejectsOlderMinutes() {
+        SeriesStripe stripe = new SeriesStripe(BUCKETS, 4);
+        assertEquals(SeriesStripe.ADDED, stripe.add(1, 0, 0, 1f));
+        // 同一格的更新分钟覆盖了还没刷写的旧桶
+        assertEquals(SeriesStripe.EVICTED, stripe.add(1, 0, BUCKETS, 1f));
+        // 同一格已经是更新的分钟
+        assertEquals(SeriesStripe.LATE, stripe.add(1, 0, 0, 1f));
+
+        // 旧桶刷写过之后复用格子不算覆盖
+        stripe.close(BUCKETS, new TelemetryRollupBatch(16));
+        assertEquals(SeriesStripe.ADDED, stripe.add(1, 0, 2 * BUCKETS, 1f));
+        assertEquals(1, rows(stripe, 1, 0).size());
+    }
+
+    @Test
+    void compactRemovesIdleSeriesAndKeepsLookupIntact() {
+        SeriesStripe stripe = new SeriesStripe(BUCKETS, 4);
+        // 超过初始容量，中间经过几次扩容；偶数设备在第 1 分钟之后不再有数据
+        for (int device = 0; device < 100; device++) {
+            stripe.add(device, device % 3, 1, device);
+            if (device % 2 == 1) {
+                stripe.add(device, device % 3, 3, device + 0.5f);
+            }
+        }
+        assertEquals(100, stripe.seriesCount());
+
+        stripe.close(3, new TelemetryRollupBatch(256));
+        assertEquals(50, stripe.compact(2));
+        assertEquals(50, stripe.seriesCount());
+
+        for (int device = 0; device < 100; device++) {
+            List<Map<String, Object>> rows = rows(stripe, device, device % 3);
+            if (device % 2 == 0) {
+                assertEquals(0, rows.size(), "device " + device);
+            } else {
+                // 压缩时桶跟着序列搬走，两个分钟都还在
+                assertEquals(2, rows.size(), "device " + device);
+                assertEquals(2 * device + 0.5, (Double) rows.get(0).get("sum") + (Double) rows.get(1).get("sum"));
+            }
+        }
+
+        // 腾出的位置可以给新序列用，新旧序列互不干扰
+        assertEquals(SeriesStripe.ADDED, stripe.add(1000, 0, 4, 9f));
+        assertEquals(SeriesStripe.ADDED, stripe.add(1, 1, 4, 9f));
+        assertEquals(51, stripe.seriesCount());
+        assertEquals(1, rows(stripe, 1000, 0).size());
+        assertEquals(3, rows(stripe, 1, 1).size());
+        // 指标 1 的存活序列是 device % 6 == 1 的 17 个设备，各两个分钟，加上新写的一个点
+        TelemetryRollup rollup = new TelemetryRollup();
+        stripe.aggregate(1, 0, 10, rollup);
+        assertEquals(17 * 2 + 1, rollup.getCount());
+    }
+
+    private static List<Map<String, Object>> rows(SeriesStripe stripe, long deviceId, int metric) {
+        TelemetryRollupBatch out = new TelemetryRollupBatch(BUCKETS);
+        stripe.collect(deviceId, metric, Long.MIN_VALUE, Long.MAX_VALUE, out);
+        return out.toRows();
+    }
+}
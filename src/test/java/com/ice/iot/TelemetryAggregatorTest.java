@@ -0,0 +1,110 @@
+package com.ice.iot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ice.config.IotAggregateProperties;
+import com.ice.sync.ColumnarBatch;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 21:00
+ */
+class TelemetryAggregatorTest {
+    private static final long BASE_MINUTE = 29_000_000L;
+
+    private final List<ColumnarBatch> inserted = new ArrayList<>();
+
+    private boolean failing;
+
+    private TelemetryAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        IotAggregateProperties properties = new IotAggregateProperties();
+        properties.setStripes(8);
+        properties.setRetentionMinutes(4);
+        properties.setQueryParallelism(2);
+        aggregator = new TelemetryAggregator((table, batch) -> {
+            if (failing) {
+                throw new IllegalStateException("clickhouse down");
+            }
+            inserted.add(batch);
+        }, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        aggregator.stop();
+    }
+
+    @Test
+    void queryMatchesPointsAcrossStripes() {
+        Random random = new Random(50);
+        TelemetryBatch batch = new TelemetryBatch(5000);
+        Set<Long> series = new HashSet<>();
+        double sum = 0;
+        int count = 0;
+        for (int i = 0; i < 5000; i++) {
+            int device = random.nextInt(300);
+            int metric = random.nextInt(2);
+            float value = random.nextInt(1000) / 10f;
+            batch.add(device, metric, value, millis(random.nextInt(3)));
+            series.add(device * 2L + metric);
+            if (metric == 1) {
+                sum += value;
+                count++;
+            }
+        }
+        aggregator.write(batch);
+
+        TelemetryRollup rollup = aggregator.query(1, millis(0), millis(2) + 59_999);
+        assertEquals(count, rollup.getCount());
+        assertEquals(sum, rollup.getSum(), 1e-6);
+        assertEquals((long) series.size(), aggregator.snapshot().get("series"));
+    }
+
+    @Test
+    void flushWritesClosedMinutesAndRetriesFailedInserts() {
+        TelemetryBatch batch = new TelemetryBatch(16);
+        batch.add(1, 0, 1f, millis(0));
+        batch.add(2, 0, 2f, millis(0));
+        batch.add(1, 0, 3f, millis(1));
+        aggregator.write(batch);
+
+        failing = true;
+        aggregator.flush(BASE_MINUTE);
+        assertEquals(0, inserted.size());
+        assertEquals(1L, aggregator.snapshot().get("flushErrors"));
+
+        // 关闭的分钟迟到的点不再计入
+        batch.clear();
+        batch.add(1, 0, 9f, millis(0));
+        aggregator.write(batch);
+        assertEquals(1L, aggregator.snapshot().get("latePoints"));
+
+        failing = false;
+        aggregator.flush(BASE_MINUTE + 1);
+        assertEquals(1, inserted.size());
+        assertEquals(3, inserted.get(0).getRowCount());
+        assertEquals(3L, aggregator.snapshot().get("rollupsWritten"));
+
+        // 超过保留期的序列在下一次刷写时清掉
+        aggregator.flush(BASE_MINUTE + 10);
+        assertEquals(0L, aggregator.snapshot().get("series"));
+        assertEquals(2L, aggregator.snapshot().get("expiredSeries"));
+    }
+
+    private static long millis(int minuteOffset) {
+        return (BASE_MINUTE + minuteOffset) * TelemetryAggregator.MINUTE_MILLIS;
+    }
+}
@@ -0,0 +1,105 @@
+package com.ice.iot;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.ice.config.IotIngestProperties;
+import com.ice.sync.ColumnarBatch;
+import com.ice.sync.DiscardingColumnarSink;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 11:10
+ */
+class TelemetryIngestPipelineTest {
+
+    @Test
+    void failedWritesAreNotCountedAsWritten() {
+        IotIngestProperties properties = properties();
+        AtomicInteger calls = new AtomicInteger();
+        TelemetryIngestPipeline pipeline = new TelemetryIngestPipeline(List.of(batch -> {
+            if (calls.incrementAndGet() % 2 == 0) {
+                throw new IllegalStateException("sink down");
+            }
+        }), properties);
+        pipeline.start();
+        for (int i = 0; i < 4; i++) {
+            pipeline.offer(TelemetryFrameDecoder.encode(i, new int[] { 1, 2 }, new float[] { 1f, 2f }));
+        }
+        pipeline.stop();
+
+        Map<String, Object> stats = pipeline.stats();
+        assertEquals(4L, stats.get("decoded"));
+        assertEquals(4L, stats.get("pointsWritten"));
+        assertEquals(2L, stats.get("batchesWritten"));
+        assertEquals(4L, stats.get("pointsFailed"));
+        assertEquals(2L, stats.get("batchesFailed"));
+        assertEquals(2L, stats.get("writeErrors"));
+    }
+
+    @Test
+    void pointsOnlyReachingDiscardingSinkAreNotCountedAsWritten() {
+        DiscardingColumnarSink discarding = new DiscardingColumnarSink();
+        TelemetryIngestPipeline pipeline = new TelemetryIngestPipeline(
+                List.of(new ColumnarTelemetrySink(discarding, "iot_telemetry")), properties());
+        pipeline.start();
+        for (int i = 0; i < 4; i++) {
+            pipeline.offer(TelemetryFrameDecoder.encode(i, new int[] { 1, 2 }, new float[] { 1f, 2f }));
+        }
+        pipeline.stop();
+
+        Map<String, Object> stats = pipeline.stats();
+        assertEquals(0L, stats.get("pointsWritten"));
+        assertEquals(8L, stats.get("pointsDiscarded"));
+        assertEquals(4L, stats.get("batchesDiscarded"));
+        assertEquals(8L, discarding.getDiscardedRows());
+    }
+
+    @Test
+    void countsMalformedFrames() {
+        TelemetryIngestPipeline pipeline = new TelemetryIngestPipeline(List.of(batch -> {
+        }), properties());
+        byte[] frame = TelemetryFrameDecoder.encode(7, new int[] { 1 }, new float[] { 1f });
+
+        // 第二帧截断
+        byte[] data = new byte[frame.length * 2 - 1];
+        System.arraycopy(frame, 0, data, 0, frame.length);
+        System.arraycopy(frame, 0, data, frame.length, frame.length - 1);
+        assertEquals(1, FrameSplitter.split(data, data.length, pipeline));
+
+        byte[] garbage = { 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08 };
+        assertEquals(0, FrameSplitter.split(garbage, garbage.length, pipeline));
+        assertEquals(2L, pipeline.stats().get("malformedFrames"));
+    }
+
+    @Test
+    void toColumnarBatchKeepsPrimitiveColumns() {
+        TelemetryBatch batch = new TelemetryBatch(4);
+        batch.add(1L, 2, 3.5f, 1000L);
+        batch.add(4L, 5, 6.5f, 2000L);
+
+        ColumnarBatch columnar = batch.toColumnarBatch();
+        batch.clear();
+        assertArrayEquals(new long[] { 1L, 4L }, (long[]) columnar.column(0));
+        assertArrayEquals(new int[] { 2, 5 }, (int[]) columnar.column(1));
+        assertArrayEquals(new float[] { 3.5f, 6.5f }, (float[]) columnar.column(2));
+        assertEquals(2000L, columnar.value(3, 1));
+    }
+
+    /**
+     * 单个解码线程、每批两个点，写入顺序和批次一一对应
+     */
+    private static IotIngestProperties properties() {
+        IotIngestProperties properties = new IotIngestProperties();
+        properties.setWorkers(1);
+        properties.setBatchSize(2);
+        properties.setQueueCapacity(16);
+        return properties;
+    }
+}
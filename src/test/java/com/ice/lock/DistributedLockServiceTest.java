@@ -0,0 +1,178 @@
+package com.ice.lock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.ice.config.DistributedLockProperties;
+import com.ice.metrics.LatencyRegistry;
+import com.ice.support.EmbeddedRedis;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 16:20
+ */
+class DistributedLockServiceTest {
+    private static EmbeddedRedis redis;
+
+    private DistributedLockService service;
+
+    private RedisMessageListenerContainer container;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flushAll();
+        DistributedLockProperties properties = new DistributedLockProperties();
+        properties.setLeaseMillis(3000);
+        properties.setWaitMillis(5000);
+        properties.setMaxRetryIntervalMillis(200);
+        properties.setQueueGraceMillis(500);
+        properties.setWatchdogIntervalMillis(50);
+        service = new DistributedLockService();
+        service.redisService = redis.redisService();
+        service.latencyRegistry = mock(LatencyRegistry.class);
+        service.properties = properties;
+        service.start();
+
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redis.connectionFactory());
+        container.addMessageListener(service, new PatternTopic(service.channelPattern()));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        container.stop();
+        container.destroy();
+        service.stop();
+    }
+
+    @Test
+    void reentrantLockKeepsFenceUntilOuterUnlock() {
+        LockHandle outer = service.lock("t");
+        LockHandle inner = service.lock("t");
+        assertEquals(outer.getFence(), inner.getFence());
+        assertEquals(inner.getFence(), service.currentFence());
+        assertEquals("2", redis.template().opsForHash().get("lock:{t}", outer.getOwner()));
+
+        service.unlock(inner);
+        assertTrue(redis.template().hasKey("lock:{t}"));
+        assertEquals(outer.getFence(), service.currentFence());
+        service.unlock(outer);
+        assertFalse(redis.template().hasKey("lock:{t}"));
+        assertEquals(-1, service.currentFence());
+        assertEquals(1L, service.snapshot().get("reentered"));
+
+        LockHandle next = service.lock("t");
+        assertTrue(next.getFence() > outer.getFence());
+        service.unlock(next);
+    }
+
+    @Test
+    void staleHandleDoesNotReleaseNewOwner() throws Exception {
+        LockHandle stale = service.lock("t");
+        // 模拟租约丢失：锁被过期清掉，另一个线程随即拿到
+        redis.template().delete("lock:{t}");
+        LockHandle current = CompletableFuture.supplyAsync(() -> service.lock("t")).get(5, TimeUnit.SECONDS);
+        assertNotEquals(stale.getOwner(), current.getOwner());
+        assertTrue(current.getFence() > stale.getFence());
+
+        service.unlock(stale);
+        assertEquals(1L, service.snapshot().get("lost"));
+        assertTrue(redis.template().opsForHash().hasKey("lock:{t}", current.getOwner()));
+
+        // 按 handle 的持有者释放，换个线程解锁也只释放自己的
+        service.unlock(current);
+        assertFalse(redis.template().hasKey("lock:{t}"));
+    }
+
+    @Test
+    void waitersAcquireInArrivalOrder() throws Exception {
+        LockHandle holder = service.lock("t");
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int id = i;
+            Thread thread = new Thread(() -> {
+                LockHandle handle = service.lock("t");
+                order.add(id);
+                service.unlock(handle);
+            });
+            thread.start();
+            waiters.add(thread);
+            // 前一个进了队列再启动下一个，到达顺序确定
+            awaitQueued(i + 1);
+        }
+
+        service.unlock(holder);
+        for (Thread thread : waiters) {
+            thread.join(5000);
+        }
+        assertEquals(List.of(0, 1, 2), order);
+        assertEquals(0L, redis.template().opsForZSet().zCard("lock:{t}:q"));
+    }
+
+    @Test
+    void timedOutWaiterLeavesQueue() throws Exception {
+        LockHandle holder = service.lock("t");
+        CompletableFuture<LockHandle> waiter = CompletableFuture
+                .supplyAsync(() -> service.lock("t", "t", 300, 3000));
+
+        Exception e = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof DistributedLockTimeoutException, String.valueOf(e.getCause()));
+        assertEquals(1L, service.snapshot().get("timeouts"));
+        assertEquals(0L, redis.template().opsForZSet().zCard("lock:{t}:q"));
+        assertEquals(0L, redis.template().opsForZSet().zCard("lock:{t}:t"));
+        assertEquals(0, service.snapshot().get("waitingLocks"));
+
+        // 放弃等待的人不会挡住后来者
+        service.unlock(holder);
+        LockHandle next = CompletableFuture.supplyAsync(() -> service.lock("t", "t", 1000, 3000)).get(5,
+                TimeUnit.SECONDS);
+        service.unlock(next);
+    }
+
+    @Test
+    void requireFenceFailsWithoutLock() {
+        assertThrows(IllegalStateException.class, service::requireFence);
+        LockHandle handle = service.lock("t");
+        assertEquals(handle.getFence(), service.requireFence());
+        service.unlock(handle);
+    }
+
+    private static void awaitQueued(long size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (redis.template().opsForZSet().zCard("lock:{t}:q") < size) {
+            assertTrue(System.currentTimeMillis() < deadline, "waiter not queued");
+            Thread.sleep(10);
+        }
+    }
+}
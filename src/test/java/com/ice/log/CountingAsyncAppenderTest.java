@@ -0,0 +1,70 @@
+package com.ice.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 21:50
+ */
+class CountingAsyncAppenderTest {
+    private static final int QUEUE_SIZE = 16;
+
+    private static final int EVENTS = 200;
+
+    @Test
+    void fullQueueDropsAreCounted() throws Exception {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger delivered = new AtomicInteger();
+        // 下游卡住，后台线程取走第一批后不再消费，队列很快写满
+        AppenderBase<ILoggingEvent> blocked = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                delivered.incrementAndGet();
+            }
+        };
+        blocked.setContext(context);
+        blocked.start();
+
+        CountingAsyncAppender appender = new CountingAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(QUEUE_SIZE);
+        appender.setDiscardingThreshold(0);
+        appender.setNeverBlock(true);
+        appender.addAppender(blocked);
+        appender.start();
+
+        long droppedBefore = CountingAsyncAppender.getDropped();
+        for (int i = 0; i < EVENTS; i++) {
+            appender.doAppend(new LoggingEvent(getClass().getName(), context.getLogger("test"), Level.INFO,
+                    "event {}", null, new Object[] { i }));
+        }
+        long dropped = CountingAsyncAppender.getDropped() - droppedBefore;
+        // 后台线程一次取走队列里的全部事件，最多有两个队列长度的事件没被丢弃
+        assertTrue(dropped >= EVENTS - 2 * QUEUE_SIZE, "dropped " + dropped);
+
+        release.countDown();
+        appender.stop();
+        // 单个生产者时检查和入队之间容量只会变大，没有被计数的事件都送到了下游
+        assertEquals(EVENTS, delivered.get() + dropped);
+    }
+}
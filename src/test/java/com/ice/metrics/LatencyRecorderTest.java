@@ -0,0 +1,45 @@
+package com.ice.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 17:40
+ */
+class LatencyRecorderTest {
+
+    @Test
+    void histogramFootprintStaysSmall() {
+        Histogram histogram = new Histogram(LatencyRecorder.HIGHEST_MICROS, LatencyRecorder.SIGNIFICANT_DIGITS);
+        // 每个指标 4 个直方图，合计控制在 100KB 以内
+        assertTrue(histogram.getEstimatedFootprintInBytes() * 4 < 100 * 1024,
+                "footprint " + histogram.getEstimatedFootprintInBytes());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void percentilesWithinOnePercentAndLongValuesClamped() {
+        LatencyRecorder recorder = new LatencyRecorder("t");
+        for (int i = 1; i <= 1000; i++) {
+            recorder.recordNanos(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        recorder.recordNanos(TimeUnit.MINUTES.toNanos(5));
+        recorder.roll();
+
+        LatencyRecorder.Summary recent = recorder.getRecent();
+        assertEquals(1001, recent.getCount());
+        assertEquals(500, recent.getP50Millis(), 5);
+        assertEquals(990, recent.getP99Millis(), 10);
+        assertEquals(60000, recent.getMaxMillis(), 600);
+
+        Map<String, Object> total = (Map<String, Object>) recorder.snapshot().get("total");
+        assertEquals(1001L, total.get("count"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.ice.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 19:30
+ */
+class LatencyRegistryTest {
+
+    @AfterEach
+    void tearDown() {
+        LatencyRegistry.unmute();
+    }
+
+    @Test
+    void mutedThreadRecordsNothing() throws Exception {
+        LatencyRegistry registry = new LatencyRegistry();
+        LatencyRecorder shared = registry.recorder("pool:test:wait");
+
+        LatencyRegistry.mute();
+        registry.record("sql:warmup", TimeUnit.MILLISECONDS.toNanos(5));
+        shared.recordNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(LatencyRegistry.isMuted());
+
+        // 其他线程照常记录
+        Thread other = new Thread(() -> shared.recordNanos(TimeUnit.MILLISECONDS.toNanos(1)));
+        other.start();
+        other.join();
+
+        LatencyRegistry.unmute();
+        assertFalse(LatencyRegistry.isMuted());
+        shared.recordNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        shared.roll();
+
+        assertFalse(registry.snapshot(null).containsKey("sql:warmup"));
+        assertEquals(2, shared.getRecent().getCount());
+    }
+}
@@ -0,0 +1,162 @@
+package com.ice.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import com.ice.config.LeaseRateLimitProperties;
+import com.ice.metrics.LatencyRegistry;
+import com.ice.support.EmbeddedRedis;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 13:40
+ */
+class LeasedRateLimiterTest {
+    private static EmbeddedRedis redis;
+
+    private RedisRateLimiter redisRateLimiter;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flushAll();
+        redisRateLimiter = new RedisRateLimiter();
+        redisRateLimiter.redisService = redis.redisService();
+        redisRateLimiter.latencyRegistry = mock(LatencyRegistry.class);
+    }
+
+    @Test
+    void allowsExactlyLimitPerDay() {
+        LeasedRateLimiter limiter = limiter(redisRateLimiter);
+        for (int i = 0; i < 12; i++) {
+            assertTrue(limiter.tryAcquire("k", 12), "call " + i);
+        }
+        assertFalse(limiter.tryAcquire("k", 12));
+        assertFalse(limiter.tryAcquire("k", 12));
+        assertEquals(12L, lease(limiter, "k").get("consumed"));
+        assertEquals(true, lease(limiter, "k").get("exhausted"));
+    }
+
+    @Test
+    void nodesSharingRedisNeverExceedLimit() throws Exception {
+        List<LeasedRateLimiter> nodes = List.of(limiter(redisRateLimiter), limiter(redisRateLimiter),
+                limiter(redisRateLimiter));
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(6);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 6; t++) {
+            LeasedRateLimiter node = nodes.get(t % nodes.size());
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    if (node.tryAcquire("shared", 100)) {
+                        allowed.incrementAndGet();
+                    }
+                    if (i % 10 == 0) {
+                        node.prefetch();
+                    }
+                }
+                done.countDown();
+            }));
+        }
+        threads.forEach(Thread::start);
+        done.await();
+        assertTrue(allowed.get() <= 100, "allowed " + allowed.get());
+        // 每个节点最多少放行 leaseSize - 1 次
+        assertTrue(allowed.get() >= 100 - nodes.size() * 4, "allowed " + allowed.get());
+    }
+
+    @Test
+    void failedRenewDoesNotLeakConsumed() {
+        RedisRateLimiter failing = spy(redisRateLimiter);
+        doThrow(new RedisConnectionFailureException("down")).when(failing)
+                .evalPipelined(any(), any(), any(String[].class));
+        LeasedRateLimiter limiter = limiter(failing);
+
+        assertThrows(RedisConnectionFailureException.class, () -> limiter.tryAcquire("k", 10));
+        assertThrows(RedisConnectionFailureException.class, () -> limiter.tryAcquire("k", 10));
+        assertEquals(0L, lease(limiter, "k").get("consumed"));
+
+        doCallRealMethod().when(failing).evalPipelined(any(), any(), any(String[].class));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("k", 10), "call " + i);
+        }
+        assertFalse(limiter.tryAcquire("k", 10));
+    }
+
+    @Test
+    void prefetchRenewsBeforeLeaseRunsOut() {
+        LeasedRateLimiter limiter = limiter(redisRateLimiter);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire("k", 100));
+        }
+        assertEquals(5L, lease(limiter, "k").get("granted"));
+
+        limiter.prefetch();
+        assertEquals(10L, lease(limiter, "k").get("granted"));
+        assertEquals("10", redis.template().keys("rl:lease:k:*").stream().findFirst()
+                .map(key -> redis.template().opsForValue().get(key)).orElse(null));
+    }
+
+    @Test
+    void failedPrefetchIsCountedAndRetried() {
+        RedisRateLimiter failing = spy(redisRateLimiter);
+        LeasedRateLimiter limiter = limiter(failing);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire("k", 100));
+        }
+
+        doThrow(new RedisConnectionFailureException("down")).when(failing)
+                .evalPipelined(any(), any(), any(String[].class));
+        for (int i = 0; i < 3; i++) {
+            limiter.prefetch();
+        }
+        assertEquals(3L, limiter.getPrefetchFailures());
+        assertEquals(5L, lease(limiter, "k").get("granted"));
+
+        // Redis 恢复后不需要新的请求触发，下一轮预取就会续上
+        doCallRealMethod().when(failing).evalPipelined(any(), any(), any(String[].class));
+        limiter.prefetch();
+        assertEquals(10L, lease(limiter, "k").get("granted"));
+        assertEquals(3L, limiter.getPrefetchFailures());
+    }
+
+    private static LeasedRateLimiter limiter(RedisRateLimiter redisRateLimiter) {
+        LeasedRateLimiter limiter = new LeasedRateLimiter();
+        limiter.redisRateLimiter = redisRateLimiter;
+        limiter.properties = new LeaseRateLimitProperties();
+        return limiter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> lease(LeasedRateLimiter limiter, String key) {
+        return (Map<String, Object>) limiter.stats().get(key);
+    }
+}
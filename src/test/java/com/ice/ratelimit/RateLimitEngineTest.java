@@ -0,0 +1,127 @@
+package com.ice.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ice.config.RateLimitProperties;
+import com.ice.metrics.LatencyRegistry;
+import com.ice.support.EmbeddedRedis;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 14:45
+ */
+class RateLimitEngineTest {
+    private static final RateLimitDimension[] IP = { RateLimitDimension.IP };
+
+    private static EmbeddedRedis redis;
+
+    private RateLimitEngine engine;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flushAll();
+        engine = engine(redis, true);
+    }
+
+    @Test
+    void fixedWindowUsesOnlyDeclaredKey() {
+        RateLimitRule rule = new RateLimitRule(IP, RateLimitAlgorithm.FIXED_WINDOW, 3, 60000);
+        String key = RateLimitEngine.key(rule, "GET /test/sql/{id}", "10.0.0.1");
+        for (int i = 0; i < 3; i++) {
+            assertTrue(engine.check(List.of(rule), List.of(key)).isAllowed());
+        }
+        RateLimitDecision denied = engine.check(List.of(rule), List.of(key));
+        assertFalse(denied.isAllowed());
+        assertEquals(0, denied.getDeniedRule());
+        assertTrue(denied.getRetryAfterMillis() > 0);
+
+        assertEquals(Set.of(key), redis.template().keys("*"));
+    }
+
+    @Test
+    void slidingWindowCounterUsesOnlyDeclaredKey() {
+        RateLimitRule rule = new RateLimitRule(IP, RateLimitAlgorithm.SLIDING_WINDOW_COUNTER, 2, 60000);
+        String key = RateLimitEngine.key(rule, "GET /test", "10.0.0.1");
+        assertTrue(engine.check(List.of(rule), List.of(key)).isAllowed());
+        assertTrue(engine.check(List.of(rule), List.of(key)).isAllowed());
+        assertFalse(engine.check(List.of(rule), List.of(key)).isAllowed());
+        assertEquals(Set.of(key), redis.template().keys("*"));
+    }
+
+    @Test
+    void deniedRuleLeavesOtherRulesUncounted() {
+        RateLimitRule loose = new RateLimitRule(IP, RateLimitAlgorithm.FIXED_WINDOW, 2, 60000);
+        RateLimitRule strict = new RateLimitRule(IP, RateLimitAlgorithm.GCRA, 1, 60000);
+        List<RateLimitRule> rules = List.of(loose, strict);
+        List<String> keys = List.of(RateLimitEngine.key(loose, "GET /a", "ip"),
+                RateLimitEngine.key(strict, "GET /a", "ip"));
+
+        assertTrue(engine.check(rules, keys).isAllowed());
+        RateLimitDecision denied = engine.check(rules, keys);
+        assertEquals(1, denied.getDeniedRule());
+        // 第二次被 strict 拒绝，loose 没有计数，还剩一次
+        assertTrue(engine.check(List.of(loose), keys.subList(0, 1)).isAllowed());
+        assertFalse(engine.check(List.of(loose), keys.subList(0, 1)).isAllowed());
+    }
+
+    @Test
+    void keysAreScopedByEndpointAndMethod() {
+        RateLimitRule rule = new RateLimitRule(IP, RateLimitAlgorithm.FIXED_WINDOW, 1, 60000);
+        String sync = RateLimitEngine.key(rule, "GET /test/time/{t}", "ip");
+        String async = RateLimitEngine.key(rule, "GET /async/test/time/{t}", "ip");
+        String post = RateLimitEngine.key(rule, "POST /test/time/{t}", "ip");
+        assertTrue(engine.check(List.of(rule), List.of(sync)).isAllowed());
+        assertTrue(engine.check(List.of(rule), List.of(async)).isAllowed());
+        assertTrue(engine.check(List.of(rule), List.of(post)).isAllowed());
+        assertFalse(engine.check(List.of(rule), List.of(sync)).isAllowed());
+        assertTrue(sync.startsWith("rl:{GET /test/time/(t)}:"));
+    }
+
+    @Test
+    void redisOutageFollowsFailPolicy() throws Exception {
+        RateLimitRule rule = new RateLimitRule(IP, RateLimitAlgorithm.FIXED_WINDOW, 1, 60000);
+        List<String> keys = List.of(RateLimitEngine.key(rule, "GET /test", "ip"));
+        try (EmbeddedRedis down = EmbeddedRedis.start()) {
+            RateLimitEngine open = engine(down, true);
+            RateLimitEngine closed = engine(down, false);
+            down.stopServer();
+
+            assertSame(RateLimitDecision.ALLOWED, open.check(List.of(rule), keys));
+            RateLimitDecision decision = closed.check(List.of(rule), keys);
+            assertTrue(decision.isUnavailable());
+            assertEquals(1, open.errors());
+            assertEquals(1, closed.errors());
+        }
+    }
+
+    private static RateLimitEngine engine(EmbeddedRedis redis, boolean failOpen) {
+        RateLimitEngine engine = new RateLimitEngine();
+        engine.redisService = redis.redisService();
+        engine.latencyRegistry = mock(LatencyRegistry.class);
+        engine.rateLimitProperties = new RateLimitProperties();
+        engine.rateLimitProperties.setFailOpen(failOpen);
+        return engine;
+    }
+}
@@ -0,0 +1,89 @@
+package com.ice.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ice.config.RateLimitProperties;
+import com.ice.metrics.LatencyRegistry;
+import com.ice.support.EmbeddedRedis;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 21:30
+ */
+class RateLimitInterceptorTest {
+    private static EmbeddedRedis redis;
+
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flushAll();
+        RateLimitEngine engine = new RateLimitEngine();
+        engine.redisService = redis.redisService();
+        engine.latencyRegistry = mock(LatencyRegistry.class);
+        engine.rateLimitProperties = new RateLimitProperties();
+
+        RateLimitInterceptor interceptor = new RateLimitInterceptor();
+        interceptor.rateLimitEngine = engine;
+        interceptor.objectMapper = new ObjectMapper();
+        interceptor.rateLimitProperties = engine.rateLimitProperties;
+        interceptor.init();
+        mockMvc = MockMvcBuilders.standaloneSetup(new AsyncController()).addInterceptors(interceptor).build();
+    }
+
+    @Test
+    void asyncRequestIsChargedOnce() throws Exception {
+        MvcResult result = mockMvc.perform(get("/async/1")).andExpect(request().asyncStarted()).andReturn();
+        // 上限为 1，异步再分派如果再判定一次就会变成 429
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        Set<String> keys = redis.template().keys("rl:*");
+        assertEquals(1, keys.size());
+        // 固定窗口的计数在 hash 的 c 字段
+        assertEquals("1", String.valueOf(redis.template().opsForHash().get(keys.iterator().next(), "c")));
+
+        mockMvc.perform(get("/async/1")).andExpect(status().isTooManyRequests());
+    }
+
+    @RestController
+    static class AsyncController {
+
+        @RateLimit(dimensions = { RateLimitDimension.ENDPOINT }, algorithm = RateLimitAlgorithm.FIXED_WINDOW,
+                limit = 1, window = 1, unit = TimeUnit.HOURS)
+        @GetMapping("/async/{id}")
+        public CompletableFuture<String> async(@PathVariable("id") Integer id) {
+            return CompletableFuture.supplyAsync(() -> "ok " + id);
+        }
+    }
+}
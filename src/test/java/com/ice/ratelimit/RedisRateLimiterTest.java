@@ -0,0 +1,124 @@
+package com.ice.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import com.ice.metrics.LatencyRegistry;
+import com.ice.support.EmbeddedRedis;
+import com.xiliulou.cache.redis.RedisService;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 12:10
+ */
+class RedisRateLimiterTest {
+    private static EmbeddedRedis redis;
+
+    private RedisRateLimiter limiter;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flushAll();
+        limiter = limiter(redis.redisService());
+    }
+
+    @Test
+    void singleAndPipelinedShareCounters() {
+        assertTrue(limiter.tryAcquire("a", 2));
+        assertArrayEquals(new boolean[] { true, true }, limiter.tryAcquireAll(List.of("a", "b"), 2));
+        assertArrayEquals(new boolean[] { false, true }, limiter.tryAcquireAll(List.of("a", "b"), 2));
+        assertFalse(limiter.tryAcquire("b", 2));
+    }
+
+    @Test
+    void pipelineUsesTemplateKeySerializer() {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(redis.connectionFactory());
+        template.setKeySerializer(new PrefixSerializer("ns:"));
+        template.setValueSerializer(StringRedisSerializer.UTF_8);
+        template.afterPropertiesSet();
+        RedisService service = mock(RedisService.class);
+        when(service.getRedisTemplate()).thenReturn(template);
+        RedisRateLimiter prefixed = limiter(service);
+
+        assertTrue(prefixed.tryAcquire("k", 2));
+        assertArrayEquals(new boolean[] { true }, prefixed.tryAcquireAll(List.of("k"), 2));
+        assertEquals(Set.of("ns:k"), redis.template().keys("*"));
+        assertEquals("2", redis.template().opsForValue().get("ns:k"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pipelineRecordsPerKeyLatencyAndReloadsScript() {
+        redis.template().execute((RedisCallback<Object>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+
+        List<Object> grants = limiter.evalPipelined(LeasedRateLimiter.LEASE_SCRIPT, List.of("x", "y"), "60", "3",
+                "5");
+        assertEquals(List.of(3L, 3L), grants);
+        limiter.evalPipelined(LeasedRateLimiter.LEASE_SCRIPT, List.of("x"), "60", "3", "5");
+
+        Map<String, Object> stats = limiter.stats();
+        Map<String, Object> x = (Map<String, Object>) stats.get("x");
+        Map<String, Object> y = (Map<String, Object>) stats.get("y");
+        assertEquals(2L, x.get("count"));
+        assertEquals(1L, x.get("rejected"));
+        assertEquals(1L, y.get("count"));
+        assertEquals(0L, y.get("rejected"));
+    }
+
+    private static RedisRateLimiter limiter(RedisService redisService) {
+        RedisRateLimiter limiter = new RedisRateLimiter();
+        limiter.redisService = redisService;
+        limiter.latencyRegistry = mock(LatencyRegistry.class);
+        return limiter;
+    }
+
+    private static class PrefixSerializer implements RedisSerializer<String> {
+        private final String prefix;
+
+        PrefixSerializer(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public byte[] serialize(String value) {
+            return (prefix + value).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String deserialize(byte[] bytes) {
+            return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8).substring(prefix.length());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ice.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 14:50
+ */
+class TrustedProxiesTest {
+
+    @Test
+    void ignoresForwardedForFromUntrustedPeer() {
+        TrustedProxies proxies = new TrustedProxies(List.of("10.0.0.0/8"));
+        assertEquals("203.0.113.9", proxies.resolve("203.0.113.9", "1.2.3.4"));
+        assertEquals("203.0.113.9", new TrustedProxies(List.of()).resolve("203.0.113.9", "1.2.3.4"));
+    }
+
+    @Test
+    void takesRightmostUntrustedHop() {
+        TrustedProxies proxies = new TrustedProxies(List.of("10.0.0.0/8", "192.168.1.7"));
+        // 客户端自己伪造的 6.6.6.6 在最左边，不会被采用
+        assertEquals("198.51.100.2", proxies.resolve("10.1.2.3", "6.6.6.6, 198.51.100.2, 192.168.1.7"));
+        assertEquals("10.9.9.9", proxies.resolve("10.1.2.3", "10.9.9.9, 10.8.8.8"));
+        assertEquals("10.1.2.3", proxies.resolve("10.1.2.3", null));
+    }
+
+    @Test
+    void matchesCidrAndIpv6() {
+        TrustedProxies proxies = new TrustedProxies(List.of("172.16.0.0/12", "::1"));
+        assertTrue(proxies.contains("172.31.255.255"));
+        assertFalse(proxies.contains("172.32.0.1"));
+        assertTrue(proxies.contains("0:0:0:0:0:0:0:1"));
+        assertFalse(proxies.contains("not-an-ip"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.ice.singleflight;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 20:30
+ */
+class SingleFlightGroupTest {
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    private final SingleFlightGroup group = new SingleFlightGroup("test");
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersJoinOneExecution() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Object value = new Object();
+        List<Future<Object>> results = submit("k", 0, () -> {
+            runs.incrementAndGet();
+            release.await();
+            return value;
+        });
+        // 全部调用方都挂到同一个在途调用上之后再放行
+        await(() -> (long) group.snapshot().get("joined") == CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            assertSame(value, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, runs.get());
+        assertEquals(1L, group.snapshot().get("executions"));
+        assertEquals(0, group.snapshot().get("inflight"));
+        assertEquals((CALLERS - 1) / (double) CALLERS, group.coalescingRatio(), 1e-9);
+    }
+
+    @Test
+    void failureIsSharedButNotReused() throws Throwable {
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("db down");
+        List<Future<Object>> results = submit("k", 1000, () -> {
+            runs.incrementAndGet();
+            release.await();
+            throw failure;
+        });
+        await(() -> (long) group.snapshot().get("joined") == CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        assertEquals(1L, group.snapshot().get("failures"));
+        assertEquals(0, group.snapshot().get("inflight"));
+
+        // 失败不进复用窗口，下一次重新执行
+        assertEquals("ok", group.execute("k", 1000, () -> {
+            runs.incrementAndGet();
+            return "ok";
+        }));
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void successIsReusedWithinWindowThenEvicted() throws Throwable {
+        SingleFlightGroup.Execution<Integer> execution = runs::incrementAndGet;
+        assertEquals(1, group.execute("k", 200, execution));
+        assertEquals(1, group.execute("k", 200, execution));
+        assertEquals(2, group.execute("other", 200, execution));
+        assertEquals(1L, group.snapshot().get("reused"));
+        assertEquals(2, group.snapshot().get("inflight"));
+
+        // 到期后由延迟任务摘除，再调用重新执行
+        await(() -> (int) group.snapshot().get("inflight") == 0);
+        assertEquals(3, group.execute("k", 200, execution));
+        assertEquals(3L, group.snapshot().get("executions"));
+    }
+
+    private List<Future<Object>> submit(Object key, long reuseMillis, SingleFlightGroup.Execution<Object> execution) {
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> {
+                try {
+                    return group.execute(key, reuseMillis, execution);
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        return results;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 5s");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.ice.snake;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 11:55
+ */
+class SnakeBatchTest {
+
+    @Test
+    void batchMatchesSingleGameEngineTickByTick() {
+        assertEquivalent(Policies.greedy(), 300);
+        assertEquivalent(Policies.randomSafe(), 300);
+    }
+
+    @Test
+    void lanesAreIndependent() {
+        SnakeBatch batch = new SnakeBatch(3, SnakeSimulation.DEFAULT_WIDTH, SnakeSimulation.DEFAULT_HEIGHT);
+        SnakeSimulation[] games = new SnakeSimulation[3];
+        for (int lane = 0; lane < 3; lane++) {
+            batch.reset(lane, 100 + lane);
+            games[lane] = new SnakeSimulation(100 + lane);
+        }
+        Policy policy = Policies.greedy();
+        for (int tick = 0; tick < 200; tick++) {
+            for (int lane = 0; lane < 3; lane++) {
+                if (batch.status(lane) != SnakeBatch.RUNNING) {
+                    continue;
+                }
+                batch.step(lane, policy.decide(batch.view(lane)));
+                games[lane].step(policy.decide(games[lane]));
+                assertSameState(games[lane], batch.view(lane), "lane " + lane);
+            }
+        }
+    }
+
+    @Test
+    void runnerResultDoesNotDependOnParallelism() {
+        Map<String, Supplier<? extends Policy>> policies = new LinkedHashMap<>();
+        policies.put("greedy", Policies::greedy);
+        policies.put("randomSafe", Policies::randomSafe);
+
+        BatchReport single = new SnakeBatchRunner(1, 8, 50_000).run(policies, 400, 7L);
+        BatchReport parallel = new SnakeBatchRunner(4, 3, 50_000).run(policies, 400, 7L);
+        for (String name : policies.keySet()) {
+            assertEquals(single.getPolicies().get(name).toMap(), parallel.getPolicies().get(name).toMap(), name);
+        }
+        assertEquals(800, single.totalGames());
+    }
+
+    private static void assertEquivalent(Policy policy, int games) {
+        SnakeBatch batch = new SnakeBatch(1, SnakeSimulation.DEFAULT_WIDTH, SnakeSimulation.DEFAULT_HEIGHT);
+        for (long seed = 0; seed < games; seed++) {
+            SnakeSimulation simulation = new SnakeSimulation(seed);
+            batch.reset(0, seed);
+            SnakeView view = batch.view(0);
+            String game = "seed " + seed;
+            assertSameState(simulation, view, game);
+
+            StepResult result = StepResult.MOVED;
+            byte status = SnakeBatch.RUNNING;
+            while (result == StepResult.MOVED || result == StepResult.ATE) {
+                result = simulation.step(policy.decide(simulation));
+                status = batch.step(0, policy.decide(view));
+                assertEquals(result == StepResult.MOVED || result == StepResult.ATE, status == SnakeBatch.RUNNING,
+                        game + " tick " + simulation.getTicks());
+                if (status == SnakeBatch.RUNNING) {
+                    assertSameState(simulation, view, game);
+                }
+            }
+            assertEquals(result == StepResult.WON, status == SnakeBatch.WON, game);
+            assertEquals(simulation.getScore(), batch.score(0), game);
+            assertEquals(simulation.getTicks(), batch.ticks(0), game);
+        }
+    }
+
+    private static void assertSameState(SnakeView expected, SnakeView actual, String game) {
+        String at = game + " tick " + expected.getTicks();
+        assertEquals(expected.getTicks(), actual.getTicks(), at);
+        assertEquals(expected.getHeadX(), actual.getHeadX(), at);
+        assertEquals(expected.getHeadY(), actual.getHeadY(), at);
+        assertEquals(expected.getDirection(), actual.getDirection(), at);
+        assertEquals(expected.getLength(), actual.getLength(), at);
+        assertEquals(expected.getFoodX(), actual.getFoodX(), at);
+        assertEquals(expected.getFoodY(), actual.getFoodY(), at);
+    }
+}
@@ -0,0 +1,115 @@
+package com.ice.snake;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 20:00
+ */
+class SnakeSimulationTest {
+
+    @Test
+    void bodyBitmapAndFreeListStayConsistent() {
+        Policy policy = Policies.randomSafe();
+        for (long seed = 0; seed < 50; seed++) {
+            SnakeSimulation simulation = new SnakeSimulation(12, 10, seed);
+            assertConsistent(simulation);
+            StepResult result = StepResult.MOVED;
+            while (result == StepResult.MOVED || result == StepResult.ATE) {
+                result = simulation.step(policy.decide(simulation));
+                if (result == StepResult.MOVED || result == StepResult.ATE) {
+                    assertConsistent(simulation);
+                }
+            }
+        }
+    }
+
+    @Test
+    void ringBufferWrapsUntilBoardIsFull() {
+        // 8×8 的棋盘沿哈密顿回路能一直吃到占满，头指针在环形缓冲区里绕很多圈
+        SnakeSimulation simulation = new SnakeSimulation(8, 8, 41);
+        Policy cycle = Policies.cycle();
+        StepResult result = StepResult.MOVED;
+        while (result == StepResult.MOVED || result == StepResult.ATE) {
+            result = simulation.step(cycle.decide(simulation));
+            if (result != StepResult.WON) {
+                assertConsistent(simulation);
+            }
+        }
+        assertEquals(StepResult.WON, result);
+        assertEquals(64, simulation.getLength());
+        assertEquals(0, simulation.getFreeCellCount());
+        assertEquals(64 - SnakeSimulation.INITIAL_LENGTH, simulation.getScore());
+        assertTrue(simulation.getTicks() > 64);
+    }
+
+    @Test
+    void movingIntoLeavingTailDies() {
+        SnakeSimulation simulation = new SnakeSimulation(10, 10, 1);
+        // 从尾到头：(1,1) (2,1) (2,2) (1,2)，头向左，再向上就是尾巴所在格
+        int[] body = { 11, 12, 22, 21 };
+        int[] free = IntStream.range(0, 100).filter(c -> c != 11 && c != 12 && c != 22 && c != 21).toArray();
+        simulation.restore(new SnakeSimulation.Snapshot(1, 1, 0, 1, 99, Direction.LEFT, true, body, free));
+        assertConsistent(simulation);
+
+        assertEquals(StepResult.DIED, simulation.step(Direction.UP));
+        assertFalse(simulation.isAlive());
+        assertEquals(StepResult.OVER, simulation.step(null));
+    }
+
+    @Test
+    void restoredSnapshotReplaysIdentically() {
+        Policy policy = Policies.greedy();
+        SnakeSimulation original = new SnakeSimulation(7);
+        for (int i = 0; i < 100 && original.isAlive(); i++) {
+            original.step(policy.decide(original));
+        }
+        SnakeSimulation.Snapshot snapshot = original.snapshot();
+        SnakeSimulation copy = new SnakeSimulation(0);
+        copy.restore(snapshot);
+        assertConsistent(copy);
+
+        while (original.isAlive()) {
+            assertEquals(original.step(policy.decide(original)), copy.step(policy.decide(copy)));
+            assertEquals(original.getFoodX(), copy.getFoodX());
+            assertEquals(original.getFoodY(), copy.getFoodY());
+            assertEquals(original.getLength(), copy.getLength());
+        }
+        assertEquals(original.getScore(), copy.getScore());
+        assertEquals(original.getTicks(), copy.getTicks());
+    }
+
+    /**
+     * 蛇身相邻、位图恰好是蛇身、空格列表恰好是其余格子、食物在空格上
+     */
+    private static void assertConsistent(SnakeSimulation simulation) {
+        int width = simulation.getWidth();
+        int cells = width * simulation.getHeight();
+        int length = simulation.getLength();
+        String at = "seed " + simulation.getSeed() + " tick " + simulation.getTicks();
+        assertEquals(cells, length + simulation.getFreeCellCount(), at);
+
+        boolean[] body = new boolean[cells];
+        for (int i = 0; i < length; i++) {
+            int cell = simulation.segmentCell(i);
+            assertFalse(body[cell], at + " segment " + i + " overlaps");
+            body[cell] = true;
+            if (i > 0) {
+                int previous = simulation.segmentCell(i - 1);
+                int distance = Math.abs(previous % width - cell % width) + Math.abs(previous / width - cell / width);
+                assertEquals(1, distance, at + " segment " + i + " not adjacent");
+            }
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            assertEquals(body[cell], simulation.isOccupied(cell), at + " cell " + cell);
+        }
+        assertEquals(simulation.getHeadY() * width + simulation.getHeadX(), simulation.segmentCell(0), at);
+        assertFalse(simulation.isOccupied(simulation.getFoodX(), simulation.getFoodY()), at + " food on snake");
+    }
+}
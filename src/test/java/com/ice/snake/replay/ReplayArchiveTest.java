@@ -0,0 +1,152 @@
+package com.ice.snake.replay;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.ice.snake.Direction;
+import com.ice.snake.Policies;
+import com.ice.snake.Policy;
+import com.ice.snake.SnakeSimulation;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 20:15
+ */
+class ReplayArchiveTest {
+    private static final int SEGMENT_BYTES = 256;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsWrapAcrossSegments() throws Exception {
+        Path file = dir.resolve("wrap.replay");
+        Random random = new Random(44);
+        List<Replay> written = new ArrayList<>();
+        try (ReplayArchiveWriter writer = new ReplayArchiveWriter(file, SEGMENT_BYTES)) {
+            for (int i = 0; i < 200; i++) {
+                Replay replay = randomReplay(random, i);
+                assertEquals(i, writer.append(replay));
+                written.add(replay);
+            }
+            assertThrows(IllegalArgumentException.class, () -> writer.append(randomReplay(random, 1000, 400)));
+        }
+        assertTrue(Files.size(file) > 20 * SEGMENT_BYTES);
+
+        try (ReplayArchiveReader reader = new ReplayArchiveReader(file)) {
+            assertEquals(written.size(), reader.size());
+            for (int i = written.size() - 1; i >= 0; i--) {
+                assertArrayEquals(encode(written.get(i)), encode(reader.read(i)), "record " + i);
+            }
+            List<Replay> all = new ArrayList<>();
+            reader.forEach(all::add);
+            assertEquals(written.size(), all.size());
+        }
+    }
+
+    @Test
+    void reopenAppendsAndUnflushedTailIsInvisible() throws Exception {
+        Path file = dir.resolve("reopen.replay");
+        Random random = new Random(7);
+        List<Replay> written = new ArrayList<>();
+        try (ReplayArchiveWriter writer = new ReplayArchiveWriter(file, SEGMENT_BYTES)) {
+            for (int i = 0; i < 30; i++) {
+                written.add(randomReplay(random, i));
+                writer.append(written.get(i));
+            }
+        }
+
+        try (ReplayArchiveWriter writer = new ReplayArchiveWriter(file)) {
+            for (int i = 30; i < 60; i++) {
+                written.add(randomReplay(random, i));
+                assertEquals(i, writer.append(written.get(i)));
+            }
+            writer.flush();
+            writer.append(randomReplay(random, 60));
+            try (ReplayArchiveReader reader = new ReplayArchiveReader(file)) {
+                assertEquals(60, reader.size());
+            }
+        }
+
+        try (ReplayArchiveReader reader = new ReplayArchiveReader(file)) {
+            assertEquals(61, reader.size());
+            for (int i = 0; i < written.size(); i++) {
+                assertArrayEquals(encode(written.get(i)), encode(reader.read(i)), "record " + i);
+            }
+        }
+    }
+
+    @Test
+    void seekMatchesSequentialPlay() {
+        Policy policy = Policies.greedy();
+        SnakeSimulation original = new SnakeSimulation(3);
+        Replay.Builder builder = Replay.builder(3, original.getWidth(), original.getHeight());
+        List<int[]> expected = new ArrayList<>();
+        expected.add(state(original));
+        while (original.isAlive()) {
+            Direction input = policy.decide(original);
+            builder.add(input);
+            original.step(input);
+            expected.add(state(original));
+        }
+        Replay replay = builder.build();
+        assertEquals(original.getTicks(), replay.getTicks());
+
+        ReplayPlayer player = new ReplayPlayer(replay, 16);
+        Random random = new Random(44);
+        // 前进、后退、跳过尚未播放到的快照位置交替出现
+        long[] targets = new long[200];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = random.nextInt((int) replay.getTicks() + 10) - 5;
+        }
+        targets[0] = replay.getTicks() / 2;
+        targets[1] = 0;
+        for (long target : targets) {
+            int tick = (int) Math.min(Math.max(target, 0), replay.getTicks());
+            assertArrayEquals(expected.get(tick), state(player.seek(target)), "seek " + target);
+        }
+        player.seek(replay.getTicks());
+        assertEquals(replay.getTicks() / 16 + 1, player.getSnapshotCount());
+    }
+
+    private static int[] state(SnakeSimulation simulation) {
+        return new int[] { (int) simulation.getTicks(), simulation.getHeadX(), simulation.getHeadY(),
+                simulation.getLength(), simulation.getScore(), simulation.getFoodX(), simulation.getFoodY(),
+                simulation.getDirection().ordinal() };
+    }
+
+    private static Replay randomReplay(Random random, long seed) {
+        return randomReplay(random, seed, 1 + random.nextInt(150));
+    }
+
+    /**
+     * 输入随机，runs 基本一个 tick 一字节，记录长度随 ticks 变化
+     */
+    private static Replay randomReplay(Random random, long seed, int ticks) {
+        Replay.Builder builder = Replay.builder(seed, 40, 30);
+        Direction[] directions = Direction.values();
+        for (int i = 0; i < ticks; i++) {
+            int pick = random.nextInt(directions.length + 1);
+            builder.add(pick == directions.length ? null : directions[pick]);
+        }
+        return builder.build();
+    }
+
+    private static byte[] encode(Replay replay) {
+        ByteBuffer buffer = ByteBuffer.allocate(replay.encodedSize());
+        replay.writeTo(buffer);
+        return buffer.array();
+    }
+}
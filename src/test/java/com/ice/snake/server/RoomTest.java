@@ -0,0 +1,320 @@
+package com.ice.snake.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.ice.config.SnakeServerProperties;
+
+/**
+ * 用不带 socket 的连接驱动房间，客户端一侧解码发送队列里的帧：增量逐帧应用到本地模型，与下一份全量比对
+ *
+ * @author : eclair
+ * @date : 2026/10/20 22:10
+ */
+class RoomTest {
+
+    @Test
+    void deltasReproduceFullState() {
+        SnakeServerProperties properties = properties();
+        properties.setRespawnTicks(3);
+        SnakeServer server = new SnakeServer(properties, null);
+        Room room = new Room(1, properties, 45);
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            clients.add(join(room));
+        }
+
+        Random random = new Random(45);
+        int deaths = 0;
+        for (int t = 0; t < 500; t++) {
+            for (Client client : clients) {
+                if (random.nextInt(3) == 0) {
+                    client.connection.offerInput(random.nextInt(4));
+                }
+            }
+            room.tick(server);
+            for (Client client : clients) {
+                client.drain();
+                assertEquals(snapshot(room), client.model.describe(), "tick " + room.getTick());
+            }
+            deaths += clients.get(0).model.diedLastTick;
+        }
+        // 随机输入下撞墙、撞蛇都会发生，保证死亡和复活路径都走到了
+        assertTrue(deaths > 0);
+        for (Client client : clients) {
+            assertEquals(1, client.model.fulls);
+            assertEquals(500 - 1, client.model.deltas);
+        }
+    }
+
+    @Test
+    void slowClientIsResyncedWithFull() {
+        SnakeServerProperties properties = properties();
+        properties.setOutboundLimitBytes(200);
+        SnakeServer server = new SnakeServer(properties, null);
+        Room room = new Room(1, properties, 7);
+        Client fast = join(room);
+        Client slow = join(room);
+        room.tick(server);
+        fast.drain();
+        slow.drain();
+
+        // 慢客户端不读，积压超过上限后丢掉增量，补发一帧全量
+        while (server.stats.resyncs.sum() == 0) {
+            room.tick(server);
+            fast.drain();
+        }
+        int fullsBefore = slow.model.fulls;
+        slow.drain();
+        assertEquals(fullsBefore + 1, slow.model.fulls);
+        assertEquals(snapshot(room), slow.model.describe());
+        assertEquals(snapshot(room), fast.model.describe());
+
+        for (int t = 0; t < 5; t++) {
+            room.tick(server);
+            fast.drain();
+            slow.drain();
+            assertEquals(snapshot(room), slow.model.describe());
+        }
+        assertEquals(1, fast.model.fulls);
+    }
+
+    @Test
+    void joinLeaveAndRespawnInSameTick() {
+        SnakeServerProperties properties = properties();
+        properties.setRespawnTicks(1);
+        SnakeServer server = new SnakeServer(properties, null);
+        Room room = new Room(1, properties, 3);
+        Client a = join(room);
+        Client b = join(room);
+        Client observer = join(room);
+
+        // 没有输入时蛇一直向右，撞墙后下一个 tick 复活
+        int tick = 0;
+        do {
+            room.tick(server);
+            a.drain();
+            b.drain();
+            observer.drain();
+            assertTrue(++tick < properties.getWidth(), "a never died");
+        } while (observer.model.snakes.get(a.playerId).alive);
+
+        int leftSlot = b.playerId;
+        room.postLeave(b.connection);
+        Client c = join(room);
+        room.tick(server);
+        a.drain();
+        observer.drain();
+        c.drain();
+
+        Snake respawned = observer.model.snakes.get(a.playerId);
+        assertNotNull(respawned);
+        assertTrue(respawned.alive);
+        // 离开空出的位置被同一 tick 加入的玩家复用，观察者先收到离开再收到出生
+        assertEquals(leftSlot, c.playerId);
+        assertTrue(observer.model.snakes.get(leftSlot).alive);
+        assertEquals(0, observer.model.snakes.get(leftSlot).score);
+        assertEquals(snapshot(room), observer.model.describe());
+        assertEquals(snapshot(room), a.model.describe());
+        assertEquals(snapshot(room), c.model.describe());
+        assertEquals(1, c.model.fulls);
+    }
+
+    @Test
+    void boardWhoseFullFrameOverflowsIsRejected() {
+        SnakeServerProperties properties = properties();
+        // 棋盘格子数放得进 u16，但铺满蛇身的全量帧放不进长度前缀
+        properties.setWidth(250);
+        properties.setHeight(200);
+        assertTrue(250 * 200 <= 0xFFFF);
+        assertTrue(Room.maxFrameLength(properties) > Protocol.MAX_FRAME);
+        assertThrows(IllegalArgumentException.class, () -> new SnakeServer(properties, null));
+
+        properties.setWidth(120);
+        properties.setHeight(100);
+        assertFalse(Room.maxFrameLength(properties) > Protocol.MAX_FRAME);
+        new SnakeServer(properties, null);
+    }
+
+    private static SnakeServerProperties properties() {
+        SnakeServerProperties properties = new SnakeServerProperties();
+        properties.setWidth(20);
+        properties.setHeight(15);
+        properties.setMaxPlayersPerRoom(4);
+        properties.setFoodsPerRoom(3);
+        properties.setTickThreads(1);
+        return properties;
+    }
+
+    private static Client join(Room room) {
+        Client client = new Client();
+        client.connection.room = room;
+        room.postJoin(client.connection);
+        return client;
+    }
+
+    private static String snapshot(Room room) {
+        Model model = new Model();
+        model.apply(room.full());
+        return model.describe();
+    }
+
+    private static final class Client {
+        final Connection connection = new Connection(null, null);
+
+        final Model model = new Model();
+
+        int playerId = -1;
+
+        void drain() {
+            ByteBuffer frame;
+            while ((frame = connection.pollOutbound()) != null) {
+                if (frame.get(2) == Protocol.WELCOME) {
+                    playerId = frame.get(7);
+                } else {
+                    model.apply(frame);
+                }
+            }
+        }
+    }
+
+    private static final class Snake {
+        boolean alive;
+
+        int score;
+
+        /**
+         * 头在前
+         */
+        final Deque<Integer> body = new ArrayDeque<>();
+    }
+
+    /**
+     * 客户端看到的房间状态
+     */
+    private static final class Model {
+        final Map<Integer, Snake> snakes = new TreeMap<>();
+
+        final List<Integer> foods = new ArrayList<>();
+
+        long tick = -1;
+
+        int fulls;
+
+        int deltas;
+
+        int diedLastTick;
+
+        void apply(ByteBuffer frame) {
+            assertEquals(frame.remaining() - 2, frame.getShort() & 0xFFFF);
+            byte type = frame.get();
+            if (type == Protocol.FULL) {
+                applyFull(frame);
+            } else {
+                assertEquals(Protocol.DELTA, type);
+                applyDelta(frame);
+            }
+            assertFalse(frame.hasRemaining());
+        }
+
+        private void applyFull(ByteBuffer frame) {
+            fulls++;
+            tick = frame.getLong();
+            snakes.clear();
+            foods.clear();
+            int players = frame.get() & 0xFF;
+            for (int i = 0; i < players; i++) {
+                Snake snake = new Snake();
+                int id = frame.get() & 0xFF;
+                snake.alive = frame.get() == 1;
+                snake.score = frame.getShort() & 0xFFFF;
+                int length = frame.getShort() & 0xFFFF;
+                for (int k = 0; k < length; k++) {
+                    snake.body.addLast(frame.getShort() & 0xFFFF);
+                }
+                snakes.put(id, snake);
+            }
+            int count = frame.get() & 0xFF;
+            for (int i = 0; i < count; i++) {
+                foods.add(frame.getShort() & 0xFFFF);
+            }
+        }
+
+        private void applyDelta(ByteBuffer frame) {
+            deltas++;
+            long next = frame.getLong();
+            assertEquals(tick + 1, next, "delta gap");
+            tick = next;
+            diedLastTick = 0;
+            int events = frame.getShort() & 0xFFFF;
+            for (int i = 0; i < events; i++) {
+                byte kind = frame.get();
+                int id = frame.get() & 0xFF;
+                switch (kind) {
+                case Protocol.EVENT_MOVE:
+                    move(id, frame.getShort() & 0xFFFF).body.removeLast();
+                    break;
+                case Protocol.EVENT_GROW:
+                    int head = frame.getShort() & 0xFFFF;
+                    move(id, head).score++;
+                    assertTrue(foods.remove((Integer) head), "ate missing food " + head);
+                    break;
+                case Protocol.EVENT_DIE:
+                    Snake dead = snakes.get(id);
+                    dead.alive = false;
+                    dead.body.clear();
+                    diedLastTick++;
+                    break;
+                case Protocol.EVENT_SPAWN:
+                    Snake snake = snakes.computeIfAbsent(id, k -> new Snake());
+                    snake.alive = true;
+                    snake.body.clear();
+                    int length = frame.getShort() & 0xFFFF;
+                    for (int k = 0; k < length; k++) {
+                        snake.body.addLast(frame.getShort() & 0xFFFF);
+                    }
+                    break;
+                case Protocol.EVENT_FOOD:
+                    foods.add(frame.getShort() & 0xFFFF);
+                    break;
+                case Protocol.EVENT_LEAVE:
+                    assertNotNull(snakes.remove(id));
+                    break;
+                default:
+                    throw new AssertionError("unknown event " + kind);
+                }
+            }
+        }
+
+        private Snake move(int id, int head) {
+            Snake snake = snakes.get(id);
+            assertTrue(snake.alive);
+            snake.body.addFirst(head);
+            return snake;
+        }
+
+        String describe() {
+            StringBuilder builder = new StringBuilder().append("tick=").append(tick);
+            snakes.forEach((id, snake) -> builder.append(" [").append(id).append(snake.alive ? " alive " : " dead ")
+                    .append(snake.score).append(' ').append(snake.body).append(']'));
+            List<Integer> sorted = new ArrayList<>(foods);
+            Collections.sort(sorted);
+            return builder.append(" foods=").append(sorted).toString();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.ice.support;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import com.xiliulou.cache.redis.RedisService;
+
+import redis.embedded.RedisServer;
+
+/**
+ * 测试用的本地 redis-server，连同一个 String 序列化的 RedisTemplate 和包着它的 RedisService
+ *
+ * @author : eclair
+ * @date : 2026/10/19 14:40
+ */
+public class EmbeddedRedis implements AutoCloseable {
+    private final RedisServer server;
+
+    private final LettuceConnectionFactory connectionFactory;
+
+    private final RedisTemplate<String, String> template;
+
+    private final RedisService redisService;
+
+    private EmbeddedRedis(int port) throws IOException {
+        server = new RedisServer(port);
+        server.start();
+        // 命令超时调短，stopServer 之后调用方很快拿到异常
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port),
+                LettuceClientConfiguration.builder().commandTimeout(Duration.ofMillis(500)).build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(StringRedisSerializer.UTF_8);
+        template.setHashKeySerializer(StringRedisSerializer.UTF_8);
+        template.setHashValueSerializer(StringRedisSerializer.UTF_8);
+        template.afterPropertiesSet();
+        redisService = mock(RedisService.class);
+        when(redisService.getRedisTemplate()).thenReturn(template);
+    }
+
+    public static EmbeddedRedis start() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        return new EmbeddedRedis(port);
+    }
+
+    public RedisTemplate<String, String> template() {
+        return template;
+    }
+
+    public LettuceConnectionFactory connectionFactory() {
+        return connectionFactory;
+    }
+
+    public RedisService redisService() {
+        return redisService;
+    }
+
+    public void flushAll() {
+        template.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    /**
+     * 模拟 Redis 宕机
+     */
+    public void stopServer() throws IOException {
+        server.stop();
+    }
+
+    @Override
+    public void close() throws IOException {
+        connectionFactory.destroy();
+        if (server.isActive()) {
+            server.stop();
+        }
+    }
+}
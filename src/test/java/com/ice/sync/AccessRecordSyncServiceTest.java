@@ -0,0 +1,142 @@
+package com.ice.sync;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ice.config.ClickHouseSyncProperties;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/19 10:05
+ */
+class AccessRecordSyncServiceTest {
+    private static final String TARGET = "third_access_record";
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ExecutorService executor;
+
+    private MapWatermarkStore watermarkStore;
+
+    private ClickHouseSyncProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sync;DB_CLOSE_DELAY=-1;MODE=MySQL");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("drop table if exists t_third_access_record");
+        jdbcTemplate.execute("create table t_third_access_record (id bigint primary key, uri varchar(64), "
+                + "remark varchar(64))");
+        for (int i = 1; i <= 25; i++) {
+            // 第一行 remark 为 null，按首行推断列集会丢掉这一列
+            jdbcTemplate.update("insert into t_third_access_record values (?, ?, ?)", i, "/api/" + i,
+                    i == 1 ? null : "r" + i);
+        }
+
+        executor = Executors.newFixedThreadPool(2);
+        watermarkStore = new MapWatermarkStore();
+        properties = new ClickHouseSyncProperties();
+        properties.setChunkSize(10);
+        properties.setParallelism(2);
+        properties.setMaxChunksPerRun(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void keepsColumnsWhoseFirstValueIsNull() throws Exception {
+        InMemoryColumnarSink sink = new InMemoryColumnarSink();
+        service(sink).syncOnce();
+
+        ColumnarBatch first = sink.batches(TARGET).get(0);
+        assertArrayEquals(new String[] { "ID", "URI", "REMARK" }, first.getColumns());
+        assertNull(first.value(2, 0));
+        assertEquals("r2", first.value(2, 1));
+    }
+
+    @Test
+    void resumesFromWatermark() throws Exception {
+        InMemoryColumnarSink sink = new InMemoryColumnarSink();
+        AccessRecordSyncService service = service(sink);
+
+        assertEquals(20, service.syncOnce());
+        assertEquals(20, watermarkStore.load(properties.getSourceTable()));
+
+        assertEquals(5, service.syncOnce());
+        assertEquals(25, watermarkStore.load(properties.getSourceTable()));
+        assertEquals(0, service.syncOnce());
+        assertEquals(25, ids(sink).size());
+        assertEquals(25, sink.rowCount(TARGET));
+    }
+
+    @Test
+    void failedBatchDoesNotAdvanceWatermark() throws Exception {
+        InMemoryColumnarSink sink = new InMemoryColumnarSink();
+        AtomicInteger calls = new AtomicInteger();
+        ColumnarSink failSecond = (table, batch) -> {
+            if (calls.incrementAndGet() == 2) {
+                throw new IllegalStateException("clickhouse down");
+            }
+            sink.insert(table, batch);
+        };
+
+        assertThrows(IllegalStateException.class, () -> service(failSecond).syncOnce());
+        assertEquals(10, watermarkStore.load(properties.getSourceTable()));
+
+        AccessRecordSyncService service = service(sink);
+        service.syncOnce();
+        service.syncOnce();
+        assertEquals(25, watermarkStore.load(properties.getSourceTable()));
+        assertEquals(25, ids(sink).size());
+    }
+
+    private AccessRecordSyncService service(ColumnarSink sink) {
+        JdbcKeysetSource source = new JdbcKeysetSource(jdbcTemplate, properties.getSourceTable(),
+                properties.getIdColumn());
+        return new AccessRecordSyncService(source, sink, watermarkStore, executor, properties);
+    }
+
+    private static Set<Long> ids(InMemoryColumnarSink sink) {
+        Set<Long> ids = new HashSet<>();
+        for (ColumnarBatch batch : sink.batches(TARGET)) {
+            for (int r = 0; r < batch.getRowCount(); r++) {
+                ids.add(((Number) batch.value(0, r)).longValue());
+            }
+        }
+        return ids;
+    }
+
+    private static class MapWatermarkStore implements WatermarkStore {
+        private final Map<String, Long> watermarks = new ConcurrentHashMap<>();
+
+        @Override
+        public long load(String name) {
+            return watermarks.getOrDefault(name, 0L);
+        }
+
+        @Override
+        public void save(String name, long watermark) {
+            watermarks.put(name, watermark);
+        }
+    }
+}
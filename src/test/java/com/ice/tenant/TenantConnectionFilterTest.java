@@ -0,0 +1,74 @@
+package com.ice.tenant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.pool.DruidPooledConnection;
+import com.ice.config.TenantIsolationProperties;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 19:05
+ */
+class TenantConnectionFilterTest {
+    private DruidDataSource dataSource;
+
+    private TenantConnectionFilter filter;
+
+    private TenantBudgets tenantBudgets;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TenantIsolationProperties properties = new TenantIsolationProperties();
+        properties.setDefaultConnections(2);
+        tenantBudgets = new TenantBudgets();
+        tenantBudgets.properties = properties;
+        filter = new TenantConnectionFilter();
+        filter.tenantBudgets = tenantBudgets;
+        filter.properties = properties;
+
+        dataSource = new DruidDataSource();
+        dataSource.setUrl("jdbc:h2:mem:tenant;DB_CLOSE_DELAY=-1");
+        dataSource.setMaxActive(4);
+        dataSource.setInitialSize(4);
+        dataSource.setMaxWait(200);
+        dataSource.init();
+        filter.init(dataSource);
+        dataSource.getProxyFilters().add(filter);
+        TenantContext.set(new TenantContext(7, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        dataSource.close();
+    }
+
+    @Test
+    void discardedConnectionReturnsTenantQuota() throws Exception {
+        DruidPooledConnection discarded = dataSource.getConnection();
+        DruidPooledConnection live = dataSource.getConnection();
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        // 同 Druid 处理致命错误：先 disable 再丢弃，之后业务代码 close 不再经过过滤器
+        discarded.disable(new SQLException("fatal"));
+        dataSource.discardConnection(discarded.getConnectionHolder());
+        discarded.close();
+        assertEquals(2, filter.getLeasedCount());
+        assertEquals(1, filter.purgeDiscarded());
+        assertEquals(1, filter.getLeasedCount());
+
+        DruidPooledConnection next = dataSource.getConnection();
+        next.close();
+        live.close();
+        assertEquals(0, filter.getLeasedCount());
+        assertEquals(0, tenantBudgets.of(7).snapshot().get("connectionsHeld"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.ice.tenant;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 19:45
+ */
+class TenantExpirySnapshotTest {
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    void insertAndRemoveShiftStatusBits() {
+        // 冻结、删除的租户在中间，插入和删除前面的元素后位图要跟着移动
+        TenantExpirySnapshot snapshot = TenantExpirySnapshot.build(new int[] { 1, 2, 3, 4 },
+                new boolean[] { false, true, false, false }, new boolean[] { false, false, true, false },
+                new long[] { NOW + 10, NOW + 20, NOW + 30, NOW + 40 });
+        assertArrayEquals(new int[] { 1, 4 }, snapshot.allActive(NOW));
+
+        snapshot = snapshot.with(5, false, false, NOW + 5);
+        assertArrayEquals(new int[] { 5, 1, 4 }, snapshot.allActive(NOW));
+        assertEquals(1, snapshot.frozenCount());
+        assertEquals(1, snapshot.deletedCount());
+
+        snapshot = snapshot.without(1).without(5);
+        assertArrayEquals(new int[] { 4 }, snapshot.allActive(NOW));
+
+        // 替换：原来冻结的租户恢复并延期
+        snapshot = snapshot.with(2, false, false, 0L);
+        assertArrayEquals(new int[] { 4, 2 }, snapshot.allActive(NOW));
+        assertEquals(0, snapshot.frozenCount());
+        assertEquals(3, snapshot.size());
+    }
+
+    @Test
+    void expiredPendingRespectsLimitAndSkipsInactive() {
+        TenantExpirySnapshot snapshot = TenantExpirySnapshot.build(new int[] { 1, 2, 3, 4, 5 },
+                new boolean[] { false, true, false, false, false }, new boolean[5],
+                new long[] { NOW - 50, NOW - 40, NOW - 30, NOW - 20, NOW + 10 });
+        assertArrayEquals(new int[] { 1, 3, 4 }, snapshot.expiredPending(NOW, 10));
+        assertArrayEquals(new int[] { 1, 3 }, snapshot.expiredPending(NOW, 2));
+
+        snapshot = snapshot.withFrozen(new int[] { 1, 3, 99 });
+        assertArrayEquals(new int[] { 4 }, snapshot.expiredPending(NOW, 10));
+        assertArrayEquals(new int[] { 5 }, snapshot.expiringWithin(NOW, 100));
+    }
+
+    @Test
+    void randomUpdatesMatchModel() {
+        Random random = new Random(39);
+        Map<Integer, long[]> model = new HashMap<>();
+        TenantExpirySnapshot snapshot = TenantExpirySnapshot.EMPTY;
+        for (int step = 0; step < 5000; step++) {
+            int id = random.nextInt(200);
+            int op = random.nextInt(10);
+            if (op < 6) {
+                boolean frozen = random.nextInt(5) == 0;
+                boolean deleted = random.nextInt(8) == 0;
+                // 过期时间集中在少数几个值上，覆盖相同 expireTime 的插入位置
+                long expire = random.nextInt(6) == 0 ? 0L : NOW + (random.nextInt(40) - 20) * 100L;
+                snapshot = snapshot.with(id, frozen, deleted, expire);
+                model.put(id, new long[] { frozen ? 1 : 0, deleted ? 1 : 0, expire });
+            } else if (op < 9) {
+                snapshot = snapshot.without(id);
+                model.remove(id);
+            } else {
+                snapshot = snapshot.withFrozen(new int[] { id });
+                if (model.containsKey(id)) {
+                    model.get(id)[0] = 1;
+                }
+            }
+            if (step % 50 == 0) {
+                assertMatches(model, snapshot, step);
+            }
+        }
+        assertMatches(model, snapshot, 5000);
+    }
+
+    private static void assertMatches(Map<Integer, long[]> model, TenantExpirySnapshot snapshot, int step) {
+        String at = "step " + step;
+        assertEquals(model.size(), snapshot.size(), at);
+        assertEquals(model.values().stream().filter(v -> v[0] == 1).count(), snapshot.frozenCount(), at);
+        assertEquals(model.values().stream().filter(v -> v[1] == 1).count(), snapshot.deletedCount(), at);
+
+        assertArrayEquals(expected(model, NOW, NOW + 1000), sorted(snapshot.expiringWithin(NOW, 1000)), at);
+        assertArrayEquals(expected(model, NOW, Long.MAX_VALUE), sorted(snapshot.allActive(NOW)), at);
+        assertArrayEquals(expected(model, Long.MIN_VALUE, NOW), sorted(snapshot.expiredPending(NOW, 1000)), at);
+    }
+
+    /**
+     * 未冻结、未删除且 expireTime 落在 [from, to) 的租户，没有过期时间的视为永不过期
+     */
+    private static int[] expected(Map<Integer, long[]> model, long from, long to) {
+        return model.entrySet().stream().filter(e -> e.getValue()[0] == 0 && e.getValue()[1] == 0).filter(e -> {
+            long expire = e.getValue()[2] <= 0 ? TenantExpirySnapshot.NEVER : e.getValue()[2];
+            return expire >= from && (expire < to || to == Long.MAX_VALUE);
+        }).mapToInt(Map.Entry::getKey).sorted().toArray();
+    }
+
+    private static int[] sorted(int[] ids) {
+        int[] copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ice.tenant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ice.config.TenantIsolationProperties;
+import com.ice.dao.TenantJdbcDao;
+import com.ice.entity.Tenant;
+import com.ice.ratelimit.RateLimitInterceptor;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 18:50
+ */
+class TenantIsolationInterceptorTest {
+    private TenantJdbcDao tenantJdbcDao;
+
+    private TenantBudgets tenantBudgets;
+
+    private TenantStatusCache tenantStatusCache;
+
+    private TenantIsolationInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        TenantIsolationProperties properties = new TenantIsolationProperties();
+        properties.setDefaultConcurrency(1);
+        tenantJdbcDao = mock(TenantJdbcDao.class);
+        when(tenantJdbcDao.selectStatusById(1)).thenReturn(Tenant.builder().id(1).status(Tenant.STA_NO_OUT)
+                .delFlag(Tenant.DEL_NORMAL).expireTime(0L).build());
+        when(tenantJdbcDao.selectStatusById(2)).thenReturn(Tenant.builder().id(2).status(Tenant.STA_OUT)
+                .delFlag(Tenant.DEL_NORMAL).expireTime(0L).build());
+
+        tenantStatusCache = new TenantStatusCache();
+        tenantStatusCache.tenantJdbcDao = tenantJdbcDao;
+        tenantStatusCache.properties = properties;
+        tenantStatusCache.init();
+        tenantBudgets = new TenantBudgets();
+        tenantBudgets.properties = properties;
+
+        interceptor = new TenantIsolationInterceptor();
+        interceptor.properties = properties;
+        interceptor.tenantStatusCache = tenantStatusCache;
+        interceptor.tenantBudgets = tenantBudgets;
+        interceptor.objectMapper = new ObjectMapper();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void unknownAndFrozenTenantsLeaveNoBudgetEntries() throws Exception {
+        for (int id = 100; id < 200; id++) {
+            assertEquals(403, preHandle(id).getStatus());
+        }
+        assertEquals(403, preHandle(2).getStatus());
+        assertTrue(tenantBudgets.snapshot().isEmpty());
+
+        assertEquals(200, preHandle(1).getStatus());
+        assertEquals(1, tenantBudgets.snapshot().size());
+        assertEquals(1, TenantContext.current().getTenantId());
+    }
+
+    @Test
+    void statusLoadFailureRejectsWithServiceUnavailable() throws Exception {
+        when(tenantJdbcDao.selectStatusById(3)).thenThrow(new DataAccessResourceFailureException("db down"));
+
+        MockHttpServletResponse response = preHandle(3);
+        assertEquals(503, response.getStatus());
+        assertTrue(response.getContentAsString().contains("503"));
+        assertEquals(1, tenantStatusCache.getLoadFailures());
+        assertTrue(tenantBudgets.snapshot().isEmpty());
+
+        // 数据库恢复后下一次请求重新加载
+        doReturn(Tenant.builder().id(3).status(Tenant.STA_NO_OUT).delFlag(Tenant.DEL_NORMAL).expireTime(0L).build())
+                .when(tenantJdbcDao).selectStatusById(3);
+        assertEquals(200, preHandle(3).getStatus());
+    }
+
+    @Test
+    void concurrencyQuotaReleasedOnCompletion() throws Exception {
+        MockHttpServletRequest first = request(1);
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), null));
+        assertEquals(429, preHandle(1).getStatus());
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        assertEquals(200, preHandle(1).getStatus());
+    }
+
+    private MockHttpServletResponse preHandle(int tenantId) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean proceed = interceptor.preHandle(request(tenantId), response, null);
+        assertEquals(proceed, response.getStatus() == 200);
+        assertFalse(proceed && response.getContentAsString().length() > 0);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(int tenantId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test");
+        request.addHeader(RateLimitInterceptor.TENANT_HEADER, String.valueOf(tenantId));
+        return request;
+    }
+}
@@ -0,0 +1,144 @@
+package com.ice.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.junit.jupiter.api.Test;
+
+import com.ice.config.ConcurrencyLimitProperties;
+
+/**
+ * @author : eclair
+ * @date : 2026/10/20 17:10
+ */
+class GradientLimiterTest {
+    private static final long MS = 1_000_000;
+
+    /**
+     * 离散事件模拟：8 个工作线程、每个请求 10ms，按 4 倍容量持续到达，被放行的请求在工作线程前 FIFO 排队
+     */
+    @Test
+    void overloadKeepsLatencyNearUnloadedRtt() {
+        Result limited = simulate(true);
+        Result unlimited = simulate(false);
+
+        // 后半段已收敛：延迟停在基线的几倍以内，吞吐接近容量
+        assertTrue(limited.p99Millis < 10 * 4, "limited p99 " + limited.p99Millis);
+        assertTrue(limited.throughput > 0.8 * 800, "limited throughput " + limited.throughput);
+        assertTrue(limited.limit >= 8 && limited.limit <= 40, "limit " + limited.limit);
+        // 不限制时队列线性增长
+        assertTrue(unlimited.p99Millis > 10 * 20, "unlimited p99 " + unlimited.p99Millis);
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAndIgnoresIdleSamples() {
+        long[] now = { 0 };
+        GradientLimiter limiter = new GradientLimiter("t", properties(), () -> now[0]);
+        // 并发远低于限制，延迟不变时限制不扩张
+        for (int i = 0; i < 200; i++) {
+            assertTrue(limiter.tryAcquire());
+            now[0] += 10 * MS;
+            limiter.release(10 * MS);
+        }
+        assertEquals(20, limiter.getLimit());
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue(limiter.tryAcquire());
+            now[0] += 10 * MS;
+            limiter.release(60 * MS);
+        }
+        assertTrue(limiter.getLimit() < 20, "limit " + limiter.getLimit());
+        assertEquals(10.0, limiter.getBaseRttMillis());
+    }
+
+    @Test
+    void rejectsOverLimitAndSharesLimiterPerClass() {
+        ConcurrencyLimitProperties properties = properties();
+        properties.setInitialLimit(1);
+        AdaptiveConcurrencyFilter filter = new AdaptiveConcurrencyFilter(properties, new byte[0]);
+
+        GradientLimiter sql = filter.match("/test/sql/1");
+        assertSame(sql, filter.match("/async/test/sql/2"));
+        assertSame(filter.match("/test"), filter.limiters().get(0));
+        assertNull(filter.match("/test/time/100"));
+        assertNull(filter.match("/async/test/time/100"));
+
+        assertTrue(sql.tryAcquire());
+        assertFalse(filter.match("/async/test/sql/2").tryAcquire());
+        sql.release(MS);
+        assertEquals(1, sql.getRejected());
+        assertEquals(0, sql.getInflight());
+    }
+
+    private static ConcurrencyLimitProperties properties() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(20);
+        properties.setMaxLimit(1000);
+        return properties;
+    }
+
+    private static Result simulate(boolean limited) {
+        int workers = 8;
+        long service = 10 * MS;
+        long interArrival = service / workers / 4;
+        long duration = 20_000 * MS;
+
+        long[] now = { 0 };
+        GradientLimiter limiter = new GradientLimiter("sim", properties(), () -> now[0]);
+        // 每个工作线程下次空闲的时刻
+        PriorityQueue<Long> free = new PriorityQueue<>();
+        for (int i = 0; i < workers; i++) {
+            free.add(0L);
+        }
+        // 完成事件：{完成时刻, 到达时刻}
+        PriorityQueue<long[]> completions = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        List<Long> latencies = new ArrayList<>();
+        long completed = 0;
+
+        for (long arrival = 0; arrival < duration; arrival += interArrival) {
+            while (!completions.isEmpty() && completions.peek()[0] <= arrival) {
+                long[] done = completions.poll();
+                now[0] = done[0];
+                long rtt = done[0] - done[1];
+                if (limited) {
+                    limiter.release(rtt);
+                }
+                if (done[1] >= duration / 2) {
+                    latencies.add(rtt);
+                    completed++;
+                }
+            }
+            now[0] = arrival;
+            if (limited && !limiter.tryAcquire()) {
+                continue;
+            }
+            long start = Math.max(arrival, free.poll());
+            free.add(start + service);
+            completions.add(new long[] { start + service, arrival });
+        }
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        Result result = new Result();
+        result.p99Millis = sorted.length == 0 ? Double.MAX_VALUE : sorted[(int) (sorted.length * 0.99)] / 1e6;
+        result.throughput = completed / (duration / 2 / 1e9);
+        result.limit = limiter.getLimit();
+        return result;
+    }
+
+    private static class Result {
+        double p99Millis;
+
+        double throughput;
+
+        int limit;
+    }
+}